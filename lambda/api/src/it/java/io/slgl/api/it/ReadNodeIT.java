@@ -1,6 +1,5 @@
 package io.slgl.api.it;
 
-import com.sun.jna.Platform;
 import io.slgl.api.it.user.User;
 import io.slgl.api.utils.ErrorCode;
 import io.slgl.client.error.ErrorResponse;
@@ -47,10 +46,8 @@ public class ReadNodeIT extends AbstractApiTest {
         assertThat(response.getFileSha3()).isNull();
         assertThat(response).usingRecursiveComparison().isNotEqualTo(entry);
 
-        if (!Platform.isWindows()) {
-            var expectedStateSha = getSha3OnJqSCompliantJson(MAPPER.writeValueAsString(response.getState()));
-            assertThat(response.getStateSha3()).isEqualTo(expectedStateSha);
-        }
+        var expectedStateSha = getSha3OnJqSCompliantJson(MAPPER.writeValueAsString(response.getState()));
+        assertThat(response.getStateSha3()).isEqualTo(expectedStateSha);
     }
 
     @Test
@@ -69,10 +66,8 @@ public class ReadNodeIT extends AbstractApiTest {
         assertThat(response.getFileSha3()).isNull();
         assertThat(response).usingRecursiveComparison().isNotEqualTo(entry);
 
-        if (!Platform.isWindows()) {
-            var expectedStateSha = getSha3OnJqSCompliantJson(MAPPER.writeValueAsString(response.getState()));
-            assertThat(response.getStateSha3()).isEqualTo(expectedStateSha);
-        }
+        var expectedStateSha = getSha3OnJqSCompliantJson(MAPPER.writeValueAsString(response.getState()));
+        assertThat(response.getStateSha3()).isEqualTo(expectedStateSha);
     }
 
     @Test
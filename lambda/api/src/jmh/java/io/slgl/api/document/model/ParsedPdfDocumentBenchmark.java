@@ -0,0 +1,71 @@
+package io.slgl.api.document.model;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.LocationTextExtractionStrategy;
+import org.apache.commons.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading of text, Info dictionary and signatures of the biggest test PDFs and of a small unsigned one.
+ * Compares {@link ParsedPdfDocument} to the previous approach, where text and metadata were read from iText document
+ * opened over a copy of the bytes and every document was parsed again by PDFBox to look for signatures to validate.
+ * <p>
+ * Run with {@code ./gradlew :lambda:api:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ParsedPdfDocumentBenchmark {
+
+    @Param({
+            "/io/slgl/api/testdocuments/example-document.pdf",
+            "/io/slgl/api/pdfshadowattack/replace/variant-2_replace-via-overwrite/3_original-document-shadowed-signed.pdf",
+            "/io/slgl/api/pdfshadowattack/replace/variant-2_replace-via-overwrite/4_original-document-shadowed-signed-manipulated.pdf",
+    })
+    public String document;
+
+    private byte[] bytes;
+
+    @Setup
+    public void setup() throws IOException {
+        bytes = IOUtils.resourceToByteArray(document);
+    }
+
+    @Benchmark
+    public void readParsedOnce(Blackhole blackhole) {
+        var parsed = ParsedPdfDocument.parse(bytes);
+        blackhole.consume(parsed.getInfoDictionary());
+        blackhole.consume(parsed.getJsonMetadata());
+        blackhole.consume(parsed.getText());
+        blackhole.consume(parsed.hasSignatures());
+    }
+
+    @Benchmark
+    public void readParsedForEveryUse(Blackhole blackhole) throws IOException {
+        var document = new PdfDocument(new PdfReader(new ByteArrayInputStream(bytes)));
+        blackhole.consume(document.getTrailer().get(PdfName.Info));
+        blackhole.consume(document.getDocumentInfo().getMoreInfo("json_metadata"));
+
+        StringBuilder text = new StringBuilder();
+        for (int i = 1; i <= document.getNumberOfPages(); i++) {
+            text.append(PdfTextExtractor.getTextFromPage(document.getPage(i), new LocationTextExtractionStrategy()));
+        }
+        blackhole.consume(text.toString());
+
+        try (var pdfBoxDocument = PDDocument.load(bytes)) {
+            blackhole.consume(pdfBoxDocument.getSignatureDictionaries());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package io.slgl.api.document.service;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.AreaBreak;
+import com.itextpdf.layout.element.Paragraph;
+import io.slgl.api.document.model.ParsedPdfDocument;
+import io.slgl.template.Template;
+import io.slgl.template.TemplateMatcher;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.emptyMap;
+
+/**
+ * Measures text extraction of generated documents of 10, 100 and 500 pages. Compares extraction of pages one by one
+ * to extraction on 3 worker threads and the calling thread, and matching a template of the first page against the
+ * whole text to matching it against pages extracted only as far as needed.
+ * <p>
+ * Run with {@code ./gradlew :lambda:api:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class PageTextExtractionBenchmark {
+
+    private static final int THREAD_COUNT = 3;
+    private static final int PARAGRAPHS_PER_PAGE = 12;
+
+    @Param({"10", "100", "500"})
+    public int numberOfPages;
+
+    private byte[] bytes;
+    private PageTextExtractionExecutor serialExecutor;
+    private PageTextExtractionExecutor parallelExecutor;
+    private TemplateMatcher firstPageMatcher;
+
+    @Setup
+    public void setup() {
+        bytes = createDocument(numberOfPages);
+        serialExecutor = new PageTextExtractionExecutor(0);
+        parallelExecutor = new PageTextExtractionExecutor(THREAD_COUNT);
+        firstPageMatcher = new TemplateMatcher(new Template(paragraph(1, 1) + "\n\n" + paragraph(1, 2)));
+    }
+
+    @Benchmark
+    public String extractSerially() {
+        return serialExecutor.extractText(ParsedPdfDocument.parse(bytes));
+    }
+
+    @Benchmark
+    public String extractInParallel() {
+        return parallelExecutor.extractText(ParsedPdfDocument.parse(bytes));
+    }
+
+    @Benchmark
+    public boolean matchWholeText() {
+        return firstPageMatcher.isMatching(serialExecutor.extractText(ParsedPdfDocument.parse(bytes)), emptyMap());
+    }
+
+    @Benchmark
+    public boolean matchPagesIncrementally() {
+        return firstPageMatcher.isMatching(ParsedPdfDocument.parse(bytes).getPageTexts(), emptyMap());
+    }
+
+    private static byte[] createDocument(int numberOfPages) {
+        var output = new ByteArrayOutputStream();
+        try (var document = new Document(new PdfDocument(new PdfWriter(output)))) {
+            for (int page = 1; page <= numberOfPages; page++) {
+                if (page > 1) {
+                    document.add(new AreaBreak());
+                }
+                for (int paragraph = 1; paragraph <= PARAGRAPHS_PER_PAGE; paragraph++) {
+                    document.add(new Paragraph(paragraph(page, paragraph)));
+                }
+            }
+        }
+        return output.toByteArray();
+    }
+
+    private static String paragraph(int page, int paragraph) {
+        return "Paragraph " + paragraph + " of page " + page + " of the agreement between the Parties, which sets out"
+                + " the terms under which the services are provided.";
+    }
+}
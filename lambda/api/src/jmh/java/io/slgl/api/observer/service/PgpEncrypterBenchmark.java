@@ -0,0 +1,51 @@
+package io.slgl.api.observer.service;
+
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures encryption of small observer packages, where parsing of the armored key used to dominate. Compares
+ * encrypter with parsed keys cache to the one which parses the key for every payload.
+ * <p>
+ * Run with {@code ./gradlew :lambda:api:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PgpEncrypterBenchmark {
+
+    @Param({"256", "1024"})
+    public int payloadSize;
+
+    private String publicKey;
+    private byte[] payload;
+
+    private PgpEncrypter cachingEncrypter;
+    private PgpEncrypter parsingEncrypter;
+
+    @Setup
+    public void setup() throws IOException {
+        publicKey = IOUtils.resourceToString("/io/slgl/api/observer/jon.doe.asc", StandardCharsets.US_ASCII);
+        payload = new byte[payloadSize];
+
+        cachingEncrypter = new PgpEncrypter();
+        parsingEncrypter = new PgpEncrypter(0);
+    }
+
+    @Benchmark
+    public byte[] encryptWithCachedKey() {
+        return cachingEncrypter.encrypt(payload, publicKey);
+    }
+
+    @Benchmark
+    public byte[] encryptParsingKey() {
+        return parsingEncrypter.encrypt(payload, publicKey);
+    }
+}
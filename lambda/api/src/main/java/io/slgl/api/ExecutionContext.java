@@ -10,6 +10,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.lang.reflect.Constructor;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static io.slgl.api.utils.FunctionUtils.forEachEnsureEachCalled;
 import static java.util.Collections.newSetFromMap;
@@ -18,7 +19,8 @@ import static java.util.Comparator.comparingInt;
 @Slf4j
 public class ExecutionContext {
 
-    private static final ClassToInstanceMap<Object> instanceMap = MutableClassToInstanceMap.create();
+    // instances may be read by worker threads of a request (see BatchValidationExecutor), created ones under lock
+    private static final ClassToInstanceMap<Object> instanceMap = MutableClassToInstanceMap.create(new ConcurrentHashMap<>());
     private static final Map<Class<?>, Provider<?>> providers = new HashMap<>();
 
     private static final ExecutionContextCallbacks callbacks = new ExecutionContextCallbacks();
@@ -41,10 +43,16 @@ public class ExecutionContext {
     }
 
     public static <T> T get(Class<T> dependencyClass) {
-        if (instanceMap.containsKey(dependencyClass)) {
-            return instanceMap.getInstance(dependencyClass);
+        T existingInstance = instanceMap.getInstance(dependencyClass);
+        if (existingInstance != null) {
+            return existingInstance;
+        }
+
+        synchronized (ExecutionContext.class) {
+            if (instanceMap.containsKey(dependencyClass)) {
+                return instanceMap.getInstance(dependencyClass);
+            }
 
-        } else {
             T instance = createInstance(dependencyClass);
             put(dependencyClass, instance);
 
@@ -85,7 +93,7 @@ public class ExecutionContext {
         return () -> get(dependencyClass);
     }
 
-    public static <T> void put(Class<T> dependencyClass, T instance) {
+    public static synchronized <T> void put(Class<T> dependencyClass, T instance) {
         var previousInstance = instanceMap.putInstance(dependencyClass, instance);
         if (previousInstance != null) {
             throw new IllegalStateException("Instance of type has been already defined in ExecutionContext: " + previousInstance);
@@ -93,7 +101,7 @@ public class ExecutionContext {
         callbacks.registerIfEligible(instance);
     }
 
-    public static void reset() {
+    public static synchronized void reset() {
         instanceMap.clear();
         callbacks.reset();
     }
@@ -34,7 +34,9 @@ public class Authorization {
     }
 
     public void verifyPermissions(EvaluationContextBuilder contextBuilder, Authorization authorization) {
-        var permissionChecker = new PermissionChecker(RequestType.USE_AUTHORIZATION, entry.getId(), authorization);
+        var auditors = auditorNotifier.getAuditors(entry);
+        var permissionChecker = new PermissionChecker(RequestType.USE_AUTHORIZATION, entry.getId(), authorization)
+                .withEvaluationLogging(!auditors.isEmpty());
 
         try {
             PermissionCheckerContext.executeWithContext(permissionChecker, (unused) -> {
@@ -55,7 +57,7 @@ public class Authorization {
             }
 
         } finally {
-            auditorNotifier.notify(entry, permissionChecker.buildPermissionAudit());
+            auditorNotifier.notify(auditors, permissionChecker.buildPermissionAudit());
         }
     }
 
@@ -7,7 +7,7 @@ import io.slgl.api.utils.LambdaEnv;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.qldbsession.QldbSessionClient;
 import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
 import software.amazon.qldb.QldbDriver;
 import software.amazon.qldb.RetryPolicy;
 
@@ -17,7 +17,7 @@ public class AwsModule implements ExecutionContextModule {
     public void configure() {
         ExecutionContext.put(QldbDriver.class, qldbDriver());
         ExecutionContext.put(DynamoDbClient.class, amazonDynamoDB());
-        ExecutionContext.put(SqsClient.class, amazonSQS());
+        ExecutionContext.put(SqsAsyncClient.class, amazonSQS());
         ExecutionContext.put(S3Client.class, s3Client());
 
         warmUpSessionPool();
@@ -42,8 +42,8 @@ public class AwsModule implements ExecutionContextModule {
         return DynamoDbClient.create();
     }
 
-    private SqsClient amazonSQS() {
-        return SqsClient.create();
+    private SqsAsyncClient amazonSQS() {
+        return SqsAsyncClient.create();
     }
 
     private S3Client s3Client() {
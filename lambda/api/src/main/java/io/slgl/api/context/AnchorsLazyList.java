@@ -1,13 +1,14 @@
 package io.slgl.api.context;
 
 import io.slgl.permission.context.FirstAndLastElement;
+import io.slgl.permission.context.KnownLength;
 
 import java.util.List;
 import java.util.function.Supplier;
 
 import static java.util.Objects.requireNonNull;
 
-public class AnchorsLazyList<T> extends LazyList<T> implements FirstAndLastElement {
+public class AnchorsLazyList<T> extends LazyList<T> implements FirstAndLastElement, KnownLength {
 
     private Supplier<T> firstElementSupplier;
     private T firstElement;
@@ -15,10 +16,14 @@ public class AnchorsLazyList<T> extends LazyList<T> implements FirstAndLastEleme
     private Supplier<T> lastElementSupplier;
     private T lastElement;
 
-    public AnchorsLazyList(Supplier<List<? extends T>> listSupplier, Supplier<T> firstElementSupplier, Supplier<T> lastElementSupplier) {
+    private Supplier<Integer> lengthSupplier;
+    private Integer length;
+
+    public AnchorsLazyList(Supplier<List<? extends T>> listSupplier, Supplier<T> firstElementSupplier, Supplier<T> lastElementSupplier, Supplier<Integer> lengthSupplier) {
         super(listSupplier);
         this.firstElementSupplier = requireNonNull(firstElementSupplier);
         this.lastElementSupplier = requireNonNull(lastElementSupplier);
+        this.lengthSupplier = requireNonNull(lengthSupplier);
     }
 
     public T getFirstElement() {
@@ -38,4 +43,18 @@ public class AnchorsLazyList<T> extends LazyList<T> implements FirstAndLastEleme
 
         return lastElement;
     }
+
+    @Override
+    public int getLength() {
+        if (isInitialized()) {
+            return size();
+        }
+
+        if (lengthSupplier != null) {
+            length = lengthSupplier.get();
+            lengthSupplier = null;
+        }
+
+        return length;
+    }
 }
@@ -34,6 +34,11 @@ public class EvaluationContextBuilder {
 
     private static final Pattern PATH_WITH_NODE_ID = Pattern.compile("@\\('(?<id>[^)]*)'\\)");
 
+    /**
+     * Number of anchor elements for which source nodes are read together when first of them is accessed.
+     */
+    private static final int ANCHOR_PREFETCH_SIZE = 32;
+
     private final NodeRepository nodeRepository = ExecutionContext.get(NodeRepository.class);
     private final LinkRepository linkRepository = ExecutionContext.get(LinkRepository.class);
     private final StateService stateService = ExecutionContext.get(StateService.class);
@@ -278,11 +283,17 @@ public class EvaluationContextBuilder {
         Supplier<List<? extends EvaluationContext>> list = () -> {
             var links = linkRepository.readAllByTargetNodeAndTargetAnchor(node.getId(), realAnchor.get());
 
-            List<EvaluationContext> anchorContext = links.stream()
+            List<String> sourceNodeIds = links.stream()
                     .sorted(Comparator.comparing(LinkEntity::getCreated))
-                    .map(link -> EvaluationContext.lazy(() -> createNodeContext(nodeRepository.readById(link.getSourceNode()))))
+                    .map(LinkEntity::getSourceNode)
                     .collect(Collectors.toList());
 
+            List<EvaluationContext> anchorContext = new ArrayList<>();
+            for (int i = 0; i < sourceNodeIds.size(); i++) {
+                int index = i;
+                anchorContext.add(EvaluationContext.lazy(() -> createNodeContext(readAnchorSourceNode(sourceNodeIds, index))));
+            }
+
             if (inlineLinks != null) {
                 for (Object inlineLink : inlineLinks) {
                     anchorContext.add(EvaluationContext.lazy(() -> EvaluationContext.wrap(inlineLink)));
@@ -317,7 +328,23 @@ public class EvaluationContextBuilder {
             return null;
         };
 
-        return new AnchorsLazyList<>(list, first, last);
+        Supplier<Integer> length = () -> {
+            int linksCount = linkRepository.countByTargetNodeAndTargetAnchor(node.getId(), realAnchor.get());
+            return inlineLinks != null ? linksCount + inlineLinks.size() : linksCount;
+        };
+
+        return new AnchorsLazyList<>(list, first, last, length);
+    }
+
+    private NodeEntity readAnchorSourceNode(List<String> sourceNodeIds, int index) {
+        String id = sourceNodeIds.get(index);
+
+        if (!nodeRepository.isAlreadyRead(id)) {
+            int end = Math.min(sourceNodeIds.size(), index + ANCHOR_PREFETCH_SIZE);
+            nodeRepository.readByIds(sourceNodeIds.subList(index, end));
+        }
+
+        return nodeRepository.readById(id);
     }
 
     public List<EvaluationContext> getPrincipals() {
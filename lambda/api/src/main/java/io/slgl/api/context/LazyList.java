@@ -28,6 +28,10 @@ public class LazyList<T> extends AbstractList<T> {
         return delegate.size();
     }
 
+    protected boolean isInitialized() {
+        return supplier == null;
+    }
+
     private void initialize() {
         if (supplier != null) {
             delegate = Objects.requireNonNull(supplier.get(), "list supplier should never return null");
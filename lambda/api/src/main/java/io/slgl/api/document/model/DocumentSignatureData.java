@@ -0,0 +1,48 @@
+package io.slgl.api.document.model;
+
+import eu.europa.esig.dss.enumerations.Indication;
+import eu.europa.esig.dss.enumerations.SignatureQualification;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.Date;
+
+/**
+ * Outcome of validation of a single document signature, holding everything {@link DocumentSignatureInfo} exposes for
+ * evaluation, so that it can be cached and serialized without DSS validation objects.
+ */
+@Data
+@Accessors(chain = true)
+public class DocumentSignatureData {
+    private String id;
+    private String signatureAlgorithm;
+    private String encryptionAlgorithm;
+    private String digestAlgorithm;
+    private String maskGenerationFunction;
+    private Date signingTime;
+    private Indication indication;
+    private SignatureQualification signatureQualification;
+    private boolean coversWholeDocument;
+
+    private String signingReason;
+    private String signingLocation;
+    private String signerName;
+    private String contactInfo;
+    private String filter;
+    private String subFilter;
+
+    private Certificate certificate;
+
+    @Data
+    @Accessors(chain = true)
+    public static class Certificate {
+        private String serialNumber;
+        private String issuer;
+        private String subject;
+        private boolean selfSigned;
+        private boolean selfIssued;
+        private Date notValidBefore;
+        private Date notValidAfter;
+        private Boolean validAtSignTime;
+    }
+}
@@ -10,11 +10,11 @@ import eu.europa.esig.dss.pades.validation.PdfSignatureDictionary;
 import io.slgl.permission.context.EvaluationContext;
 import io.slgl.permission.context.EvaluationContextObject;
 import lombok.AllArgsConstructor;
+import lombok.Getter;
 
 import javax.naming.InvalidNameException;
 import javax.naming.ldap.LdapName;
 import javax.naming.ldap.Rdn;
-import java.security.Principal;
 import java.security.cert.CertificateExpiredException;
 import java.security.cert.CertificateNotYetValidException;
 import java.security.cert.X509Certificate;
@@ -35,31 +35,92 @@ public class DocumentSignatureInfo implements EvaluationContextObject {
             SignatureQualification.QESEAL
     );
 
-    private final XmlSignature detailedReportSignature;
-    private final PAdESSignature signature;
-    private final byte[] documentBytes;
-    private Boolean doesCoverWholeDocument;
+    @Getter
+    private final DocumentSignatureData data;
 
     public DocumentSignatureInfo(PAdESSignature signature, XmlSignature detailedReportSignature, byte[] documentBytes) {
+        this(toSignatureData(signature, detailedReportSignature, documentBytes));
+    }
+
+    public DocumentSignatureInfo(DocumentSignatureData data) {
+        this.data = data;
+    }
+
+    private static DocumentSignatureData toSignatureData(PAdESSignature signature, XmlSignature detailedReportSignature, byte[] documentBytes) {
         checkArgument(
                 Objects.equals(signature.getId(), detailedReportSignature.getId()),
                 "signature have to be of the same id"
         );
-        this.detailedReportSignature = detailedReportSignature;
-        this.signature = signature;
-        this.documentBytes = documentBytes;
+        PdfSignatureDictionary pdfDictionary = signature.getPdfSignatureDictionary();
+        var qualification = detailedReportSignature.getValidationSignatureQualification();
+
+        return new DocumentSignatureData()
+                .setId(signature.getId())
+                .setSignatureAlgorithm(signature.getSignatureAlgorithm() == null ? null : signature.getSignatureAlgorithm().name())
+                .setEncryptionAlgorithm(signature.getEncryptionAlgorithm() == null ? null : signature.getEncryptionAlgorithm().getName())
+                .setDigestAlgorithm(signature.getDigestAlgorithm() == null ? null : signature.getDigestAlgorithm().getName())
+                .setMaskGenerationFunction(signature.getMaskGenerationFunction() == null ? null : signature.getMaskGenerationFunction().name())
+                .setSigningTime(signature.getSigningTime())
+                .setIndication(detailedReportSignature.getConclusion().getIndication())
+                .setSignatureQualification(qualification == null ? null : qualification.getSignatureQualification())
+                .setCoversWholeDocument(doesCoverWholeDocument(pdfDictionary, documentBytes))
+                .setSigningReason(pdfDictionary.getReason())
+                .setSigningLocation(pdfDictionary.getLocation())
+                .setSignerName(pdfDictionary.getSignerName())
+                .setContactInfo(pdfDictionary.getContactInfo())
+                .setFilter(pdfDictionary.getFilter())
+                .setSubFilter(pdfDictionary.getSubFilter())
+                .setCertificate(toCertificateData(signature.getSigningCertificateToken(), signature.getSigningTime()));
+    }
 
+    private static boolean doesCoverWholeDocument(PdfSignatureDictionary pdfDictionary, byte[] documentBytes) {
+        var byteRange = pdfDictionary.getByteRange();
+        var offset1 = byteRange.getFirstPartStart(); // offset of pdf content
+        var length1 = byteRange.getFirstPartEnd(); // pdf content before signature
+        var offset2 = byteRange.getSecondPartStart(); // length1 + signature size
+        var length2 = byteRange.getSecondPartEnd(); // pdf content after signature
+        long endOfContent = offset2 + length2;
+
+        // multiply content length with 2 (because it is in hex in the PDF) and add 2 for '<' and '>' signature delimiters
+        int signatureContentLength = pdfDictionary.getContents().length * 2 + 2;
+        // a false result doesn't necessarily mean that the PDF is a fake
+        return (endOfContent == (long) documentBytes.length)
+                && (offset1 == 0)
+                && (length1 + signatureContentLength == offset2);
+    }
+
+    private static DocumentSignatureData.Certificate toCertificateData(CertificateToken certificate, Date signingTime) {
+        if (certificate == null) {
+            return null;
+        }
+        return new DocumentSignatureData.Certificate()
+                .setSerialNumber(certificate.getSerialNumber().toString())
+                .setIssuer(certificate.getIssuer().getPrincipal().toString())
+                .setSubject(certificate.getSubject().getPrincipal().toString())
+                .setSelfSigned(certificate.isSelfSigned())
+                .setSelfIssued(certificate.isSelfIssued())
+                .setNotValidBefore(certificate.getNotBefore())
+                .setNotValidAfter(certificate.getNotAfter())
+                .setValidAtSignTime(signingTime == null ? null : isValidAt(certificate.getCertificate(), signingTime));
+    }
+
+    private static boolean isValidAt(X509Certificate certificate, Date time) {
+        try {
+            certificate.checkValidity(time);
+            return true;
+        } catch (CertificateExpiredException | CertificateNotYetValidException e) {
+            return false;
+        }
     }
 
     @Override
     public EvaluationContext asEvaluationContext() {
-        PdfSignatureDictionary pdfDictionary = signature.getPdfSignatureDictionary();
         return EvaluationContext.builder()
-                .value("signature_algorithm", getSignatureAlgorithm())
-                .value("encryption_algorithm", getEncryptionAlgorithm())
-                .value("digest_algorithm", getDigestAlgorithm())
-                .value("mask_generation_function", getMaskGenerationFunction())
-                .value("sign_date", getSigningTime())
+                .value("signature_algorithm", data.getSignatureAlgorithm())
+                .value("encryption_algorithm", data.getEncryptionAlgorithm())
+                .value("digest_algorithm", data.getDigestAlgorithm())
+                .value("mask_generation_function", data.getMaskGenerationFunction())
+                .value("sign_date", toInstant(data.getSigningTime()))
                 .value("validation_passed", isTotalPassed())
                 .value("validation_failed", isTotalFailed())
 
@@ -68,123 +129,83 @@ public class DocumentSignatureInfo implements EvaluationContextObject {
 
                 .provider("covers_whole_document", this::doesCoverWholeDocument)
 
-                .value("signing_reason", pdfDictionary.getReason())
-                .value("signing_location", pdfDictionary.getLocation())
-                .value("signer_name", pdfDictionary.getSignerName())
-                .value("contact_info", pdfDictionary.getContactInfo())
-                .value("filter", pdfDictionary.getFilter())
-                .value("sub_filter", pdfDictionary.getSubFilter())
+                .value("signing_reason", data.getSigningReason())
+                .value("signing_location", data.getSigningLocation())
+                .value("signer_name", data.getSignerName())
+                .value("contact_info", data.getContactInfo())
+                .value("filter", data.getFilter())
+                .value("sub_filter", data.getSubFilter())
 
                 .provider("certificate", this::certificateInfo)
 
                 .build();
     }
 
-    private Object getSignatureAlgorithm() {
-        return signature.getSignatureAlgorithm() == null ? null : signature.getSignatureAlgorithm().name();
-    }
-
-    private Object getEncryptionAlgorithm() {
-        return signature.getEncryptionAlgorithm() == null ? null : signature.getEncryptionAlgorithm().getName();
-    }
-
-    private Object getDigestAlgorithm() {
-        return signature.getDigestAlgorithm() == null ? null : signature.getDigestAlgorithm().getName();
-    }
-
-    private Object getMaskGenerationFunction() {
-        return signature.getMaskGenerationFunction() == null ? null : signature.getMaskGenerationFunction().name();
-    }
-
-    private Instant getSigningTime() {
-        return signature.getSigningTime() == null ? null : signature.getSigningTime().toInstant();
-    }
-
     private DocumentCertificateInfo certificateInfo() {
-        return new DocumentCertificateInfo(signature.getSigningCertificateToken());
+        return data.getCertificate() == null ? null : new DocumentCertificateInfo(data.getCertificate());
     }
 
     private boolean isQualified() {
         if (isTotalPassed()) {
-            var qualification = detailedReportSignature.getValidationSignatureQualification().getSignatureQualification();
-            return QUALIFIED_SIGNATURES.contains(qualification);
+            return QUALIFIED_SIGNATURES.contains(data.getSignatureQualification());
         } else {
             return false;
         }
     }
 
     private String getSignatureQualification() {
-        return detailedReportSignature.getValidationSignatureQualification().getSignatureQualification().getReadable();
+        return data.getSignatureQualification() == null ? null : data.getSignatureQualification().getReadable();
     }
 
     private boolean isTotalPassed() {
-        var conclusionIndication = detailedReportSignature.getConclusion().getIndication();
-        return Indication.TOTAL_PASSED.equals(conclusionIndication);
+        return Indication.TOTAL_PASSED.equals(data.getIndication());
     }
 
     private boolean isTotalFailed() {
-        var conclusionIndication = detailedReportSignature.getConclusion().getIndication();
-        return Indication.TOTAL_FAILED.equals(conclusionIndication);
+        return Indication.TOTAL_FAILED.equals(data.getIndication());
     }
 
     public boolean hasNotFailed() {
-        var conclusionIndication = detailedReportSignature.getConclusion().getIndication();
-        return Indication.TOTAL_PASSED.equals(conclusionIndication)
-                || Indication.INDETERMINATE.equals(conclusionIndication);
+        return Indication.TOTAL_PASSED.equals(data.getIndication())
+                || Indication.INDETERMINATE.equals(data.getIndication());
     }
 
     public boolean doesCoverWholeDocument() {
-        if (doesCoverWholeDocument == null) {
-
-            var byteRange = signature.getPdfSignatureDictionary().getByteRange();
-            var offset1 = byteRange.getFirstPartStart(); // offset of pdf content
-            var length1 = byteRange.getFirstPartEnd(); // pdf content before signature
-            var offset2 = byteRange.getSecondPartStart(); // length1 + signature size
-            var length2 = byteRange.getSecondPartEnd(); // pdf content after signature
-            long endOfContent = offset2 + length2;
-
-            // multiply content length with 2 (because it is in hex in the PDF) and add 2 for '<' and '>' signature delimiters
-            int signatureContentLength = signature.getPdfSignatureDictionary().getContents().length * 2 + 2;
-            // a false result doesn't necessarily mean that the PDF is a fake
-            this.doesCoverWholeDocument = (endOfContent == (long) documentBytes.length)
-                    && (offset1 == 0)
-                    && (length1 + signatureContentLength == offset2);
-        }
-        return doesCoverWholeDocument;
+        return data.isCoversWholeDocument();
+    }
+
+    private static Instant toInstant(Date date) {
+        return date == null ? null : date.toInstant();
     }
 
     @AllArgsConstructor
-    private class DocumentCertificateInfo implements EvaluationContextObject {
-        private final CertificateToken certificate;
+    private static class DocumentCertificateInfo implements EvaluationContextObject {
+        private final DocumentSignatureData.Certificate certificate;
 
         @Override
         public EvaluationContext asEvaluationContext() {
             return EvaluationContext.builder()
-                    .value("serial_number", certificate.getSerialNumber().toString())
-                    .value("issuer", getRdns(certificate.getIssuer().getPrincipal()))
-                    .value("subject", getRdns(certificate.getSubject().getPrincipal()))
+                    .value("serial_number", certificate.getSerialNumber())
+                    .value("issuer", getRdns(certificate.getIssuer()))
+                    .value("subject", getRdns(certificate.getSubject()))
                     .value("self_signed", certificate.isSelfSigned())
                     .value("self_issued", certificate.isSelfIssued())
-                    .value("not_valid_before", certificate.getNotBefore().toInstant())
-                    .value("not_valid_after", certificate.getNotAfter().toInstant())
-                    .value("valid_now", isValidAt(certificate.getCertificate(), new Date()))
-                    .value("valid_at_sign_time", isValidAt(certificate.getCertificate(), signature.getSigningTime()))
+                    .value("not_valid_before", toInstant(certificate.getNotValidBefore()))
+                    .value("not_valid_after", toInstant(certificate.getNotValidAfter()))
+                    .value("valid_now", isValidNow())
+                    .value("valid_at_sign_time", certificate.getValidAtSignTime())
                     .build();
         }
 
-        private boolean isValidAt(X509Certificate certificate, Date time) {
-            try {
-                certificate.checkValidity(time);
-                return true;
-            } catch (CertificateExpiredException | CertificateNotYetValidException e) {
-                return false;
-            }
+        private boolean isValidNow() {
+            var now = new Date();
+            return !now.before(certificate.getNotValidBefore()) && !now.after(certificate.getNotValidAfter());
         }
 
-        private Map<String, String> getRdns(Principal principal) {
+        private Map<String, String> getRdns(String principal) {
             LdapName subjectLdapName;
             try {
-                subjectLdapName = new LdapName(principal.toString());
+                subjectLdapName = new LdapName(principal);
             } catch (InvalidNameException e) {
                 throw new DSSException("invalid principal name: " + principal, e);
             }
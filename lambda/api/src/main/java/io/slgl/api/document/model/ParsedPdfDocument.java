@@ -0,0 +1,221 @@
+package io.slgl.api.document.model;
+
+import com.itextpdf.forms.PdfAcroForm;
+import com.itextpdf.forms.fields.PdfFormField;
+import com.itextpdf.io.source.RandomAccessSourceFactory;
+import com.itextpdf.kernel.pdf.*;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.LocationTextExtractionStrategy;
+import io.slgl.api.error.ApiException;
+import io.slgl.api.utils.ErrorCode;
+import io.slgl.client.utils.PdfUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * PDF document parsed once and shared by everything read from it: text of pages, Info dictionary, visual content
+ * hash and presence of signatures.
+ * <p>
+ * Bytes of the document are wrapped without copying and iText reads only the cross-reference table up front, so
+ * objects are parsed from the bytes when they are first used. Text is extracted separately for every page, also only
+ * when it is first read.
+ */
+public class ParsedPdfDocument {
+
+    private static final String JSON_METADATA_KEY = "json_metadata";
+
+    private final byte[] bytes;
+    private final PdfDocument document;
+
+    private final String[] pageTexts;
+
+    private String text;
+    private String visualContentSha3;
+    private Boolean signed;
+
+    private ParsedPdfDocument(byte[] bytes, PdfDocument document) {
+        this.bytes = bytes;
+        this.document = document;
+        this.pageTexts = new String[document.getNumberOfPages()];
+    }
+
+    /**
+     * @throws ApiException with {@link ErrorCode#LINKED_DOCUMENT_MUST_BE_PDF} when bytes are not a PDF document
+     */
+    public static ParsedPdfDocument parse(byte[] bytes) {
+        try {
+            var source = new RandomAccessSourceFactory().createSource(bytes);
+            var reader = new PdfReader(source, new ReaderProperties());
+            return new ParsedPdfDocument(bytes, new PdfDocument(reader));
+        } catch (IOException | com.itextpdf.io.IOException e) {
+            throw new ApiException(ErrorCode.LINKED_DOCUMENT_MUST_BE_PDF);
+        }
+    }
+
+    public PdfDictionary getInfoDictionary() {
+        var pdfInfo = document.getTrailer().get(PdfName.Info);
+        return pdfInfo instanceof PdfDictionary
+                ? ((PdfDictionary) pdfInfo)
+                : new PdfDictionary();
+    }
+
+    public String getJsonMetadata() {
+        return document.getDocumentInfo().getMoreInfo(JSON_METADATA_KEY);
+    }
+
+    public int getNumberOfPages() {
+        return pageTexts.length;
+    }
+
+    /**
+     * @param pageNumber number of the page, starting from 1
+     */
+    public String getPageText(int pageNumber) {
+        String pageText = pageTexts[pageNumber - 1];
+        if (pageText == null) {
+            PdfPage page = document.getPage(pageNumber);
+            pageText = PdfTextExtractor.getTextFromPage(page, new LocationTextExtractionStrategy());
+            pageTexts[pageNumber - 1] = pageText;
+        }
+        return pageText;
+    }
+
+    /**
+     * Returns texts of pages, extracting text of a page when it is read from the list for the first time, so that
+     * reading of the list can be stopped without extracting the remaining pages.
+     */
+    public List<String> getPageTexts() {
+        return new PageTextList();
+    }
+
+    /**
+     * Returns text of all pages separated with a blank line.
+     */
+    public String getText() {
+        if (text == null) {
+            StringBuilder result = new StringBuilder();
+
+            for (String pageText : getPageTexts()) {
+                if (result.length() > 0) {
+                    result.append("\n\n");
+                }
+                result.append(pageText);
+            }
+
+            text = result.toString();
+        }
+        return text;
+    }
+
+    /**
+     * Extracts text of all pages not extracted yet, split into given number of contiguous ranges extracted in
+     * parallel. iText document can't be read from more threads, so the first range is extracted on the calling thread
+     * from this document and every other one from the document opened again over the same bytes.
+     */
+    public void extractPageTexts(ExecutorService executorService, int parallelism) {
+        int rangeSize = (pageTexts.length + parallelism - 1) / parallelism;
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int firstPage = 1 + rangeSize; firstPage <= pageTexts.length; firstPage += rangeSize) {
+            int first = firstPage;
+            int last = Math.min(firstPage + rangeSize - 1, pageTexts.length);
+            if (isExtracted(first, last)) {
+                continue;
+            }
+            futures.add(executorService.submit(() -> parse(bytes).extractPageTexts(first, last, pageTexts)));
+        }
+        extractPageTexts(1, Math.min(rangeSize, pageTexts.length), pageTexts);
+
+        for (Future<?> future : futures) {
+            await(future);
+        }
+    }
+
+    private boolean isExtracted(int firstPage, int lastPage) {
+        for (int i = firstPage; i <= lastPage; i++) {
+            if (pageTexts[i - 1] == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void extractPageTexts(int firstPage, int lastPage, String[] results) {
+        for (int i = firstPage; i <= lastPage; i++) {
+            if (results[i - 1] == null) {
+                results[i - 1] = getPageText(i);
+            }
+        }
+    }
+
+    private static void await(Future<?> future) {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Visual content hash is computed by the client library, so that it is always the same as the one computed by
+     * clients. The library parses the document on its own.
+     */
+    public String getVisualContentSha3() {
+        if (visualContentSha3 == null) {
+            try {
+                visualContentSha3 = PdfUtils.getVisualContentHashHex(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return visualContentSha3;
+    }
+
+    /**
+     * Checks whether AcroForm of the document has a signature field with a value, the same way signatures are found
+     * by DSS, so that validation of documents without any signature can be skipped.
+     */
+    public boolean hasSignatures() {
+        if (signed == null) {
+            signed = false;
+
+            var acroForm = PdfAcroForm.getAcroForm(document, false);
+            if (acroForm != null) {
+                for (PdfFormField field : acroForm.getFormFields().values()) {
+                    if (PdfName.Sig.equals(field.getFormType()) && field.getPdfObject().getAsDictionary(PdfName.V) != null) {
+                        signed = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return signed;
+    }
+
+    private class PageTextList extends AbstractList<String> implements RandomAccess {
+
+        @Override
+        public String get(int index) {
+            return getPageText(index + 1);
+        }
+
+        @Override
+        public int size() {
+            return pageTexts.length;
+        }
+    }
+}
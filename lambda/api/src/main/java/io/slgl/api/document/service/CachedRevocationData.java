@@ -0,0 +1,24 @@
+package io.slgl.api.document.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Response of a revocation data download (CRL, OCSP response or certificate from AIA), with the request it was
+ * downloaded with and time until which it can be used instead of downloading it again.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedRevocationData {
+    private String url;
+    /**
+     * Body of POST request (OCSP), null for data downloaded with GET.
+     */
+    private byte[] requestContent;
+    private byte[] data;
+    private Date expires;
+}
@@ -0,0 +1,163 @@
+package io.slgl.api.document.service;
+
+import eu.europa.esig.dss.model.DSSException;
+import eu.europa.esig.dss.service.http.commons.CommonsDataLoader;
+import io.slgl.api.utils.LambdaEnv;
+import lombok.extern.slf4j.Slf4j;
+import org.bouncycastle.cert.X509CRLHolder;
+import org.bouncycastle.cert.ocsp.BasicOCSPResp;
+import org.bouncycastle.cert.ocsp.OCSPException;
+import org.bouncycastle.cert.ocsp.OCSPResp;
+import org.bouncycastle.cert.ocsp.SingleResp;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Data loader of revocation data which serves responses from {@link RevocationDataCache} until their
+ * {@code nextUpdate}. HTTP requests are sent with a long-lived {@link HttpClient}, reusing its pooled connections
+ * across documents, other protocols (LDAP, FTP) are handled by {@link CommonsDataLoader}.
+ * <p>
+ * CRLs are cached until their {@code nextUpdate}, or for default time when they have none. OCSP responses are cached
+ * until the earliest {@code nextUpdate} of their single responses, responses without it are not cached, as newer
+ * status may be available at any time. Cache time is never longer than configured maximum.
+ */
+@Slf4j
+public class CachingRevocationDataLoader extends CommonsDataLoader {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final RevocationDataCache cache;
+    private final HttpClient httpClient;
+    private final Duration maxExpiration = Duration.ofSeconds(LambdaEnv.RevocationCache.getMaxExpirationInSeconds());
+    private final Duration defaultExpiration = Duration.ofSeconds(LambdaEnv.RevocationCache.getDefaultExpirationInSeconds());
+    private final AtomicInteger downloadsCount = new AtomicInteger();
+    private String requestContentType;
+
+    public CachingRevocationDataLoader(RevocationDataCache cache, HttpClient httpClient) {
+        this.cache = cache;
+        this.httpClient = httpClient;
+    }
+
+    @Override
+    public void setContentType(String contentType) {
+        super.setContentType(contentType);
+        this.requestContentType = contentType;
+    }
+
+    @Override
+    public byte[] get(String url) {
+        var cached = cache.get(url, null);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        var entry = download(url);
+        cache.put(entry);
+        return entry.getData();
+    }
+
+    @Override
+    public byte[] post(String url, byte[] content) {
+        var cached = cache.get(url, content);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        var request = HttpRequest.newBuilder(URI.create(url))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(content));
+        if (requestContentType != null) {
+            request.header("Content-Type", requestContentType);
+        }
+        var data = send(url, request);
+        cache.put(new CachedRevocationData(url, content, data, ocspExpiration(data)));
+        return data;
+    }
+
+    /**
+     * Downloads data with GET again, for refresh of shared cache entries.
+     */
+    public CachedRevocationData download(String url) {
+        byte[] data;
+        if (isHttp(url)) {
+            data = send(url, HttpRequest.newBuilder(URI.create(url)).GET());
+        } else {
+            downloadsCount.incrementAndGet();
+            data = super.get(url);
+        }
+        return new CachedRevocationData(url, null, data, crlExpiration(data));
+    }
+
+    public int getDownloadsCount() {
+        return downloadsCount.get();
+    }
+
+    private byte[] send(String url, HttpRequest.Builder request) {
+        downloadsCount.incrementAndGet();
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request.timeout(TIMEOUT).build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            throw new DSSException("Unable to retrieve data from URL [" + url + "]", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DSSException("Interrupted while retrieving data from URL [" + url + "]", e);
+        }
+
+        if (response.statusCode() != 200) {
+            throw new DSSException("Unable to retrieve data from URL [" + url + "], status: " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private Date crlExpiration(byte[] data) {
+        Date nextUpdate;
+        try {
+            nextUpdate = new X509CRLHolder(data).getNextUpdate();
+        } catch (IOException | RuntimeException e) {
+            // not a CRL, e.g. certificate downloaded from AIA
+            nextUpdate = null;
+        }
+        return expiration(nextUpdate != null ? nextUpdate.toInstant() : cache.now().plus(defaultExpiration));
+    }
+
+    private Date ocspExpiration(byte[] data) {
+        try {
+            var response = new OCSPResp(data);
+            if (response.getStatus() != OCSPResp.SUCCESSFUL || !(response.getResponseObject() instanceof BasicOCSPResp)) {
+                return null;
+            }
+
+            Instant nextUpdate = null;
+            for (SingleResp singleResponse : ((BasicOCSPResp) response.getResponseObject()).getResponses()) {
+                if (singleResponse.getNextUpdate() == null) {
+                    return null;
+                }
+                var singleNextUpdate = singleResponse.getNextUpdate().toInstant();
+                if (nextUpdate == null || singleNextUpdate.isBefore(nextUpdate)) {
+                    nextUpdate = singleNextUpdate;
+                }
+            }
+            return nextUpdate != null ? expiration(nextUpdate) : null;
+        } catch (IOException | OCSPException | RuntimeException e) {
+            log.debug("Unable to read OCSP response, not caching it", e);
+            return null;
+        }
+    }
+
+    private Date expiration(Instant nextUpdate) {
+        var maxExpires = cache.now().plus(maxExpiration);
+        return Date.from(nextUpdate.isBefore(maxExpires) ? nextUpdate : maxExpires);
+    }
+
+    private static boolean isHttp(String url) {
+        return url.startsWith("http://") || url.startsWith("https://");
+    }
+}
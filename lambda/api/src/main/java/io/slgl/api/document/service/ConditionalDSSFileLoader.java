@@ -0,0 +1,16 @@
+package io.slgl.api.document.service;
+
+import eu.europa.esig.dss.model.DSSException;
+import eu.europa.esig.dss.spi.client.http.DSSFileLoader;
+
+/**
+ * File loader able to skip download of a document which has not changed since it was cached.
+ */
+public interface ConditionalDSSFileLoader extends DSSFileLoader {
+
+    /**
+     * @param cached previously downloaded entry of the url, or null when there is none
+     * @return the given cached entry when the document has not been modified, otherwise newly downloaded entry
+     */
+    DSSZipCacheEntry getDocument(String url, DSSZipCacheEntry cached) throws DSSException;
+}
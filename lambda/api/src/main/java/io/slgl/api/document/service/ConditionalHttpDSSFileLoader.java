@@ -0,0 +1,81 @@
+package io.slgl.api.document.service;
+
+import eu.europa.esig.dss.model.DSSDocument;
+import eu.europa.esig.dss.model.DSSException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Downloads trusted lists over HTTP, sending {@code If-None-Match} and {@code If-Modified-Since} with validators of
+ * the cached entry, so that unchanged documents are not transferred again.
+ */
+@Slf4j
+public class ConditionalHttpDSSFileLoader implements ConditionalDSSFileLoader {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    private final HttpClient httpClient;
+
+    public ConditionalHttpDSSFileLoader() {
+        this(HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(TIMEOUT)
+                .build());
+    }
+
+    public ConditionalHttpDSSFileLoader(HttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    @Override
+    public DSSZipCacheEntry getDocument(String url, DSSZipCacheEntry cached) throws DSSException {
+        var request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(TIMEOUT)
+                .GET();
+        if (cached != null && cached.getEtag() != null) {
+            request.header("If-None-Match", cached.getEtag());
+        }
+        if (cached != null && cached.getLastModified() != null) {
+            request.header("If-Modified-Since", cached.getLastModified());
+        }
+
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            throw new DSSException("Unable to retrieve data from URL [" + url + "]", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DSSException("Interrupted while retrieving data from URL [" + url + "]", e);
+        }
+
+        if (response.statusCode() == 304 && cached != null) {
+            log.debug("Not modified: {}", url);
+            return cached;
+        }
+        if (response.statusCode() != 200) {
+            throw new DSSException("Unable to retrieve data from URL [" + url + "], status: " + response.statusCode());
+        }
+        return new DSSZipCacheEntry(
+                response.body(),
+                url,
+                response.headers().firstValue("ETag").orElse(null),
+                response.headers().firstValue("Last-Modified").orElse(null));
+    }
+
+    @Override
+    public DSSDocument getDocument(String url) throws DSSException {
+        return getDocument(url, null).asDocument();
+    }
+
+    @Override
+    public boolean remove(String url) {
+        return false;
+    }
+}
@@ -0,0 +1,30 @@
+package io.slgl.api.document.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Index of trusted lists cache exported to S3. Bytes of every entry are stored in a separate object addressed by
+ * their digest, so that only entries with changed content are uploaded on export and downloaded on reload.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DSSCacheManifest {
+
+    private List<Entry> entries = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private String name;
+        private String digest;
+        private String etag;
+        private String lastModified;
+    }
+}
@@ -3,7 +3,7 @@ package io.slgl.api.document.service;
 import eu.europa.esig.dss.model.DSSDocument;
 import eu.europa.esig.dss.model.InMemoryDocument;
 import eu.europa.esig.dss.spi.DSSUtils;
-import lombok.AllArgsConstructor;
+import io.slgl.api.utils.Utils;
 import lombok.Getter;
 
 import java.io.IOException;
@@ -11,28 +11,45 @@ import java.util.Arrays;
 import java.util.Objects;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
-import java.util.zip.ZipOutputStream;
 
 @Getter
-@AllArgsConstructor
 public class DSSZipCacheEntry {
     private final byte[] bytes;
     private final String name;
+    /**
+     * Validators of the HTTP response the entry was downloaded with, used for conditional requests on refresh.
+     */
+    private final String etag;
+    private final String lastModified;
+    private String digest;
+
+    public DSSZipCacheEntry(byte[] bytes, String name) {
+        this(bytes, name, null, null);
+    }
+
+    public DSSZipCacheEntry(byte[] bytes, String name, String etag, String lastModified) {
+        this.bytes = bytes;
+        this.name = name;
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
 
     DSSZipCacheEntry(DSSDocument document) {
-        this.bytes = DSSUtils.toByteArray(document);
-        this.name = document.getName();
+        this(DSSUtils.toByteArray(document), document.getName());
     }
 
-    public DSSDocument asDocument() {
-        return new InMemoryDocument(bytes, name);
+    /**
+     * SHA3 of the entry bytes, addressing the entry object in S3 cache.
+     */
+    public String getDigest() {
+        if (digest == null) {
+            digest = Utils.getSha3OfBytes(bytes);
+        }
+        return digest;
     }
 
-    public void writeTo(ZipOutputStream outputStream) throws IOException {
-        var zipEntry = new ZipEntry(name);
-        outputStream.putNextEntry(zipEntry);
-        outputStream.write(bytes);
-        outputStream.closeEntry();
+    public DSSDocument asDocument() {
+        return new InMemoryDocument(bytes, name);
     }
 
     public static DSSZipCacheEntry read(ZipInputStream inputStream, ZipEntry zipEntry) throws IOException {
@@ -46,7 +63,9 @@ public class DSSZipCacheEntry {
         if (o == null || getClass() != o.getClass()) return false;
         DSSZipCacheEntry that = (DSSZipCacheEntry) o;
         return Arrays.equals(bytes, that.bytes)
-                && Objects.equals(name, that.name);
+                && Objects.equals(name, that.name)
+                && Objects.equals(etag, that.etag)
+                && Objects.equals(lastModified, that.lastModified);
     }
 
     @Override
@@ -3,15 +3,14 @@ package io.slgl.api.document.service;
 import eu.europa.esig.dss.alert.SilentOnStatusAlert;
 import eu.europa.esig.dss.model.InMemoryDocument;
 import eu.europa.esig.dss.pades.validation.PAdESSignature;
-import eu.europa.esig.dss.service.crl.OnlineCRLSource;
-import eu.europa.esig.dss.service.http.commons.CommonsDataLoader;
-import eu.europa.esig.dss.service.ocsp.OnlineOCSPSource;
 import eu.europa.esig.dss.validation.CertificateVerifier;
 import eu.europa.esig.dss.validation.CommonCertificateVerifier;
 import eu.europa.esig.dss.validation.SignaturePolicyProvider;
 import eu.europa.esig.dss.validation.SignedDocumentValidator;
 import io.slgl.api.ExecutionContext;
+import io.slgl.api.document.model.DocumentSignatureData;
 import io.slgl.api.document.model.DocumentSignatureInfo;
+import io.slgl.api.utils.Utils;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
@@ -24,9 +23,36 @@ import static io.slgl.api.utils.TimerUtils.getWithTimer;
 @Slf4j
 public class DocumentSignatureInfoFactory {
     private final TrustListManagementService trustListManagementService = ExecutionContext.get(TrustListManagementService.class);
+    private final SignatureValidationCache signatureValidationCache = ExecutionContext.get(SignatureValidationCache.class);
+    private final RevocationSources revocationSources = ExecutionContext.get(RevocationSources.class);
 
     public List<DocumentSignatureInfo> getSignatureInfo(byte[] documentBytes) {
-        SignedDocumentValidator validator = getWithTimer("create validator", () -> createValidator(documentBytes));
+        return getSignatureInfo(documentBytes, Utils.getSha3OfBytes(documentBytes));
+    }
+
+    public List<DocumentSignatureInfo> getSignatureInfo(byte[] documentBytes, String fileSha3) {
+        var trustList = trustListManagementService.getSnapshot();
+
+        var signatures = trustList.isCacheable()
+                ? getCachedOrValidate(documentBytes, fileSha3, trustList)
+                : validate(documentBytes, trustList);
+
+        return signatures.stream()
+                .map(DocumentSignatureInfo::new)
+                .collect(Collectors.toList());
+    }
+
+    private List<DocumentSignatureData> getCachedOrValidate(byte[] documentBytes, String fileSha3, TrustListSnapshot trustList) {
+        return signatureValidationCache.get(fileSha3, trustList.getVersion())
+                .orElseGet(() -> {
+                    var validated = validate(documentBytes, trustList);
+                    signatureValidationCache.put(fileSha3, trustList.getVersion(), validated);
+                    return validated;
+                });
+    }
+
+    private List<DocumentSignatureData> validate(byte[] documentBytes, TrustListSnapshot trustList) {
+        SignedDocumentValidator validator = getWithTimer("create validator", () -> createValidator(documentBytes, trustList));
 
         var reports = getWithTimer("validate document", validator::validateDocument);
         var signatures = validator.getSignatures();
@@ -35,25 +61,25 @@ public class DocumentSignatureInfoFactory {
                 .flatMap(reportSignature -> signatures.stream()
                         .filter(signature -> Objects.equals(reportSignature.getId(), signature.getId()))
                         .flatMap(filterInstance(PAdESSignature.class))
-                        .map(signature -> new DocumentSignatureInfo(signature, reportSignature, documentBytes)))
+                        .map(signature -> new DocumentSignatureInfo(signature, reportSignature, documentBytes).getData()))
                 .collect(Collectors.toList());
 
     }
 
-    private SignedDocumentValidator createValidator(byte[] bytes) {
+    private SignedDocumentValidator createValidator(byte[] bytes, TrustListSnapshot trustList) {
         var document = new InMemoryDocument(bytes);
         var validator = SignedDocumentValidator.fromDocument(document);
-        validator.setCertificateVerifier(getCertificateVerifier());
+        validator.setCertificateVerifier(getCertificateVerifier(trustList));
         validator.setSignaturePolicyProvider(new SignaturePolicyProvider());
         return validator;
     }
 
-    private CertificateVerifier getCertificateVerifier() {
+    private CertificateVerifier getCertificateVerifier(TrustListSnapshot trustList) {
         var verifier = new CommonCertificateVerifier();
-        verifier.setTrustedCertSources(trustListManagementService.getTrustedListsCertificateSource());
-        verifier.setCrlSource(new OnlineCRLSource());
-        verifier.setOcspSource(new OnlineOCSPSource());
-        verifier.setDataLoader(new CommonsDataLoader());
+        verifier.setTrustedCertSources(trustList.getCertificateSource());
+        verifier.setCrlSource(revocationSources.getCrlSource());
+        verifier.setOcspSource(revocationSources.getOcspSource());
+        verifier.setDataLoader(revocationSources.getDataLoader());
 
         var silentAlert = new SilentOnStatusAlert();
         verifier.setAlertOnInvalidTimestamp(silentAlert);
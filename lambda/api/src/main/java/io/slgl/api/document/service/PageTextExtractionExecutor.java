@@ -0,0 +1,50 @@
+package io.slgl.api.document.service;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.slgl.api.document.model.ParsedPdfDocument;
+import io.slgl.api.utils.LambdaEnv;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Extracts text of whole PDF documents, with pages extracted in parallel when enabled with
+ * {@code PDF_TEXT_EXTRACTION_THREAD_COUNT} (pages are extracted one by one on the calling thread by default).
+ * <p>
+ * Every thread extracts a range of at least {@link #MIN_PAGES_PER_THREAD} pages, as it has to open the document again.
+ * Text of every page is extracted on its own, so the result is the same as when extracted one by one.
+ */
+public class PageTextExtractionExecutor {
+
+    static final int MIN_PAGES_PER_THREAD = 10;
+
+    private final int threadCount;
+    private ExecutorService executorService;
+
+    public PageTextExtractionExecutor() {
+        this(LambdaEnv.PdfTextExtraction.getThreadCount());
+    }
+
+    PageTextExtractionExecutor(int threadCount) {
+        this.threadCount = threadCount;
+    }
+
+    public String extractText(ParsedPdfDocument document) {
+        // calling thread extracts one of the ranges as well
+        int parallelism = Math.min(threadCount + 1, document.getNumberOfPages() / MIN_PAGES_PER_THREAD);
+        if (threadCount > 0 && parallelism > 1) {
+            document.extractPageTexts(getExecutorService(), parallelism);
+        }
+        return document.getText();
+    }
+
+    private synchronized ExecutorService getExecutorService() {
+        if (executorService == null) {
+            executorService = Executors.newFixedThreadPool(threadCount, new ThreadFactoryBuilder()
+                    .setNameFormat("pdf-text-extraction-%d")
+                    .setDaemon(true)
+                    .build());
+        }
+        return executorService;
+    }
+}
@@ -2,28 +2,41 @@ package io.slgl.api.document.service;
 
 import io.slgl.api.ExecutionContext;
 import io.slgl.api.utils.LambdaEnv;
+import lombok.extern.slf4j.Slf4j;
 
+import java.time.Duration;
 import java.time.Instant;
 
-import static io.slgl.api.utils.TimerUtils.runWithTimer;
 import static java.time.temporal.ChronoUnit.MINUTES;
 
+/**
+ * Starts trusted lists refresh on background thread when the last one is older than the reload rate, so that no
+ * request waits for it. The first refresh is started already when the handler is initialized, but Lambda freezes the
+ * environment after initialization and between invocations, so it usually continues only with the first request,
+ * which then waits for it (see {@link TrustListManagementService#getSnapshot()}).
+ */
+@Slf4j
 public class RefreshingScheduler implements ExecutionContext.PreExecutionCallback {
     private final int refreshRateMinutes = LambdaEnv.DssCache.getOfflineReloadRateInMinutes();
     private final TrustListManagementService trustListManagementService = ExecutionContext.get(TrustListManagementService.class);
     private Instant lastRefresh;
 
+    public RefreshingScheduler() {
+        refresh(Instant.now());
+    }
+
     @Override
     public void beforeExecution() {
         var currentTime = Instant.now();
         if (lastRefresh == null || lastRefresh.until(currentTime, MINUTES) > refreshRateMinutes) {
-            refresh();
-            lastRefresh = currentTime;
+            refresh(currentTime);
         }
     }
 
-    private void refresh() {
-        runWithTimer("s3 cache reload: ", () -> trustListManagementService.reloadCacheFromS3(false));
-        runWithTimer("TL refresh: ", trustListManagementService::refresh);
+    private void refresh(Instant currentTime) {
+        log.info("Trust list refresh started | snapshot_age_s: {}",
+                trustListManagementService.getSnapshotAge().map(Duration::toSeconds).orElse(null));
+        trustListManagementService.refreshInBackground();
+        lastRefresh = currentTime;
     }
 }
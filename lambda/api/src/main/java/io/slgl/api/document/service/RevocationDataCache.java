@@ -0,0 +1,193 @@
+package io.slgl.api.document.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import io.slgl.api.ExecutionContext;
+import io.slgl.api.utils.LambdaEnv;
+import io.slgl.api.utils.Utils;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * Revocation data shared by all documents validated in the Lambda container, used until its {@code nextUpdate}. When a
+ * bucket is configured, entries are also kept in a store shared by all containers, which the trust list cache
+ * refresher keeps warm. The shared store is best effort - its failures only cause the data to be downloaded again.
+ * <p>
+ * Data downloaded with GET (CRLs, certificates from AIA) is stored under {@code revocation/crl/} and refreshed, expired
+ * entries which can't be refreshed are deleted. OCSP responses are stored under {@code revocation/ocsp/} and are
+ * neither refreshed nor deleted by the application - the bucket requires a lifecycle rule expiring objects with this
+ * prefix after {@code REVOCATION_CACHE_MAX_EXPIRATION_IN_SECONDS} (1 day by default), as no response is cached longer.
+ */
+@Slf4j
+public class RevocationDataCache implements ExecutionContext.PostExecutionCallback {
+
+    private static final ObjectMapper CBOR_MAPPER = new ObjectMapper(new CBORFactory());
+
+    static final String CRL_KEY_PREFIX = "crl/";
+    static final String OCSP_KEY_PREFIX = "ocsp/";
+
+    private final SharedCacheStore sharedStore;
+    private final Clock clock;
+
+    private final Cache<String, CachedRevocationData> cache = CacheBuilder.newBuilder()
+            .maximumWeight(LambdaEnv.RevocationCache.getMaxSizeInBytes())
+            .weigher((String key, CachedRevocationData entry) -> key.length() + entry.getData().length)
+            .recordStats()
+            .build();
+
+    public RevocationDataCache() {
+        this(createSharedStore(), Clock.systemUTC());
+    }
+
+    RevocationDataCache(SharedCacheStore sharedStore, Clock clock) {
+        this.sharedStore = sharedStore;
+        this.clock = clock;
+    }
+
+    private static SharedCacheStore createSharedStore() {
+        var bucket = LambdaEnv.RevocationCache.getS3Bucket();
+        return bucket != null ? new S3SharedCacheStore(ExecutionContext.getProvider(S3Client.class), bucket, "revocation/") : null;
+    }
+
+    public Instant now() {
+        return clock.instant();
+    }
+
+    public Optional<byte[]> get(String url, byte[] requestContent) {
+        var key = key(url, requestContent);
+
+        var entry = cache.getIfPresent(key);
+        if (entry == null && sharedStore != null) {
+            entry = readShared(key).orElse(null);
+            if (entry != null && !isExpired(entry)) {
+                cache.put(key, entry);
+            }
+        }
+
+        if (entry == null || isExpired(entry)) {
+            cache.invalidate(key);
+            return Optional.empty();
+        }
+        return Optional.of(entry.getData());
+    }
+
+    public void put(CachedRevocationData entry) {
+        if (isExpired(entry)) {
+            return;
+        }
+
+        var key = key(entry.getUrl(), entry.getRequestContent());
+        cache.put(key, entry);
+        if (sharedStore != null) {
+            writeShared(key, entry);
+        }
+    }
+
+    /**
+     * Replaces entries of the shared store which expire within given time with data downloaded again. Only entries
+     * downloaded with GET (CRLs) are refreshed, OCSP responses are specific to the certificate and short lived.
+     * Expiration of entries is read without downloading them, only the expiring ones are downloaded. Expired entries
+     * which can't be refreshed are deleted.
+     *
+     * @return number of refreshed entries
+     */
+    public int refreshSharedEntries(Duration expiringWithin, UnaryOperator<CachedRevocationData> refresher) {
+        if (sharedStore == null) {
+            return 0;
+        }
+
+        var refreshed = 0;
+        var refreshBefore = now().plus(expiringWithin);
+        for (String key : sharedStore.keys(CRL_KEY_PREFIX)) {
+            try {
+                var expires = sharedStore.getExpires(key);
+                if (expires.isPresent() && expires.get().isAfter(refreshBefore)) {
+                    continue;
+                }
+
+                var entry = readShared(key).orElse(null);
+                if (entry != null && refreshSharedEntry(key, entry, refresher)) {
+                    refreshed++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Unable to refresh shared revocation data: key={}", key, e);
+            }
+        }
+        return refreshed;
+    }
+
+    private boolean refreshSharedEntry(String key, CachedRevocationData entry, UnaryOperator<CachedRevocationData> refresher) {
+        try {
+            var refreshedEntry = refresher.apply(entry);
+            if (!isExpired(refreshedEntry)) {
+                writeShared(key, refreshedEntry);
+                return true;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Unable to refresh revocation data: url={}", entry.getUrl(), e);
+        }
+
+        if (isExpired(entry)) {
+            sharedStore.delete(key);
+        }
+        return false;
+    }
+
+    private boolean isExpired(CachedRevocationData entry) {
+        return entry.getExpires() == null || !entry.getExpires().toInstant().isAfter(now());
+    }
+
+    private Optional<CachedRevocationData> readShared(String key) {
+        try {
+            var bytes = sharedStore.get(key);
+            if (bytes.isPresent()) {
+                return Optional.of(CBOR_MAPPER.readValue(bytes.get(), CachedRevocationData.class));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to read shared revocation data: key={}", key, e);
+        }
+        return Optional.empty();
+    }
+
+    private void writeShared(String key, CachedRevocationData entry) {
+        try {
+            sharedStore.put(key, CBOR_MAPPER.writeValueAsBytes(entry), entry.getExpires().toInstant());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to store shared revocation data: url={}", entry.getUrl(), e);
+        }
+    }
+
+    private static String key(String url, byte[] requestContent) {
+        var request = new ByteArrayOutputStream();
+        request.writeBytes(url.getBytes(StandardCharsets.UTF_8));
+        if (requestContent != null) {
+            request.write(0);
+            request.writeBytes(requestContent);
+        }
+        var prefix = requestContent != null ? OCSP_KEY_PREFIX : CRL_KEY_PREFIX;
+        return prefix + Utils.getSha3OfBytes(request.toByteArray());
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void afterExecution() {
+        CacheStats stats = cache.stats();
+        log.info("Revocation data cache: size={}, hits={}, misses={}, evictions={}",
+                cache.size(), stats.hitCount(), stats.missCount(), stats.evictionCount());
+    }
+}
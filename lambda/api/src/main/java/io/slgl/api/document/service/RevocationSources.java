@@ -0,0 +1,42 @@
+package io.slgl.api.document.service;
+
+import eu.europa.esig.dss.service.crl.OnlineCRLSource;
+import eu.europa.esig.dss.service.ocsp.OnlineOCSPSource;
+import io.slgl.api.ExecutionContext;
+import lombok.Getter;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Long-lived revocation sources and data loader used for certificate verification of all documents, sharing one
+ * pooled HTTP client and {@link RevocationDataCache}.
+ */
+@Getter
+public class RevocationSources {
+
+    static final String OCSP_REQUEST_CONTENT_TYPE = "application/ocsp-request";
+
+    private final CachingRevocationDataLoader dataLoader;
+    private final OnlineCRLSource crlSource;
+    private final OnlineOCSPSource ocspSource;
+
+    public RevocationSources() {
+        this(ExecutionContext.get(RevocationDataCache.class));
+    }
+
+    RevocationSources(RevocationDataCache cache) {
+        var httpClient = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+
+        dataLoader = new CachingRevocationDataLoader(cache, httpClient);
+
+        var ocspDataLoader = new CachingRevocationDataLoader(cache, httpClient);
+        ocspDataLoader.setContentType(OCSP_REQUEST_CONTENT_TYPE);
+
+        crlSource = new OnlineCRLSource(dataLoader);
+        ocspSource = new OnlineOCSPSource(ocspDataLoader);
+    }
+}
@@ -0,0 +1,95 @@
+package io.slgl.api.document.service;
+
+import io.slgl.api.config.Provider;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Shared cache store keeping every entry in its own S3 object. Expiration of entries is kept in user metadata of the
+ * objects, so that it is read with HEAD request without downloading them.
+ */
+public class S3SharedCacheStore implements SharedCacheStore {
+
+    private static final String EXPIRES_METADATA_KEY = "expires";
+
+    private final Provider<S3Client> s3Client;
+    private final String bucket;
+    private final String keyPrefix;
+
+    public S3SharedCacheStore(Provider<S3Client> s3Client, String bucket, String keyPrefix) {
+        this.s3Client = s3Client;
+        this.bucket = bucket;
+        this.keyPrefix = keyPrefix;
+    }
+
+    @Override
+    public Optional<byte[]> get(String key) {
+        var request = GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(keyPrefix + key)
+                .build();
+        try {
+            return Optional.of(s3Client.get().getObjectAsBytes(request).asByteArray());
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void put(String key, byte[] value, Instant expires) {
+        var request = PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(keyPrefix + key)
+                .metadata(expires != null ? Map.of(EXPIRES_METADATA_KEY, expires.toString()) : Map.of())
+                .build();
+        s3Client.get().putObject(request, RequestBody.fromBytes(value));
+    }
+
+    @Override
+    public Optional<Instant> getExpires(String key) {
+        var request = HeadObjectRequest.builder()
+                .bucket(bucket)
+                .key(keyPrefix + key)
+                .build();
+        try {
+            return Optional.ofNullable(s3Client.get().headObject(request).metadata().get(EXPIRES_METADATA_KEY))
+                    .map(Instant::parse);
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public List<String> keys(String keyPrefix) {
+        var request = ListObjectsV2Request.builder()
+                .bucket(bucket)
+                .prefix(this.keyPrefix + keyPrefix)
+                .build();
+        return s3Client.get().listObjectsV2Paginator(request).contents().stream()
+                .map(S3Object::key)
+                .map(key -> key.substring(this.keyPrefix.length()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void delete(String key) {
+        var request = DeleteObjectRequest.builder()
+                .bucket(bucket)
+                .key(keyPrefix + key)
+                .build();
+        s3Client.get().deleteObject(request);
+    }
+}
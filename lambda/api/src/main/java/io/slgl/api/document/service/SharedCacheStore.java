@@ -0,0 +1,29 @@
+package io.slgl.api.document.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Storage of serialized cache entries shared between Lambda containers.
+ */
+public interface SharedCacheStore {
+
+    Optional<byte[]> get(String key);
+
+    default void put(String key, byte[] value) {
+        put(key, value, null);
+    }
+
+    /**
+     * @param expires time until which the entry can be used, stored next to the value, so that it can be read
+     *                without reading the value; null when the entry does not expire
+     */
+    void put(String key, byte[] value, Instant expires);
+
+    Optional<Instant> getExpires(String key);
+
+    List<String> keys(String keyPrefix);
+
+    void delete(String key);
+}
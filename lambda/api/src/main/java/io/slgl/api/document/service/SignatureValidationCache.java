@@ -0,0 +1,147 @@
+package io.slgl.api.document.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import io.slgl.api.ExecutionContext;
+import io.slgl.api.document.model.DocumentSignatureData;
+import io.slgl.api.utils.LambdaEnv;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Results of document signatures validation, keyed by SHA3 of the file and version of the trusted lists snapshot it
+ * was validated against, so that a result is not used anymore once trusted lists change. As revocation status of
+ * certificates may change as well, results expire after configured time regardless of the trusted lists.
+ * <p>
+ * Results are kept in memory of the Lambda container as CBOR bytes and, when a bucket is configured, in a store shared
+ * by all containers. The shared store is best effort - its failures only cause the document to be validated again.
+ */
+@Slf4j
+public class SignatureValidationCache implements ExecutionContext.PostExecutionCallback {
+
+    private static final ObjectMapper CBOR_MAPPER = new ObjectMapper(new CBORFactory());
+
+    private final SharedCacheStore sharedStore;
+    private final Clock clock;
+    private final Duration expiration = Duration.ofSeconds(LambdaEnv.SignatureCache.getExpirationInSeconds());
+
+    private final Cache<String, byte[]> cache = CacheBuilder.newBuilder()
+            .maximumWeight(LambdaEnv.SignatureCache.getMaxSizeInBytes())
+            .weigher((String key, byte[] result) -> key.length() + result.length)
+            .expireAfterWrite(LambdaEnv.SignatureCache.getExpirationInSeconds(), TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+
+    public SignatureValidationCache() {
+        this(createSharedStore(), Clock.systemUTC());
+    }
+
+    SignatureValidationCache(SharedCacheStore sharedStore, Clock clock) {
+        this.sharedStore = sharedStore;
+        this.clock = clock;
+    }
+
+    private static SharedCacheStore createSharedStore() {
+        var bucket = LambdaEnv.SignatureCache.getS3Bucket();
+        return bucket != null ? new S3SharedCacheStore(ExecutionContext.getProvider(S3Client.class), bucket, "signature_validation/") : null;
+    }
+
+    public Optional<List<DocumentSignatureData>> get(String fileSha3, String trustListVersion) {
+        var key = key(fileSha3, trustListVersion);
+
+        var result = read(key, cache.getIfPresent(key));
+        if (result.isEmpty() && sharedStore != null) {
+            byte[] sharedResult = null;
+            try {
+                sharedResult = sharedStore.get(key).orElse(null);
+            } catch (RuntimeException e) {
+                log.warn("Unable to read shared signature validation result: key={}", key, e);
+            }
+            result = read(key, sharedResult);
+            if (result.isPresent()) {
+                cache.put(key, sharedResult);
+            }
+        }
+
+        return result.map(CachedValidation::getSignatures);
+    }
+
+    public void put(String fileSha3, String trustListVersion, List<DocumentSignatureData> signatures) {
+        var key = key(fileSha3, trustListVersion);
+
+        byte[] bytes;
+        try {
+            bytes = CBOR_MAPPER.writeValueAsBytes(new CachedValidation(Date.from(clock.instant()), signatures));
+        } catch (IOException e) {
+            log.warn("Unable to cache signature validation result: key={}", key, e);
+            return;
+        }
+
+        cache.put(key, bytes);
+        if (sharedStore != null) {
+            try {
+                sharedStore.put(key, bytes);
+            } catch (RuntimeException e) {
+                log.warn("Unable to store shared signature validation result: key={}", key, e);
+            }
+        }
+    }
+
+    private Optional<CachedValidation> read(String key, byte[] bytes) {
+        if (bytes == null) {
+            return Optional.empty();
+        }
+
+        CachedValidation validation;
+        try {
+            validation = CBOR_MAPPER.readValue(bytes, CachedValidation.class);
+        } catch (IOException e) {
+            log.warn("Unable to read cached signature validation result, evicting: key={}", key, e);
+            cache.invalidate(key);
+            return Optional.empty();
+        }
+
+        if (validation.getValidated().toInstant().plus(expiration).isBefore(clock.instant())) {
+            cache.invalidate(key);
+            return Optional.empty();
+        }
+        return Optional.of(validation);
+    }
+
+    private static String key(String fileSha3, String trustListVersion) {
+        return trustListVersion + "/" + fileSha3;
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void afterExecution() {
+        CacheStats stats = cache.stats();
+        log.info("Signature validation cache: size={}, hits={}, misses={}, evictions={}",
+                cache.size(), stats.hitCount(), stats.missCount(), stats.evictionCount());
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class CachedValidation {
+        private Date validated;
+        private List<DocumentSignatureData> signatures;
+    }
+}
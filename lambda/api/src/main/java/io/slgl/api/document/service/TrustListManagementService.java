@@ -1,6 +1,8 @@
 package io.slgl.api.document.service;
 
+import com.google.common.base.Stopwatch;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import eu.europa.esig.dss.model.DSSException;
 import eu.europa.esig.dss.spi.client.http.DSSFileLoader;
 import eu.europa.esig.dss.spi.tsl.TrustedListsCertificateSource;
@@ -23,7 +25,7 @@ import eu.europa.esig.dss.tsl.source.LOTLSource;
 import eu.europa.esig.dss.tsl.sync.AcceptAllStrategy;
 import io.slgl.api.ExecutionContext;
 import io.slgl.api.utils.LambdaEnv;
-import lombok.Getter;
+import io.slgl.api.utils.Utils;
 import lombok.extern.slf4j.Slf4j;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
@@ -33,41 +35,67 @@ import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.zip.ZipInputStream;
 
 import static io.slgl.api.document.service.DssProperties.*;
+import static io.slgl.api.utils.TimerUtils.runWithTimer;
+import static io.slgl.api.utils.json.UncheckedObjectMapper.MAPPER;
 
+/**
+ * Keeps trusted lists certificate source double buffered: each refresh synchronizes trusted lists into a new
+ * {@link TrustedListsCertificateSource}, which replaces the current one only when the refresh has finished. Validation
+ * running in the meantime uses the previous, complete source.
+ */
 @Slf4j
 public class TrustListManagementService {
 
-    @Getter
-    private final TrustedListsCertificateSource trustedListsCertificateSource = new TrustedListsCertificateSource();
+    private final AtomicReference<TrustListSnapshot> snapshot = new AtomicReference<>(TrustListSnapshot.initial());
+    private volatile CompletableFuture<Void> backgroundRefresh;
+    private ExecutorService backgroundExecutor;
+    // held for whole cache reload and refresh, separate from the monitor of refreshInBackground() not to block it
+    private final Object refreshLock = new Object();
 
     private final TLValidationJob tlValidationJob;
     private final ZipCacheDSSFileLoader loader;
     private final boolean online;
+    private final Runnable cacheReload;
     private Instant lastS3Reloaded;
-    private Map<String, DSSZipCacheEntry> lastCacheSnapshot;
+    private DSSCacheManifest lastManifest;
 
-    private TrustListManagementService(boolean online, ZipCacheDSSFileLoader loader) {
+    private TrustListManagementService(boolean online, ZipCacheDSSFileLoader loader, Runnable cacheReload) {
         this.online = online;
         this.loader = loader;
+        this.cacheReload = cacheReload;
         tlValidationJob = createTLValidationJob();
     }
 
     public static TrustListManagementService online(DSSFileLoader loader) {
         Objects.requireNonNull(loader, "online loader has to be provided");
-        return new TrustListManagementService(true, new ZipCacheDSSFileLoader(loader));
+        return new TrustListManagementService(true, new ZipCacheDSSFileLoader(loader), null);
     }
 
     public static TrustListManagementService offline() {
-        return new TrustListManagementService(false, new ZipCacheDSSFileLoader(null));
+        return new TrustListManagementService(false, new ZipCacheDSSFileLoader(null), null);
+    }
+
+    /**
+     * @param cacheReload run instead of reloading cache from S3 before each refresh
+     */
+    static TrustListManagementService offline(Runnable cacheReload) {
+        return new TrustListManagementService(false, new ZipCacheDSSFileLoader(null), cacheReload);
     }
 
     private TLValidationJob createTLValidationJob() {
@@ -79,7 +107,6 @@ public class TrustListManagementService {
             tlValidationJob.setOfflineDataLoader(loader);
         }
         tlValidationJob.setCacheCleaner(cacheCleaner(loader));
-        tlValidationJob.setTrustedListCertificateSource(trustedListsCertificateSource);
         tlValidationJob.setSynchronizationStrategy(new AcceptAllStrategy());
 
         LOTLSource europeanLOTL = europeanLOTL();
@@ -105,44 +132,58 @@ public class TrustListManagementService {
     }
 
     public void exportCacheToS3IfUpdated() {
-        if (!loader.differs(lastCacheSnapshot)) {
+        var manifest = loader.toManifest();
+        if (manifest.equals(lastManifest)) {
             log.info("Cache has not been changed");
             return;
         }
-        try {
-            var request = PutObjectRequest.builder()
-                    .bucket(LambdaEnv.DssCache.getS3Bucket())
-                    .key(LambdaEnv.DssCache.getTrustListCacheZipS3Key())
-                    .build();
-            var bytes = loader.toByteArray();
-            S3Client s3Client = S3Client.builder().build();
-            s3Client.putObject(request, RequestBody.fromBytes(bytes));
-            lastCacheSnapshot = loader.currentSnapshot();
-            log.info("Zipped cache exported to s3");
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+
+        Set<String> exportedDigests = new HashSet<>();
+        if (lastManifest != null) {
+            lastManifest.getEntries().forEach(entry -> exportedDigests.add(entry.getDigest()));
+        }
+        try (S3Client s3Client = S3Client.builder().build()) {
+            var uploaded = 0;
+            for (DSSZipCacheEntry entry : loader.getEntries()) {
+                if (exportedDigests.add(entry.getDigest())) {
+                    s3Client.putObject(putRequest(entryKey(entry.getDigest())), RequestBody.fromBytes(entry.getBytes()));
+                    uploaded++;
+                }
+            }
+            s3Client.putObject(putRequest(manifestKey()), RequestBody.fromString(MAPPER.writeValueAsString(manifest)));
+            lastManifest = manifest;
+            log.info("Trust list cache export | entries: {} | uploaded: {}", manifest.getEntries().size(), uploaded);
         }
     }
 
-    public void reloadCacheFromS3(boolean throwOnMissingZip) {
+    /**
+     * Reloads cache from manifest stored in S3, downloading only entries whose content is not in the cache yet. Until
+     * the refresher exports the first manifest, the cache is reloaded from the zip exported before.
+     */
+    public void reloadCacheFromS3(boolean throwOnMissingManifest) {
         var request = GetObjectRequest.builder()
                 .bucket(LambdaEnv.DssCache.getS3Bucket())
-                .key(LambdaEnv.DssCache.getTrustListCacheZipS3Key())
+                .key(manifestKey())
                 .ifModifiedSince(lastS3Reloaded)
                 .build();
-        try (
-                S3Client s3Client = S3Client.builder().build();
-                var response = s3Client.getObject(request);
-                var zipInput = new ZipInputStream(response)
-        ) {
-            loader.initFromZip(zipInput);
+        try (S3Client s3Client = S3Client.builder().build()) {
+            var response = s3Client.getObjectAsBytes(request);
+            var manifest = MAPPER.readValue(response.asInputStream(), DSSCacheManifest.class);
+            var downloaded = loader.initFromManifest(manifest, entry -> s3Client.getObjectAsBytes(GetObjectRequest.builder()
+                    .bucket(LambdaEnv.DssCache.getS3Bucket())
+                    .key(entryKey(entry.getDigest()))
+                    .build()).asByteArray());
             lastS3Reloaded = response.response().lastModified();
-            lastCacheSnapshot = loader.currentSnapshot();
+            lastManifest = loader.toManifest();
+            log.info("Trust list cache reload | entries: {} | downloaded: {}", manifest.getEntries().size(), downloaded);
         } catch (NoSuchKeyException e) {
-            if (throwOnMissingZip) {
+            if (reloadCacheFromLegacyZip()) {
+                return;
+            }
+            if (throwOnMissingManifest) {
                 throw new IllegalStateException(e);
             } else {
-                log.info("No cached zip found");
+                log.info("No cache manifest found");
             }
         } catch (S3Exception e) {
             if (e.statusCode() == 304) {
@@ -150,19 +191,143 @@ public class TrustListManagementService {
             } else {
                 throw e;
             }
+        }
+    }
+
+    private boolean reloadCacheFromLegacyZip() {
+        var request = GetObjectRequest.builder()
+                .bucket(LambdaEnv.DssCache.getS3Bucket())
+                .key(LambdaEnv.DssCache.getTrustListCacheZipS3Key())
+                .build();
+        try (
+                S3Client s3Client = S3Client.builder().build();
+                var response = s3Client.getObject(request);
+                var zipInput = new ZipInputStream(response)
+        ) {
+            loader.initFromZip(zipInput);
+            lastManifest = null;
+            log.info("Trust list cache reload from legacy zip, no cache manifest found | entries: {}", loader.getEntries().size());
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
         } catch (IOException e) {
-            throw new RuntimeException(e);
+            throw new UncheckedIOException(e);
         }
     }
 
+    private static PutObjectRequest putRequest(String key) {
+        return PutObjectRequest.builder()
+                .bucket(LambdaEnv.DssCache.getS3Bucket())
+                .key(key)
+                .build();
+    }
+
+    private static String manifestKey() {
+        return LambdaEnv.DssCache.getTrustListCacheS3Prefix() + "manifest.json";
+    }
+
+    private static String entryKey(String digest) {
+        return LambdaEnv.DssCache.getTrustListCacheS3Prefix() + "entries/" + digest;
+    }
+
     public void refresh() {
-        if (online) {
-            tlValidationJob.onlineRefresh();
-        } else {
-            tlValidationJob.offlineRefresh();
+        synchronized (refreshLock) {
+            var stopwatch = Stopwatch.createStarted();
+            var refreshedSource = new TrustedListsCertificateSource();
+            tlValidationJob.setTrustedListCertificateSource(refreshedSource);
+            if (online) {
+                tlValidationJob.onlineRefresh();
+            } else {
+                tlValidationJob.offlineRefresh();
+            }
+
+            var replacedSnapshotAge = getSnapshotAge();
+            snapshot.set(new TrustListSnapshot(refreshedSource, snapshotVersion(), Instant.now()));
+            log.info("Trust list refresh | duration_ms: {} | replaced_snapshot_age_s: {} | certificates: {}",
+                    stopwatch.elapsed().toMillis(),
+                    replacedSnapshotAge.map(Duration::toSeconds).orElse(null),
+                    refreshedSource.getNumberOfCertificates());
+        }
+    }
+
+    private void reloadCacheAndRefresh() {
+        synchronized (refreshLock) {
+            if (cacheReload != null) {
+                cacheReload.run();
+            } else {
+                runWithTimer("s3 cache reload: ", () -> reloadCacheFromS3(false));
+            }
+            runWithTimer("TL refresh: ", this::refresh);
         }
     }
 
+    private String snapshotVersion() {
+        var entries = new StringBuilder();
+        for (DSSCacheManifest.Entry entry : loader.toManifest().getEntries()) {
+            entries.append(entry.getName()).append(' ').append(entry.getDigest()).append('\n');
+        }
+        return Utils.getSha3OfBytes(entries.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Starts reloading cache from S3 and refreshing trusted lists on background thread, unless such refresh is
+     * already running.
+     */
+    public synchronized CompletableFuture<Void> refreshInBackground() {
+        if (backgroundRefresh != null && !backgroundRefresh.isDone()) {
+            return backgroundRefresh;
+        }
+        if (backgroundExecutor == null) {
+            backgroundExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                    .setNameFormat("trust-list-refresh-%d")
+                    .setDaemon(true)
+                    .build());
+        }
+
+        backgroundRefresh = CompletableFuture.runAsync(this::reloadCacheAndRefresh, backgroundExecutor).whenComplete((result, error) -> {
+            if (error != null) {
+                log.error("Trust list refresh failed, keeping snapshot from {}", snapshot.get().getRefreshed(), error);
+            }
+        });
+        return backgroundRefresh;
+    }
+
+    /**
+     * Returns snapshot of the last finished refresh. When no refresh has finished yet, there are no trusted
+     * certificates to validate against, so the running refresh is awaited and when there was none or it failed, the
+     * refresh is done on the calling thread. Its exception is thrown, failing the request instead of validating it
+     * against an empty trusted list.
+     */
+    public TrustListSnapshot getSnapshot() {
+        if (snapshot.get().getRefreshed() == null) {
+            awaitFirstRefresh();
+        }
+        return snapshot.get();
+    }
+
+    private void awaitFirstRefresh() {
+        var refresh = backgroundRefresh;
+        if (refresh != null && !refresh.isDone()) {
+            runWithTimer("waiting for first TL refresh: ", () -> refresh.exceptionally(error -> null).join());
+        }
+
+        synchronized (refreshLock) {
+            if (snapshot.get().getRefreshed() == null) {
+                log.warn("No trust list refresh finished, refreshing on request thread");
+                reloadCacheAndRefresh();
+            }
+        }
+    }
+
+    public TrustedListsCertificateSource getTrustedListsCertificateSource() {
+        return getSnapshot().getCertificateSource();
+    }
+
+    public Optional<Duration> getSnapshotAge() {
+        var refreshed = snapshot.get().getRefreshed();
+        return refreshed != null ? Optional.of(Duration.between(refreshed, Instant.now())) : Optional.empty();
+    }
+
     private LOTLSource europeanLOTL() {
         LOTLSource lotlSource = new LOTLSource();
         lotlSource.setUrl(LOTL_URL);
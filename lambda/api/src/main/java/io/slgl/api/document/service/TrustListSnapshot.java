@@ -0,0 +1,32 @@
+package io.slgl.api.document.service;
+
+import eu.europa.esig.dss.spi.tsl.TrustedListsCertificateSource;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Trusted lists certificate source of one finished refresh, with version identifying content of the trusted lists
+ * it was synchronized from, equal on all containers refreshed from the same cache.
+ */
+@Value
+public class TrustListSnapshot {
+
+    static final String INITIAL_VERSION = "none";
+
+    TrustedListsCertificateSource certificateSource;
+    String version;
+    Instant refreshed;
+
+    static TrustListSnapshot initial() {
+        return new TrustListSnapshot(new TrustedListsCertificateSource(), INITIAL_VERSION, null);
+    }
+
+    /**
+     * Validation results can be cached only for snapshot of a successful refresh with some trusted certificates. Results
+     * validated against no trusted certificates would be served for the whole lifetime of the version otherwise.
+     */
+    boolean isCacheable() {
+        return refreshed != null && certificateSource.getNumberOfCertificates() > 0;
+    }
+}
@@ -5,17 +5,20 @@ import eu.europa.esig.dss.model.DSSException;
 import eu.europa.esig.dss.spi.DSSUtils;
 import eu.europa.esig.dss.spi.client.http.DSSFileLoader;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
-import java.util.zip.ZipOutputStream;
 
 public class ZipCacheDSSFileLoader implements DSSFileLoader {
 
-    private final Map<String, DSSZipCacheEntry> cacheMap = new HashMap<>();
+    private final Map<String, DSSZipCacheEntry> cacheMap = new ConcurrentHashMap<>();
     private final DSSFileLoader delegate;
 
     public ZipCacheDSSFileLoader() {
@@ -26,6 +29,9 @@ public class ZipCacheDSSFileLoader implements DSSFileLoader {
         this.delegate = delegate;
     }
 
+    /**
+     * Replaces cache content with entries of the zip the cache was exported to before {@link DSSCacheManifest}.
+     */
     public void initFromZip(ZipInputStream input) throws IOException {
         cacheMap.clear();
         ZipEntry entry;
@@ -36,14 +42,56 @@ public class ZipCacheDSSFileLoader implements DSSFileLoader {
         }
     }
 
-    public Map<String, DSSZipCacheEntry> currentSnapshot() {
-        return Map.copyOf(cacheMap);
+    /**
+     * Replaces cache content with entries of the manifest. Entries with digest already present in the cache are
+     * reused, only the others are loaded with given function.
+     *
+     * @return number of loaded entries
+     */
+    public int initFromManifest(DSSCacheManifest manifest, Function<DSSCacheManifest.Entry, byte[]> entryLoader) {
+        Map<String, byte[]> bytesByDigest = cacheMap.values().stream()
+                .collect(Collectors.toMap(DSSZipCacheEntry::getDigest, DSSZipCacheEntry::getBytes, (first, second) -> first));
+
+        var loaded = 0;
+        Map<String, DSSZipCacheEntry> entries = new HashMap<>();
+        for (DSSCacheManifest.Entry manifestEntry : manifest.getEntries()) {
+            var bytes = bytesByDigest.get(manifestEntry.getDigest());
+            if (bytes == null) {
+                bytes = entryLoader.apply(manifestEntry);
+                bytesByDigest.put(manifestEntry.getDigest(), bytes);
+                loaded++;
+            }
+            var entry = new DSSZipCacheEntry(bytes, manifestEntry.getName(), manifestEntry.getEtag(), manifestEntry.getLastModified());
+            entries.put(DSSUtils.getNormalizedString(entry.getName()), entry);
+        }
+
+        cacheMap.keySet().retainAll(entries.keySet());
+        cacheMap.putAll(entries);
+        return loaded;
+    }
+
+    public DSSCacheManifest toManifest() {
+        return new DSSCacheManifest(cacheMap.values().stream()
+                .sorted(Comparator.comparing(DSSZipCacheEntry::getName))
+                .map(entry -> new DSSCacheManifest.Entry(entry.getName(), entry.getDigest(), entry.getEtag(), entry.getLastModified()))
+                .collect(Collectors.toList()));
+    }
+
+    public Collection<DSSZipCacheEntry> getEntries() {
+        return cacheMap.values();
     }
 
     @Override
     public DSSDocument getDocument(String url) throws DSSException {
         var normalizedUrl = DSSUtils.getNormalizedString(url);
         var cached = cacheMap.get(normalizedUrl);
+        if (delegate instanceof ConditionalDSSFileLoader) {
+            var loaded = ((ConditionalDSSFileLoader) delegate).getDocument(url, cached);
+            if (loaded != cached) {
+                putCacheEntry(loaded);
+            }
+            return loaded.asDocument();
+        }
         if (delegate != null) {
             var loadedDoc = delegate.getDocument(url);
             cached = new DSSZipCacheEntry(loadedDoc);
@@ -55,22 +103,6 @@ public class ZipCacheDSSFileLoader implements DSSFileLoader {
         throw new DSSException("Cannot retrieve data from URL [" + url + "]");
     }
 
-    public void writeTo(ZipOutputStream output) throws IOException {
-        for (DSSZipCacheEntry entry : cacheMap.values()) {
-            entry.writeTo(output);
-        }
-    }
-
-    public byte[] toByteArray() throws IOException {
-        var out = new ByteArrayOutputStream();
-        try (var zippedOut = new ZipOutputStream(out)) {
-            for (DSSZipCacheEntry entry : cacheMap.values()) {
-                entry.writeTo(zippedOut);
-            }
-        }
-        return out.toByteArray();
-    }
-
     private void putCacheEntry(DSSZipCacheEntry cacheEntry) {
         var name = DSSUtils.getNormalizedString(cacheEntry.getName());
         cacheMap.put(name, cacheEntry);
@@ -80,8 +112,4 @@ public class ZipCacheDSSFileLoader implements DSSFileLoader {
     public boolean remove(String url) {
         return cacheMap.remove(url) != null;
     }
-
-    public boolean differs(Map<String, DSSZipCacheEntry> lastCacheSnapshot) {
-        return !cacheMap.equals(lastCacheSnapshot);
-    }
 }
@@ -0,0 +1,45 @@
+package io.slgl.api.domain;
+
+import io.slgl.api.repository.LinkEntity;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keys of ledger entries which items of write request are going to read, collected before the items are written so
+ * that entries can be read in bulk.
+ */
+@Getter
+public class BatchReadKeys {
+
+    private final Set<String> nodeIds = new LinkedHashSet<>();
+    private final Set<String> linkIds = new LinkedHashSet<>();
+    private final List<LinkEntity> links = new ArrayList<>();
+
+    public BatchReadKeys addNodeId(String id) {
+        if (id != null) {
+            nodeIds.add(id);
+        }
+        return this;
+    }
+
+    public BatchReadKeys addLinkId(String id) {
+        if (id != null) {
+            linkIds.add(id);
+        }
+        return this;
+    }
+
+    public BatchReadKeys addLink(String sourceNode, String targetNode, String targetAnchor) {
+        if (sourceNode != null && targetNode != null && targetAnchor != null) {
+            links.add(new LinkEntity()
+                    .setSourceNode(sourceNode)
+                    .setTargetNode(targetNode)
+                    .setTargetAnchor(targetAnchor));
+        }
+        return this;
+    }
+}
@@ -9,10 +9,10 @@ import io.slgl.api.authorization.model.Authorize;
 import io.slgl.api.camouflage.model.CamouflageData;
 import io.slgl.api.context.EvaluationContextBuilder;
 import io.slgl.api.error.ApiException;
+import io.slgl.api.model.AuditorEntity;
 import io.slgl.api.observer.model.ObserverData;
 import io.slgl.api.observer.model.ObserverEntity;
-import io.slgl.api.observer.model.Result;
-import io.slgl.api.observer.service.StorageUploaderFactory;
+import io.slgl.api.observer.service.ObserverNotifier;
 import io.slgl.api.permission.PermissionChecker;
 import io.slgl.api.permission.PermissionCheckerContext;
 import io.slgl.api.permission.service.AuditorNotifier;
@@ -41,7 +41,6 @@ import static io.slgl.api.camouflage.service.CamouflageHelper.extractCamouflageD
 import static io.slgl.api.camouflage.service.CamouflageHelper.isNodeCamouflaged;
 import static io.slgl.api.permission.model.EvaluationLogCodes.ANCHOR_MAX_SIZE_EXCEEDED;
 import static io.slgl.api.utils.Utils.getSha3OnJqSCompliantJson;
-import static java.util.Objects.nonNull;
 import static java.util.Objects.requireNonNull;
 
 public class Link implements RequestItemObject {
@@ -58,7 +57,7 @@ public class Link implements RequestItemObject {
     private final StateService stateService = ExecutionContext.get(StateService.class);
     private final WriteHandlerService writeHandlerService = ExecutionContext.get(WriteHandlerService.class);
     private final LinksGetter linksGetter = ExecutionContext.get(LinksGetter.class);
-    private final StorageUploaderFactory storageUploaderFactory = ExecutionContext.get(StorageUploaderFactory.class);
+    private final ObserverNotifier observerNotifier = ExecutionContext.get(ObserverNotifier.class);
     private final CurrentUserService currentUserService = ExecutionContext.get(CurrentUserService.class);
 
     private final LinkRequest request;
@@ -83,6 +82,21 @@ public class Link implements RequestItemObject {
         this.request = request;
     }
 
+    @Override
+    public void collectReadKeys(BatchReadKeys keys) {
+        keys.addNodeId(request.getSourceNode())
+                .addNodeId(request.getTargetNode());
+    }
+
+    @Override
+    public void collectLinkReadKeys(BatchReadKeys keys) {
+        // same anchor as read by verifyDuplicatedLink(), which depends on camouflage of the target, when it exists
+        if (request.getSourceNode() != null && request.getTargetNode() != null
+                && nodeRepository.readById(request.getTargetNode()) != null) {
+            keys.addLink(request.getSourceNode(), request.getTargetNode(), getTargetAnchor());
+        }
+    }
+
     @Override
     public void resolveReferences(List<RequestItemObject> writtenInCurrentRequest, Map<String, NodeRequest> existingNodesRequests) {
         if (request.getSourceNodeRef() != null && request.getSourceNode() == null) {
@@ -178,34 +192,14 @@ public class Link implements RequestItemObject {
 
     @Override
     public void beforeCommit() {
-        notifyObservers();
-
         writeHandlerService.beforeCommit(this, request);
     }
 
-    private void notifyObservers() {
-        if (getObservers().isEmpty()) {
-            return;
-        }
-
-        for (ObserverEntity observer : getObservers()) {
-            if (observer.hasStorage()) {
-                Result result = storageUploaderFactory
-                        .createUploader(observer.getStorage())
-                        .upload(observerData, observer.getPgpKey())
-                        .log();
-                if (result.isError() && nonNull(observer.getRecoveryStorage())) {
-                    storageUploaderFactory
-                            .createRecoveryUploader(observer.getRecoveryStorage().getPath())
-                            .upload(observerData, observer.getPgpKey())
-                            .log("Recovery upload");
-                }
-            }
-        }
-    }
-
     @Override
     public void afterCommit() {
+        // observers are notified only about committed links, uploads don't keep the transaction open
+        observerNotifier.notify(getObservers(), observerData);
+
         writeHandlerService.afterCommit(this, request);
     }
 
@@ -226,13 +220,15 @@ public class Link implements RequestItemObject {
         Authorization authorization = authorizationFactory.processAuthorization(
                 authorizeForAction, request.getAuthorizations(), contextBuilder);
 
+        List<AuditorEntity> auditors = auditorNotifier.getAuditors(getLinkTarget());
         PermissionChecker permissionChecker = new PermissionChecker(
-                RequestType.LINK_NODE, request.getTargetNode(), getTargetAnchor(), authorization);
+                RequestType.LINK_NODE, request.getTargetNode(), getTargetAnchor(), authorization)
+                .withEvaluationLogging(!auditors.isEmpty());
 
         try {
             PermissionCheckerContext.executeWithContext(permissionChecker, this::verifyLinkPermissions);
         } finally {
-            auditorNotifier.notify(getLinkTarget(), permissionChecker.buildPermissionAudit());
+            auditorNotifier.notify(auditors, permissionChecker.buildPermissionAudit());
         }
     }
 
@@ -272,7 +268,7 @@ public class Link implements RequestItemObject {
         }
 
         int regularLinksCount = linkRepository
-                .readAllByTargetNodeAndTargetAnchor(request.getTargetNode(), getTargetAnchor()).size();
+                .countByTargetNodeAndTargetAnchor(request.getTargetNode(), getTargetAnchor());
 
         var allLinksCount = inlineLinksCount + regularLinksCount;
         return allLinksCount >= anchor.getMaxSize();
@@ -7,6 +7,7 @@ import io.slgl.api.authorization.AuthorizationService;
 import io.slgl.api.authorization.model.Authorize;
 import io.slgl.api.context.EvaluationContextBuilder;
 import io.slgl.api.error.ApiException;
+import io.slgl.api.model.AuditorEntity;
 import io.slgl.api.permission.PermissionChecker;
 import io.slgl.api.permission.PermissionCheckerContext;
 import io.slgl.api.permission.service.AuditorNotifier;
@@ -35,7 +36,7 @@ import java.util.stream.Collectors;
 
 import static io.slgl.api.utils.Utils.generateId;
 import static io.slgl.api.utils.Utils.getSha3OnJqSCompliantJson;
-import static io.slgl.api.utils.json.UncheckedObjectMapper.MAPPER;
+import static io.slgl.api.utils.Utils.getSha3OnJqSCompliantValue;
 import static java.util.Collections.emptyList;
 import static java.util.Objects.requireNonNull;
 import static java.util.Optional.ofNullable;
@@ -111,6 +112,12 @@ public class Node implements RequestItemObject {
         }
     }
 
+    @Override
+    public void collectReadKeys(BatchReadKeys keys) {
+        if (!BuiltinType.isBuiltinTypeId(request.getId())) {
+            keys.addNodeId(request.getId());
+        }
+    }
 
     @Override
     public NodeResponse write() {
@@ -169,12 +176,14 @@ public class Node implements RequestItemObject {
         Authorize authorizeForAction = null;
         Authorization authorization = authorizationFactory.processAuthorization(authorizeForAction, request.getAuthorizations(), contextBuilder);
 
-        PermissionChecker permissionChecker = new PermissionChecker(RequestType.WRITE_NODE, request.getId(), authorization);
+        List<AuditorEntity> auditors = auditorNotifier.getAuditors(getNodeEntity());
+        PermissionChecker permissionChecker = new PermissionChecker(RequestType.WRITE_NODE, request.getId(), authorization)
+                .withEvaluationLogging(!auditors.isEmpty());
 
         try {
             PermissionCheckerContext.executeWithContext(permissionChecker, this::verifyInlineLinksPermissions);
         } finally {
-            auditorNotifier.notify(getNodeEntity(), permissionChecker.buildPermissionAudit());
+            auditorNotifier.notify(auditors, permissionChecker.buildPermissionAudit());
         }
     }
 
@@ -242,8 +251,8 @@ public class Node implements RequestItemObject {
 
             String objectSha3 = request.getRawJson() != null ? getSha3OnJqSCompliantJson(request.getRawJson()) : null;
             String fileSha3 = uploadedFile != null ? uploadedFile.buildFileSha3() : null;
-            String stateSha3 = !state.isEmpty() ? getSha3OnJqSCompliantJson(MAPPER.writeValueAsString(state)) : null;
-            String camouflageSha3 = state.containsKey("@camouflage") ? getSha3OnJqSCompliantJson(MAPPER.writeValueAsString(state.get("@camouflage"))) : null;
+            String stateSha3 = !state.isEmpty() ? getSha3OnJqSCompliantValue(state) : null;
+            String camouflageSha3 = state.containsKey("@camouflage") ? getSha3OnJqSCompliantValue(state.get("@camouflage")) : null;
             String stateSource = !state.isEmpty() ? request.getStateSource() : null;
 
             nodeEntity = new NodeEntity()
@@ -14,6 +14,16 @@ public interface RequestItemObject {
     default void validateBeforeTransaction() {
     }
 
+    default void collectReadKeys(BatchReadKeys keys) {
+    }
+
+    /**
+     * Collects keys of links to read, called when nodes of {@link #collectReadKeys(BatchReadKeys)} are already read,
+     * so that keys may depend on them.
+     */
+    default void collectLinkReadKeys(BatchReadKeys keys) {
+    }
+
     default void resolveReferences(List<RequestItemObject> alreadyWritten, Map<String, NodeRequest> existingNodesRequests) {
     }
 
@@ -7,6 +7,7 @@ import io.slgl.api.authorization.model.Authorize;
 import io.slgl.api.camouflage.model.CamouflageData;
 import io.slgl.api.context.EvaluationContextBuilder;
 import io.slgl.api.error.ApiException;
+import io.slgl.api.model.AuditorEntity;
 import io.slgl.api.permission.PermissionChecker;
 import io.slgl.api.permission.PermissionCheckerContext;
 import io.slgl.api.permission.service.AuditorNotifier;
@@ -21,6 +22,8 @@ import io.slgl.api.utils.ErrorCode;
 import io.slgl.client.audit.RequestType;
 import io.slgl.permission.context.EvaluationContext;
 
+import java.util.List;
+
 import static io.slgl.api.camouflage.service.CamouflageHelper.extractCamouflageData;
 import static io.slgl.api.camouflage.service.CamouflageHelper.isNodeCamouflaged;
 import static java.util.Objects.requireNonNull;
@@ -49,6 +52,11 @@ public class Unlink implements RequestItemObject {
         this.request = request;
     }
 
+    @Override
+    public void collectReadKeys(BatchReadKeys keys) {
+        keys.addLinkId(request.getId());
+    }
+
     @Override
     public UnlinkResponse write() {
         requireNonNull(transactionManager.getCurrentTransaction());
@@ -74,13 +82,15 @@ public class Unlink implements RequestItemObject {
         Authorization authorization = authorizationFactory.processAuthorization(
                 authorizeForAction, request.getAuthorizations(), contextBuilder);
 
+        List<AuditorEntity> auditors = auditorNotifier.getAuditors(getLinkTarget());
         PermissionChecker permissionChecker = new PermissionChecker(
-                RequestType.LINK_NODE, getLink().getTargetNode(), getTargetAnchor(), authorization);
+                RequestType.LINK_NODE, getLink().getTargetNode(), getTargetAnchor(), authorization)
+                .withEvaluationLogging(!auditors.isEmpty());
 
         try {
             PermissionCheckerContext.executeWithContext(permissionChecker, this::verifyLinkPermissions);
         } finally {
-            auditorNotifier.notify(getLinkTarget(), permissionChecker.buildPermissionAudit());
+            auditorNotifier.notify(auditors, permissionChecker.buildPermissionAudit());
         }
     }
 
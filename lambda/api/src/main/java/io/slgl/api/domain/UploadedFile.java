@@ -1,26 +1,23 @@
 package io.slgl.api.domain;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.itextpdf.kernel.pdf.*;
-import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
-import com.itextpdf.kernel.pdf.canvas.parser.listener.LocationTextExtractionStrategy;
 import io.slgl.api.ExecutionContext;
 import io.slgl.api.context.principal.DocumentSignaturePrincipal;
 import io.slgl.api.document.model.DocumentSignatureInfo;
+import io.slgl.api.document.model.ParsedPdfDocument;
 import io.slgl.api.document.service.DocumentSignatureInfoFactory;
+import io.slgl.api.document.service.PageTextExtractionExecutor;
 import io.slgl.api.document.service.PdfMetadataContextFactory;
 import io.slgl.api.error.ApiException;
 import io.slgl.api.protocol.NodeRequest;
 import io.slgl.api.utils.ErrorCode;
 import io.slgl.api.utils.Utils;
-import io.slgl.client.utils.PdfUtils;
 import io.slgl.permission.context.EvaluationContext;
 import lombok.Data;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.regex.Pattern;
@@ -39,12 +36,11 @@ public class UploadedFile {
 
     private final DocumentSignatureInfoFactory documentSignatureInfoFactory = ExecutionContext.get(DocumentSignatureInfoFactory.class);
     private final PdfMetadataContextFactory pdfMetadataContextFactory = ExecutionContext.get(PdfMetadataContextFactory.class);
+    private final PageTextExtractionExecutor pageTextExtractionExecutor = ExecutionContext.get(PageTextExtractionExecutor.class);
 
     private String fileSha3;
-    private String contentSha3;
 
-    private PdfDocument document;
-    private String documentText;
+    private ParsedPdfDocument document;
     private List<DocumentSignatureInfo> documentSignatureInfos;
 
     private Boolean pdf;
@@ -71,11 +67,7 @@ public class UploadedFile {
 
     @VisibleForTesting
     public EvaluationContext getPdfInfoContext() {
-        var pdfInfo = getDocument().getTrailer().get(PdfName.Info);
-        var pdfObject = pdfInfo instanceof PdfDictionary
-                ? ((PdfDictionary) pdfInfo)
-                : new PdfDictionary();
-        return pdfMetadataContextFactory.createEvaluationContext(pdfObject);
+        return pdfMetadataContextFactory.createEvaluationContext(getDocument().getInfoDictionary());
     }
 
     public NodeRequest getRequestObject() {
@@ -83,7 +75,7 @@ public class UploadedFile {
             return new NodeRequest();
         }
 
-        String jsonMetadata = getDocument().getDocumentInfo().getMoreInfo("json_metadata");
+        String jsonMetadata = getDocument().getJsonMetadata();
         if (isBlank(jsonMetadata)) {
             return new NodeRequest();
         }
@@ -100,8 +92,11 @@ public class UploadedFile {
 
     @VisibleForTesting
     public List<DocumentSignatureInfo> getDocumentSignatures() {
+        if (documentSignatureInfos == null && isPdf() && !getDocument().hasSignatures()) {
+            documentSignatureInfos = Collections.emptyList();
+        }
         if (documentSignatureInfos == null) {
-            documentSignatureInfos = documentSignatureInfoFactory.getSignatureInfo(bytes)
+            documentSignatureInfos = documentSignatureInfoFactory.getSignatureInfo(bytes, buildFileSha3())
                     .stream()
                     .filter(DocumentSignatureInfo::hasNotFailed)
                     .collect(Collectors.toList());
@@ -110,14 +105,7 @@ public class UploadedFile {
     }
 
     private String getVisualContentSha() {
-        if (contentSha3 == null) {
-            try {
-                contentSha3 = PdfUtils.getVisualContentHashHex(bytes);
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
-        }
-        return contentSha3;
+        return getDocument().getVisualContentSha3();
     }
 
     public Optional<String> getDocumentText() {
@@ -125,33 +113,24 @@ public class UploadedFile {
             return Optional.empty();
         }
 
-        if (documentText == null) {
-            StringBuilder result = new StringBuilder();
-
-            for (int i = 1; i <= document.getNumberOfPages(); i++) {
-                PdfPage page = document.getPage(i);
-                String pageText = PdfTextExtractor.getTextFromPage(page, new LocationTextExtractionStrategy());
-
-                if (result.length() > 0) {
-                    result.append("\n\n");
-                }
-                result.append(pageText);
-            }
+        return Optional.of(pageTextExtractionExecutor.extractText(getDocument()));
+    }
 
-            documentText = result.toString();
+    /**
+     * Returns texts of pages extracted when they are read, for reading only as many of them as needed. Pages joined
+     * with a blank line make {@link #getDocumentText()}.
+     */
+    public Optional<List<String>> getDocumentPages() {
+        if (!isPdf()) {
+            return Optional.empty();
         }
 
-        return Optional.of(documentText);
+        return Optional.of(getDocument().getPageTexts());
     }
 
-    private PdfDocument getDocument() {
+    private ParsedPdfDocument getDocument() {
         if (document == null) {
-            try {
-                PdfReader pdfReader = new PdfReader(new ByteArrayInputStream(bytes));
-                document = new PdfDocument(pdfReader);
-            } catch (IOException | com.itextpdf.io.IOException e) {
-                throw new ApiException(ErrorCode.LINKED_DOCUMENT_MUST_BE_PDF);
-            }
+            document = ParsedPdfDocument.parse(bytes);
         }
 
         return document;
@@ -1,10 +1,12 @@
 package io.slgl.api.model;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonValue;
 import io.slgl.api.model.PermissionEntity.Requirements.SimpleRequirements;
 import io.slgl.api.validator.MustBeCurrentUser;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -12,6 +14,7 @@ import lombok.Setter;
 import lombok.experimental.Accessors;
 
 import javax.validation.constraints.NotEmpty;
+import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -19,6 +22,8 @@ import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static io.slgl.api.utils.Utils.getSha3OfBytes;
+import static io.slgl.api.utils.json.UncheckedObjectMapper.MAPPER;
 import static java.util.Collections.singletonList;
 
 @Getter
@@ -40,6 +45,23 @@ public class PermissionEntity {
 	@MustBeCurrentUser
 	private String evaluateStateAccessAsUser;
 
+	@JsonIgnore
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	private String contentHash;
+
+	/**
+	 * Returns hash of serialized permission, identifying its compiled form. It is computed when first requested and
+	 * kept for the lifetime of the entity, so permissions must not be modified once they are checked.
+	 */
+	@JsonIgnore
+	public String getContentHash() {
+		if (contentHash == null) {
+			contentHash = getSha3OfBytes(MAPPER.writeValueAsString(this).getBytes(StandardCharsets.UTF_8));
+		}
+		return contentHash;
+	}
+
 	public PermissionEntity setRequire(Map<String, Requirement> require) {
 		return setRequire(new SimpleRequirements(require));
 	}
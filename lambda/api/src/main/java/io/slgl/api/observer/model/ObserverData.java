@@ -10,6 +10,7 @@ import lombok.experimental.Accessors;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -30,29 +31,37 @@ public class ObserverData {
 
     public byte[] getBytes() throws IOException {
         try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            try (ZipOutputStream zos = new ZipOutputStream(baos)) {
-                ZipEntry ledgerEntryEntry = new ZipEntry("node.json");
-                zos.putNextEntry(ledgerEntryEntry);
-                zos.write(toJson(node).getBytes());
-                zos.closeEntry();
+            writeTo(baos);
+            return baos.toByteArray();
+        }
+    }
 
-                if (rawJson != null) {
-                    ZipEntry dataEntry = new ZipEntry("data.json");
-                    zos.putNextEntry(dataEntry);
-                    zos.write(rawJson.getBytes(Charsets.UTF_8));
-                    zos.closeEntry();
-                }
+    /**
+     * Writes zip package with observed data to given stream, leaving the stream open.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        ZipOutputStream zos = new ZipOutputStream(out);
 
-                if (fileBytes != null) {
-                    ZipEntry documentEntry = new ZipEntry(fileName);
-                    zos.putNextEntry(documentEntry);
-                    zos.write(fileBytes);
-                    zos.closeEntry();
-                }
-            }
+        ZipEntry ledgerEntryEntry = new ZipEntry("node.json");
+        zos.putNextEntry(ledgerEntryEntry);
+        zos.write(toJson(node).getBytes());
+        zos.closeEntry();
 
-            return baos.toByteArray();
+        if (rawJson != null) {
+            ZipEntry dataEntry = new ZipEntry("data.json");
+            zos.putNextEntry(dataEntry);
+            zos.write(rawJson.getBytes(Charsets.UTF_8));
+            zos.closeEntry();
         }
+
+        if (fileBytes != null) {
+            ZipEntry documentEntry = new ZipEntry(fileName);
+            zos.putNextEntry(documentEntry);
+            zos.write(fileBytes);
+            zos.closeEntry();
+        }
+
+        zos.finish();
     }
 
     public String toJson(Object entry) {
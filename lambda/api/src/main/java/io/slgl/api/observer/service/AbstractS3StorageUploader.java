@@ -4,19 +4,18 @@ import com.google.common.base.Charsets;
 import io.slgl.api.observer.model.ErrorResult;
 import io.slgl.api.observer.model.ObserverData;
 import io.slgl.api.observer.model.Result;
-import io.slgl.api.observer.model.S3SuccessResult;
+import io.slgl.api.observer.service.S3ClientRegistry.ClientLease;
+import io.slgl.api.utils.LambdaEnv;
 import io.slgl.api.utils.SupplierWithException;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import software.amazon.awssdk.awscore.exception.AwsServiceException;
 import software.amazon.awssdk.core.exception.SdkClientException;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.ObjectCannedACL;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
+import java.util.function.Supplier;
 
 import static io.slgl.api.utils.Utils.concatenateAsUrlPartsWithSlash;
 import static org.apache.commons.lang3.StringUtils.isBlank;
@@ -25,24 +24,24 @@ import static org.apache.commons.lang3.StringUtils.isBlank;
 public abstract class AbstractS3StorageUploader implements StorageUploader {
 
     protected final PgpEncrypter pgpEncrypter;
+    protected final S3ClientRegistry clientRegistry;
 
-    AbstractS3StorageUploader(PgpEncrypter pgpEncrypter) {
+    AbstractS3StorageUploader(PgpEncrypter pgpEncrypter, S3ClientRegistry clientRegistry) {
         this.pgpEncrypter = pgpEncrypter;
+        this.clientRegistry = clientRegistry;
     }
 
-    protected Result uploadData(S3Client client, ObserverData observerData, String pgpPublicKey, String bucketName, String key) {
+    protected Result uploadData(Supplier<ClientLease> clientSupplier, ObserverData observerData, String pgpPublicKey, String bucketName, String key) {
         return handleErrors(() -> {
-            var serializedData = pgpEncrypter.encrypt(observerData.getBytes(), pgpPublicKey);
-            var request = PutObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(key)
-                    .contentLength((long) serializedData.length)
-                    .acl(ObjectCannedACL.PUBLIC_READ)
-                    .build();
-
-            var result = client.putObject(request, RequestBody.fromBytes(serializedData));
-
-            return new S3SuccessResult(bucketName, key, result.versionId(), result.eTag());
+            try (var client = clientSupplier.get()) {
+                // zip is encrypted and uploaded while being written, so only single part of it is kept in memory
+                try (var upload = new S3UploadOutputStream(client.getClient(), bucketName, key, LambdaEnv.ObserverUpload.getPartSizeInBytes())) {
+                    try (var encrypted = pgpEncrypter.encryptingStream(new CloseShieldOutputStream(upload), pgpPublicKey)) {
+                        observerData.writeTo(encrypted);
+                    }
+                    return upload.complete();
+                }
+            }
         });
     }
 
@@ -0,0 +1,147 @@
+package io.slgl.api.observer.service;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.slgl.api.ExecutionContext;
+import io.slgl.api.observer.model.ObserverData;
+import io.slgl.api.observer.model.ObserverEntity;
+import io.slgl.api.observer.model.Result;
+import io.slgl.api.utils.LambdaEnv;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Uploads data for observers of links written in the current request. Uploads of all observers are started as soon
+ * as they are requested and run concurrently, {@link #awaitUploads()} waits for them no longer than configured
+ * timeout in total.
+ * <p>
+ * Upload which is cancelled, because it didn't finish in time or was not awaited at all, is written to the recovery
+ * storage of its observer on the calling thread, as it would be when the upload failed. Each upload is written to the
+ * recovery storage at most once: either by the upload itself when it failed, or by the calling thread when it was
+ * cancelled first.
+ */
+@Slf4j
+public class ObserverNotifier implements ExecutionContext.PostExecutionCallback {
+
+    private final StorageUploaderFactory storageUploaderFactory = ExecutionContext.get(StorageUploaderFactory.class);
+
+    private final List<PendingUpload> pendingUploads = new ArrayList<>();
+    private ExecutorService executorService;
+
+    public void notify(List<ObserverEntity> observers, ObserverData observerData) {
+        for (ObserverEntity observer : observers) {
+            if (observer.hasStorage()) {
+                var state = new AtomicReference<>(UploadState.RUNNING);
+                var upload = getExecutorService().submit(() -> upload(observer, observerData, state));
+                pendingUploads.add(new PendingUpload(observer, observerData, state, upload));
+            }
+        }
+    }
+
+    public void awaitUploads() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(LambdaEnv.ObserverUpload.getTimeoutInMillis());
+        boolean interrupted = false;
+        try {
+            for (PendingUpload pendingUpload : pendingUploads) {
+                if (interrupted) {
+                    cancelAndRecover(pendingUpload);
+                    continue;
+                }
+                try {
+                    pendingUpload.upload.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    log.warn("Observer upload not finished in time, cancelled");
+                    cancelAndRecover(pendingUpload);
+                } catch (ExecutionException e) {
+                    log.warn("Observer upload failed", e.getCause());
+                } catch (InterruptedException e) {
+                    // remaining uploads are not awaited, but still written to recovery storage
+                    interrupted = true;
+                    cancelAndRecover(pendingUpload);
+                }
+            }
+        } finally {
+            pendingUploads.clear();
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void upload(ObserverEntity observer, ObserverData observerData, AtomicReference<UploadState> state) {
+        Result result = storageUploaderFactory
+                .createUploader(observer.getStorage())
+                .upload(observerData, observer.getPgpKey())
+                .log();
+        // upload cancelled in the meantime (e.g. failed because it was interrupted) is recovered by the caller
+        if (!result.isError()) {
+            state.compareAndSet(UploadState.RUNNING, UploadState.UPLOADED);
+        } else if (state.compareAndSet(UploadState.RUNNING, UploadState.RECOVERING)) {
+            uploadToRecoveryStorage(observer, observerData);
+        }
+    }
+
+    private void uploadToRecoveryStorage(ObserverEntity observer, ObserverData observerData) {
+        if (nonNull(observer.getRecoveryStorage())) {
+            storageUploaderFactory
+                    .createRecoveryUploader(observer.getRecoveryStorage().getPath())
+                    .upload(observerData, observer.getPgpKey())
+                    .log("Recovery upload");
+        }
+    }
+
+    private void cancelAndRecover(PendingUpload pendingUpload) {
+        // upload finished or being recovered in the meantime is left alone, it is written to one of the storages
+        if (pendingUpload.state.compareAndSet(UploadState.RUNNING, UploadState.CANCELLED)) {
+            pendingUpload.upload.cancel(true);
+            uploadToRecoveryStorage(pendingUpload.observer, pendingUpload.observerData);
+        }
+    }
+
+    private void cancelPendingUploads() {
+        pendingUploads.forEach(this::cancelAndRecover);
+        pendingUploads.clear();
+    }
+
+    private synchronized ExecutorService getExecutorService() {
+        if (executorService == null) {
+            var threadCount = LambdaEnv.ObserverUpload.getThreadCount();
+            if (threadCount == 0) {
+                executorService = MoreExecutors.newDirectExecutorService();
+            } else {
+                executorService = Executors.newFixedThreadPool(threadCount, new ThreadFactoryBuilder()
+                        .setNameFormat("observer-upload-%d")
+                        .setDaemon(true)
+                        .build());
+            }
+        }
+        return executorService;
+    }
+
+    @Override
+    public void afterExecution() {
+        if (!pendingUploads.isEmpty()) {
+            log.warn("Cancelling {} observer uploads not awaited in request, writing them to recovery storage", pendingUploads.size());
+            cancelPendingUploads();
+        }
+    }
+
+    @AllArgsConstructor
+    private static class PendingUpload {
+        private final ObserverEntity observer;
+        private final ObserverData observerData;
+        private final AtomicReference<UploadState> state;
+        private final Future<?> upload;
+    }
+
+    private enum UploadState {
+        RUNNING, UPLOADED, RECOVERING, CANCELLED
+    }
+}
@@ -1,5 +1,9 @@
 package io.slgl.api.observer.service;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import name.neuhalfen.projects.crypto.bouncycastle.openpgp.BouncyGPG;
 import name.neuhalfen.projects.crypto.bouncycastle.openpgp.keys.callbacks.KeyringConfigCallbacks;
 import name.neuhalfen.projects.crypto.bouncycastle.openpgp.keys.keyrings.InMemoryKeyring;
@@ -18,39 +22,90 @@ import java.security.SignatureException;
 import java.util.Iterator;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 public class PgpEncrypter {
 
+    /**
+     * Number of parsed observer keys kept, observers of a ledger use only a handful of distinct keys.
+     */
+    static final int MAX_CACHED_KEYS = 256;
+
     static  {
         BouncyGPG.registerProvider();
     }
 
+    // keyed by hash of armored key, malformed keys are kept too so that they fail without being parsed again
+    private final Cache<String, ParsedKey> parsedKeys;
+
+    public PgpEncrypter() {
+        this(MAX_CACHED_KEYS);
+    }
+
+    PgpEncrypter(int maxCachedKeys) {
+        parsedKeys = CacheBuilder.newBuilder()
+                .maximumSize(maxCachedKeys)
+                .build();
+    }
+
     public byte[] encrypt(byte[] data, String publicPgpKey) {
         try (ByteArrayOutputStream encryptedDataStream = new ByteArrayOutputStream()) {
-            InMemoryKeyring keyring = KeyringConfigs.forGpgExportedKeys(KeyringConfigCallbacks.withPassword(""));
-            keyring.addPublicKey(publicPgpKey.getBytes(StandardCharsets.US_ASCII));
             try (
                 ByteArrayInputStream in = new ByteArrayInputStream(data);
                 BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(encryptedDataStream);
-                OutputStream outputStream = BouncyGPG
-                    .encryptToStream()
-                    .withConfig(keyring)
-                    .withStrongAlgorithms()
-                    .toRecipient(getRecipientId(keyring))
-                    .andDoNotSign()
-                    .binaryOutput()
-                    .andWriteTo(bufferedOutputStream);
+                OutputStream outputStream = encryptingStream(bufferedOutputStream, publicPgpKey);
             ) {
                 Streams.pipeAll(in, outputStream);
             }
             return encryptedDataStream.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Data encryption failed", e);
+        }
+    }
+
+    /**
+     * Returns stream which writes data encrypted for owner of given key to the target stream. Encrypted data is
+     * complete when returned stream is closed, target stream may be closed with it.
+     */
+    public OutputStream encryptingStream(OutputStream target, String publicPgpKey) {
+        ParsedKey key = getParsedKey(publicPgpKey);
+
+        try {
+            return BouncyGPG
+                .encryptToStream()
+                .withConfig(key.getKeyring())
+                .withStrongAlgorithms()
+                .toRecipient(key.getRecipientId())
+                .andDoNotSign()
+                .binaryOutput()
+                .andWriteTo(target);
         } catch (IOException | PGPException | NoSuchAlgorithmException | SignatureException | NoSuchProviderException e) {
             throw new IllegalStateException("Data encryption failed", e);
         }
     }
 
+    private ParsedKey getParsedKey(String publicPgpKey) {
+        String keyHash = Hashing.sha256().hashString(publicPgpKey, StandardCharsets.US_ASCII).toString();
+        try {
+            return parsedKeys.get(keyHash, () -> parseKey(publicPgpKey));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            throw new IllegalStateException("Data encryption failed", e.getCause());
+        }
+    }
+
+    private ParsedKey parseKey(String publicPgpKey) {
+        try {
+            InMemoryKeyring keyring = KeyringConfigs.forGpgExportedKeys(KeyringConfigCallbacks.withPassword(""));
+            keyring.addPublicKey(publicPgpKey.getBytes(StandardCharsets.US_ASCII));
+
+            return new ParsedKey(keyring, getRecipientId(keyring), null);
+        } catch (IOException | PGPException | RuntimeException e) {
+            return new ParsedKey(null, null, e);
+        }
+    }
+
     private String getRecipientId(KeyringConfig keyringConfig) throws IOException, PGPException {
         return toStream(keyringConfig.getPublicKeyRings().getKeyRings())
             .findFirst()
@@ -64,4 +119,36 @@ public class PgpEncrypter {
     private <T> Stream<T> toStream(Iterator<T> iterator) {
         return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false);
     }
+
+    private static class ParsedKey {
+
+        private final KeyringConfig keyring;
+        private final String recipientId;
+        private final Exception failure;
+
+        private ParsedKey(KeyringConfig keyring, String recipientId, Exception failure) {
+            this.keyring = keyring;
+            this.recipientId = recipientId;
+            this.failure = failure;
+        }
+
+        private KeyringConfig getKeyring() {
+            checkValid();
+            return keyring;
+        }
+
+        private String getRecipientId() {
+            checkValid();
+            return recipientId;
+        }
+
+        private void checkValid() {
+            if (failure instanceof IllegalArgumentException) {
+                throw new IllegalArgumentException(failure.getMessage(), failure);
+            }
+            if (failure != null) {
+                throw new IllegalStateException("Data encryption failed", failure);
+            }
+        }
+    }
 }
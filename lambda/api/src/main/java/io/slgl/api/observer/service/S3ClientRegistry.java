@@ -0,0 +1,169 @@
+package io.slgl.api.observer.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.slgl.api.observer.model.S3Credentials;
+import io.slgl.api.utils.LambdaEnv;
+import io.slgl.api.utils.Utils;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * S3 clients used for observer uploads, kept for the lifetime of the Lambda container so that their connection pools
+ * (and established TLS sessions) are reused. Clients are thread safe and shared by all uploads using the same region
+ * and credentials.
+ * <p>
+ * Clients are leased for the time of a single upload. Client evicted from the registry is closed only when its last
+ * lease is released, so uploads still running with it are not broken.
+ */
+@Slf4j
+public class S3ClientRegistry {
+
+    private final Consumer<S3ClientBuilder> clientCustomizer;
+
+    private final Cache<ClientKey, SharedClient> clients;
+
+    public S3ClientRegistry() {
+        this(builder -> {
+        }, LambdaEnv.ObserverUpload.getMaxS3Clients());
+    }
+
+    S3ClientRegistry(Consumer<S3ClientBuilder> clientCustomizer, int maxClients) {
+        this.clientCustomizer = clientCustomizer;
+        this.clients = CacheBuilder.newBuilder()
+                .maximumSize(maxClients)
+                .removalListener(S3ClientRegistry::evictClient)
+                .build();
+    }
+
+    /**
+     * Leases client for given region, using given credentials or the default ones when they are null. The lease has
+     * to be closed when the client is no longer used.
+     */
+    public ClientLease lease(String region, S3Credentials credentials) {
+        ClientKey key = new ClientKey(region, credentials != null ? credentialsHash(credentials) : null);
+
+        while (true) {
+            SharedClient client;
+            try {
+                client = clients.get(key, () -> new SharedClient(createClient(region, credentials)));
+            } catch (ExecutionException | UncheckedExecutionException e) {
+                throw new IllegalStateException("Unable to create S3 client for region: " + region, e.getCause());
+            }
+
+            // client evicted in the meantime is not leased anymore, the next attempt creates a new one
+            if (client.acquire()) {
+                return new ClientLease(client);
+            }
+        }
+    }
+
+    private S3Client createClient(String region, S3Credentials credentials) {
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(region));
+
+        if (credentials != null) {
+            builder.credentialsProvider(credentials.createAwsCredentials());
+        }
+        clientCustomizer.accept(builder);
+
+        return builder.build();
+    }
+
+    private static String credentialsHash(S3Credentials credentials) {
+        String value = credentials.getAccessKeyId() + "\u0000" + credentials.getSecretAccessKey();
+        return Utils.getSha3OfBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void evictClient(RemovalNotification<ClientKey, SharedClient> notification) {
+        notification.getValue().evict();
+    }
+
+    /**
+     * Client leased for a single upload, released when closed.
+     */
+    public static class ClientLease implements AutoCloseable {
+
+        private final SharedClient client;
+        private boolean released;
+
+        private ClientLease(SharedClient client) {
+            this.client = client;
+        }
+
+        public S3Client getClient() {
+            return client.client;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                client.release();
+            }
+        }
+    }
+
+    private static class SharedClient {
+
+        private final S3Client client;
+        private int leases;
+        private boolean evicted;
+
+        private SharedClient(S3Client client) {
+            this.client = client;
+        }
+
+        private synchronized boolean acquire() {
+            if (evicted) {
+                return false;
+            }
+            leases++;
+            return true;
+        }
+
+        private synchronized void release() {
+            leases--;
+            closeIfUnused();
+        }
+
+        private synchronized void evict() {
+            evicted = true;
+            closeIfUnused();
+        }
+
+        private void closeIfUnused() {
+            if (evicted && leases == 0) {
+                try {
+                    client.close();
+                } catch (RuntimeException e) {
+                    log.warn("Unable to close S3 client", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Credentials are kept only as a hash, so that secret keys are not held by the registry.
+     */
+    @EqualsAndHashCode
+    private static class ClientKey {
+
+        private final String region;
+        private final String credentialsHash;
+
+        private ClientKey(String region, String credentialsHash) {
+            this.region = region;
+            this.credentialsHash = credentialsHash;
+        }
+    }
+}
@@ -4,15 +4,13 @@ import com.google.common.base.Preconditions;
 import io.slgl.api.observer.model.ObserverData;
 import io.slgl.api.observer.model.Result;
 import io.slgl.api.utils.LambdaEnv;
-import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.services.s3.S3Client;
 
 public class S3StorageRecoveryUploader extends AbstractS3StorageUploader {
 
     private final String path;
 
-    S3StorageRecoveryUploader(String path, PgpEncrypter pgpEncrypter) {
-        super(pgpEncrypter);
+    S3StorageRecoveryUploader(String path, PgpEncrypter pgpEncrypter, S3ClientRegistry clientRegistry) {
+        super(pgpEncrypter, clientRegistry);
         Preconditions.checkNotNull(path);
         this.path = path;
     }
@@ -20,7 +18,7 @@ public class S3StorageRecoveryUploader extends AbstractS3StorageUploader {
     @Override
     public Result upload(ObserverData observerData, String pgpPublicKey) {
         return uploadData(
-                createRecoveryClient(),
+                () -> clientRegistry.lease(getRecoveryStorageRegion(), null),
                 observerData,
                 pgpPublicKey,
                 getRecoveryStorageBucketName(),
@@ -28,14 +26,8 @@ public class S3StorageRecoveryUploader extends AbstractS3StorageUploader {
         );
     }
 
-    private S3Client createRecoveryClient() {
-        return S3Client.builder()
-                .region(getRecoveryStorageRegion())
-                .build();
-    }
-
-    private Region getRecoveryStorageRegion() {
-        return Region.of(LambdaEnv.S3ObserverRecovery.getStorageRegion());
+    private String getRecoveryStorageRegion() {
+        return LambdaEnv.S3ObserverRecovery.getStorageRegion();
     }
 
     private String getRecoveryStorageBucketName() {
@@ -0,0 +1,177 @@
+package io.slgl.api.observer.service;
+
+import io.slgl.api.observer.model.S3SuccessResult;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Uploads data written to it as S3 object, holding at most one part of it in memory. Data not bigger than a single
+ * part is uploaded with plain put, otherwise multipart upload is used. The buffer grows with written data up to the part
+ * size, so small objects don't allocate a whole part.
+ * <p>
+ * Object is created only by {@link #complete()}, closing the stream before that aborts started multipart upload.
+ */
+@Slf4j
+class S3UploadOutputStream extends OutputStream {
+
+    /**
+     * Minimal size of multipart upload part (except for the last one) accepted by S3.
+     */
+    static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+
+    private final S3Client client;
+    private final String bucketName;
+    private final String key;
+
+    private final int partSize;
+    private byte[] buffer;
+    private int bufferedCount;
+
+    private String uploadId;
+    private final List<CompletedPart> completedParts = new ArrayList<>();
+
+    private boolean completed;
+
+    S3UploadOutputStream(S3Client client, String bucketName, String key, int partSize) {
+        checkArgument(partSize >= MIN_PART_SIZE, "Part size too small: %s", partSize);
+
+        this.client = client;
+        this.bucketName = bucketName;
+        this.key = key;
+        this.partSize = partSize;
+        this.buffer = new byte[INITIAL_BUFFER_SIZE];
+    }
+
+    @Override
+    public void write(int b) {
+        checkState(!completed, "Upload already completed");
+
+        if (bufferedCount == partSize) {
+            uploadBufferedPart();
+        }
+        ensureCapacity(bufferedCount + 1);
+        buffer[bufferedCount++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        checkState(!completed, "Upload already completed");
+
+        while (len > 0) {
+            if (bufferedCount == partSize) {
+                uploadBufferedPart();
+            }
+
+            int count = Math.min(len, partSize - bufferedCount);
+            ensureCapacity(bufferedCount + count);
+            System.arraycopy(b, off, buffer, bufferedCount, count);
+            bufferedCount += count;
+            off += count;
+            len -= count;
+        }
+    }
+
+    public S3SuccessResult complete() {
+        checkState(!completed, "Upload already completed");
+        completed = true;
+
+        if (uploadId == null) {
+            var request = PutObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .contentLength((long) bufferedCount)
+                    .acl(ObjectCannedACL.PUBLIC_READ)
+                    .build();
+
+            var result = client.putObject(request, bufferedBody());
+            return new S3SuccessResult(bucketName, key, result.versionId(), result.eTag());
+        }
+
+        uploadBufferedPart();
+
+        var request = CompleteMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .uploadId(uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder()
+                        .parts(completedParts)
+                        .build())
+                .build();
+
+        var result = client.completeMultipartUpload(request);
+        return new S3SuccessResult(bucketName, key, result.versionId(), result.eTag());
+    }
+
+    @Override
+    public void close() {
+        if (completed || uploadId == null) {
+            return;
+        }
+        completed = true;
+
+        try {
+            client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (RuntimeException e) {
+            log.warn("Unable to abort multipart upload: bucket={}, key={}", bucketName, key, e);
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > buffer.length) {
+            int newLength = buffer.length;
+            while (newLength < capacity) {
+                newLength = (int) Math.min(2L * newLength, partSize);
+            }
+            buffer = Arrays.copyOf(buffer, newLength);
+        }
+    }
+
+    private void uploadBufferedPart() {
+        if (uploadId == null) {
+            uploadId = client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .acl(ObjectCannedACL.PUBLIC_READ)
+                    .build())
+                    .uploadId();
+        }
+
+        int partNumber = completedParts.size() + 1;
+        var request = UploadPartRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .contentLength((long) bufferedCount)
+                .build();
+
+        var result = client.uploadPart(request, bufferedBody());
+        completedParts.add(CompletedPart.builder()
+                .partNumber(partNumber)
+                .eTag(result.eTag())
+                .build());
+
+        bufferedCount = 0;
+    }
+
+    private RequestBody bufferedBody() {
+        return RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, bufferedCount), bufferedCount);
+    }
+}
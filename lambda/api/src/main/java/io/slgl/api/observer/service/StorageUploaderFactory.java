@@ -7,6 +7,7 @@ import io.slgl.api.observer.model.Storage;
 public class StorageUploaderFactory {
 
     private final PgpEncrypter pgpEncrypter = ExecutionContext.get(PgpEncrypter.class);
+    private final S3ClientRegistry clientRegistry = ExecutionContext.get(S3ClientRegistry.class);
 
     public StorageUploader createUploader(Storage storage) {
         if (storage instanceof S3Storage) {
@@ -17,10 +18,10 @@ public class StorageUploaderFactory {
     }
 
     public StorageUploader createRecoveryUploader(String path) {
-        return new S3StorageRecoveryUploader(path, pgpEncrypter);
+        return new S3StorageRecoveryUploader(path, pgpEncrypter, clientRegistry);
     }
 
     private StorageUploader createS3StorageService(S3Storage storage, PgpEncrypter pgpEncrypter) {
-        return new S3StorageUploader(storage, pgpEncrypter);
+        return new S3StorageUploader(storage, pgpEncrypter, clientRegistry);
     }
 }
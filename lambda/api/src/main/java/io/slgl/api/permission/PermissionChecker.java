@@ -10,9 +10,10 @@ import io.slgl.api.model.PermissionEntity.Allow;
 import io.slgl.api.service.CurrentUserService;
 import io.slgl.api.type.Type;
 import io.slgl.api.utils.ErrorCode;
-import io.slgl.api.utils.json.UncheckedObjectMapper;
 import io.slgl.client.audit.*;
 import io.slgl.client.node.permission.Permission;
+import io.slgl.permission.CompiledPermission;
+import io.slgl.permission.CompiledPermissionCache;
 import io.slgl.permission.PermissionProcessor;
 import io.slgl.permission.context.EvaluationContext;
 
@@ -23,16 +24,20 @@ import java.util.function.Predicate;
 
 import static io.slgl.api.model.PermissionEntity.AllowAction.*;
 import static io.slgl.api.utils.CollectionUtils.nullToEmptyList;
+import static io.slgl.api.utils.json.UncheckedObjectMapper.MAPPER;
 import static java.util.stream.Collectors.toList;
 
 public class PermissionChecker {
 
     private final CurrentUserService currentUserService = ExecutionContext.get(CurrentUserService.class);
     private final PermissionProcessor permissionProcessor = ExecutionContext.get(PermissionProcessor.class);
+    private final CompiledPermissionCache compiledPermissionCache = ExecutionContext.get(CompiledPermissionCache.class);
 
     private final PermissionAuditBuilder permissionAudit = new PermissionAuditBuilder();
     private final Authorization authorization;
 
+    private boolean evaluationLogging = true;
+
     public PermissionChecker(RequestType requestType, String node, String anchor, Authorization authorization) {
         permissionAudit.node(node)
                 .anchor(anchor)
@@ -46,6 +51,14 @@ public class PermissionChecker {
         this(requestType, node, null, authorization);
     }
 
+    /**
+     * Disables collecting evaluation log of permissions, for checks which audit is not sent anywhere.
+     */
+    public PermissionChecker withEvaluationLogging(boolean evaluationLogging) {
+        this.evaluationLogging = evaluationLogging;
+        return this;
+    }
+
     public void verifyLinkPermission(
             Type linkTargetType,
             EvaluationContext context,
@@ -170,12 +183,17 @@ public class PermissionChecker {
             if (permission.getEvaluateStateAccessAsUser() != null) {
                 currentUserService.setPermissionsUser(new ApiUser(permission.getEvaluateStateAccessAsUser()));
             }
-            return permissionProcessor.process(context, UncheckedObjectMapper.MAPPER.convertValue(permission, Permission.class));
+            return permissionProcessor.process(context, compile(permission), evaluationLogging);
         } finally {
             currentUserService.setPermissionsUser(previousPermissionsUser);
         }
     }
 
+    private CompiledPermission compile(PermissionEntity permission) {
+        // hash is kept by the entity, so it is computed once per request for permissions of a type, not on every check
+        return compiledPermissionCache.get(permission.getContentHash(), () -> MAPPER.convertValue(permission, Permission.class));
+    }
+
     public boolean hasEmptyPermissionAudit() {
         return permissionAudit.isEmpty();
     }
@@ -1,58 +1,274 @@
 package io.slgl.api.permission.service;
 
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import io.slgl.api.ExecutionContext;
 import io.slgl.api.config.Provider;
 import io.slgl.api.model.AuditorEntity;
+import io.slgl.api.repository.AuditorCache;
 import io.slgl.api.repository.NodeEntity;
 import io.slgl.api.service.LinksGetter;
+import io.slgl.api.utils.LambdaEnv;
 import io.slgl.api.utils.json.UncheckedObjectMapper;
 import io.slgl.client.audit.PermissionAudit;
 import io.slgl.client.audit.PermissionAuditMessage;
+import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import software.amazon.awssdk.services.sqs.SqsClient;
-import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static com.fasterxml.jackson.databind.MapperFeature.SORT_PROPERTIES_ALPHABETICALLY;
 
+/**
+ * Notifies auditors about permission checks. Audits are buffered for the whole request and sent when its response is
+ * ready, grouped by queue into {@code SendMessageBatch} calls. Entries rejected by SQS for reasons other than the
+ * message itself are resent, so each audit is delivered at least once unless SQS keeps failing, in which case it is
+ * logged and dropped - as it was when each audit was sent on its own.
+ */
 @Slf4j
-public class AuditorNotifier {
+public class AuditorNotifier implements ExecutionContext.PreExecutionCallback, ExecutionContext.OnResponseCallback, ExecutionContext.PostExecutionCallback {
+
+    static final int MAX_BATCH_ENTRIES = 10;
+    static final int MAX_BATCH_SIZE_IN_BYTES = 256 * 1024;
+    static final int MAX_SEND_ATTEMPTS = 3;
 
     private final LinksGetter linksGetter = ExecutionContext.get(LinksGetter.class);
-    private final Provider<SqsClient> amazonSQS = ExecutionContext.getProvider(SqsClient.class);
+    private final AuditorCache auditorCache = ExecutionContext.get(AuditorCache.class);
+    private final Provider<SqsAsyncClient> amazonSQS = ExecutionContext.getProvider(SqsAsyncClient.class);
 
     private final UncheckedObjectMapper mapper = new UncheckedObjectMapper()
             .disable(SORT_PROPERTIES_ALPHABETICALLY);
 
+    private final List<PendingAudit> pendingAudits = new ArrayList<>();
+
+    /**
+     * Returns auditors which should be notified about permission checks of given node. Evaluation log is needed
+     * only when this list is not empty.
+     */
+    public List<AuditorEntity> getAuditors(NodeEntity node) {
+        if (node == null) {
+            return Collections.emptyList();
+        }
+        if (node.getId() == null) {
+            return linksGetter.getAuditors(node);
+        }
+
+        var cached = auditorCache.get(node.getId());
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        List<AuditorEntity> auditors = linksGetter.getAuditors(node);
+        auditorCache.put(node.getId(), auditors);
+        return auditors;
+    }
+
     public void notify(NodeEntity node, PermissionAudit permissionAudit) {
-        if (node == null || (permissionAudit.getEvaluatedPermissions().isEmpty() && permissionAudit.getEvaluationLog().isEmpty())) {
+        if (node == null || isEmpty(permissionAudit)) {
+            return;
+        }
+
+        notify(getAuditors(node), permissionAudit);
+    }
+
+    public void notify(List<AuditorEntity> auditors, PermissionAudit permissionAudit) {
+        if (auditors.isEmpty() || isEmpty(permissionAudit)) {
             return;
         }
 
-        for (AuditorEntity auditor : linksGetter.getAuditors(node)) {
+        for (AuditorEntity auditor : auditors) {
             var policy = auditor.getAuditPolicy();
             if (policy.shouldSendAudit(permissionAudit)) {
-                sendNotification(auditor, permissionAudit);
+                enqueueNotification(auditor, permissionAudit);
             } else {
                 log.info("Auditor ignored by policy | policy: {} | request_type: {} | queue: {}", policy, permissionAudit.getRequestType(), auditor.getAwsSqs());
             }
         }
     }
 
-    private void sendNotification(AuditorEntity auditor, PermissionAudit permissionAudit) {
+    private static boolean isEmpty(PermissionAudit permissionAudit) {
+        return permissionAudit.getEvaluatedPermissions().isEmpty() && permissionAudit.getEvaluationLog().isEmpty();
+    }
+
+    private void enqueueNotification(AuditorEntity auditor, PermissionAudit permissionAudit) {
         try {
             var auditData = new PermissionAuditMessage(auditor.getAuthorizedUser(), permissionAudit);
-            send(auditor.getAwsSqs(), auditData);
-            log.info("Sent audit data | request_type: {} | queue: {} ", permissionAudit.getRequestType(), auditor.getAwsSqs());
+            var pendingAudit = new PendingAudit(auditor.getAwsSqs(), String.valueOf(permissionAudit.getRequestType()), mapper.writeValueAsString(auditData));
+            synchronized (pendingAudits) {
+                pendingAudits.add(pendingAudit);
+            }
         } catch (Throwable ex) {
             log.info("Error sending audit data | request_type: {} | queue: {} ", permissionAudit.getRequestType(), auditor.getAwsSqs(), ex);
         }
     }
 
-    private void send(String sqsUrl, PermissionAuditMessage permissionAuditMessage) {
-        SendMessageRequest request = SendMessageRequest.builder()
-                .queueUrl(sqsUrl)
-                .messageBody(mapper.writeValueAsString(permissionAuditMessage))
+    /**
+     * Sends all audits buffered in the current request and waits until SQS accepts them, no longer than configured
+     * timeout in total.
+     */
+    public void sendPendingAudits() {
+        List<PendingAudit> audits;
+        synchronized (pendingAudits) {
+            if (pendingAudits.isEmpty()) {
+                return;
+            }
+            audits = new ArrayList<>(pendingAudits);
+            pendingAudits.clear();
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(LambdaEnv.AuditNotification.getTimeoutInMillis());
+        var stats = new SendStats();
+
+        for (int attempt = 1; !audits.isEmpty(); attempt++) {
+            List<PendingAudit> retryable = sendInBatches(audits, deadline, stats);
+            if (retryable.isEmpty()) {
+                break;
+            }
+            if (attempt == MAX_SEND_ATTEMPTS || System.nanoTime() >= deadline) {
+                retryable.forEach(audit -> stats.dropped(audit, "no attempts left"));
+                break;
+            }
+            audits = retryable;
+        }
+
+        log.info("Audit notifications | sent: {} | batches: {} | dropped: {}", stats.sent, stats.batches, stats.dropped);
+    }
+
+    private List<PendingAudit> sendInBatches(List<PendingAudit> audits, long deadline, SendStats stats) {
+        var batches = new ArrayList<List<PendingAudit>>();
+        var futures = new ArrayList<CompletableFuture<SendMessageBatchResponse>>();
+        for (List<PendingAudit> batch : splitIntoBatches(audits)) {
+            batches.add(batch);
+            futures.add(sendBatch(batch));
+            stats.batches++;
+        }
+
+        var retryable = new ArrayList<PendingAudit>();
+        for (int i = 0; i < batches.size(); i++) {
+            var batch = batches.get(i);
+            var future = futures.get(i);
+            try {
+                var response = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                stats.sent += response.successful().size();
+                for (BatchResultErrorEntry failed : response.failed()) {
+                    var audit = batch.get(Integer.parseInt(failed.id()));
+                    if (Boolean.TRUE.equals(failed.senderFault())) {
+                        stats.dropped(audit, failed.code() + ": " + failed.message());
+                    } else {
+                        retryable.add(audit);
+                    }
+                }
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                batch.forEach(audit -> stats.dropped(audit, "not sent in time"));
+            } catch (ExecutionException e) {
+                // the client already retried the call as configured, like it used to for each single audit
+                batch.forEach(audit -> stats.dropped(audit, String.valueOf(e.getCause())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(it -> it.cancel(true));
+                batches.subList(i, batches.size()).forEach(rest -> rest.forEach(audit -> stats.dropped(audit, "interrupted")));
+                return Collections.emptyList();
+            }
+        }
+        return retryable;
+    }
+
+    /**
+     * Groups audits by queue, keeping their order, into batches which fit SQS limits of entries count and payload
+     * size. Audit too large to be sent at all goes alone, so that only its own send fails.
+     */
+    static List<List<PendingAudit>> splitIntoBatches(List<PendingAudit> audits) {
+        var byQueue = new LinkedHashMap<String, List<PendingAudit>>();
+        for (PendingAudit audit : audits) {
+            byQueue.computeIfAbsent(audit.queueUrl, unused -> new ArrayList<>()).add(audit);
+        }
+
+        var batches = new ArrayList<List<PendingAudit>>();
+        for (List<PendingAudit> queueAudits : byQueue.values()) {
+            var batch = new ArrayList<PendingAudit>();
+            int batchSize = 0;
+            for (PendingAudit audit : queueAudits) {
+                if (!batch.isEmpty() && (batch.size() == MAX_BATCH_ENTRIES || batchSize + audit.sizeInBytes > MAX_BATCH_SIZE_IN_BYTES)) {
+                    batches.add(batch);
+                    batch = new ArrayList<>();
+                    batchSize = 0;
+                }
+                batch.add(audit);
+                batchSize += audit.sizeInBytes;
+            }
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    private CompletableFuture<SendMessageBatchResponse> sendBatch(List<PendingAudit> batch) {
+        var entries = new ArrayList<SendMessageBatchRequestEntry>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            entries.add(SendMessageBatchRequestEntry.builder()
+                    .id(String.valueOf(i))
+                    .messageBody(batch.get(i).messageBody)
+                    .build());
+        }
+        SendMessageBatchRequest request = SendMessageBatchRequest.builder()
+                .queueUrl(batch.get(0).queueUrl)
+                .entries(entries)
                 .build();
-        amazonSQS.get().sendMessage(request);
+        try {
+            return amazonSQS.get().sendMessageBatch(request);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public void beforeExecution() {
+        synchronized (pendingAudits) {
+            pendingAudits.clear();
+        }
+    }
+
+    @Override
+    public void onResponse(APIGatewayProxyRequestEvent request, APIGatewayProxyResponseEvent response) {
+        sendPendingAudits();
+    }
+
+    @Override
+    public void afterExecution() {
+        // audits of request which failed before its response was ready
+        sendPendingAudits();
+    }
+
+    @AllArgsConstructor
+    static class PendingAudit {
+        private final String queueUrl;
+        private final String requestType;
+        private final String messageBody;
+        private final int sizeInBytes;
+
+        PendingAudit(String queueUrl, String requestType, String messageBody) {
+            this(queueUrl, requestType, messageBody, messageBody.getBytes(StandardCharsets.UTF_8).length);
+        }
+    }
+
+    private static class SendStats {
+        private int sent;
+        private int batches;
+        private int dropped;
+
+        private void dropped(PendingAudit audit, String reason) {
+            dropped++;
+            log.info("Error sending audit data | request_type: {} | queue: {} | reason: {}", audit.requestType, audit.queueUrl, reason);
+        }
     }
 }
@@ -0,0 +1,45 @@
+package io.slgl.api.repository;
+
+import io.slgl.api.ExecutionContext;
+import io.slgl.api.model.AuditorEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Auditors of nodes already resolved in the current request. Entry of a node is forgotten by {@link LinkRepository}
+ * as soon as any link targeting that node is written or deleted, so that newly linked auditors are notified within
+ * the same request.
+ */
+public class AuditorCache implements ExecutionContext.PreExecutionCallback, ExecutionContext.PostExecutionCallback {
+
+    private final Map<String, List<AuditorEntity>> cache = new ConcurrentHashMap<>();
+
+    public Optional<List<AuditorEntity>> get(String nodeId) {
+        return Optional.ofNullable(cache.get(nodeId));
+    }
+
+    public void put(String nodeId, List<AuditorEntity> auditors) {
+        cache.put(nodeId, List.copyOf(auditors));
+    }
+
+    public void invalidate(String nodeId) {
+        cache.remove(nodeId);
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    @Override
+    public void beforeExecution() {
+        clear();
+    }
+
+    @Override
+    public void afterExecution() {
+        clear();
+    }
+}
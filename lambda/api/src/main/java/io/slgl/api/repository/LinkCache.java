@@ -0,0 +1,74 @@
+package io.slgl.api.repository;
+
+import io.slgl.api.ExecutionContext;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.slgl.api.utils.RepositoryUtils.buildIndexValue;
+
+/**
+ * Links already read from the ledger in the current request. Besides links found by id it remembers, for each
+ * {@code (source node, target node, target anchor)} key that was looked up, whether such link exists. Both are kept
+ * up to date by {@link LinkRepository} when links are written or deleted.
+ */
+public class LinkCache implements ExecutionContext.PreExecutionCallback, ExecutionContext.PostExecutionCallback {
+
+    private final Map<String, LinkEntity> byId = new ConcurrentHashMap<>();
+    private final Map<String, Optional<LinkEntity>> byKey = new ConcurrentHashMap<>();
+
+    public Optional<LinkEntity> getById(String id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    public boolean isKnown(String sourceNode, String targetNode, String targetAnchor) {
+        return byKey.containsKey(buildKey(sourceNode, targetNode, targetAnchor));
+    }
+
+    /**
+     * Returns link with given key, or null when it is known not to exist (see {@link #isKnown}).
+     */
+    public LinkEntity get(String sourceNode, String targetNode, String targetAnchor) {
+        return byKey.getOrDefault(buildKey(sourceNode, targetNode, targetAnchor), Optional.empty()).orElse(null);
+    }
+
+    public void put(LinkEntity link) {
+        if (link.getId() != null) {
+            byId.put(link.getId(), link);
+        }
+        byKey.put(buildKey(link), Optional.of(link));
+    }
+
+    public void markMissing(String sourceNode, String targetNode, String targetAnchor) {
+        byKey.put(buildKey(sourceNode, targetNode, targetAnchor), Optional.empty());
+    }
+
+    public void remove(LinkEntity link) {
+        byId.remove(link.getId());
+        byKey.put(buildKey(link), Optional.empty());
+    }
+
+    public void clear() {
+        byId.clear();
+        byKey.clear();
+    }
+
+    @Override
+    public void beforeExecution() {
+        clear();
+    }
+
+    @Override
+    public void afterExecution() {
+        clear();
+    }
+
+    static String buildKey(LinkEntity link) {
+        return buildKey(link.getSourceNode(), link.getTargetNode(), link.getTargetAnchor());
+    }
+
+    private static String buildKey(String sourceNode, String targetNode, String targetAnchor) {
+        return buildIndexValue(sourceNode, targetNode, targetAnchor);
+    }
+}
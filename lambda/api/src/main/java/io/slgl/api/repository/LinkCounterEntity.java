@@ -0,0 +1,19 @@
+package io.slgl.api.repository;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class LinkCounterEntity {
+
+    @JsonProperty(value = "id", access = JsonProperty.Access.WRITE_ONLY)
+    private String id;
+
+    @JsonProperty("tn_ta")
+    private String targetNodeTargetAnchor;
+
+    @JsonProperty("links_count")
+    private int linksCount;
+}
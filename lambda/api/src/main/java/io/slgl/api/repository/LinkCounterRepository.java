@@ -0,0 +1,133 @@
+package io.slgl.api.repository;
+
+import com.amazon.ion.IonValue;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import io.slgl.api.ExecutionContext;
+import io.slgl.api.utils.UncheckedIonValueMapper;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.qldb.Executable;
+import software.amazon.qldb.Result;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.slgl.api.utils.RepositoryUtils.buildIndexValue;
+
+/**
+ * Number of links in each anchor, kept in {@code link_counter} table and updated in the same transaction in which
+ * links are written or deleted. Anchors without counter (e.g. created before the table was introduced and not yet
+ * migrated) are counted from links and get their counter on the next change.
+ */
+@Slf4j
+public class LinkCounterRepository {
+
+    private final UncheckedIonValueMapper mapper = ExecutionContext.get(UncheckedIonValueMapper.class);
+    private final TransactionManager transactionManager = ExecutionContext.get(TransactionManager.class);
+
+    public int read(String targetNode, String targetAnchor) {
+        checkNotNull(targetNode);
+        checkNotNull(targetAnchor);
+
+        return transactionManager.ensureReadTransaction(tx -> {
+            LinkCounterEntity counter = findByTargetNodeAndTargetAnchor(tx, targetNode, targetAnchor);
+            if (counter != null) {
+                return counter.getLinksCount();
+            }
+
+            return countLinks(tx, targetNode, targetAnchor);
+        });
+    }
+
+    public void increment(LinkEntity link) {
+        update(link, 1);
+    }
+
+    public void decrement(LinkEntity link) {
+        update(link, -1);
+    }
+
+    /**
+     * Creates counter for given anchor when it's missing.
+     *
+     * @return true if counter was created
+     */
+    public boolean initializeIfMissing(String targetNode, String targetAnchor) {
+        Executable tx = transactionManager.getCurrentTransaction();
+
+        if (findByTargetNodeAndTargetAnchor(tx, targetNode, targetAnchor) != null) {
+            return false;
+        }
+
+        insert(tx, targetNode, targetAnchor, countLinks(tx, targetNode, targetAnchor));
+        return true;
+    }
+
+    private void update(LinkEntity link, int delta) {
+        Executable tx = transactionManager.getCurrentTransaction();
+
+        LinkCounterEntity counter = findByTargetNodeAndTargetAnchor(tx, link.getTargetNode(), link.getTargetAnchor());
+        if (counter == null) {
+            // links written in this transaction are already visible, so the count includes the change
+            insert(tx, link.getTargetNode(), link.getTargetAnchor(), countLinks(tx, link.getTargetNode(), link.getTargetAnchor()));
+            return;
+        }
+
+        String query = "UPDATE link_counter BY id" +
+                " SET links_count = ?" +
+                " WHERE id = ?";
+
+        List<IonValue> params = ImmutableList.of(
+                mapper.serialize(counter.getLinksCount() + delta),
+                mapper.serialize(counter.getId()));
+
+        tx.execute(query, params);
+    }
+
+    private void insert(Executable tx, String targetNode, String targetAnchor, int linksCount) {
+        LinkCounterEntity counter = new LinkCounterEntity()
+                .setTargetNodeTargetAnchor(buildIndexValue(targetNode, targetAnchor))
+                .setLinksCount(linksCount);
+
+        String query = "INSERT INTO link_counter ?";
+        List<IonValue> params = ImmutableList.of(
+                mapper.serialize(counter));
+
+        tx.execute(query, params);
+    }
+
+    private LinkCounterEntity findByTargetNodeAndTargetAnchor(Executable tx, String targetNode, String targetAnchor) {
+        String query = "SELECT *" +
+                " FROM link_counter BY id" +
+                " WHERE tn_ta = ?";
+
+        List<IonValue> params = ImmutableList.of(
+                mapper.serialize(buildIndexValue(targetNode, targetAnchor)));
+
+        Result result = tx.execute(query, params);
+
+        if (result.isEmpty()) {
+            return null;
+        }
+
+        IonValue entryValue = result.iterator().next();
+        return mapper.parse(entryValue, LinkCounterEntity.class);
+    }
+
+    private int countLinks(Executable tx, String targetNode, String targetAnchor) {
+        // link_index entries are kept after link deletion, so only joined links are counted
+        String query = "SELECT link_id" +
+                " FROM link_index" +
+                " INNER JOIN link BY link_id ON link_id = link_index.link_id" +
+                " WHERE link_index.tn_ta = ?" +
+                " AND link.target_node = ?" +
+                " AND link.target_anchor = ?";
+
+        List<IonValue> params = ImmutableList.of(
+                mapper.serialize(buildIndexValue(targetNode, targetAnchor)),
+                mapper.serialize(targetNode),
+                mapper.serialize(targetAnchor));
+
+        return Iterators.size(tx.execute(query, params).iterator());
+    }
+}
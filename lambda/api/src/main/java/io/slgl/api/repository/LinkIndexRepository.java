@@ -17,6 +17,7 @@ public class LinkIndexRepository {
 
     private UncheckedIonValueMapper mapper = ExecutionContext.get(UncheckedIonValueMapper.class);
     private TransactionManager transactionManager = ExecutionContext.get(TransactionManager.class);
+    private LinkCounterRepository linkCounterRepository = ExecutionContext.get(LinkCounterRepository.class);
 
     public void insert(LinkEntity link) {
         LinkIndexEntity linkIndex = new LinkIndexEntity()
@@ -47,6 +48,8 @@ public class LinkIndexRepository {
         if (last != null) {
             clearLastAndSetNextId(last, linkIndex.getId());
         }
+
+        linkCounterRepository.increment(link);
     }
 
     private LinkIndexEntity findLast(String targetNodeTargetAnchor) {
@@ -93,6 +96,8 @@ public class LinkIndexRepository {
         if (previousId != null) {
             updateLastAndNextId(previousId, last, nextId);
         }
+
+        linkCounterRepository.decrement(link);
     }
 
     private LinkIndexEntity findByLink(LinkEntity link) {
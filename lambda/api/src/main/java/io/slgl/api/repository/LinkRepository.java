@@ -2,28 +2,37 @@ package io.slgl.api.repository;
 
 import com.amazon.ion.IonValue;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Streams;
 import io.slgl.api.ExecutionContext;
 import io.slgl.api.utils.UncheckedIonValueMapper;
 import lombok.extern.slf4j.Slf4j;
 import software.amazon.qldb.Result;
 
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static io.slgl.api.utils.RepositoryUtils.buildIndexValue;
+import static io.slgl.api.utils.RepositoryUtils.buildParametersList;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 @Slf4j
 public class LinkRepository {
 
+    /**
+     * Number of keys in single {@code IN} list, kept low to stay within QLDB statement limits.
+     */
+    static final int MAX_KEYS_PER_QUERY = 32;
+
     private final UncheckedIonValueMapper mapper = ExecutionContext.get(UncheckedIonValueMapper.class);
     private final TransactionManager transactionManager = ExecutionContext.get(TransactionManager.class);
 
     private final LinkIndexRepository linkIndexRepository = ExecutionContext.get(LinkIndexRepository.class);
+    private final LinkCounterRepository linkCounterRepository = ExecutionContext.get(LinkCounterRepository.class);
+    private final LinkCache linkCache = ExecutionContext.get(LinkCache.class);
+    private final AuditorCache auditorCache = ExecutionContext.get(AuditorCache.class);
 
     public void write(LinkEntity link) {
         checkArgument(isNotBlank(link.getSourceNode()));
@@ -40,6 +49,8 @@ public class LinkRepository {
         link.setId(qldbResult.getDocumentId());
 
         linkIndexRepository.insert(link);
+        linkCache.put(link);
+        auditorCache.invalidate(link.getTargetNode());
     }
 
     public void delete(LinkEntity link) {
@@ -53,16 +64,64 @@ public class LinkRepository {
         transactionManager.getCurrentTransaction().execute(query, params);
 
         linkIndexRepository.delete(link);
+        linkCache.remove(link);
+        auditorCache.invalidate(link.getTargetNode());
     }
 
     public LinkEntity readById(String id) {
         checkNotNull(id);
 
+        if (isCacheUsed()) {
+            Optional<LinkEntity> cachedLink = linkCache.getById(id);
+            if (cachedLink.isPresent()) {
+                return cachedLink.get();
+            }
+        }
+
         String query = "SELECT link_id AS id, link.*" +
                 " FROM link BY link_id" +
                 " WHERE link_id = ?";
 
-        return readOne(query, id);
+        LinkEntity link = readOne(query, id);
+        if (link != null && isCacheUsed()) {
+            linkCache.put(link);
+        }
+        return link;
+    }
+
+    /**
+     * Reads links with given ids using as few statements as possible. Returned map doesn't contain ids of not existing
+     * links.
+     */
+    public Map<String, LinkEntity> readByIds(Collection<String> ids) {
+        Map<String, LinkEntity> links = new LinkedHashMap<>();
+        List<String> idsToRead = new ArrayList<>();
+
+        for (String id : new LinkedHashSet<>(ids)) {
+            checkNotNull(id);
+
+            Optional<LinkEntity> cachedLink = isCacheUsed() ? linkCache.getById(id) : Optional.empty();
+            if (cachedLink.isPresent()) {
+                links.put(id, cachedLink.get());
+            } else {
+                idsToRead.add(id);
+            }
+        }
+
+        for (List<String> chunk : Lists.partition(idsToRead, MAX_KEYS_PER_QUERY)) {
+            String query = "SELECT link_id AS id, link.*" +
+                    " FROM link BY link_id" +
+                    " WHERE link_id IN (" + buildParametersList(chunk.size()) + ")";
+
+            for (LinkEntity link : readAll(query, chunk.toArray())) {
+                if (isCacheUsed()) {
+                    linkCache.put(link);
+                }
+                links.put(link.getId(), link);
+            }
+        }
+
+        return links;
     }
 
     public LinkEntity read(String sourceNode, String targetNode, String targetAnchor) {
@@ -70,6 +129,10 @@ public class LinkRepository {
         checkNotNull(targetNode);
         checkNotNull(targetAnchor);
 
+        if (isCacheUsed() && linkCache.isKnown(sourceNode, targetNode, targetAnchor)) {
+            return linkCache.get(sourceNode, targetNode, targetAnchor);
+        }
+
         String query = "SELECT link_id AS id, link.*" +
                 " FROM link_index" +
                 " INNER JOIN link BY link_id ON link_id = link_index.link_id" +
@@ -78,7 +141,67 @@ public class LinkRepository {
                 " AND link.target_node = ?" +
                 " AND link.target_anchor = ?";
 
-        return readOne(query, buildIndexValue(sourceNode, targetNode, targetAnchor), sourceNode, targetNode, targetAnchor);
+        LinkEntity link = readOne(query, buildIndexValue(sourceNode, targetNode, targetAnchor), sourceNode, targetNode, targetAnchor);
+        if (isCacheUsed()) {
+            if (link != null) {
+                linkCache.put(link);
+            } else {
+                linkCache.markMissing(sourceNode, targetNode, targetAnchor);
+            }
+        }
+        return link;
+    }
+
+    /**
+     * Checks existence of many links at once, as {@link #read(String, String, String)} does for single one. Each of
+     * given entities is used only as {@code (source node, target node, target anchor)} key. Returned list contains
+     * existing links, result for the other keys is remembered so that reading them again in the same write transaction
+     * doesn't hit the ledger.
+     */
+    public List<LinkEntity> readExisting(Collection<LinkEntity> keys) {
+        Map<String, LinkEntity> keysToRead = new LinkedHashMap<>();
+        List<LinkEntity> existing = new ArrayList<>();
+
+        for (LinkEntity key : keys) {
+            checkNotNull(key.getSourceNode());
+            checkNotNull(key.getTargetNode());
+            checkNotNull(key.getTargetAnchor());
+
+            if (isCacheUsed() && linkCache.isKnown(key.getSourceNode(), key.getTargetNode(), key.getTargetAnchor())) {
+                Optional.ofNullable(linkCache.get(key.getSourceNode(), key.getTargetNode(), key.getTargetAnchor()))
+                        .ifPresent(existing::add);
+            } else {
+                keysToRead.put(LinkCache.buildKey(key), key);
+            }
+        }
+
+        for (List<String> chunk : Lists.partition(new ArrayList<>(keysToRead.keySet()), MAX_KEYS_PER_QUERY)) {
+            String query = "SELECT link_id AS id, link.*" +
+                    " FROM link_index" +
+                    " INNER JOIN link BY link_id ON link_id = link_index.link_id" +
+                    " WHERE link_index.sn_tn_ta IN (" + buildParametersList(chunk.size()) + ")";
+
+            Set<String> found = new HashSet<>();
+            for (LinkEntity link : readAll(query, chunk.toArray())) {
+                // index value is checked against link itself, same as in single read
+                String key = LinkCache.buildKey(link);
+                if (keysToRead.containsKey(key) && found.add(key)) {
+                    existing.add(link);
+                    if (isCacheUsed()) {
+                        linkCache.put(link);
+                    }
+                }
+            }
+
+            if (isCacheUsed()) {
+                chunk.stream()
+                        .filter(key -> !found.contains(key))
+                        .map(keysToRead::get)
+                        .forEach(key -> linkCache.markMissing(key.getSourceNode(), key.getTargetNode(), key.getTargetAnchor()));
+            }
+        }
+
+        return existing;
     }
 
     public List<LinkEntity> readAllBySourceNodeAndTargetAnchor(String sourceNode, String targetAnchor) {
@@ -109,6 +232,10 @@ public class LinkRepository {
         return readAll(query, buildIndexValue(targetNode, targetAnchor), targetNode, targetAnchor);
     }
 
+    public int countByTargetNodeAndTargetAnchor(String targetNode, String targetAnchor) {
+        return linkCounterRepository.read(targetNode, targetAnchor);
+    }
+
     public LinkEntity readFirstByTargetNodeAndTargetAnchor(String targetNode, String targetAnchor) {
         checkNotNull(targetNode);
         checkNotNull(targetAnchor);
@@ -160,6 +287,11 @@ public class LinkRepository {
         });
     }
 
+    private boolean isCacheUsed() {
+        // outside of write transaction links may be changed by others before they are used
+        return transactionManager.isInWriteTransaction();
+    }
+
     private List<IonValue> convertToParamsList(Object... params) {
         return Arrays.stream(params)
                 .map(param -> mapper.serialize(param))
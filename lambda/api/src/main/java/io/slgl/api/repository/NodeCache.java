@@ -0,0 +1,64 @@
+package io.slgl.api.repository;
+
+import io.slgl.api.ExecutionContext;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Nodes already read from the ledger in the current request, so that each of them is fetched only once. Nodes are
+ * never modified, so found nodes are kept as they are. Ids known to be missing are forgotten as soon as node with
+ * such id is written.
+ */
+public class NodeCache implements ExecutionContext.PreExecutionCallback, ExecutionContext.PostExecutionCallback {
+
+    private final Map<String, NodeEntity> cache = new ConcurrentHashMap<>();
+    private final Set<String> missing = ConcurrentHashMap.newKeySet();
+
+    public Optional<NodeEntity> get(String nodeId) {
+        return Optional.ofNullable(cache.get(nodeId));
+    }
+
+    public boolean contains(String nodeId) {
+        return cache.containsKey(nodeId);
+    }
+
+    public boolean isMissing(String nodeId) {
+        return missing.contains(nodeId);
+    }
+
+    public void put(NodeEntity node) {
+        if (node != null && node.getId() != null) {
+            cache.put(node.getId(), node);
+            missing.remove(node.getId());
+        }
+    }
+
+    public void markMissing(String nodeId) {
+        if (nodeId != null && !cache.containsKey(nodeId)) {
+            missing.add(nodeId);
+        }
+    }
+
+    public void invalidate(String nodeId) {
+        cache.remove(nodeId);
+        missing.remove(nodeId);
+    }
+
+    public void clear() {
+        cache.clear();
+        missing.clear();
+    }
+
+    @Override
+    public void beforeExecution() {
+        clear();
+    }
+
+    @Override
+    public void afterExecution() {
+        clear();
+    }
+}
@@ -3,23 +3,31 @@ package io.slgl.api.repository;
 import com.amazon.ion.IonValue;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Streams;
 import io.slgl.api.ExecutionContext;
 import io.slgl.api.utils.UncheckedIonValueMapper;
 import lombok.extern.slf4j.Slf4j;
 import software.amazon.qldb.Result;
 
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 import static io.slgl.api.utils.RepositoryUtils.buildIndexValue;
+import static io.slgl.api.utils.RepositoryUtils.buildParametersList;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 @Slf4j
 public class NodeRepository {
 
+    /**
+     * Number of ids in single {@code IN} list, kept low to stay within QLDB statement limits.
+     */
+    static final int MAX_IDS_PER_QUERY = 32;
+
     private UncheckedIonValueMapper mapper = ExecutionContext.get(UncheckedIonValueMapper.class);
     private TransactionManager transactionManager = ExecutionContext.get(TransactionManager.class);
+    private NodeCache nodeCache = ExecutionContext.get(NodeCache.class);
 
     public void write(NodeEntity entry) {
         Preconditions.checkArgument(isNotBlank(entry.getId()));
@@ -28,15 +36,24 @@ public class NodeRepository {
         IonValue entryValue = mapper.serialize(entry);
 
         transactionManager.getCurrentTransaction().execute(query, ImmutableList.of(entryValue));
+        nodeCache.invalidate(entry.getId());
     }
 
     public NodeEntity readById(String id) {
         Preconditions.checkNotNull(id);
 
+        Optional<NodeEntity> cachedNode = nodeCache.get(id);
+        if (cachedNode.isPresent()) {
+            return cachedNode.get();
+        }
+        if (nodeCache.isMissing(id)) {
+            return null;
+        }
+
         String query = "SELECT * FROM node WHERE \"@id\" = ?";
         IonValue idValue = mapper.serialize(id);
 
-        return transactionManager.ensureReadTransaction(tx -> {
+        NodeEntity node = transactionManager.ensureReadTransaction(tx -> {
             Result result = tx.execute(query, List.of(idValue));
 
             if (result.isEmpty()) {
@@ -46,6 +63,62 @@ public class NodeRepository {
             IonValue entryValue = result.iterator().next();
             return mapper.parse(entryValue, NodeEntity.class);
         });
+
+        nodeCache.put(node);
+        return node;
+    }
+
+    /**
+     * Reads nodes with given ids using as few statements as possible. Nodes already read in the current request are
+     * not fetched again. Returned map doesn't contain ids of not existing nodes. When read in write transaction, these
+     * are remembered as missing until node with such id is written.
+     */
+    public Map<String, NodeEntity> readByIds(Collection<String> ids) {
+        Map<String, NodeEntity> nodes = new LinkedHashMap<>();
+        Set<String> idsToRead = new LinkedHashSet<>();
+
+        for (String id : ids) {
+            Preconditions.checkNotNull(id);
+
+            Optional<NodeEntity> cachedNode = nodeCache.get(id);
+            if (cachedNode.isPresent()) {
+                nodes.put(id, cachedNode.get());
+            } else if (!nodeCache.isMissing(id)) {
+                idsToRead.add(id);
+            }
+        }
+
+        if (idsToRead.isEmpty()) {
+            return nodes;
+        }
+
+        transactionManager.ensureReadTransaction(tx -> {
+            for (List<String> chunk : Lists.partition(new ArrayList<>(idsToRead), MAX_IDS_PER_QUERY)) {
+                String query = "SELECT * FROM node WHERE \"@id\" IN (" + buildParametersList(chunk.size()) + ")";
+                List<IonValue> params = chunk.stream()
+                        .map(mapper::serialize)
+                        .collect(Collectors.toList());
+
+                for (IonValue value : tx.execute(query, params)) {
+                    NodeEntity node = mapper.parse(value, NodeEntity.class);
+                    nodeCache.put(node);
+                    nodes.put(node.getId(), node);
+                }
+            }
+            return null;
+        });
+
+        if (transactionManager.isInWriteTransaction()) {
+            idsToRead.stream()
+                    .filter(id -> !nodes.containsKey(id))
+                    .forEach(nodeCache::markMissing);
+        }
+
+        return nodes;
+    }
+
+    public boolean isAlreadyRead(String id) {
+        return nodeCache.contains(id);
     }
 
     public List<NodeEntity> readAllLinkedToNode(String nodeId, String anchor) {
@@ -69,6 +142,7 @@ public class NodeRepository {
 
             return Streams.stream(result)
                     .map(value -> mapper.parse(value, NodeEntity.class))
+                    .peek(nodeCache::put)
                     .collect(Collectors.toList());
         });
     }
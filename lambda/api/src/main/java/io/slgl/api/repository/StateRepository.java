@@ -22,18 +22,20 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import static io.slgl.api.utils.Utils.getSha3OnJqSCompliantJson;
-import static io.slgl.api.utils.json.UncheckedObjectMapper.MAPPER;
+import static io.slgl.api.utils.Utils.getSha3OnJqSCompliantValue;
 
 @Slf4j
 public class StateRepository {
 
     private final Provider<S3Client> s3Client = ExecutionContext.getProvider(S3Client.class);
     private final S3ClientFactory s3ClientFactory = ExecutionContext.get(S3ClientFactory.class);
+    private final VerifiedStateCache verifiedStateCache = ExecutionContext.get(VerifiedStateCache.class);
     private final Map<String, Map<String, Object>> stateFromRequest = new HashMap<>();
+    private final Map<String, Region> bucketRegions = new ConcurrentHashMap<>();
 
     public Optional<Map<String, Object>> readState(NodeEntity node) {
 
@@ -44,11 +46,17 @@ public class StateRepository {
         }
 
         if (node.getStateSource() != null) {
+            var cachedState = verifiedStateCache.get(node.getStateSha3());
+            if (cachedState.isPresent()) {
+                return cachedState;
+            }
+
             try {
                 byte[] stateBytes = loadStateFromStateSource(node.getStateSource());
 
                 state = UncheckedObjectMapper.MAPPER.readValue(new ByteArrayInputStream(stateBytes), new TypeReference<>() {});
                 verifyStateMatchesStateHashFromNode(state, node);
+                verifiedStateCache.put(node.getStateSha3(), state);
 
                 return Optional.of(state);
 
@@ -84,6 +92,10 @@ public class StateRepository {
     }
 
     private Region getS3BucketRegion(StateSource stateSource) {
+        return bucketRegions.computeIfAbsent(stateSource.getHost(), bucket -> readS3BucketRegion(stateSource));
+    }
+
+    private Region readS3BucketRegion(StateSource stateSource) {
         GetBucketLocationResponse bucketLocation = s3Client.get().getBucketLocation(GetBucketLocationRequest.builder()
                 .bucket(stateSource.getHost())
                 .build());
@@ -96,13 +108,17 @@ public class StateRepository {
     }
 
     private void verifyStateMatchesStateHashFromNode(Object state, NodeEntity node) {
-        String stateFromRequestHash = getSha3OnJqSCompliantJson(MAPPER.writeValueAsString(state));
+        String stateFromRequestHash = getSha3OnJqSCompliantValue(state);
 
         if (!Objects.equal(node.getStateSha3(), stateFromRequestHash)) {
             throw new ApiException(ErrorCode.STATE_HASH_MISMATCH, node.getId());
         }
     }
 
+    public boolean hasStateFromRequest(String nodeId) {
+        return stateFromRequest.containsKey(nodeId);
+    }
+
     public void putStateFromRequest(String nodeId, Map<String, Object> state) {
         stateFromRequest.put(nodeId, state);
     }
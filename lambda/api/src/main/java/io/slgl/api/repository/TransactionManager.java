@@ -15,7 +15,11 @@ import static com.google.common.base.Preconditions.checkState;
 public class TransactionManager {
 
     private final QldbDriver qldbDriver = ExecutionContext.get(QldbDriver.class);
+    private final NodeCache nodeCache = ExecutionContext.get(NodeCache.class);
+    private final LinkCache linkCache = ExecutionContext.get(LinkCache.class);
+    private final AuditorCache auditorCache = ExecutionContext.get(AuditorCache.class);
     private final ThreadLocal<Executable> currentTransaction = new ThreadLocal<>();
+    private final ThreadLocal<Boolean> readOnly = new ThreadLocal<>();
 
     public void executeInTransaction(Consumer<Executable> work) {
         executeInTransaction(() -> work.accept(getCurrentTransaction()));
@@ -40,6 +44,7 @@ public class TransactionManager {
         Reference<T> result = new Reference<>();
         try {
             return executeInTransaction(() -> {
+                readOnly.set(true);
                 result.set(call.get()); // plain, as volatile access is not needed on the same thread
                 throw new ReadAccessCommitPreventingException();
             });
@@ -50,13 +55,22 @@ public class TransactionManager {
 
     public <T> T executeInTransaction(Supplier<T> call) {
         checkState(currentTransaction.get() == null, "Nested QLDB transaction are not supported");
+        Reference<Boolean> retried = new Reference<>();
         try {
             return qldbDriver.execute(tx -> {
+                if (retried.get() != null) {
+                    // entries read or written by the aborted attempt may be no longer valid
+                    nodeCache.clear();
+                    linkCache.clear();
+                    auditorCache.clear();
+                }
+                retried.set(true);
                 currentTransaction.set(tx);
                 return call.get();
             });
         } finally {
             currentTransaction.remove();
+            readOnly.remove();
         }
     }
 
@@ -64,6 +78,13 @@ public class TransactionManager {
         return checkNotNull(currentTransaction.get(), "Transaction not present");
     }
 
+    /**
+     * Returns true when data read now may come from changes which are not committed yet.
+     */
+    public boolean isInWriteTransaction() {
+        return currentTransaction.get() != null && readOnly.get() == null;
+    }
+
     public <T> T ensureReadTransaction(Function<Executable, T> call) {
         Executable transaction = currentTransaction.get();
         if (transaction != null) {
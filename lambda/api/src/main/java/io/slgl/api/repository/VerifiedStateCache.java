@@ -0,0 +1,80 @@
+package io.slgl.api.repository;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import io.slgl.api.ExecutionContext;
+import io.slgl.api.utils.LambdaEnv;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * States loaded from state sources and verified against {@code state_sha3} of their node, shared by all requests
+ * handled by the Lambda container. Entries are keyed by the state hash, so they can only be returned for a node which
+ * points to exactly the same content, and are kept as CBOR bytes to keep heap usage low.
+ * <p>
+ * This cache does not check read state permissions - callers have to do it exactly as for states read from source.
+ * Entries expire after configured time, so that state removed from its source stops being returned.
+ */
+@Slf4j
+public class VerifiedStateCache implements ExecutionContext.PostExecutionCallback {
+
+    private static final ObjectMapper CBOR_MAPPER = new ObjectMapper(new CBORFactory());
+    private static final TypeReference<Map<String, Object>> STATE_TYPE = new TypeReference<>() {};
+
+    private final Cache<String, byte[]> cache = CacheBuilder.newBuilder()
+            .maximumWeight(LambdaEnv.StateCache.getMaxSizeInBytes())
+            .weigher((String stateSha3, byte[] state) -> stateSha3.length() + state.length)
+            .expireAfterWrite(LambdaEnv.StateCache.getExpirationInSeconds(), TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+
+    public Optional<Map<String, Object>> get(String stateSha3) {
+        if (stateSha3 == null) {
+            return Optional.empty();
+        }
+
+        byte[] state = cache.getIfPresent(stateSha3);
+        if (state == null) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(CBOR_MAPPER.readValue(state, STATE_TYPE));
+        } catch (IOException e) {
+            log.warn("Unable to read cached state, evicting: stateSha3={}", stateSha3, e);
+            cache.invalidate(stateSha3);
+            return Optional.empty();
+        }
+    }
+
+    public void put(String stateSha3, Map<String, Object> state) {
+        if (stateSha3 == null) {
+            return;
+        }
+
+        try {
+            cache.put(stateSha3, CBOR_MAPPER.writeValueAsBytes(state));
+        } catch (IOException e) {
+            log.warn("Unable to cache state: stateSha3={}", stateSha3, e);
+        }
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void afterExecution() {
+        CacheStats stats = cache.stats();
+        log.info("Verified state cache: size={}, hits={}, misses={}, evictions={}",
+                cache.size(), stats.hitCount(), stats.missCount(), stats.evictionCount());
+    }
+}
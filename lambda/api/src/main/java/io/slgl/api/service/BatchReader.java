@@ -0,0 +1,47 @@
+package io.slgl.api.service;
+
+import io.slgl.api.ExecutionContext;
+import io.slgl.api.domain.BatchReadKeys;
+import io.slgl.api.domain.RequestItemObject;
+import io.slgl.api.repository.LinkEntity;
+import io.slgl.api.repository.LinkRepository;
+import io.slgl.api.repository.NodeEntity;
+import io.slgl.api.repository.NodeRepository;
+import io.slgl.api.type.TypeFactory;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Reads entries needed by all items of write request in bulk, before items are written one by one. Entries are put
+ * in request caches of repositories, so items read them the same way as before, just without hitting the ledger.
+ * Missing entries are never reported here, items fail on them in the order of the request.
+ */
+public class BatchReader {
+
+    private final NodeRepository nodeRepository = ExecutionContext.get(NodeRepository.class);
+    private final LinkRepository linkRepository = ExecutionContext.get(LinkRepository.class);
+    private final TypeFactory typeFactory = ExecutionContext.get(TypeFactory.class);
+
+    public void prefetch(List<RequestItemObject> items) {
+        BatchReadKeys keys = new BatchReadKeys();
+        items.forEach(item -> item.collectReadKeys(keys));
+
+        Set<String> nodeIds = new LinkedHashSet<>(keys.getNodeIds());
+        for (LinkEntity link : linkRepository.readByIds(keys.getLinkIds()).values()) {
+            nodeIds.add(link.getSourceNode());
+            nodeIds.add(link.getTargetNode());
+        }
+
+        Map<String, NodeEntity> nodes = nodeRepository.readByIds(nodeIds);
+
+        Set<String> typeIds = nodes.values().stream()
+                .map(typeFactory::findUncachedTypeId)
+                .flatMap(Optional::stream)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        nodeRepository.readByIds(typeIds);
+
+        items.forEach(item -> item.collectLinkReadKeys(keys));
+        linkRepository.readExisting(keys.getLinks());
+    }
+}
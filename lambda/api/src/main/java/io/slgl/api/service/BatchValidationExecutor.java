@@ -0,0 +1,108 @@
+package io.slgl.api.service;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.slgl.api.ExecutionContext;
+import io.slgl.api.domain.ApiUser;
+import io.slgl.api.domain.RequestItemObject;
+import io.slgl.api.utils.LambdaEnv;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Runs {@link RequestItemObject#validateBeforeTransaction()} of batch items, in parallel when enabled with
+ * {@code BATCH_VALIDATION_THREAD_COUNT} (items are validated one by one on the calling thread by default).
+ * <p>
+ * Workers see the same current user as the calling thread. When more items fail, exception of the first of them in
+ * the request is thrown, as it would be when validating one by one. All items are finished before this method
+ * returns, so that none of them uses request caches after the request is done.
+ */
+public class BatchValidationExecutor {
+
+    private final CurrentUserService currentUserService = ExecutionContext.get(CurrentUserService.class);
+
+    private final int threadCount;
+    private ExecutorService executorService;
+
+    public BatchValidationExecutor() {
+        this(LambdaEnv.BatchValidation.getThreadCount());
+    }
+
+    BatchValidationExecutor(int threadCount) {
+        this.threadCount = threadCount;
+    }
+
+    public void validateBeforeTransaction(List<RequestItemObject> items) {
+        if (threadCount <= 0 || items.size() <= 1) {
+            items.forEach(RequestItemObject::validateBeforeTransaction);
+            return;
+        }
+
+        ApiUser currentUser = currentUserService.getCurrentUser();
+        ApiUser permissionsUser = currentUserService.getPermissionsUser();
+
+        List<Future<?>> futures = new ArrayList<>(items.size());
+        for (RequestItemObject item : items) {
+            futures.add(getExecutorService().submit(() -> {
+                currentUserService.setCurrentUser(currentUser);
+                currentUserService.setPermissionsUser(permissionsUser);
+                try {
+                    item.validateBeforeTransaction();
+                } finally {
+                    currentUserService.setCurrentUser(null);
+                    currentUserService.setPermissionsUser(null);
+                }
+            }));
+        }
+
+        Throwable firstFailure = null;
+        for (Future<?> future : futures) {
+            Throwable failure = await(future);
+            if (firstFailure == null) {
+                firstFailure = failure;
+            }
+        }
+
+        if (firstFailure instanceof RuntimeException) {
+            throw (RuntimeException) firstFailure;
+        }
+        if (firstFailure instanceof Error) {
+            throw (Error) firstFailure;
+        }
+        if (firstFailure != null) {
+            throw new IllegalStateException(firstFailure);
+        }
+    }
+
+    private Throwable await(Future<?> future) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    future.get();
+                    return null;
+                } catch (ExecutionException e) {
+                    return e.getCause();
+                } catch (InterruptedException e) {
+                    // item still uses request state, so it has to finish anyway
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private synchronized ExecutorService getExecutorService() {
+        if (executorService == null) {
+            executorService = Executors.newFixedThreadPool(threadCount, new ThreadFactoryBuilder()
+                    .setNameFormat("batch-validation-%d")
+                    .setDaemon(true)
+                    .build());
+        }
+        return executorService;
+    }
+}
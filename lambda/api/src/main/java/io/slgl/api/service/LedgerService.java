@@ -9,6 +9,7 @@ import io.slgl.api.domain.RequestItemObject;
 import io.slgl.api.error.ApiException;
 import io.slgl.api.permission.PermissionChecker;
 import io.slgl.api.permission.PermissionCheckerContext;
+import io.slgl.api.observer.service.ObserverNotifier;
 import io.slgl.api.permission.service.AuditorNotifier;
 import io.slgl.api.protocol.*;
 import io.slgl.api.repository.NodeEntity;
@@ -40,6 +41,9 @@ public class LedgerService {
     private final AuthorizationService authorizationService = ExecutionContext.get(AuthorizationService.class);
     private final AuditorNotifier auditorNotifier = ExecutionContext.get(AuditorNotifier.class);
     private final ValidatorService validatorService = ExecutionContext.get(ValidatorService.class);
+    private final BatchReader batchReader = ExecutionContext.get(BatchReader.class);
+    private final BatchValidationExecutor batchValidationExecutor = ExecutionContext.get(BatchValidationExecutor.class);
+    private final ObserverNotifier observerNotifier = ExecutionContext.get(ObserverNotifier.class);
 
     public ApiResponse write(ApiRequest request) {
         var requests = nullToEmptyList(request.getRequests());
@@ -51,12 +55,14 @@ public class LedgerService {
         items.forEach(RequestItemObject::acknowledgeInCaches);
 
         validatorService.validate(request);
-        items.forEach(RequestItemObject::validateBeforeTransaction);
+        batchValidationExecutor.validateBeforeTransaction(items);
 
         stateService.addStateFromRequest(request.getExistingNodes().getState());
         var existingNodesRequests = nullToEmptyMap(request.getExistingNodes().getRequests());
 
         var results = transactionManager.executeInTransaction(() -> {
+            batchReader.prefetch(items);
+
             var responseItems = items.stream()
                     .peek(writeObject -> writeObject.resolveReferences(items, existingNodesRequests))
                     .map(RequestItemObject::write)
@@ -65,6 +71,7 @@ public class LedgerService {
             return responseItems;
         });
         items.forEach(RequestItemObject::afterCommit);
+        observerNotifier.awaitUploads();
 
         return new ApiResponse(results);
     }
@@ -125,14 +132,16 @@ public class LedgerService {
         Authorize authorizeForAction = Authorize.forReadState(node.getId());
         Authorization authorization = authorizationService.processAuthorization(authorizeForAction, request.getAuthorizations(), contextBuilder);
 
-        var permissionChecker = new PermissionChecker(RequestType.READ_STATE, node.getId(), authorization);
+        var auditors = auditorNotifier.getAuditors(node);
+        var permissionChecker = new PermissionChecker(RequestType.READ_STATE, node.getId(), authorization)
+                .withEvaluationLogging(!auditors.isEmpty());
 
         try {
             PermissionCheckerContext.executeWithContext(permissionChecker, (unused) -> {
                 stateService.validateStateAccess(node, currentUserService.getCurrentUser());
             });
         } finally {
-            auditorNotifier.notify(node, permissionChecker.buildPermissionAudit());
+            auditorNotifier.notify(auditors, permissionChecker.buildPermissionAudit());
         }
     }
 
@@ -13,15 +13,14 @@ import io.slgl.api.utils.ErrorCode;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ReadStatePermissionService implements ExecutionContext.PreExecutionCallback, ExecutionContext.PostExecutionCallback {
 
-    private final Map<NodeAndUser, Boolean> cache = new HashMap<>();
-    private final Set<String> nodesWithStateFromRequest = new HashSet<>();
+    private final Map<NodeAndUser, Boolean> cache = new ConcurrentHashMap<>();
+    private final Set<String> nodesWithStateFromRequest = ConcurrentHashMap.newKeySet();
 
     public void validateStateAccess(NodeEntity node, ApiUser user) {
         if (nodesWithStateFromRequest.contains(node.getId())) {
@@ -2,14 +2,14 @@ package io.slgl.api.service;
 
 import io.slgl.api.ExecutionContext;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class StateCache implements ExecutionContext.PreExecutionCallback, ExecutionContext.PostExecutionCallback {
 
-    private final Map<String, Map<String, Object>> cache = new HashMap<>();
-    private final Map<String, Map<String, Object>> stateFromRequest = new HashMap<>();
+    private final Map<String, Map<String, Object>> cache = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Object>> stateFromRequest = new ConcurrentHashMap<>();
 
     public Optional<Map<String, Object>> get(String nodeId) {
         return Optional.ofNullable(cache.get(nodeId));
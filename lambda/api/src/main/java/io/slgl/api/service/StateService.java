@@ -143,6 +143,10 @@ public class StateService {
         readStatePermissionService.validateStateAccess(entry, user);
     }
 
+    public boolean hasStateFromRequest(String nodeId) {
+        return stateRepository.hasStateFromRequest(nodeId);
+    }
+
     public void addStateFromRequest(Map<String, Map<String, Object>> stateFromRequest) {
         if (stateFromRequest == null) {
             return;
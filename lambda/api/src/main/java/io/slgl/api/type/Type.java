@@ -126,12 +126,13 @@ public class Type {
             throw new ApiException(ErrorCode.LINKED_DOCUMENT_MUST_BE_PDF);
         }
 
-        var text = uploadedFile.getDocumentText().get();
+        // pages are extracted only until templates are matched
+        var pages = uploadedFile.getDocumentPages().get();
         var requestObjectValues = uploadedFile.getRequestObject().getData();
         for (TemplateEntity entity : getTemplates()) {
             var template = new TemplateMatcher(entity.toClientDTO());
             try {
-                boolean matching = template.isMatching(text, requestObjectValues);
+                boolean matching = template.isMatching(pages, requestObjectValues);
                 if (matching) {
                     return;
                 }
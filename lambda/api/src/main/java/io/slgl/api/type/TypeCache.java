@@ -2,13 +2,13 @@ package io.slgl.api.type;
 
 import io.slgl.api.ExecutionContext;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class TypeCache implements ExecutionContext.PreExecutionCallback, ExecutionContext.PostExecutionCallback {
 
-    private final Map<String, Type> cache = new HashMap<>();
+    private final Map<String, Type> cache = new ConcurrentHashMap<>();
 
     public Optional<Type> getType(String typeId) {
         return Optional.ofNullable(cache.get(typeId));
@@ -9,6 +9,7 @@ import io.slgl.api.model.TypeEntity;
 import io.slgl.api.protocol.NodeRequest;
 import io.slgl.api.repository.NodeEntity;
 import io.slgl.api.repository.NodeRepository;
+import io.slgl.api.repository.TransactionManager;
 import io.slgl.api.service.StateService;
 import io.slgl.api.utils.ErrorCode;
 import io.slgl.api.utils.json.UncheckedObjectMapper;
@@ -26,8 +27,12 @@ public class TypeFactory {
     private final NodeRepository nodeRepository = ExecutionContext.get(NodeRepository.class);
     private final StateService stateService = ExecutionContext.get(StateService.class);
     private final TypeCache typeCache = ExecutionContext.get(TypeCache.class);
+    private final WarmTypeCache warmTypeCache = ExecutionContext.get(WarmTypeCache.class);
+    private final TransactionManager transactionManager = ExecutionContext.get(TransactionManager.class);
 
     public Type get(NodeEntity node) {
+        warmTypeCache.validate(node);
+
         if (equal(node.getType(), BuiltinType.CAMOUFLAGE.getId())) {
             return getCamouflagedType(node);
         }
@@ -44,6 +49,21 @@ public class TypeFactory {
         return getBaseType();
     }
 
+    /**
+     * Returns id of type node which has to be read from the ledger to get type of given node, when it's not cached.
+     */
+    public Optional<String> findUncachedTypeId(NodeEntity node) {
+        if (!(node.getType() instanceof String) || equal(node.getType(), BuiltinType.CAMOUFLAGE.getId())) {
+            return Optional.empty();
+        }
+
+        String typeId = (String) node.getType();
+        if (typeCache.getType(typeId).isPresent() || BuiltinType.findById(typeId).isPresent() || warmTypeCache.contains(typeId)) {
+            return Optional.empty();
+        }
+        return Optional.of(typeId);
+    }
+
     public Type get(NodeRequest object) {
         if (object.getType() != null) {
             return get(object.getType());
@@ -88,6 +108,12 @@ public class TypeFactory {
             throw new ApiException(ErrorCode.CAMOUFLAGED_TYPE_IS_NOT_READABLE);
         }
 
+        Optional<TypeEntity> warmTypeEntity = warmTypeCache.get(typeId);
+        if (warmTypeEntity.isPresent()) {
+            return new Type(typeId, warmTypeEntity.get());
+        }
+
+        boolean readingUncommittedData = transactionManager.isInWriteTransaction();
         NodeEntity typeEntry = nodeRepository.readById(typeId);
         if (typeEntry == null) {
             throw new ApiException(ErrorCode.TYPE_DOESNT_EXIST);
@@ -106,6 +132,11 @@ public class TypeFactory {
             typeEntity = new TypeEntity();
         }
 
+        // type read in write transaction may be rolled back, state provided in request may be not available for others
+        if (!readingUncommittedData && !stateService.hasStateFromRequest(typeId)) {
+            warmTypeCache.put(typeEntry, typeEntity);
+        }
+
         return new Type(typeId, typeEntity);
     }
 
@@ -132,6 +163,8 @@ public class TypeFactory {
     }
 
     public Type create(NodeRequest request) {
+        warmTypeCache.invalidate(request.getId());
+
         TypeEntity typeEntity = UncheckedObjectMapper.MAPPER.convertValue(request.getData(), TypeEntity.class);
         return new Type(request.getId(), typeEntity);
     }
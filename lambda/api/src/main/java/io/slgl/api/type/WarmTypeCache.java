@@ -0,0 +1,84 @@
+package io.slgl.api.type;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import io.slgl.api.ExecutionContext;
+import io.slgl.api.model.TypeEntity;
+import io.slgl.api.repository.NodeEntity;
+import io.slgl.api.utils.LambdaEnv;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import static io.slgl.api.utils.json.UncheckedObjectMapper.MAPPER;
+
+/**
+ * Definitions of types read from the ledger, kept for the lifetime of the Lambda container. Type nodes are never
+ * modified once written, so entry is valid as long as state hash of the type node matches the one it was built from.
+ * <p>
+ * Types created in the current request are held by {@link TypeCache} only.
+ */
+@Slf4j
+public class WarmTypeCache implements ExecutionContext.PostExecutionCallback {
+
+    private final Cache<String, Entry> cache = CacheBuilder.newBuilder()
+            .maximumWeight(LambdaEnv.TypeCache.getMaxSizeInBytes())
+            .weigher((String typeId, Entry entry) -> entry.weight)
+            .recordStats()
+            .build();
+
+    public Optional<TypeEntity> get(String typeId) {
+        return Optional.ofNullable(cache.getIfPresent(typeId))
+                .map(entry -> entry.typeEntity);
+    }
+
+    public boolean contains(String typeId) {
+        return cache.asMap().containsKey(typeId);
+    }
+
+    public void put(NodeEntity typeNode, TypeEntity typeEntity) {
+        int weight = typeNode.getId().length() + MAPPER.writeValueAsString(typeEntity).length();
+
+        cache.put(typeNode.getId(), new Entry(typeNode.getStateSha3(), typeEntity, weight));
+    }
+
+    public void validate(NodeEntity typeNode) {
+        if (typeNode.getId() == null) {
+            return;
+        }
+
+        Entry entry = cache.getIfPresent(typeNode.getId());
+
+        if (entry != null && !Objects.equals(entry.stateSha3, typeNode.getStateSha3())) {
+            log.warn("Cached type does not match type node, evicting: id={}", typeNode.getId());
+            cache.invalidate(typeNode.getId());
+        }
+    }
+
+    public void invalidate(String typeId) {
+        if (typeId != null) {
+            cache.invalidate(typeId);
+        }
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void afterExecution() {
+        CacheStats stats = cache.stats();
+        log.info("Warm type cache: size={}, hits={}, misses={}, evictions={}",
+                cache.size(), stats.hitCount(), stats.missCount(), stats.evictionCount());
+    }
+
+    @AllArgsConstructor
+    private static class Entry {
+        private final String stateSha3;
+        private final TypeEntity typeEntity;
+        private final int weight;
+    }
+}
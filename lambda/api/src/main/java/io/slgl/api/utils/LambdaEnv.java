@@ -54,6 +54,13 @@ public class LambdaEnv {
             return get("DSS_CACHE_S3_BUCKET");
         }
 
+        public static String getTrustListCacheS3Prefix() {
+            return get("DSS_CACHE_TRUST_LIST_CACHE_S3_PREFIX", "dss_tl_cache/");
+        }
+
+        /**
+         * Single zip the cache was exported to before the manifest, read only when there is no manifest yet.
+         */
         public static String getTrustListCacheZipS3Key() {
             return get("DSS_CACHE_TRUST_LIST_CACHE_ZIP_S3_KEY", "dss_tl_cache.zip");
         }
@@ -69,6 +76,105 @@ public class LambdaEnv {
         }
     }
 
+    public static class TypeCache {
+        public static long getMaxSizeInBytes() {
+            var bytes = get("TYPE_CACHE_MAX_SIZE_IN_BYTES", String.valueOf(16 * 1024 * 1024));
+            return Long.parseLong(bytes);
+        }
+    }
+
+    public static class StateCache {
+        public static long getMaxSizeInBytes() {
+            var bytes = get("STATE_CACHE_MAX_SIZE_IN_BYTES", String.valueOf(32 * 1024 * 1024));
+            return Long.parseLong(bytes);
+        }
+
+        public static long getExpirationInSeconds() {
+            var seconds = get("STATE_CACHE_EXPIRATION_IN_SECONDS", "300");
+            return Long.parseLong(seconds);
+        }
+    }
+
+    public static class SignatureCache {
+        public static long getMaxSizeInBytes() {
+            var bytes = get("SIGNATURE_CACHE_MAX_SIZE_IN_BYTES", String.valueOf(8 * 1024 * 1024));
+            return Long.parseLong(bytes);
+        }
+
+        public static long getExpirationInSeconds() {
+            var seconds = get("SIGNATURE_CACHE_EXPIRATION_IN_SECONDS", "3600");
+            return Long.parseLong(seconds);
+        }
+
+        public static String getS3Bucket() {
+            return get("SIGNATURE_CACHE_S3_BUCKET", null);
+        }
+    }
+
+    public static class RevocationCache {
+        public static long getMaxSizeInBytes() {
+            var bytes = get("REVOCATION_CACHE_MAX_SIZE_IN_BYTES", String.valueOf(64 * 1024 * 1024));
+            return Long.parseLong(bytes);
+        }
+
+        public static long getMaxExpirationInSeconds() {
+            var seconds = get("REVOCATION_CACHE_MAX_EXPIRATION_IN_SECONDS", "86400");
+            return Long.parseLong(seconds);
+        }
+
+        public static long getDefaultExpirationInSeconds() {
+            var seconds = get("REVOCATION_CACHE_DEFAULT_EXPIRATION_IN_SECONDS", "3600");
+            return Long.parseLong(seconds);
+        }
+
+        public static String getS3Bucket() {
+            return get("REVOCATION_CACHE_S3_BUCKET", null);
+        }
+    }
+
+    public static class BatchValidation {
+        public static int getThreadCount() {
+            var count = get("BATCH_VALIDATION_THREAD_COUNT", "0");
+            return parseInt(count);
+        }
+    }
+
+    public static class PdfTextExtraction {
+        public static int getThreadCount() {
+            var count = get("PDF_TEXT_EXTRACTION_THREAD_COUNT", "0");
+            return parseInt(count);
+        }
+    }
+
+    public static class ObserverUpload {
+        public static int getThreadCount() {
+            var count = get("OBSERVER_UPLOAD_THREAD_COUNT", "8");
+            return parseInt(count);
+        }
+
+        public static long getTimeoutInMillis() {
+            var millis = get("OBSERVER_UPLOAD_TIMEOUT_IN_MILLIS", "20000");
+            return Long.parseLong(millis);
+        }
+
+        public static int getPartSizeInBytes() {
+            var bytes = get("OBSERVER_UPLOAD_PART_SIZE_IN_BYTES", String.valueOf(8 * 1024 * 1024));
+            return parseInt(bytes);
+        }
+
+        public static int getMaxS3Clients() {
+            var count = get("OBSERVER_UPLOAD_MAX_S3_CLIENTS", "32");
+            return parseInt(count);
+        }
+    }
+
+    public static class AuditNotification {
+        public static long getTimeoutInMillis() {
+            var millis = get("AUDIT_NOTIFICATION_TIMEOUT_IN_MILLIS", "10000");
+            return Long.parseLong(millis);
+        }
+    }
+
     public static class S3ObserverRecovery {
         public static String getStorageBucket() {
             return get("S3_OBSERVER_DEAD_LETTER_BUCKET");
@@ -4,6 +4,7 @@ import com.google.common.escape.Escaper;
 import com.google.common.escape.Escapers;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.stream.Collectors;
 
 public class RepositoryUtils {
@@ -21,4 +22,8 @@ public class RepositoryUtils {
                 .map(ESCAPER.asFunction())
                 .collect(Collectors.joining("|"));
     }
+
+    public static String buildParametersList(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
 }
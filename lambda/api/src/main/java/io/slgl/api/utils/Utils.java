@@ -1,16 +1,20 @@
 package io.slgl.api.utils;
 
-import com.arakelian.jq.*;
-import com.sun.jna.Platform;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.slgl.api.utils.json.JqCompliantJsonWriter;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.bouncycastle.jcajce.provider.digest.SHA3;
 import org.bouncycastle.util.encoders.Hex;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestOutputStream;
 import java.util.Arrays;
 import java.util.Objects;
 import java.util.UUID;
 
-import static com.arakelian.jq.JqRequest.Indent.SPACE;
+import static io.slgl.api.utils.json.UncheckedObjectMapper.MAPPER;
 
 public class Utils {
     /**
@@ -18,24 +22,28 @@ public class Utils {
      * jq -S . file.with.original.json | rhash --sha3-512 /dev/stdin
      */
     public static String getSha3OnJqSCompliantJson(String json) {
-        String normalizedJson = normalizeJson(json);
-
         SHA3.DigestSHA3 digestSHA3 = new SHA3.Digest512();
-        byte[] digest = digestSHA3.digest(normalizedJson.getBytes());
-        return Hex.toHexString(digest).toLowerCase();
+        new JqCompliantJsonWriter().write(json, digestingStream(digestSHA3));
+        return Hex.toHexString(digestSHA3.digest()).toLowerCase();
     }
 
-    private static String normalizeJson(String json) {
-        if (Platform.isWindows()) {
-            return json; // TODO java-jq doesn't work on Windows
+    /**
+     * Same as {@link #getSha3OnJqSCompliantJson(String)} called with value serialized by
+     * {@link io.slgl.api.utils.json.UncheckedObjectMapper#MAPPER}, but without building the JSON string.
+     */
+    public static String getSha3OnJqSCompliantValue(Object value) {
+        SHA3.DigestSHA3 digestSHA3 = new SHA3.Digest512();
+        try (TokenBuffer tokens = new TokenBuffer(MAPPER, false)) {
+            MAPPER.writeValue(tokens, value);
+            new JqCompliantJsonWriter().write(tokens.asParser(), digestingStream(digestSHA3));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+        return Hex.toHexString(digestSHA3.digest()).toLowerCase();
+    }
 
-        JqLibrary library = ImmutableJqLibrary.of();
-        JqRequest request = ImmutableJqRequest.builder().lib(library).input(json).sortKeys(true).indent(SPACE).build();
-        JqResponse response = request.execute();
-
-        // add new line to make it match what linux generates
-        return response.getOutput() + "\n";
+    private static OutputStream digestingStream(SHA3.DigestSHA3 digestSHA3) {
+        return new DigestOutputStream(OutputStream.nullOutputStream(), digestSHA3);
     }
 
     public static String getSha3OfBytes(byte[] bytes) {
@@ -0,0 +1,538 @@
+package io.slgl.api.utils.json;
+
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes JSON in exactly the same form as {@code jq -S .} (jq 1.6) does: keys sorted by code point, two space
+ * indentation, jq escaping rules and jq number formatting (numbers are doubles printed with the shortest
+ * round-trip representation), followed by a new line.
+ * <p>
+ * Output is produced directly from parser tokens, only objects are buffered (their members have to be sorted).
+ * Instances are not thread safe, but may be reused for subsequent documents.
+ */
+public class JqCompliantJsonWriter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final int MAX_PARSING_DEPTH = 256;
+    private static final int INDENT = 2;
+    private static final int FLUSH_THRESHOLD = 8 * 1024;
+
+    private static final double MAX_EXACT_INTEGER = 9007199254740992.0; // 2^53
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes();
+
+    private final List<Buffer> objectBuffers = new ArrayList<>();
+    private final List<List<Member>> objectMembers = new ArrayList<>();
+    private char[] nameChars = new char[64];
+
+    public static byte[] toBytes(String json) {
+        var result = new ByteArrayOutputStream(json.length() * 2);
+        new JqCompliantJsonWriter().write(json, result);
+        return result.toByteArray();
+    }
+
+    public void write(String json, OutputStream output) {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            write(parser, output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void write(JsonParser parser, OutputStream output) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            return;
+        }
+
+        var root = new Buffer(output);
+        writeValue(parser, token, 0, root);
+        root.write('\n');
+        root.flush();
+
+        if (parser.nextToken() != null) {
+            throw new IllegalArgumentException("Only single JSON value is supported");
+        }
+    }
+
+    private void writeValue(JsonParser parser, JsonToken token, int depth, Buffer out) throws IOException {
+        switch (token) {
+            case START_OBJECT:
+                writeObject(parser, depth, out);
+                break;
+            case START_ARRAY:
+                writeArray(parser, depth, out);
+                break;
+            case VALUE_STRING:
+                writeString(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength(), out);
+                break;
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                writeNumber(readDouble(parser, token), out);
+                break;
+            case VALUE_TRUE:
+                out.writeAscii("true");
+                break;
+            case VALUE_FALSE:
+                out.writeAscii("false");
+                break;
+            case VALUE_NULL:
+                out.writeAscii("null");
+                break;
+            case VALUE_EMBEDDED_OBJECT:
+                writeEmbedded(parser.getEmbeddedObject(), out);
+                break;
+            default:
+                throw new IllegalArgumentException("Unexpected JSON token: " + token);
+        }
+    }
+
+    private void writeArray(JsonParser parser, int depth, Buffer out) throws IOException {
+        checkDepth(depth);
+
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.END_ARRAY) {
+            out.writeAscii("[]");
+            return;
+        }
+
+        out.write('[');
+        boolean first = true;
+        for (; token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+            out.write(first ? '\n' : ',');
+            if (!first) {
+                out.write('\n');
+            }
+            out.writeIndent(depth + 1);
+            writeValue(parser, token, depth + 1, out);
+            first = false;
+        }
+        out.write('\n');
+        out.writeIndent(depth);
+        out.write(']');
+    }
+
+    private void writeObject(JsonParser parser, int depth, Buffer out) throws IOException {
+        checkDepth(depth);
+
+        Buffer values = objectBuffer(depth);
+        List<Member> members = objectMembers(depth);
+        int valuesMark = values.size;
+        int membersMark = members.size();
+
+        for (JsonToken token = parser.nextToken(); token != JsonToken.END_OBJECT; token = parser.nextToken()) {
+            String name = replaceUnpairedLowSurrogates(parser.getCurrentName());
+            JsonToken valueToken = parser.nextToken();
+
+            int start = values.size;
+            writeValue(parser, valueToken, depth + 1, values);
+            members.add(new Member(name, start, values.size));
+        }
+
+        List<Member> sorted = members.subList(membersMark, members.size());
+        if (sorted.isEmpty()) {
+            out.writeAscii("{}");
+            return;
+        }
+
+        // stable sort - when key is duplicated jq keeps the last value
+        sorted.sort((a, b) -> compareCodePoints(a.name, b.name));
+
+        out.write('{');
+        boolean first = true;
+        for (int i = 0; i < sorted.size(); i++) {
+            Member member = sorted.get(i);
+            if (i + 1 < sorted.size() && sorted.get(i + 1).name.equals(member.name)) {
+                continue;
+            }
+
+            out.write(first ? '\n' : ',');
+            if (!first) {
+                out.write('\n');
+            }
+            out.writeIndent(depth + 1);
+            writeString(member.name, out);
+            out.write(':');
+            out.write(' ');
+            out.write(values.bytes, member.start, member.end - member.start);
+            first = false;
+        }
+        out.write('\n');
+        out.writeIndent(depth);
+        out.write('}');
+
+        sorted.clear();
+        values.size = valuesMark;
+    }
+
+    private void writeEmbedded(Object value, Buffer out) {
+        if (value == null) {
+            out.writeAscii("null");
+        } else if (value instanceof byte[]) {
+            // binary values are serialized to JSON as base64 strings
+            out.write('"');
+            out.writeAscii(Base64Variants.getDefaultVariant().encode((byte[]) value));
+            out.write('"');
+        } else {
+            throw new IllegalArgumentException("Unsupported embedded value: " + value.getClass().getName());
+        }
+    }
+
+    private static double readDouble(JsonParser parser, JsonToken token) throws IOException {
+        JsonParser.NumberType numberType = parser.getNumberType();
+        if (numberType == JsonParser.NumberType.FLOAT) {
+            // java float widened to double would not give the same value as its JSON text
+            return Double.parseDouble(parser.getText());
+        }
+        if (token == JsonToken.VALUE_NUMBER_INT && numberType == JsonParser.NumberType.INT && parser.getIntValue() == 0) {
+            // jq keeps sign of "-0" literal
+            return parser.getText().startsWith("-") ? -0.0 : 0.0;
+        }
+        return parser.getDoubleValue();
+    }
+
+    private static void checkDepth(int depth) {
+        if (depth >= MAX_PARSING_DEPTH) {
+            throw new IllegalArgumentException("Exceeds depth limit for parsing");
+        }
+    }
+
+    private Buffer objectBuffer(int depth) {
+        while (objectBuffers.size() <= depth) {
+            objectBuffers.add(new Buffer(null));
+        }
+        return objectBuffers.get(depth);
+    }
+
+    private List<Member> objectMembers(int depth) {
+        while (objectMembers.size() <= depth) {
+            objectMembers.add(new ArrayList<>());
+        }
+        return objectMembers.get(depth);
+    }
+
+    private void writeString(String value, Buffer out) {
+        int length = value.length();
+        if (nameChars.length < length) {
+            nameChars = new char[Math.max(length, nameChars.length * 2)];
+        }
+        value.getChars(0, length, nameChars, 0);
+        writeString(nameChars, 0, length, out);
+    }
+
+    private static void writeString(char[] chars, int offset, int length, Buffer out) {
+        out.write('"');
+
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            char c = chars[i];
+
+            if (c < 0x80) {
+                writeAsciiChar(c, out);
+            } else if (c < 0x800) {
+                out.write(0xc0 | (c >> 6));
+                out.write(0x80 | (c & 0x3f));
+            } else if (Character.isLowSurrogate(c)) {
+                // low surrogate of a pair is consumed with its high surrogate, this one is unpaired
+                writeReplacementChar(out);
+            } else if (Character.isHighSurrogate(c)) {
+                if (i + 1 >= end || !Character.isLowSurrogate(chars[i + 1])) {
+                    throw new IllegalArgumentException("Invalid \\uXXXX\\uXXXX surrogate pair escape");
+                }
+                int codePoint = Character.toCodePoint(c, chars[++i]);
+                out.write(0xf0 | (codePoint >> 18));
+                out.write(0x80 | ((codePoint >> 12) & 0x3f));
+                out.write(0x80 | ((codePoint >> 6) & 0x3f));
+                out.write(0x80 | (codePoint & 0x3f));
+            } else {
+                out.write(0xe0 | (c >> 12));
+                out.write(0x80 | ((c >> 6) & 0x3f));
+                out.write(0x80 | (c & 0x3f));
+            }
+        }
+
+        out.write('"');
+    }
+
+    private static void writeReplacementChar(Buffer out) {
+        out.write(0xef);
+        out.write(0xbf);
+        out.write(0xbd);
+    }
+
+    private static void writeAsciiChar(char c, Buffer out) {
+        switch (c) {
+            case '"':
+                out.write('\\');
+                out.write('"');
+                break;
+            case '\\':
+                out.write('\\');
+                out.write('\\');
+                break;
+            case '\b':
+                out.write('\\');
+                out.write('b');
+                break;
+            case '\f':
+                out.write('\\');
+                out.write('f');
+                break;
+            case '\n':
+                out.write('\\');
+                out.write('n');
+                break;
+            case '\r':
+                out.write('\\');
+                out.write('r');
+                break;
+            case '\t':
+                out.write('\\');
+                out.write('t');
+                break;
+            default:
+                if (c < 0x20 || c == 0x7f) {
+                    out.writeAscii("\\u00");
+                    out.write(HEX_DIGITS[c >> 4]);
+                    out.write(HEX_DIGITS[c & 0xf]);
+                } else {
+                    out.write(c);
+                }
+        }
+    }
+
+    /**
+     * Port of {@code jvp_dtoa_fmt} from jq 1.6, which prints shortest round-trip digits of the number and switches
+     * to exponential notation when decimal point position is lower than -3 or more than 15 places after the last
+     * significant digit.
+     */
+    private static void writeNumber(double value, Buffer out) {
+        if (Double.isNaN(value)) {
+            out.writeAscii("null");
+            return;
+        }
+        if (value > Double.MAX_VALUE) {
+            value = Double.MAX_VALUE;
+        } else if (value < -Double.MAX_VALUE) {
+            value = -Double.MAX_VALUE;
+        }
+
+        if (value < 0 || (value == 0 && 1 / value < 0)) {
+            out.write('-');
+            value = -value;
+        }
+        if (value == 0) {
+            out.write('0');
+            return;
+        }
+
+        String digits;
+        int decimalPoint;
+        if (value < MAX_EXACT_INTEGER && value == Math.rint(value)) {
+            String integer = Long.toString((long) value);
+            int significant = integer.length();
+            while (integer.charAt(significant - 1) == '0') {
+                significant--;
+            }
+            digits = integer.substring(0, significant);
+            decimalPoint = integer.length();
+        } else {
+            BigDecimal shortest = shortestRoundTrip(value);
+            digits = shortest.unscaledValue().toString();
+            decimalPoint = digits.length() - shortest.scale();
+        }
+
+        int length = digits.length();
+        if (decimalPoint <= -4 || decimalPoint > length + 15) {
+            out.write(digits.charAt(0));
+            if (length > 1) {
+                out.write('.');
+                out.writeAscii(digits, 1, length);
+            }
+            out.write('e');
+            int exponent = decimalPoint - 1;
+            out.write(exponent < 0 ? '-' : '+');
+            exponent = Math.abs(exponent);
+            if (exponent < 10) {
+                out.write('0');
+            }
+            out.writeAscii(Integer.toString(exponent));
+
+        } else if (decimalPoint <= 0) {
+            out.write('0');
+            out.write('.');
+            for (; decimalPoint < 0; decimalPoint++) {
+                out.write('0');
+            }
+            out.writeAscii(digits);
+
+        } else if (decimalPoint >= length) {
+            out.writeAscii(digits);
+            for (int i = length; i < decimalPoint; i++) {
+                out.write('0');
+            }
+
+        } else {
+            out.writeAscii(digits, 0, decimalPoint);
+            out.write('.');
+            out.writeAscii(digits, decimalPoint, length);
+        }
+    }
+
+    /**
+     * Returns the shortest decimal (without trailing zeros) which parses back to the given positive number and,
+     * among those, the one nearest to it - the same digits as {@code dtoa} mode 0 used by jq.
+     */
+    private static BigDecimal shortestRoundTrip(double value) {
+        BigDecimal exact = new BigDecimal(value);
+
+        // Double.toString() always round-trips, but before JDK 19 it sometimes returns more digits than needed
+        int precision = new BigDecimal(Double.toString(value)).stripTrailingZeros().precision();
+        BigDecimal result = exact.round(new MathContext(precision, RoundingMode.HALF_EVEN));
+
+        while (precision > 1) {
+            BigDecimal shorter = exact.round(new MathContext(precision - 1, RoundingMode.HALF_EVEN));
+            if (shorter.doubleValue() != value) {
+                break;
+            }
+            result = shorter;
+            precision--;
+        }
+
+        return result.stripTrailingZeros();
+    }
+
+    /**
+     * jq 1.6 rejects unpaired high surrogate escape, but accepts unpaired low surrogate and replaces it with U+FFFD
+     * while parsing. Object keys are replaced the same way before they are sorted and deduplicated, string values
+     * only when written.
+     */
+    static String replaceUnpairedLowSurrogates(String value) {
+        char[] chars = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                i++;
+            } else if (Character.isLowSurrogate(c)) {
+                if (chars == null) {
+                    chars = value.toCharArray();
+                }
+                chars[i] = '\ufffd';
+            }
+        }
+        return chars != null ? new String(chars) : value;
+    }
+
+    /**
+     * Compares strings by Unicode code points (the same order as their UTF-8 bytes, used by jq), which differs from
+     * {@link String#compareTo(String)} for supplementary characters.
+     */
+    static int compareCodePoints(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        for (int i = 0; i < length; i++) {
+            char c1 = a.charAt(i);
+            char c2 = b.charAt(i);
+            if (c1 != c2) {
+                if (c1 >= Character.MIN_SURROGATE && c2 >= Character.MIN_SURROGATE) {
+                    c1 = fixupForCodePointOrder(c1);
+                    c2 = fixupForCodePointOrder(c2);
+                }
+                return c1 - c2;
+            }
+        }
+        return a.length() - b.length();
+    }
+
+    private static char fixupForCodePointOrder(char c) {
+        return (char) (c > Character.MAX_SURROGATE ? c - 0x800 : c + 0x2000);
+    }
+
+    private static class Member {
+        private final String name;
+        private final int start;
+        private final int end;
+
+        private Member(String name, int start, int end) {
+            this.name = name;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private static class Buffer {
+        private final OutputStream output;
+        private byte[] bytes = new byte[1024];
+        private int size;
+
+        private Buffer(OutputStream output) {
+            this.output = output;
+        }
+
+        void write(int b) {
+            ensureCapacity(1);
+            bytes[size++] = (byte) b;
+        }
+
+        void write(byte[] source, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(source, offset, bytes, size, length);
+            size += length;
+        }
+
+        void writeAscii(String text) {
+            writeAscii(text, 0, text.length());
+        }
+
+        void writeAscii(String text, int from, int to) {
+            ensureCapacity(to - from);
+            for (int i = from; i < to; i++) {
+                bytes[size++] = (byte) text.charAt(i);
+            }
+        }
+
+        void writeIndent(int depth) {
+            int length = depth * INDENT;
+            ensureCapacity(length);
+            Arrays.fill(bytes, size, size + length, (byte) ' ');
+            size += length;
+        }
+
+        void flush() {
+            if (output != null && size > 0) {
+                try {
+                    output.write(bytes, 0, size);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                size = 0;
+            }
+        }
+
+        private void ensureCapacity(int length) {
+            if (size + length <= bytes.length) {
+                return;
+            }
+            if (output != null && size >= FLUSH_THRESHOLD) {
+                flush();
+                if (length <= bytes.length) {
+                    return;
+                }
+            }
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+        }
+    }
+}
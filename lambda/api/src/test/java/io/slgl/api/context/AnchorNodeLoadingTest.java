@@ -0,0 +1,175 @@
+package io.slgl.api.context;
+
+import com.amazon.ion.IonString;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonValue;
+import com.amazon.ion.system.IonSystemBuilder;
+import io.slgl.api.ExecutionContext;
+import io.slgl.api.repository.LinkEntity;
+import io.slgl.api.repository.LinkRepository;
+import io.slgl.api.repository.NodeEntity;
+import io.slgl.api.repository.TransactionManager;
+import io.slgl.api.service.CurrentUserService;
+import io.slgl.api.service.StateService;
+import io.slgl.api.type.Anchor;
+import io.slgl.api.type.Type;
+import io.slgl.api.type.TypeFactory;
+import io.slgl.api.utils.UncheckedIonValueMapper;
+import io.slgl.permission.context.EvaluationContext;
+import io.slgl.permission.context.KnownLength;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import software.amazon.qldb.Executable;
+import software.amazon.qldb.Result;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static io.slgl.api.utils.TestExecutionContext.mock;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Counts QLDB statements executed while permissions iterate over source nodes linked to a large anchor.
+ */
+class AnchorNodeLoadingTest {
+
+    private static final int LINKS_COUNT = 500;
+
+    private final IonSystem ion = IonSystemBuilder.standard().build();
+    private final AtomicInteger statementsCount = new AtomicInteger();
+
+    private LinkRepository linkRepository;
+
+    @BeforeEach
+    void setup() {
+        ExecutionContext.reset();
+
+        Executable tx = Mockito.mock(Executable.class);
+        when(tx.execute(anyString(), anyList())).thenAnswer(invocation -> {
+            statementsCount.incrementAndGet();
+            List<IonValue> params = invocation.getArgument(1);
+            return result(params);
+        });
+
+        TransactionManager transactionManager = mock(TransactionManager.class);
+        when(transactionManager.ensureReadTransaction(any())).thenAnswer(invocation -> {
+            Function<Executable, ?> call = invocation.getArgument(0);
+            return call.apply(tx);
+        });
+
+        UncheckedIonValueMapper mapper = mock(UncheckedIonValueMapper.class);
+        when(mapper.serialize(anyString())).thenAnswer(invocation -> ion.newString(invocation.getArgument(0)));
+        when(mapper.parse(any(), eq(NodeEntity.class))).thenAnswer(invocation -> {
+            IonString id = invocation.getArgument(0);
+            return new NodeEntity().setId(id.stringValue());
+        });
+
+        Anchor anchor = mock(Anchor.class);
+        when(anchor.getId()).thenReturn("#items");
+
+        Type type = mock(Type.class);
+        when(type.getAnchors()).thenReturn(List.of(anchor));
+
+        TypeFactory typeFactory = mock(TypeFactory.class);
+        when(typeFactory.get(any(NodeEntity.class))).thenReturn(type);
+
+        linkRepository = mock(LinkRepository.class);
+        when(linkRepository.readAllByTargetNodeAndTargetAnchor("root", "#items")).thenReturn(links());
+        when(linkRepository.countByTargetNodeAndTargetAnchor("root", "#items")).thenReturn(LINKS_COUNT);
+
+        mock(StateService.class);
+        mock(CurrentUserService.class);
+    }
+
+    @AfterEach
+    void cleanup() {
+        ExecutionContext.reset();
+    }
+
+    @Test
+    void shouldReadAnchorSourceNodesInBatches() {
+        // given
+        EvaluationContext context = new EvaluationContextBuilder()
+                .withNodeObject(new NodeEntity().setId("root"))
+                .build();
+
+        // when
+        List<?> items = (List<?>) ((EvaluationContext) context.get("$node")).get("#items");
+        List<Object> ids = items.stream()
+                .map(item -> ((EvaluationContext) item).get("@id"))
+                .collect(Collectors.toList());
+
+        // then
+        assertThat(ids).hasSize(LINKS_COUNT);
+        assertThat(ids).first().isEqualTo("node-0");
+        assertThat(ids).last().isEqualTo("node-" + (LINKS_COUNT - 1));
+        assertThat(statementsCount.get()).isEqualTo((LINKS_COUNT + 31) / 32);
+    }
+
+    @Test
+    void shouldNotReadAgainNodesAlreadyRead() {
+        // given
+        EvaluationContext context = new EvaluationContextBuilder()
+                .withNodeObject(new NodeEntity().setId("root"))
+                .build();
+        List<?> items = (List<?>) ((EvaluationContext) context.get("$node")).get("#items");
+        items.forEach(item -> ((EvaluationContext) item).get("@id"));
+        int statementsAfterFirstPass = statementsCount.get();
+
+        // when
+        EvaluationContext secondContext = new EvaluationContextBuilder()
+                .withNodeObject(new NodeEntity().setId("root"))
+                .build();
+        List<?> secondItems = (List<?>) ((EvaluationContext) secondContext.get("$node")).get("#items");
+        secondItems.forEach(item -> ((EvaluationContext) item).get("@id"));
+
+        // then
+        assertThat(statementsCount.get()).isEqualTo(statementsAfterFirstPass);
+    }
+
+    @Test
+    void shouldReadAnchorLengthWithoutReadingLinks() {
+        // given
+        EvaluationContext context = new EvaluationContextBuilder()
+                .withNodeObject(new NodeEntity().setId("root"))
+                .build();
+
+        // when
+        Object items = ((EvaluationContext) context.get("$node")).get("#items");
+        int length = ((KnownLength) items).getLength();
+
+        // then
+        assertThat(length).isEqualTo(LINKS_COUNT);
+        verify(linkRepository, never()).readAllByTargetNodeAndTargetAnchor(any(), any());
+        assertThat(statementsCount.get()).isZero();
+    }
+
+    private List<LinkEntity> links() {
+        return IntStream.range(0, LINKS_COUNT)
+                .mapToObj(i -> new LinkEntity()
+                        .setSourceNode("node-" + i)
+                        .setTargetNode("root")
+                        .setTargetAnchor("#items")
+                        .setCreated(String.format("2020-01-01T00:00:%05dZ", i)))
+                .collect(Collectors.toList());
+    }
+
+    private Result result(List<IonValue> values) {
+        List<IonValue> copy = new ArrayList<>(values);
+
+        Result result = Mockito.mock(Result.class);
+        when(result.iterator()).thenAnswer(invocation -> copy.iterator());
+        when(result.isEmpty()).thenReturn(copy.isEmpty());
+        return result;
+    }
+}
@@ -0,0 +1,98 @@
+package io.slgl.api.document.model;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.AreaBreak;
+import com.itextpdf.layout.element.Paragraph;
+import io.slgl.api.error.ApiException;
+import io.slgl.api.utils.ErrorCode;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParsedPdfDocumentTest {
+
+    @Test
+    void shouldFindSignatureOfSignedDocument() throws IOException {
+        // given
+        var pdfBytes = IOUtils.resourceToByteArray("/io/slgl/api/pdfshadowattack/replace/variant-1_replace-via-overlay/3_original-document-shadowed-signed.pdf");
+
+        // when
+        var document = ParsedPdfDocument.parse(pdfBytes);
+
+        // then
+        assertThat(document.hasSignatures()).isTrue();
+    }
+
+    @Test
+    void shouldReadTextOfDocumentWithoutSignatures() throws IOException {
+        // given
+        var pdfBytes = IOUtils.resourceToByteArray("/io/slgl/api/testdocuments/example-document.pdf");
+
+        // when
+        var document = ParsedPdfDocument.parse(pdfBytes);
+
+        // then
+        assertThat(document.hasSignatures()).isFalse();
+        assertThat(document.getText()).isNotBlank();
+        assertThat(document.getInfoDictionary()).isNotNull();
+    }
+
+    @Test
+    void shouldExtractSameTextOfPagesInParallel() {
+        // given
+        var pdfBytes = createDocument(25);
+        var expectedText = ParsedPdfDocument.parse(pdfBytes).getText();
+        var document = ParsedPdfDocument.parse(pdfBytes);
+        document.getPageText(20);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+        // when
+        try {
+            document.extractPageTexts(executorService, 3);
+        } finally {
+            executorService.shutdown();
+        }
+
+        // then
+        assertThat(document.getText()).isEqualTo(expectedText);
+        assertThat(document.getPageTexts()).hasSize(25);
+        assertThat(document.getPageText(25)).contains("Paragraph 1 of page 25");
+    }
+
+    @Test
+    void shouldRejectDocumentWhichIsNotPdf() {
+        // given
+        var bytes = "not a pdf".getBytes(StandardCharsets.UTF_8);
+
+        // expect
+        assertThatThrownBy(() -> ParsedPdfDocument.parse(bytes))
+                .isInstanceOf(ApiException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.LINKED_DOCUMENT_MUST_BE_PDF);
+    }
+
+    private static byte[] createDocument(int numberOfPages) {
+        var output = new ByteArrayOutputStream();
+        try (var document = new Document(new PdfDocument(new PdfWriter(output)))) {
+            for (int page = 1; page <= numberOfPages; page++) {
+                if (page > 1) {
+                    document.add(new AreaBreak());
+                }
+                for (int paragraph = 1; paragraph <= 3; paragraph++) {
+                    document.add(new Paragraph("Paragraph " + paragraph + " of page " + page));
+                }
+            }
+        }
+        return output.toByteArray();
+    }
+}
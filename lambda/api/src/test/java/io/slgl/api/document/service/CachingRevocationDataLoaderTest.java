@@ -0,0 +1,244 @@
+package io.slgl.api.document.service;
+
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.X509v2CRLBuilder;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.cert.ocsp.BasicOCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.CertificateID;
+import org.bouncycastle.cert.ocsp.CertificateStatus;
+import org.bouncycastle.cert.ocsp.OCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.RespID;
+import org.bouncycastle.operator.ContentSigner;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.net.http.HttpClient;
+import java.security.KeyPairGenerator;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingRevocationDataLoaderTest {
+
+    private static final Instant NOW = Instant.now();
+    private static final X500Name CA_NAME = new X500Name("CN=Test CA");
+
+    private static ContentSigner signer;
+    private static X509CertificateHolder caCertificate;
+
+    private final InMemorySharedCacheStore sharedStore = new InMemorySharedCacheStore();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private RevocationHttpStandIn standIn;
+
+    @BeforeAll
+    static void createCa() throws Exception {
+        var keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        var keyPair = keyPairGenerator.generateKeyPair();
+
+        signer = new JcaContentSignerBuilder("SHA256withRSA").build(keyPair.getPrivate());
+        caCertificate = new JcaX509v3CertificateBuilder(CA_NAME, BigInteger.ONE,
+                Date.from(NOW.minus(Duration.ofDays(1))), Date.from(NOW.plus(Duration.ofDays(365))), CA_NAME, keyPair.getPublic())
+                .build(signer);
+    }
+
+    @BeforeEach
+    void setup() throws Exception {
+        standIn = new RevocationHttpStandIn();
+    }
+
+    @AfterEach
+    void cleanup() {
+        standIn.close();
+    }
+
+    @Test
+    void shouldDownloadCrlOnceUntilNextUpdate() throws Exception {
+        // given
+        var url = standIn.serve("/ca.crl", crl(NOW.plus(Duration.ofHours(12))));
+        var loader = loader(new RevocationDataCache(null, clockAt(NOW)));
+
+        // when
+        var first = loader.get(url);
+        var second = loader.get(url);
+
+        // then
+        assertThat(second).isEqualTo(first);
+        assertThat(standIn.getRequestsCount("/ca.crl")).isEqualTo(1);
+        assertThat(loader.getDownloadsCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDownloadCrlAgainAfterNextUpdate() throws Exception {
+        // given
+        var url = standIn.serve("/ca.crl", crl(NOW.plus(Duration.ofHours(12))));
+        loader(new RevocationDataCache(sharedStore, clockAt(NOW))).get(url);
+        var loader = loader(new RevocationDataCache(sharedStore, clockAt(NOW.plus(Duration.ofHours(13)))));
+
+        // when
+        loader.get(url);
+
+        // then
+        assertThat(standIn.getRequestsCount("/ca.crl")).isEqualTo(2);
+    }
+
+    @Test
+    void shouldUseCrlDownloadedByOtherContainerFromSharedStore() throws Exception {
+        // given
+        var url = standIn.serve("/ca.crl", crl(NOW.plus(Duration.ofHours(12))));
+        loader(new RevocationDataCache(sharedStore, clockAt(NOW))).get(url);
+        var loader = loader(new RevocationDataCache(sharedStore, clockAt(NOW.plus(Duration.ofHours(1)))));
+
+        // when
+        loader.get(url);
+
+        // then
+        assertThat(standIn.getRequestsCount("/ca.crl")).isEqualTo(1);
+        assertThat(loader.getDownloadsCount()).isZero();
+    }
+
+    @Test
+    void shouldCacheOcspResponsePerRequest() throws Exception {
+        // given
+        var url = standIn.serve("/ocsp", ocspResponse(NOW.plus(Duration.ofHours(1))));
+        var loader = loader(new RevocationDataCache(null, clockAt(NOW)));
+        loader.setContentType(RevocationSources.OCSP_REQUEST_CONTENT_TYPE);
+
+        // when
+        loader.post(url, new byte[]{1});
+        loader.post(url, new byte[]{1});
+        loader.post(url, new byte[]{2});
+
+        // then
+        assertThat(standIn.getRequestsCount("/ocsp")).isEqualTo(2);
+        assertThat(standIn.getContentType("/ocsp")).isEqualTo(RevocationSources.OCSP_REQUEST_CONTENT_TYPE);
+    }
+
+    @Test
+    void shouldNotCacheOcspResponseWithoutNextUpdate() throws Exception {
+        // given
+        var url = standIn.serve("/ocsp", ocspResponse(null));
+        var loader = loader(new RevocationDataCache(null, clockAt(NOW)));
+
+        // when
+        loader.post(url, new byte[]{1});
+        loader.post(url, new byte[]{1});
+
+        // then
+        assertThat(standIn.getRequestsCount("/ocsp")).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRefreshExpiringSharedCrls() throws Exception {
+        // given
+        var url = standIn.serve("/ca.crl", crl(NOW.plus(Duration.ofMinutes(30))));
+        loader(new RevocationDataCache(sharedStore, clockAt(NOW))).get(url);
+        standIn.serve("/ca.crl", crl(NOW.plus(Duration.ofHours(12))));
+
+        var refreshingCache = new RevocationDataCache(sharedStore, clockAt(NOW));
+        var refreshingLoader = loader(refreshingCache);
+
+        // when
+        var refreshed = refreshingCache.refreshSharedEntries(Duration.ofHours(1), entry -> refreshingLoader.download(entry.getUrl()));
+
+        // then
+        assertThat(refreshed).isEqualTo(1);
+        var laterLoader = loader(new RevocationDataCache(sharedStore, clockAt(NOW.plus(Duration.ofHours(1)))));
+        laterLoader.get(url);
+        assertThat(laterLoader.getDownloadsCount()).isZero();
+        assertThat(standIn.getRequestsCount("/ca.crl")).isEqualTo(2);
+    }
+
+    @Test
+    void shouldStoreCrlsAndOcspResponsesUnderSeparatePrefixes() throws Exception {
+        // given
+        var crlUrl = standIn.serve("/ca.crl", crl(NOW.plus(Duration.ofHours(12))));
+        var ocspUrl = standIn.serve("/ocsp", ocspResponse(NOW.plus(Duration.ofHours(1))));
+        var loader = loader(new RevocationDataCache(sharedStore, clockAt(NOW)));
+        loader.setContentType(RevocationSources.OCSP_REQUEST_CONTENT_TYPE);
+
+        // when
+        loader.get(crlUrl);
+        loader.post(ocspUrl, new byte[]{1});
+
+        // then
+        assertThat(sharedStore.keys(RevocationDataCache.CRL_KEY_PREFIX)).hasSize(1)
+                .allSatisfy(key -> assertThat(sharedStore.getExpires(key)).isPresent());
+        assertThat(sharedStore.keys(RevocationDataCache.OCSP_KEY_PREFIX)).hasSize(1);
+    }
+
+    @Test
+    void shouldNotReadSharedEntriesNotExpiringSoon() throws Exception {
+        // given
+        var crlUrl = standIn.serve("/ca.crl", crl(NOW.plus(Duration.ofHours(12))));
+        var ocspUrl = standIn.serve("/ocsp", ocspResponse(NOW.plus(Duration.ofMinutes(30))));
+        var loader = loader(new RevocationDataCache(sharedStore, clockAt(NOW)));
+        loader.setContentType(RevocationSources.OCSP_REQUEST_CONTENT_TYPE);
+        loader.get(crlUrl);
+        loader.post(ocspUrl, new byte[]{1});
+
+        var refreshingCache = new RevocationDataCache(sharedStore, clockAt(NOW));
+        var readsBeforeRefresh = sharedStore.getReadsCount();
+
+        // when
+        var refreshed = refreshingCache.refreshSharedEntries(Duration.ofHours(1), entry -> {
+            throw new IllegalStateException("should not be refreshed: " + entry.getUrl());
+        });
+
+        // then
+        assertThat(refreshed).isZero();
+        assertThat(sharedStore.getReadsCount()).isEqualTo(readsBeforeRefresh);
+    }
+
+    @Test
+    void shouldDeleteExpiredSharedCrlWhichCannotBeRefreshed() throws Exception {
+        // given
+        var url = standIn.serve("/ca.crl", crl(NOW.plus(Duration.ofMinutes(30))));
+        loader(new RevocationDataCache(sharedStore, clockAt(NOW))).get(url);
+        var refreshingCache = new RevocationDataCache(sharedStore, clockAt(NOW.plus(Duration.ofHours(1))));
+
+        // when
+        var refreshed = refreshingCache.refreshSharedEntries(Duration.ofHours(1), entry -> {
+            throw new IllegalStateException("CRL not available");
+        });
+
+        // then
+        assertThat(refreshed).isZero();
+        assertThat(sharedStore.keys(RevocationDataCache.CRL_KEY_PREFIX)).isEmpty();
+    }
+
+    private CachingRevocationDataLoader loader(RevocationDataCache cache) {
+        return new CachingRevocationDataLoader(cache, httpClient);
+    }
+
+    private static byte[] crl(Instant nextUpdate) throws Exception {
+        var builder = new X509v2CRLBuilder(CA_NAME, Date.from(NOW));
+        builder.setNextUpdate(Date.from(nextUpdate));
+        builder.addCRLEntry(BigInteger.TEN, Date.from(NOW), 0);
+        return builder.build(signer).getEncoded();
+    }
+
+    private static byte[] ocspResponse(Instant nextUpdate) throws Exception {
+        var digestCalculator = new JcaDigestCalculatorProviderBuilder().build().get(CertificateID.HASH_SHA1);
+        var certificateId = new CertificateID(digestCalculator, caCertificate, BigInteger.TWO);
+
+        var builder = new BasicOCSPRespBuilder(new RespID(CA_NAME));
+        builder.addResponse(certificateId, CertificateStatus.GOOD, Date.from(NOW), nextUpdate != null ? Date.from(nextUpdate) : null);
+        var basicResponse = builder.build(signer, new X509CertificateHolder[]{caCertificate}, Date.from(NOW));
+        return new OCSPRespBuilder().build(OCSPRespBuilder.SUCCESSFUL, basicResponse).getEncoded();
+    }
+
+    private static Clock clockAt(Instant instant) {
+        return Clock.fixed(instant, ZoneOffset.UTC);
+    }
+}
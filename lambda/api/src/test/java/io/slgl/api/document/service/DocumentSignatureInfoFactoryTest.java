@@ -1,29 +1,42 @@
 package io.slgl.api.document.service;
 
+import eu.europa.esig.dss.spi.tsl.TrustedListsCertificateSource;
+import eu.europa.esig.dss.spi.x509.KeyStoreCertificateSource;
 import io.slgl.api.ExecutionContext;
 import io.slgl.api.document.model.DocumentSignatureInfo;
+import io.slgl.api.utils.TestExecutionContext;
 import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import software.amazon.awssdk.services.s3.S3Client;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
 
+import static io.slgl.api.document.service.DssProperties.*;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 class DocumentSignatureInfoFactoryTest {
 
+    private static final String SHADOWED_SIGNED_PDF = "/io/slgl/api/pdfshadowattack/replace/variant-1_replace-via-overlay/3_original-document-shadowed-signed.pdf";
+
+    private TrustListManagementService trustListManagementService;
     private DocumentSignatureInfoFactory signatureInfoFactory;
 
     @BeforeEach
     void setup() {
         ExecutionContext.reset();
         ExecutionContext.put(S3Client.class, null);
-        ExecutionContext.put(TrustListManagementService.class, TrustListManagementService.offline());
+        trustListManagementService = TestExecutionContext.mock(TrustListManagementService.class);
+        givenTrustList(new TrustListSnapshot(new TrustedListsCertificateSource(), "empty", Instant.now()));
 
         signatureInfoFactory = ExecutionContext.get(DocumentSignatureInfoFactory.class);
     }
@@ -33,6 +46,50 @@ class DocumentSignatureInfoFactoryTest {
         ExecutionContext.reset();
     }
 
+    @Test
+    void shouldValidateRepeatedDocumentOnce() throws IOException {
+        // given
+        givenTrustList(new TrustListSnapshot(keyStoreTrustedCertificateSource(), "v1", Instant.now()));
+        var pdfBytes = IOUtils.resourceToByteArray(SHADOWED_SIGNED_PDF);
+        var firstSignatures = signatureInfoFactory.getSignatureInfo(pdfBytes);
+
+        // when
+        var secondSignatures = signatureInfoFactory.getSignatureInfo(pdfBytes);
+
+        // then
+        assertThat(ExecutionContext.get(SignatureValidationCache.class).getStats().hitCount()).isEqualTo(1);
+        assertThat(secondSignatures).extracting(DocumentSignatureInfo::getData)
+                .isNotEmpty()
+                .containsExactlyElementsOf(firstSignatures.stream().map(DocumentSignatureInfo::getData).collect(Collectors.toList()));
+    }
+
+    @Test
+    void shouldNotCacheValidationAgainstEmptyTrustList() throws IOException {
+        // given
+        var pdfBytes = IOUtils.resourceToByteArray(SHADOWED_SIGNED_PDF);
+
+        // when
+        signatureInfoFactory.getSignatureInfo(pdfBytes);
+        signatureInfoFactory.getSignatureInfo(pdfBytes);
+
+        // then
+        assertThat(ExecutionContext.get(SignatureValidationCache.class).getStats().requestCount()).isZero();
+    }
+
+    @Test
+    void shouldNotCacheValidationAgainstNotRefreshedTrustList() throws IOException {
+        // given
+        givenTrustList(TrustListSnapshot.initial());
+        var pdfBytes = IOUtils.resourceToByteArray(SHADOWED_SIGNED_PDF);
+
+        // when
+        signatureInfoFactory.getSignatureInfo(pdfBytes);
+        signatureInfoFactory.getSignatureInfo(pdfBytes);
+
+        // then
+        assertThat(ExecutionContext.get(SignatureValidationCache.class).getStats().requestCount()).isZero();
+    }
+
     @ParameterizedTest
     @ValueSource(strings = {
             "/io/slgl/api/pdfshadowattack/hide/variant-1_hide-via-referenced-object/4_original-document-shadowed-signed-manipulated_v1.pdf",
@@ -70,4 +127,19 @@ class DocumentSignatureInfoFactoryTest {
                 .allMatch(DocumentSignatureInfo::doesCoverWholeDocument)
                 .allMatch(DocumentSignatureInfo::hasNotFailed);
     }
-}
\ No newline at end of file
+
+    private void givenTrustList(TrustListSnapshot snapshot) {
+        when(trustListManagementService.getSnapshot()).thenReturn(snapshot);
+    }
+
+    private TrustedListsCertificateSource keyStoreTrustedCertificateSource() throws IOException {
+        try (var keystoreStream = getClass().getResourceAsStream(KS_FILE_RESOURCE)) {
+            var keyStoreSource = new KeyStoreCertificateSource(keystoreStream, KS_TYPE, KS_PASSWORD);
+
+            var source = new TrustedListsCertificateSource();
+            source.setTrustPropertiesByCertificates(keyStoreSource.getCertificates().stream()
+                    .collect(Collectors.toMap(certificate -> certificate, certificate -> List.of())));
+            return source;
+        }
+    }
+}
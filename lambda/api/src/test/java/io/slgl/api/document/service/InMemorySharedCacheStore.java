@@ -0,0 +1,63 @@
+package io.slgl.api.document.service;
+
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Stand-in of the shared cache store, keeping entries in memory.
+ */
+class InMemorySharedCacheStore implements SharedCacheStore {
+
+    @Getter
+    private final Map<String, byte[]> values = new ConcurrentHashMap<>();
+    private final Map<String, Instant> expirations = new ConcurrentHashMap<>();
+    private final AtomicInteger readsCount = new AtomicInteger();
+
+    @Override
+    public Optional<byte[]> get(String key) {
+        readsCount.incrementAndGet();
+        return Optional.ofNullable(values.get(key));
+    }
+
+    @Override
+    public void put(String key, byte[] value, Instant expires) {
+        values.put(key, value);
+        if (expires != null) {
+            expirations.put(key, expires);
+        } else {
+            expirations.remove(key);
+        }
+    }
+
+    @Override
+    public Optional<Instant> getExpires(String key) {
+        return Optional.ofNullable(expirations.get(key));
+    }
+
+    @Override
+    public List<String> keys(String keyPrefix) {
+        return values.keySet().stream()
+                .filter(key -> key.startsWith(keyPrefix))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void delete(String key) {
+        values.remove(key);
+        expirations.remove(key);
+    }
+
+    /**
+     * Number of values read with {@link #get(String)}.
+     */
+    public int getReadsCount() {
+        return readsCount.get();
+    }
+}
@@ -0,0 +1,72 @@
+package io.slgl.api.document.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local HTTP server serving CRLs on GET and OCSP responses on POST, counting requests for each path.
+ */
+class RevocationHttpStandIn implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, byte[]> responses = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+    private final Map<String, String> contentTypes = new ConcurrentHashMap<>();
+
+    RevocationHttpStandIn() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    String serve(String path, byte[] response) {
+        responses.put(path, response);
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    int getRequestsCount(String path) {
+        return requestCounts.computeIfAbsent(path, key -> new AtomicInteger()).get();
+    }
+
+    String getContentType(String path) {
+        return contentTypes.get(path);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        exchange.getRequestBody().readAllBytes();
+        requestCounts.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+        if (exchange.getRequestHeaders().containsKey("Content-Type")) {
+            contentTypes.put(path, exchange.getRequestHeaders().getFirst("Content-Type"));
+        }
+
+        byte[] response = responses.get(path);
+        if (response == null) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(response);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
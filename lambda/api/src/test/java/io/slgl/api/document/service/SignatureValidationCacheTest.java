@@ -0,0 +1,99 @@
+package io.slgl.api.document.service;
+
+import eu.europa.esig.dss.enumerations.Indication;
+import eu.europa.esig.dss.enumerations.SignatureQualification;
+import io.slgl.api.document.model.DocumentSignatureData;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SignatureValidationCacheTest {
+
+    private static final Instant NOW = Instant.parse("2020-10-01T12:00:00Z");
+
+    private final InMemorySharedCacheStore sharedStore = new InMemorySharedCacheStore();
+
+    @Test
+    void shouldReturnCachedValidationResult() {
+        // given
+        var cache = new SignatureValidationCache(null, clockAt(NOW));
+        cache.put("file-sha3", "tl-version", List.of(signatureData()));
+
+        // when
+        var result = cache.get("file-sha3", "tl-version");
+
+        // then
+        assertThat(result).contains(List.of(signatureData()));
+        assertThat(cache.getStats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotReturnResultValidatedAgainstOtherTrustListVersion() {
+        // given
+        var cache = new SignatureValidationCache(sharedStore, clockAt(NOW));
+        cache.put("file-sha3", "tl-version", List.of(signatureData()));
+
+        // when
+        var result = cache.get("file-sha3", "other-tl-version");
+
+        // then
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void shouldReturnResultCachedByOtherContainerFromSharedStore() {
+        // given
+        new SignatureValidationCache(sharedStore, clockAt(NOW)).put("file-sha3", "tl-version", List.of(signatureData()));
+        var cache = new SignatureValidationCache(sharedStore, clockAt(NOW));
+
+        // when
+        var result = cache.get("file-sha3", "tl-version");
+
+        // then
+        assertThat(result).contains(List.of(signatureData()));
+        assertThat(cache.get("file-sha3", "tl-version")).contains(List.of(signatureData()));
+        assertThat(cache.getStats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotReturnExpiredResultFromSharedStore() {
+        // given
+        new SignatureValidationCache(sharedStore, clockAt(NOW)).put("file-sha3", "tl-version", List.of(signatureData()));
+        var cache = new SignatureValidationCache(sharedStore, clockAt(NOW.plus(Duration.ofDays(1))));
+
+        // when
+        var result = cache.get("file-sha3", "tl-version");
+
+        // then
+        assertThat(result).isEmpty();
+    }
+
+    private static DocumentSignatureData signatureData() {
+        return new DocumentSignatureData()
+                .setId("signature-1")
+                .setSignatureAlgorithm("RSA_SHA256")
+                .setSigningTime(Date.from(NOW))
+                .setIndication(Indication.TOTAL_PASSED)
+                .setSignatureQualification(SignatureQualification.QESIG)
+                .setCoversWholeDocument(true)
+                .setSignerName("Signer")
+                .setCertificate(new DocumentSignatureData.Certificate()
+                        .setSerialNumber("123")
+                        .setIssuer("CN=Issuer,C=PL")
+                        .setSubject("CN=Signer,C=PL")
+                        .setNotValidBefore(Date.from(NOW.minus(Duration.ofDays(365))))
+                        .setNotValidAfter(Date.from(NOW.plus(Duration.ofDays(365))))
+                        .setValidAtSignTime(true));
+    }
+
+    private static Clock clockAt(Instant instant) {
+        return Clock.fixed(instant, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,85 @@
+package io.slgl.api.document.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.slgl.api.utils.Utils;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local HTTP server serving trusted lists documents with {@code ETag} header, answering conditional requests for
+ * unchanged documents with 304 Not Modified.
+ */
+class TrustListHttpStandIn implements AutoCloseable {
+
+    private static final String LAST_MODIFIED = "Thu, 01 Oct 2020 12:00:00 GMT";
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, byte[]> documents = new ConcurrentHashMap<>();
+
+    @Getter
+    private final AtomicInteger requestsCount = new AtomicInteger();
+
+    /**
+     * Number of responses transferring the whole document.
+     */
+    @Getter
+    private final AtomicInteger fullDownloadsCount = new AtomicInteger();
+
+    TrustListHttpStandIn() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    String putDocument(String path, byte[] bytes) {
+        documents.put(path, bytes);
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    void resetCounters() {
+        requestsCount.set(0);
+        fullDownloadsCount.set(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestsCount.incrementAndGet();
+        byte[] document = documents.get(exchange.getRequestURI().getPath());
+        if (document == null) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+
+        String etag = "\"" + Utils.getSha3OfBytes(document) + "\"";
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+
+        fullDownloadsCount.incrementAndGet();
+        exchange.getResponseHeaders().add("ETag", etag);
+        exchange.getResponseHeaders().add("Last-Modified", LAST_MODIFIED);
+        exchange.sendResponseHeaders(200, document.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(document);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,76 @@
+package io.slgl.api.document.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TrustListManagementServiceTest {
+
+    private final AtomicInteger cacheReloads = new AtomicInteger();
+
+    @Test
+    void shouldReplaceCertificateSourceOnlyWhenRefreshFinished() {
+        // given
+        var service = TrustListManagementService.offline(cacheReloads::incrementAndGet);
+        service.refresh();
+        var sourceBeforeRefresh = service.getTrustedListsCertificateSource();
+
+        // when
+        service.refresh();
+
+        // then
+        assertThat(service.getTrustedListsCertificateSource()).isNotSameAs(sourceBeforeRefresh);
+        assertThat(service.getSnapshotAge()).isPresent();
+    }
+
+    @Test
+    void shouldRefreshOnCallingThreadWhenNoRefreshFinished() {
+        // given
+        var service = TrustListManagementService.offline(cacheReloads::incrementAndGet);
+        assertThat(service.getSnapshotAge()).isEmpty();
+
+        // when
+        var snapshot = service.getSnapshot();
+
+        // then
+        assertThat(snapshot.getRefreshed()).isNotNull();
+        assertThat(cacheReloads).hasValue(1);
+    }
+
+    @Test
+    void shouldRetryRefreshWhenBackgroundRefreshFailed() {
+        // given
+        var service = TrustListManagementService.offline(() -> {
+            if (cacheReloads.incrementAndGet() == 1) {
+                throw new IllegalStateException("S3 unavailable");
+            }
+        });
+        service.refreshInBackground().exceptionally(error -> null).join();
+
+        // when
+        var snapshot = service.getSnapshot();
+
+        // then
+        assertThat(snapshot.getRefreshed()).isNotNull();
+        assertThat(cacheReloads).hasValue(2);
+    }
+
+    @Test
+    void shouldFailWhenRetriedRefreshFails() {
+        // given
+        var service = TrustListManagementService.offline(() -> {
+            cacheReloads.incrementAndGet();
+            throw new IllegalStateException("S3 unavailable");
+        });
+        service.refreshInBackground().exceptionally(error -> null).join();
+
+        // expect
+        assertThatThrownBy(service::getSnapshot)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("S3 unavailable");
+        assertThat(cacheReloads).hasValue(2);
+    }
+}
@@ -6,6 +6,7 @@ import eu.europa.esig.dss.service.http.commons.FileCacheDataLoader;
 import eu.europa.esig.dss.spi.DSSUtils;
 import eu.europa.esig.dss.spi.client.http.DSSFileLoader;
 import eu.europa.esig.dss.spi.client.http.MemoryDataLoader;
+import io.slgl.api.utils.Utils;
 import lombok.AllArgsConstructor;
 import lombok.experimental.Delegate;
 import org.apache.commons.lang3.RandomUtils;
@@ -16,15 +17,19 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
 import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.toMap;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.SoftAssertions.assertSoftly;
 
 class ZipCacheDSSFileLoaderTest {
@@ -73,6 +78,80 @@ class ZipCacheDSSFileLoaderTest {
 
     }
 
+    @Test
+    void shouldNotDownloadUnchangedDocumentsOnRefresh() throws IOException {
+        try (var standIn = new TrustListHttpStandIn()) {
+            // given
+            var urls = List.of(
+                    standIn.putDocument("/lotl.xml", "<lotl/>".getBytes()),
+                    standIn.putDocument("/tl-1.xml", RandomUtils.nextBytes(24_000)),
+                    standIn.putDocument("/tl-2.xml", RandomUtils.nextBytes(24_000)));
+            var cachingLoader = new ZipCacheDSSFileLoader(new ConditionalHttpDSSFileLoader());
+            var docsFromFirstRefresh = loadDocs(cachingLoader, urls);
+            standIn.resetCounters();
+
+            // when
+            var docsFromSecondRefresh = loadDocs(cachingLoader, urls);
+
+            // then
+            assertThat(standIn.getRequestsCount()).hasValue(3);
+            assertThat(standIn.getFullDownloadsCount()).hasValue(0);
+            assertThat(docsFromSecondRefresh).containsExactlyInAnyOrderEntriesOf(docsFromFirstRefresh);
+        }
+    }
+
+    @Test
+    void shouldDownloadOnlyChangedDocumentsAfterReloadFromManifest() throws IOException {
+        try (var standIn = new TrustListHttpStandIn()) {
+            // given
+            var unchangedUrl = standIn.putDocument("/tl-1.xml", RandomUtils.nextBytes(24_000));
+            var changedUrl = standIn.putDocument("/tl-2.xml", RandomUtils.nextBytes(24_000));
+            var exportingLoader = new ZipCacheDSSFileLoader(new ConditionalHttpDSSFileLoader());
+            loadDocs(exportingLoader, List.of(unchangedUrl, changedUrl));
+            var exportedEntries = exportingLoader.getEntries().stream()
+                    .collect(toMap(DSSZipCacheEntry::getDigest, DSSZipCacheEntry::getBytes));
+
+            var reloadedLoader = new ZipCacheDSSFileLoader(new ConditionalHttpDSSFileLoader());
+            reloadedLoader.initFromManifest(exportingLoader.toManifest(), entry -> exportedEntries.get(entry.getDigest()));
+
+            var changedBytes = RandomUtils.nextBytes(24_000);
+            standIn.putDocument("/tl-2.xml", changedBytes);
+            standIn.resetCounters();
+
+            // when
+            var docs = loadDocs(reloadedLoader, List.of(unchangedUrl, changedUrl));
+
+            // then
+            assertThat(standIn.getFullDownloadsCount()).hasValue(1);
+            assertThat(DSSUtils.toByteArray(docs.get(changedUrl))).isEqualTo(changedBytes);
+            assertThat(reloadedLoader.toManifest()).isNotEqualTo(exportingLoader.toManifest());
+        }
+    }
+
+    @Test
+    void shouldLoadOnlyEntriesWithUnknownDigestFromManifest() {
+        // given
+        var loader = new ZipCacheDSSFileLoader();
+        var manifest = new DSSCacheManifest(new ArrayList<>(List.of(
+                manifestEntry("http://test.com/tl-1.xml", "<tl-1/>"),
+                manifestEntry("http://test.com/tl-2.xml", "<tl-2/>"))));
+        loader.initFromManifest(manifest, entry -> entry.getName().equals("http://test.com/tl-1.xml") ? "<tl-1/>".getBytes() : "<tl-2/>".getBytes());
+
+        manifest.getEntries().add(manifestEntry("http://test.com/tl-3.xml", "<tl-3/>"));
+
+        // when
+        var loaded = loader.initFromManifest(manifest, entry -> "<tl-3/>".getBytes());
+
+        // then
+        assertThat(loaded).isEqualTo(1);
+        assertThat(loader.toManifest()).isEqualTo(manifest);
+        assertThat(DSSUtils.toByteArray(loader.getDocument("http://test.com/tl-3.xml"))).isEqualTo("<tl-3/>".getBytes());
+    }
+
+    private static DSSCacheManifest.Entry manifestEntry(String name, String content) {
+        return new DSSCacheManifest.Entry(name, Utils.getSha3OfBytes(content.getBytes()), null, null);
+    }
+
     private ZipCacheDSSFileLoader deserialize(byte[] zippedCache) throws IOException {
         var deserializedLoader = new ZipCacheDSSFileLoader();
         var input = new ZipInputStream(new ByteArrayInputStream(zippedCache));
@@ -80,9 +159,18 @@ class ZipCacheDSSFileLoaderTest {
         return deserializedLoader;
     }
 
+    /**
+     * Zips cache entries the way the cache was exported to S3 before {@link DSSCacheManifest}.
+     */
     private byte[] serialize(ZipCacheDSSFileLoader cachingLoader) throws IOException {
         var outputStream = new ByteArrayOutputStream();
-        cachingLoader.writeTo(new ZipOutputStream(outputStream));
+        try (var zipOutput = new ZipOutputStream(outputStream)) {
+            for (DSSZipCacheEntry entry : cachingLoader.getEntries()) {
+                zipOutput.putNextEntry(new ZipEntry(entry.getName()));
+                zipOutput.write(entry.getBytes());
+                zipOutput.closeEntry();
+            }
+        }
         return outputStream.toByteArray();
     }
 
@@ -8,6 +8,8 @@ import io.slgl.api.utils.json.UncheckedObjectMapper;
 import io.slgl.client.audit.EvaluationLogEntry;
 import io.slgl.client.audit.PermissionEvaluationResult;
 import io.slgl.client.node.permission.Permission;
+import io.slgl.permission.CompiledPermission;
+import io.slgl.permission.CompiledPermissionCache;
 import io.slgl.permission.PermissionProcessor;
 import io.slgl.permission.context.EvaluationContext;
 import org.apache.commons.lang3.RandomStringUtils;
@@ -363,6 +365,48 @@ public class PermissionProcessorTest {
         assertThat(alwaysDenyResult).isFalse();
     }
 
+    @Test
+    public void shouldReuseCompiledPermissionSharedByContentHash() {
+        // given
+        var cache = new CompiledPermissionCache();
+        var permission = UncheckedObjectMapper.MAPPER.convertValue(new PermissionEntity()
+                .setRequire(ImmutableMap.of("$api_client.verified_domains", new PermissionEntity.Requirement()
+                        .setOp("contains")
+                        .setValue("def.com"))), Permission.class);
+        var samePermission = UncheckedObjectMapper.MAPPER.convertValue(permission, Permission.class);
+
+        // when
+        CompiledPermission compiled = cache.get(permission);
+        boolean validContextResult = permissionProcessor.process(EvaluationContext.of(buildContextWithDomains("def.com")), compiled).isSuccess();
+        boolean invalidContextResult = permissionProcessor.process(EvaluationContext.of(buildContextWithDomains("xyz.com")), compiled).isSuccess();
+
+        // then
+        assertThat(cache.get(samePermission)).isSameAs(compiled);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(validContextResult).isTrue();
+        assertThat(invalidContextResult).isFalse();
+    }
+
+    @Test
+    public void shouldSkipEvaluationLogWhenLoggingIsDisabled() {
+        // given
+        var context = EvaluationContext.of(buildContextWithDomains("def.com"));
+        CompiledPermission permission = new CompiledPermissionCache().get(UncheckedObjectMapper.MAPPER.convertValue(new PermissionEntity()
+                .setRequire(ImmutableMap.of("$api_client.verified_domains", new PermissionEntity.Requirement()
+                        .setOp("contains")
+                        .setValue("def.com"))), Permission.class));
+
+        // when
+        var withLog = permissionProcessor.process(context, permission, true);
+        var withoutLog = permissionProcessor.process(context, permission, false);
+
+        // then
+        assertThat(withLog.isSuccess()).isTrue();
+        assertThat(withLog.getEvaluationLog()).isNotEmpty();
+        assertThat(withoutLog.isSuccess()).isTrue();
+        assertThat(withoutLog.getEvaluationLog()).isEmpty();
+    }
+
 
     private PermissionEvaluationResult process(Map<String, ?> context, Object permission) {
         return permissionProcessor.process(EvaluationContext.of(context), UncheckedObjectMapper.MAPPER.convertValue(permission, Permission.class));
@@ -0,0 +1,54 @@
+package io.slgl.api.model;
+
+import io.slgl.api.model.PermissionEntity.Allow;
+import io.slgl.api.model.PermissionEntity.AllowAction;
+import io.slgl.api.model.PermissionEntity.Requirement;
+import io.slgl.api.utils.json.UncheckedObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PermissionEntityTest {
+
+    @Test
+    void shouldHaveEqualContentHashForEqualPermissions() {
+        // expect
+        assertThat(permission("#/$current_user.api_key").getContentHash())
+                .isEqualTo(permission("#/$current_user.api_key").getContentHash())
+                .isNotEqualTo(permission("#/$current_user.username").getContentHash());
+    }
+
+    @Test
+    void shouldComputeContentHashOnce() {
+        // given
+        var permission = permission("#/$current_user.api_key");
+
+        // when
+        var contentHash = permission.getContentHash();
+
+        // then
+        assertThat(permission.getContentHash()).isSameAs(contentHash);
+    }
+
+    @Test
+    void shouldNotSerializeContentHash() {
+        // given
+        var permission = permission("#/$current_user.api_key");
+        var json = UncheckedObjectMapper.MAPPER.writeValueAsString(permission);
+
+        // when
+        permission.getContentHash();
+
+        // then
+        assertThat(UncheckedObjectMapper.MAPPER.writeValueAsString(permission)).isEqualTo(json);
+    }
+
+    private static PermissionEntity permission(String requiredValue) {
+        return new PermissionEntity()
+                .setAllow(List.of(new Allow().setAction(AllowAction.ALL)))
+                .setRequire(Map.of("$current_user.api_key", new Requirement().setOp("==").setValue(requiredValue)));
+    }
+}
@@ -0,0 +1,182 @@
+package io.slgl.api.observer.service;
+
+import com.google.common.base.Stopwatch;
+import io.slgl.api.ExecutionContext;
+import io.slgl.api.observer.model.ObserverData;
+import io.slgl.api.observer.model.ObserverEntity;
+import io.slgl.api.observer.model.RecoveryStorage;
+import io.slgl.api.observer.model.S3Credentials;
+import io.slgl.api.observer.model.S3Storage;
+import io.slgl.api.utils.LambdaEnv;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static io.slgl.api.utils.TestExecutionContext.mock;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Uploads observer data to {@link S3StandIn}, which answers each upload after a fixed delay.
+ */
+class ObserverNotifierTest {
+
+    private static final int OBSERVERS_COUNT = 10;
+    private static final long UPLOAD_DELAY_MILLIS = 300;
+
+    private S3StandIn s3StandIn;
+
+    @BeforeEach
+    void setup() throws IOException {
+        ExecutionContext.reset();
+        LambdaEnv.override(Map.of(
+                "OBSERVER_UPLOAD_THREAD_COUNT", String.valueOf(OBSERVERS_COUNT),
+                "OBSERVER_UPLOAD_TIMEOUT_IN_MILLIS", "20000",
+                "S3_OBSERVER_DEAD_LETTER_BUCKET", "recovery-bucket",
+                "S3_OBSERVER_DEAD_LETTER_REGION", "eu-west-1"));
+
+        s3StandIn = new S3StandIn(UPLOAD_DELAY_MILLIS);
+        ExecutionContext.put(S3ClientRegistry.class, s3StandIn.createClientRegistry());
+
+        PgpEncrypter pgpEncrypter = mock(PgpEncrypter.class);
+        when(pgpEncrypter.encryptingStream(any(), anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void cleanup() {
+        s3StandIn.close();
+        ExecutionContext.reset();
+    }
+
+    @Test
+    void shouldUploadToAllObserversConcurrently() {
+        // given
+        ObserverNotifier observerNotifier = ExecutionContext.get(ObserverNotifier.class);
+        List<ObserverEntity> observers = IntStream.range(0, OBSERVERS_COUNT)
+                .mapToObj(i -> observer("observer-" + i))
+                .collect(Collectors.toList());
+        ObserverData observerData = observerData();
+
+        // when
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        observerNotifier.notify(observers, observerData);
+        observerNotifier.awaitUploads();
+        long elapsedMillis = stopwatch.elapsed(TimeUnit.MILLISECONDS);
+
+        // then
+        assertThat(s3StandIn.getObjects()).hasSize(OBSERVERS_COUNT);
+        assertThat(s3StandIn.getObjects().keySet()).anySatisfy(path -> assertThat(path).startsWith("/bucket/observer-0/target/"));
+        assertThat(elapsedMillis).isLessThan(OBSERVERS_COUNT * UPLOAD_DELAY_MILLIS / 2);
+    }
+
+    @Test
+    void shouldWriteUploadNotFinishedInTimeToRecoveryStorage() {
+        // given
+        LambdaEnv.override(Map.of("OBSERVER_UPLOAD_TIMEOUT_IN_MILLIS", "1000"));
+        s3StandIn.stallBucket("bucket", 60_000);
+        ObserverNotifier observerNotifier = ExecutionContext.get(ObserverNotifier.class);
+        ObserverEntity observer = observer("observer-0");
+        RecoveryStorage recoveryStorage = new RecoveryStorage();
+        recoveryStorage.setPath("recovery-0");
+        observer.setRecoveryStorage(recoveryStorage);
+
+        // when
+        observerNotifier.notify(List.of(observer), observerData());
+        observerNotifier.awaitUploads();
+
+        // then
+        assertThat(s3StandIn.getObjects().keySet())
+                .hasSize(1)
+                .allSatisfy(path -> assertThat(path).startsWith("/recovery-bucket/recovery-0/target/"));
+    }
+
+    @Test
+    void shouldWriteCancelledUploadToRecoveryStorageOnce() throws InterruptedException {
+        // given
+        LambdaEnv.override(Map.of("OBSERVER_UPLOAD_TIMEOUT_IN_MILLIS", "1000"));
+        s3StandIn.stallBucket("bucket", 60_000);
+        ObserverNotifier observerNotifier = ExecutionContext.get(ObserverNotifier.class);
+        ObserverEntity observer = observer("observer-0");
+        RecoveryStorage recoveryStorage = new RecoveryStorage();
+        recoveryStorage.setPath("recovery-0");
+        observer.setRecoveryStorage(recoveryStorage);
+
+        // when
+        observerNotifier.notify(List.of(observer), observerData());
+        observerNotifier.awaitUploads();
+        // interrupted upload fails on its worker thread, give it time to (not) write its own recovery copy
+        Thread.sleep(5 * UPLOAD_DELAY_MILLIS);
+
+        // then
+        assertThat(s3StandIn.getObjects().keySet())
+                .hasSize(1)
+                .allSatisfy(path -> assertThat(path).startsWith("/recovery-bucket/recovery-0/target/"));
+    }
+
+    @Test
+    void shouldWriteUploadNotAwaitedToRecoveryStorage() {
+        // given
+        s3StandIn.stallBucket("bucket", 60_000);
+        ObserverNotifier observerNotifier = ExecutionContext.get(ObserverNotifier.class);
+        ObserverEntity observer = observer("observer-0");
+        RecoveryStorage recoveryStorage = new RecoveryStorage();
+        recoveryStorage.setPath("recovery-0");
+        observer.setRecoveryStorage(recoveryStorage);
+        observerNotifier.notify(List.of(observer), observerData());
+
+        // when
+        observerNotifier.afterExecution();
+
+        // then
+        assertThat(s3StandIn.getObjects().keySet())
+                .hasSize(1)
+                .allSatisfy(path -> assertThat(path).startsWith("/recovery-bucket/recovery-0/target/"));
+    }
+
+    @Test
+    void shouldReuseClientForSameRegionAndCredentials() {
+        // given
+        S3ClientRegistry registry = ExecutionContext.get(S3ClientRegistry.class);
+        S3Credentials credentials = credentials();
+
+        // expect
+        try (var lease = registry.lease("eu-west-1", credentials);
+             var sameLease = registry.lease("eu-west-1", credentials());
+             var otherRegionLease = registry.lease("eu-central-1", credentials)) {
+            assertThat(lease.getClient()).isSameAs(sameLease.getClient());
+            assertThat(lease.getClient()).isNotSameAs(otherRegionLease.getClient());
+        }
+    }
+
+    private static ObserverData observerData() {
+        return new ObserverData()
+                .setSourceNode("source")
+                .setTargetNode("target")
+                .setTargetAnchor("#items");
+    }
+
+    private static ObserverEntity observer(String path) {
+        return new ObserverEntity()
+                .setPgpKey("pgp-key")
+                .setS3Storage(new S3Storage()
+                        .setRegion("eu-west-1")
+                        .setBucket("bucket")
+                        .setPath(path)
+                        .setCredentials(credentials()));
+    }
+
+    private static S3Credentials credentials() {
+        return new S3Credentials()
+                .setAccessKeyId("access-key")
+                .setSecretAccessKey("secret-key");
+    }
+}
@@ -0,0 +1,44 @@
+package io.slgl.api.observer.service;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PgpEncrypterTest {
+
+    private final PgpEncrypter pgpEncrypter = new PgpEncrypter();
+
+    @Test
+    void shouldEncryptEachPayloadSeparatelyWithCachedKey() throws IOException {
+        // given
+        String key = IOUtils.resourceToString("/io/slgl/api/observer/jon.doe.asc", StandardCharsets.US_ASCII);
+        byte[] data = "observed data".getBytes(StandardCharsets.UTF_8);
+
+        // when
+        byte[] first = pgpEncrypter.encrypt(data, key);
+        byte[] second = pgpEncrypter.encrypt(data, key);
+
+        // then
+        assertThat(first).isNotEmpty();
+        assertThat(second).isNotEmpty();
+        assertThat(second).isNotEqualTo(first);
+    }
+
+    @Test
+    void shouldRejectMalformedKeyEveryTime() {
+        // given
+        String key = "-----BEGIN PGP PUBLIC KEY BLOCK-----\n\nnot a key\n-----END PGP PUBLIC KEY BLOCK-----\n";
+        byte[] data = new byte[16];
+
+        // expect
+        assertThatThrownBy(() -> pgpEncrypter.encrypt(data, key))
+                .isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> pgpEncrypter.encrypt(data, key))
+                .isInstanceOf(RuntimeException.class);
+    }
+}
@@ -0,0 +1,78 @@
+package io.slgl.api.observer.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class S3ClientRegistryTest {
+
+    private S3StandIn s3StandIn;
+    private S3ClientRegistry registry;
+
+    @BeforeEach
+    void setup() throws IOException {
+        s3StandIn = new S3StandIn(0);
+        registry = s3StandIn.createClientRegistry(1);
+    }
+
+    @AfterEach
+    void cleanup() {
+        s3StandIn.close();
+    }
+
+    @Test
+    void shouldNotCloseEvictedClientWhileLeased() {
+        // given
+        var lease = registry.lease("eu-west-1", null);
+
+        // when
+        registry.lease("eu-central-1", null).close();
+
+        // then
+        put(lease.getClient(), "/bucket/leased");
+        assertThat(s3StandIn.getObjects()).containsKey("/bucket/leased");
+    }
+
+    @Test
+    void shouldCloseEvictedClientWhenReleased() {
+        // given
+        var lease = registry.lease("eu-west-1", null);
+        var client = lease.getClient();
+        registry.lease("eu-central-1", null).close();
+
+        // when
+        lease.close();
+
+        // then
+        assertThatThrownBy(() -> put(client, "/bucket/released")).isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void shouldLeaseNewClientInsteadOfEvictedOne() {
+        // given
+        var lease = registry.lease("eu-west-1", null);
+        registry.lease("eu-central-1", null).close();
+
+        // when
+        try (var newLease = registry.lease("eu-west-1", null)) {
+
+            // then
+            assertThat(newLease.getClient()).isNotSameAs(lease.getClient());
+        } finally {
+            lease.close();
+        }
+    }
+
+    private static void put(S3Client client, String path) {
+        var key = path.substring("/bucket/".length());
+        client.putObject(PutObjectRequest.builder().bucket("bucket").key(key).build(), RequestBody.fromString("data"));
+    }
+}
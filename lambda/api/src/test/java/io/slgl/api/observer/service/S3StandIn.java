@@ -0,0 +1,202 @@
+package io.slgl.api.observer.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.Getter;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.services.s3.S3Configuration;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local HTTP server answering the S3 requests made by observer uploads: put object and multipart upload. Uploaded
+ * data is counted and dropped unless {@link #keepContents()} is called, each upload request is answered after
+ * configured delay, requests to a stalled bucket after much longer one.
+ */
+class S3StandIn implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final long delayMillis;
+    private final Map<String, Long> stalledBuckets = new ConcurrentHashMap<>();
+
+    private final AtomicInteger uploadIds = new AtomicInteger();
+    private final Map<String, AtomicLong> pendingUploads = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, byte[]>> pendingParts = new ConcurrentHashMap<>();
+    private volatile boolean keepingContents;
+
+    /**
+     * Number of bytes of each completed object, by request path.
+     */
+    @Getter
+    private final Map<String, Long> objects = new ConcurrentHashMap<>();
+
+    /**
+     * Bytes of each completed object, by request path, kept only after {@link #keepContents()}. Object uploaded in
+     * parts is assembled in part number order, as S3 does.
+     */
+    @Getter
+    private final Map<String, byte[]> contents = new ConcurrentHashMap<>();
+
+    @Getter
+    private final AtomicInteger uploadedPartsCount = new AtomicInteger();
+
+    S3StandIn(long delayMillis) throws IOException {
+        this.delayMillis = delayMillis;
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    void stallBucket(String bucket, long delayMillis) {
+        stalledBuckets.put(bucket, delayMillis);
+    }
+
+    void keepContents() {
+        keepingContents = true;
+    }
+
+    S3ClientRegistry createClientRegistry() {
+        return createClientRegistry(32);
+    }
+
+    S3ClientRegistry createClientRegistry(int maxClients) {
+        URI endpoint = URI.create("http://localhost:" + server.getAddress().getPort());
+
+        return new S3ClientRegistry(builder -> builder
+                .endpointOverride(endpoint)
+                // recovery uploads use default credentials
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("access-key", "secret-key")))
+                .serviceConfiguration(S3Configuration.builder()
+                        .pathStyleAccessEnabled(true)
+                        .chunkedEncodingEnabled(false)
+                        .checksumValidationEnabled(false)
+                        .build()), maxClients);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        String query = exchange.getRequestURI().getQuery() != null ? exchange.getRequestURI().getQuery() : "";
+        byte[] body = keepingContents ? exchange.getRequestBody().readAllBytes() : null;
+        long size = body != null ? body.length : consume(exchange.getRequestBody());
+
+        String bucket = path.split("/")[1];
+        sleep(stalledBuckets.getOrDefault(bucket, delayMillis));
+
+        if (method.equals("PUT") && !query.contains("uploadId=")) {
+            objects.put(path, size);
+            if (body != null) {
+                contents.put(path, body);
+            }
+            respond(exchange, 200, null);
+
+        } else if (method.equals("POST") && query.contains("uploads")) {
+            String uploadId = "upload-" + uploadIds.incrementAndGet();
+            pendingUploads.put(uploadId, new AtomicLong());
+            pendingParts.put(uploadId, new ConcurrentSkipListMap<>());
+            respond(exchange, 200, "<InitiateMultipartUploadResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">" +
+                    "<Bucket>bucket</Bucket><Key>key</Key><UploadId>" + uploadId + "</UploadId>" +
+                    "</InitiateMultipartUploadResult>");
+
+        } else if (method.equals("PUT")) {
+            pendingUploads.get(queryParam(query, "uploadId")).addAndGet(size);
+            if (body != null) {
+                pendingParts.get(queryParam(query, "uploadId")).put(Integer.valueOf(queryParam(query, "partNumber")), body);
+            }
+            uploadedPartsCount.incrementAndGet();
+            respond(exchange, 200, null);
+
+        } else if (method.equals("POST")) {
+            objects.put(path, pendingUploads.remove(queryParam(query, "uploadId")).get());
+            Map<Integer, byte[]> parts = pendingParts.remove(queryParam(query, "uploadId"));
+            if (keepingContents) {
+                contents.put(path, concat(parts.values()));
+            }
+            respond(exchange, 200, "<CompleteMultipartUploadResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">" +
+                    "<Bucket>bucket</Bucket><Key>key</Key><ETag>\"etag\"</ETag>" +
+                    "</CompleteMultipartUploadResult>");
+
+        } else if (method.equals("DELETE")) {
+            pendingUploads.remove(queryParam(query, "uploadId"));
+            pendingParts.remove(queryParam(query, "uploadId"));
+            respond(exchange, 204, null);
+
+        } else {
+            respond(exchange, 400, null);
+        }
+    }
+
+    private static String queryParam(String query, String name) {
+        for (String param : query.split("&")) {
+            if (param.startsWith(name + "=")) {
+                return param.substring(name.length() + 1);
+            }
+        }
+        throw new IllegalArgumentException("No " + name + " in query: " + query);
+    }
+
+    private static byte[] concat(Collection<byte[]> parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        parts.forEach(out::writeBytes);
+        return out.toByteArray();
+    }
+
+    private static long consume(InputStream body) throws IOException {
+        try (body) {
+            byte[] buffer = new byte[64 * 1024];
+            long size = 0;
+            int count;
+            while ((count = body.read(buffer)) != -1) {
+                size += count;
+            }
+            return size;
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String xml) throws IOException {
+        exchange.getResponseHeaders().add("ETag", "\"etag\"");
+        if (xml == null) {
+            exchange.sendResponseHeaders(status, -1);
+        } else {
+            byte[] body = xml.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/xml");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+        exchange.close();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
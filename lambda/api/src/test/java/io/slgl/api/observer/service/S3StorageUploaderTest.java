@@ -0,0 +1,202 @@
+package io.slgl.api.observer.service;
+
+import io.slgl.api.observer.model.ObserverData;
+import io.slgl.api.observer.model.Result;
+import io.slgl.api.observer.model.S3Credentials;
+import io.slgl.api.observer.model.S3Storage;
+import io.slgl.api.protocol.NodeResponse;
+import io.slgl.api.utils.LambdaEnv;
+import name.neuhalfen.projects.crypto.bouncycastle.openpgp.BouncyGPG;
+import name.neuhalfen.projects.crypto.bouncycastle.openpgp.keys.callbacks.KeyringConfigCallbacks;
+import name.neuhalfen.projects.crypto.bouncycastle.openpgp.keys.keyrings.InMemoryKeyring;
+import name.neuhalfen.projects.crypto.bouncycastle.openpgp.keys.keyrings.KeyringConfigs;
+import org.apache.commons.io.IOUtils;
+import org.bouncycastle.openpgp.PGPException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchProviderException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Uploads encrypted observer packages to {@link S3StandIn}.
+ */
+class S3StorageUploaderTest {
+
+    private static final int PART_SIZE = S3UploadOutputStream.MIN_PART_SIZE;
+    private static final String PASSPHRASE = "Password1";
+
+    private S3StandIn s3StandIn;
+    private S3StorageUploader uploader;
+    private String pgpKey;
+
+    @BeforeEach
+    void setup() throws IOException {
+        LambdaEnv.override(Map.of("OBSERVER_UPLOAD_PART_SIZE_IN_BYTES", String.valueOf(PART_SIZE)));
+
+        s3StandIn = new S3StandIn(0);
+        uploader = new S3StorageUploader(storage(), new PgpEncrypter(), s3StandIn.createClientRegistry());
+        pgpKey = IOUtils.resourceToString("/io/slgl/api/observer/jon.doe.asc", StandardCharsets.US_ASCII);
+    }
+
+    @AfterEach
+    void cleanup() {
+        s3StandIn.close();
+    }
+
+    @Test
+    void shouldUploadSmallPackageWithSingleRequest() {
+        // given
+        ObserverData observerData = observerData(new byte[1024]);
+
+        // when
+        Result result = uploader.upload(observerData, pgpKey);
+
+        // then
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(s3StandIn.getObjects()).hasSize(1);
+        assertThat(s3StandIn.getObjects().keySet()).allSatisfy(path -> assertThat(path).startsWith("/bucket/observers/target/"));
+        assertThat(s3StandIn.getUploadedPartsCount()).hasValue(0);
+    }
+
+    @Test
+    void shouldUploadLargePackageInParts() {
+        // given
+        ObserverData observerData = observerData(randomBytes(2 * PART_SIZE + 1024));
+
+        // when
+        Result result = uploader.upload(observerData, pgpKey);
+
+        // then
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(s3StandIn.getUploadedPartsCount()).hasValue(3);
+        assertThat(s3StandIn.getObjects()).hasSize(1);
+        assertThat(s3StandIn.getObjects().values()).allSatisfy(size -> assertThat(size).isGreaterThan(2L * PART_SIZE));
+    }
+
+    @Test
+    void shouldUploadPartsDecryptingToPackage() throws IOException {
+        // given
+        s3StandIn.keepContents();
+        ObserverData observerData = observerData(randomBytes(2 * PART_SIZE + 1024));
+
+        // when
+        Result result = uploader.upload(observerData, pgpKey);
+
+        // then
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(s3StandIn.getUploadedPartsCount()).hasValue(3);
+        assertThat(s3StandIn.getContents()).hasSize(1);
+        assertDecryptsToPackage(s3StandIn.getContents().values().iterator().next(), observerData);
+    }
+
+    @Test
+    void shouldUploadSmallPackageDecryptingToPackage() throws IOException {
+        // given
+        s3StandIn.keepContents();
+        ObserverData observerData = observerData(randomBytes(1024));
+
+        // when
+        Result result = uploader.upload(observerData, pgpKey);
+
+        // then
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(s3StandIn.getContents()).hasSize(1);
+        assertDecryptsToPackage(s3StandIn.getContents().values().iterator().next(), observerData);
+    }
+
+    /**
+     * Run by {@code cappedHeapTest} task with heap smaller than twice the file, so that the package can't be held in
+     * memory as a whole next to the file.
+     */
+    @Test
+    @Tag("capped-heap")
+    void shouldUpload100MegabyteFileWithCappedHeap() {
+        // given
+        ObserverData observerData = observerData(randomBytes(100 * 1024 * 1024));
+
+        // when
+        Result result = uploader.upload(observerData, pgpKey);
+
+        // then
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(s3StandIn.getObjects()).hasSize(1);
+        assertThat(s3StandIn.getObjects().values()).allSatisfy(size -> assertThat(size).isGreaterThan(100L * 1024 * 1024));
+    }
+
+    /**
+     * Compares zip entries instead of the whole zip, which holds modification times of its entries.
+     */
+    private static void assertDecryptsToPackage(byte[] encrypted, ObserverData observerData) throws IOException {
+        Map<String, byte[]> actual = zipEntries(decrypt(encrypted));
+        Map<String, byte[]> expected = zipEntries(observerData.getBytes());
+
+        assertThat(actual.keySet()).containsExactlyElementsOf(expected.keySet());
+        expected.forEach((name, bytes) -> assertThat(actual.get(name)).as(name).isEqualTo(bytes));
+    }
+
+    private static byte[] decrypt(byte[] encrypted) throws IOException {
+        String privateKey = IOUtils.resourceToString("/io/slgl/api/observer/jon.doe.secret.pgp", StandardCharsets.US_ASCII);
+        try {
+            InMemoryKeyring keyring = KeyringConfigs.forGpgExportedKeys(KeyringConfigCallbacks.withPassword(PASSPHRASE));
+            keyring.addSecretKey(privateKey.getBytes(StandardCharsets.US_ASCII));
+            try (InputStream plaintext = BouncyGPG.decryptAndVerifyStream()
+                    .withConfig(keyring)
+                    .andIgnoreSignatures()
+                    .fromEncryptedInputStream(new ByteArrayInputStream(encrypted))) {
+                return plaintext.readAllBytes();
+            }
+        } catch (PGPException | NoSuchProviderException e) {
+            throw new IllegalStateException("Data decryption failed", e);
+        }
+    }
+
+    private static Map<String, byte[]> zipEntries(byte[] zip) throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                entries.put(entry.getName(), in.readAllBytes());
+            }
+        }
+        return entries;
+    }
+
+    private static ObserverData observerData(byte[] fileBytes) {
+        return new ObserverData()
+                .setSourceNode("source")
+                .setTargetNode("target")
+                .setTargetAnchor("#items")
+                .setNode(new NodeResponse())
+                .setFileName("file.raw")
+                .setFileBytes(fileBytes);
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static S3Storage storage() {
+        return new S3Storage()
+                .setRegion("eu-west-1")
+                .setBucket("bucket")
+                .setPath("observers")
+                .setCredentials(new S3Credentials()
+                        .setAccessKeyId("access-key")
+                        .setSecretAccessKey("secret-key"));
+    }
+}
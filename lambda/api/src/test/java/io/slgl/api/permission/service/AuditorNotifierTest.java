@@ -0,0 +1,181 @@
+package io.slgl.api.permission.service;
+
+import io.slgl.api.ExecutionContext;
+import io.slgl.api.model.AuditorEntity;
+import io.slgl.api.permission.PermissionAuditBuilder;
+import io.slgl.api.permission.PermissionEvaluationBuilder;
+import io.slgl.api.repository.NodeEntity;
+import io.slgl.api.service.LinksGetter;
+import io.slgl.client.audit.PermissionAudit;
+import io.slgl.client.audit.RequestType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static io.slgl.api.utils.TestExecutionContext.mock;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AuditorNotifierTest {
+
+    private SqsAsyncClient sqsClient;
+    private LinksGetter linksGetter;
+    private AuditorNotifier auditorNotifier;
+
+    @BeforeEach
+    void setup() {
+        ExecutionContext.reset();
+        sqsClient = mock(SqsAsyncClient.class);
+        linksGetter = mock(LinksGetter.class);
+        auditorNotifier = ExecutionContext.get(AuditorNotifier.class);
+    }
+
+    @AfterEach
+    void cleanup() {
+        ExecutionContext.reset();
+    }
+
+    @Test
+    void shouldSendAuditsInBatchesPerQueueOnlyWhenResponseIsReady() {
+        // given
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class))).thenAnswer(invocation -> succeeded(invocation.getArgument(0)));
+        List<AuditorEntity> auditors = List.of(auditor("https://sqs/queue-1"), auditor("https://sqs/queue-2"));
+
+        // when
+        for (int i = 0; i < 12; i++) {
+            auditorNotifier.notify(auditors, audit());
+        }
+
+        // then
+        verifyNoInteractions(sqsClient);
+
+        // when
+        auditorNotifier.onResponse(null, null);
+
+        // then
+        List<SendMessageBatchRequest> requests = captureBatchRequests(4);
+        assertThat(requests).extracting(SendMessageBatchRequest::queueUrl)
+                .containsExactly("https://sqs/queue-1", "https://sqs/queue-1", "https://sqs/queue-2", "https://sqs/queue-2");
+        assertThat(requests).extracting(request -> request.entries().size())
+                .containsExactly(10, 2, 10, 2);
+    }
+
+    @Test
+    void shouldResendEntriesFailedNotByMessageItself() {
+        // given
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                .thenAnswer(invocation -> failedEntries(invocation.getArgument(0), List.of("0", "1"), List.of("2")))
+                .thenAnswer(invocation -> succeeded(invocation.getArgument(0)));
+        List<AuditorEntity> auditors = IntStream.range(0, 4)
+                .mapToObj(i -> auditor("https://sqs/queue"))
+                .collect(Collectors.toList());
+        auditorNotifier.notify(auditors, audit());
+
+        // when
+        auditorNotifier.sendPendingAudits();
+
+        // then
+        List<SendMessageBatchRequest> requests = captureBatchRequests(2);
+        assertThat(requests.get(0).entries()).hasSize(4);
+        assertThat(requests.get(1).entries()).extracting(SendMessageBatchRequestEntry::messageBody)
+                .containsExactlyElementsOf(requests.get(0).entries().subList(0, 2).stream()
+                        .map(SendMessageBatchRequestEntry::messageBody)
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    void shouldSplitBatchExceedingMaxPayloadSize() {
+        // given
+        var largeBody = "x".repeat(AuditorNotifier.MAX_BATCH_SIZE_IN_BYTES / 3);
+        List<AuditorNotifier.PendingAudit> audits = IntStream.range(0, 5)
+                .mapToObj(i -> new AuditorNotifier.PendingAudit("https://sqs/queue", "LINK_NODE", largeBody))
+                .collect(Collectors.toList());
+
+        // when
+        var batches = AuditorNotifier.splitIntoBatches(audits);
+
+        // then
+        assertThat(batches).extracting(List::size).containsExactly(2, 2, 1);
+    }
+
+    @Test
+    void shouldReadAuditorsOfNodeOncePerRequest() {
+        // given
+        NodeEntity node = new NodeEntity().setId("node-1");
+        when(linksGetter.getAuditors(node)).thenReturn(List.of(auditor("https://sqs/queue")));
+
+        // when
+        var first = auditorNotifier.getAuditors(node);
+        var second = auditorNotifier.getAuditors(node);
+        ExecutionContext.afterExecution();
+        var afterRequest = auditorNotifier.getAuditors(node);
+
+        // then
+        assertThat(first).hasSize(1);
+        assertThat(second).isEqualTo(first);
+        assertThat(afterRequest).hasSize(1);
+        verify(linksGetter, times(2)).getAuditors(node);
+    }
+
+    private List<SendMessageBatchRequest> captureBatchRequests(int count) {
+        ArgumentCaptor<SendMessageBatchRequest> captor = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+        verify(sqsClient, times(count)).sendMessageBatch(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private static CompletableFuture<SendMessageBatchResponse> succeeded(SendMessageBatchRequest request) {
+        return failedEntries(request, Collections.emptyList(), Collections.emptyList());
+    }
+
+    private static CompletableFuture<SendMessageBatchResponse> failedEntries(SendMessageBatchRequest request, List<String> serverFaultIds, List<String> senderFaultIds) {
+        var successful = request.entries().stream()
+                .map(SendMessageBatchRequestEntry::id)
+                .filter(id -> !serverFaultIds.contains(id) && !senderFaultIds.contains(id))
+                .map(id -> SendMessageBatchResultEntry.builder().id(id).build())
+                .collect(Collectors.toList());
+        var failed = IntStream.range(0, request.entries().size())
+                .mapToObj(String::valueOf)
+                .filter(id -> serverFaultIds.contains(id) || senderFaultIds.contains(id))
+                .map(id -> BatchResultErrorEntry.builder()
+                        .id(id)
+                        .code("InternalError")
+                        .senderFault(senderFaultIds.contains(id))
+                        .build())
+                .collect(Collectors.toList());
+        return CompletableFuture.completedFuture(SendMessageBatchResponse.builder()
+                .successful(successful)
+                .failed(failed)
+                .build());
+    }
+
+    private static AuditorEntity auditor(String queueUrl) {
+        return new AuditorEntity()
+                .setAwsSqs(queueUrl)
+                .setAuditPolicy(AuditorEntity.AuditPolicy.ALL);
+    }
+
+    private static PermissionAudit audit() {
+        return new PermissionAuditBuilder()
+                .node("node-1")
+                .requestType(RequestType.LINK_NODE)
+                .addEvaluatedPermission(new PermissionEvaluationBuilder()
+                        .node("node-1")
+                        .success(true)
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,42 @@
+package io.slgl.api.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static io.slgl.api.utils.json.UncheckedObjectMapper.MAPPER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedStateCacheTest {
+
+    private final VerifiedStateCache cache = new VerifiedStateCache();
+
+    @Test
+    public void shouldReturnEqualStateWithSameValueTypes() {
+        // given
+        @SuppressWarnings("unchecked")
+        Map<String, Object> state = MAPPER.readValue("{" +
+                "\"int\": 1, \"long\": 12345678901, \"big\": 123456789012345678901234567890," +
+                "\"double\": 1.5, \"list\": [null, true, \"text\", {\"nested\": 0.1}]" +
+                "}", Map.class);
+
+        // when
+        cache.put("sha3", state);
+        var result = cache.get("sha3");
+
+        // then
+        assertThat(result).contains(state);
+        assertThat(result.get()).isNotSameAs(state);
+        state.forEach((key, value) -> assertThat(result.get().get(key)).isInstanceOf(value.getClass()));
+    }
+
+    @Test
+    public void shouldNotReturnStateForDifferentHash() {
+        // given
+        cache.put("sha3", Map.of("name", "value"));
+
+        // expect
+        assertThat(cache.get("other-sha3")).isEmpty();
+        assertThat(cache.get(null)).isEmpty();
+    }
+}
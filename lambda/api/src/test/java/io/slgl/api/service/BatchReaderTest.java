@@ -0,0 +1,198 @@
+package io.slgl.api.service;
+
+import com.amazon.ion.IonString;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonValue;
+import com.amazon.ion.system.IonSystemBuilder;
+import io.slgl.api.ExecutionContext;
+import io.slgl.api.domain.BatchReadKeys;
+import io.slgl.api.domain.RequestItemObject;
+import io.slgl.api.protocol.ApiResponseItem;
+import io.slgl.api.repository.*;
+import io.slgl.api.type.TypeFactory;
+import io.slgl.api.utils.UncheckedIonValueMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import software.amazon.qldb.Executable;
+import software.amazon.qldb.Result;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static io.slgl.api.utils.TestExecutionContext.mock;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Counts QLDB statements executed while items of write request read nodes and check for duplicated links.
+ */
+class BatchReaderTest {
+
+    private static final int ITEMS_COUNT = 20;
+
+    private final IonSystem ion = IonSystemBuilder.standard().build();
+    private final AtomicInteger statementsCount = new AtomicInteger();
+
+    private NodeRepository nodeRepository;
+    private LinkRepository linkRepository;
+
+    @BeforeEach
+    void setup() {
+        ExecutionContext.reset();
+
+        Executable tx = Mockito.mock(Executable.class);
+        when(tx.execute(anyString(), anyList())).thenAnswer(invocation -> {
+            statementsCount.incrementAndGet();
+            String query = invocation.getArgument(0);
+            List<IonValue> params = invocation.getArgument(1);
+            return result(query, params);
+        });
+
+        TransactionManager transactionManager = mock(TransactionManager.class);
+        when(transactionManager.isInWriteTransaction()).thenReturn(true);
+        when(transactionManager.ensureReadTransaction(any())).thenAnswer(invocation -> {
+            Function<Executable, ?> call = invocation.getArgument(0);
+            return call.apply(tx);
+        });
+
+        UncheckedIonValueMapper mapper = mock(UncheckedIonValueMapper.class);
+        when(mapper.serialize(anyString())).thenAnswer(invocation -> ion.newString(invocation.getArgument(0)));
+        when(mapper.parse(any(), eq(NodeEntity.class))).thenAnswer(invocation -> {
+            IonString id = invocation.getArgument(0);
+            return new NodeEntity().setId(id.stringValue());
+        });
+        when(mapper.parse(any(), eq(LinkEntity.class))).thenAnswer(invocation -> {
+            String[] key = ((IonString) invocation.getArgument(0)).stringValue().split("\\|");
+            return new LinkEntity()
+                    .setId("link-" + key[0])
+                    .setSourceNode(key[0])
+                    .setTargetNode(key[1])
+                    .setTargetAnchor(key[2]);
+        });
+
+        mock(TypeFactory.class);
+        mock(LinkIndexRepository.class);
+        mock(LinkCounterRepository.class);
+
+        nodeRepository = ExecutionContext.get(NodeRepository.class);
+        linkRepository = ExecutionContext.get(LinkRepository.class);
+    }
+
+    @AfterEach
+    void cleanup() {
+        ExecutionContext.reset();
+    }
+
+    @Test
+    void shouldReadNodesAndLinksOfWholeBatchInBulk() {
+        // given
+        List<RequestItemObject> items = IntStream.range(0, ITEMS_COUNT)
+                .mapToObj(i -> item(keys -> keys
+                        .addNodeId("source-" + i)
+                        .addNodeId("target")
+                        .addLink("source-" + i, "target", "#items")))
+                .collect(Collectors.toList());
+
+        // when
+        new BatchReader().prefetch(items);
+        int statementsAfterPrefetch = statementsCount.get();
+
+        List<LinkEntity> links = IntStream.range(0, ITEMS_COUNT)
+                .mapToObj(i -> linkRepository.read("source-" + i, "target", "#items"))
+                .collect(Collectors.toList());
+        List<NodeEntity> nodes = IntStream.range(0, ITEMS_COUNT)
+                .mapToObj(i -> nodeRepository.readById("source-" + i))
+                .collect(Collectors.toList());
+
+        // then
+        assertThat(statementsAfterPrefetch).isEqualTo(2);
+        assertThat(statementsCount.get()).isEqualTo(statementsAfterPrefetch);
+
+        assertThat(nodes).allSatisfy(node -> assertThat(node).isNotNull());
+        assertThat(links.get(0)).isNull();
+        assertThat(links.get(1)).extracting(LinkEntity::getId).isEqualTo("link-source-1");
+    }
+
+    @Test
+    void shouldCollectLinkKeysDependingOnNodesWithoutReadingThemAgain() {
+        // given
+        List<RequestItemObject> items = IntStream.range(0, ITEMS_COUNT)
+                .mapToObj(i -> item(
+                        keys -> keys.addNodeId("source-" + i).addNodeId("target"),
+                        keys -> keys.addLink("source-" + i, "target", nodeRepository.readById("target").getId() + "#items")))
+                .collect(Collectors.toList());
+
+        // when
+        new BatchReader().prefetch(items);
+        int statementsAfterPrefetch = statementsCount.get();
+
+        LinkEntity link = linkRepository.read("source-1", "target", "target#items");
+
+        // then
+        assertThat(statementsAfterPrefetch).isEqualTo(2);
+        assertThat(statementsCount.get()).isEqualTo(statementsAfterPrefetch);
+        assertThat(link).extracting(LinkEntity::getId).isEqualTo("link-source-1");
+    }
+
+    @Test
+    void shouldReadMissingNodeAgainAfterItIsWritten() {
+        // given
+        List<RequestItemObject> items = List.of(item(keys -> keys.addNodeId("missing-node")));
+        new BatchReader().prefetch(items);
+        assertThat(nodeRepository.readById("missing-node")).isNull();
+
+        // when
+        ExecutionContext.get(NodeCache.class).invalidate("missing-node");
+        int statementsBeforeRead = statementsCount.get();
+        nodeRepository.readById("missing-node");
+
+        // then
+        assertThat(statementsCount.get()).isEqualTo(statementsBeforeRead + 1);
+    }
+
+    private static RequestItemObject item(Consumer<BatchReadKeys> keysCollector) {
+        return item(keysCollector, keys -> {
+        });
+    }
+
+    private static RequestItemObject item(Consumer<BatchReadKeys> keysCollector, Consumer<BatchReadKeys> linkKeysCollector) {
+        return new RequestItemObject() {
+            @Override
+            public void collectReadKeys(BatchReadKeys keys) {
+                keysCollector.accept(keys);
+            }
+
+            @Override
+            public void collectLinkReadKeys(BatchReadKeys keys) {
+                linkKeysCollector.accept(keys);
+            }
+
+            @Override
+            public ApiResponseItem write() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private Result result(String query, List<IonValue> params) {
+        // nodes with "missing" id and links from the first source node don't exist
+        List<IonValue> values = params.stream()
+                .filter(param -> !((IonString) param).stringValue().startsWith("missing"))
+                .filter(param -> !query.contains("sn_tn_ta") || !((IonString) param).stringValue().startsWith("source-0|"))
+                .map(IonValue::clone)
+                .collect(Collectors.toCollection(ArrayList::new));
+
+        Result result = Mockito.mock(Result.class);
+        when(result.iterator()).thenAnswer(invocation -> values.iterator());
+        when(result.isEmpty()).thenReturn(values.isEmpty());
+        return result;
+    }
+}
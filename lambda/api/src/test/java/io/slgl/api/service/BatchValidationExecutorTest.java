@@ -0,0 +1,109 @@
+package io.slgl.api.service;
+
+import io.slgl.api.ExecutionContext;
+import io.slgl.api.domain.ApiUser;
+import io.slgl.api.domain.RequestItemObject;
+import io.slgl.api.protocol.ApiResponseItem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchValidationExecutorTest {
+
+    private CurrentUserService currentUserService;
+
+    @BeforeEach
+    void setup() {
+        ExecutionContext.reset();
+        currentUserService = ExecutionContext.get(CurrentUserService.class);
+    }
+
+    @AfterEach
+    void cleanup() {
+        currentUserService.setCurrentUser(null);
+        ExecutionContext.reset();
+    }
+
+    @Test
+    void shouldThrowFailureOfFirstFailingItemAfterAllItemsFinished() {
+        // given
+        AtomicInteger finished = new AtomicInteger();
+        List<RequestItemObject> items = List.of(
+                item(() -> finished.incrementAndGet()),
+                item(() -> {
+                    sleep(100);
+                    finished.incrementAndGet();
+                    throw new IllegalArgumentException("requests[1]");
+                }),
+                item(() -> {
+                    finished.incrementAndGet();
+                    throw new IllegalArgumentException("requests[2]");
+                }),
+                item(() -> {
+                    sleep(200);
+                    finished.incrementAndGet();
+                }));
+
+        // expect
+        assertThatThrownBy(() -> new BatchValidationExecutor(4).validateBeforeTransaction(items))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("requests[1]");
+        assertThat(finished.get()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldValidateItemsAsCurrentUser() {
+        // given
+        ApiUser user = new ApiUser("user-1");
+        currentUserService.setCurrentUser(user);
+
+        var users = ConcurrentHashMap.<ApiUser>newKeySet();
+        var threads = ConcurrentHashMap.<Thread>newKeySet();
+        List<RequestItemObject> items = List.of(
+                item(() -> record(users, threads)),
+                item(() -> record(users, threads)),
+                item(() -> record(users, threads)));
+
+        // when
+        new BatchValidationExecutor(2).validateBeforeTransaction(items);
+
+        // then
+        assertThat(users).containsExactly(user);
+        assertThat(threads).doesNotContain(Thread.currentThread());
+    }
+
+    private void record(Set<ApiUser> users, Set<Thread> threads) {
+        users.add(currentUserService.getCurrentUser());
+        threads.add(Thread.currentThread());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static RequestItemObject item(Runnable validation) {
+        return new RequestItemObject() {
+            @Override
+            public void validateBeforeTransaction() {
+                validation.run();
+            }
+
+            @Override
+            public ApiResponseItem write() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+}
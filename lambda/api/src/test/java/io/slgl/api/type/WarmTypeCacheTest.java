@@ -0,0 +1,61 @@
+package io.slgl.api.type;
+
+import io.slgl.api.model.TypeEntity;
+import io.slgl.api.repository.NodeEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WarmTypeCacheTest {
+
+    private final WarmTypeCache cache = new WarmTypeCache();
+
+    @Test
+    public void shouldReturnCachedTypeEntity() {
+        // given
+        TypeEntity typeEntity = new TypeEntity().setStateProperties(List.of("name"));
+        cache.put(typeNode("type-1", "sha-1"), typeEntity);
+
+        // when
+        var result = cache.get("type-1");
+
+        // then
+        assertThat(result).containsSame(typeEntity);
+        assertThat(cache.get("type-2")).isEmpty();
+        assertThat(cache.getStats().hitCount()).isEqualTo(1);
+        assertThat(cache.getStats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldKeepEntryMatchingStateHashOfTypeNode() {
+        // given
+        cache.put(typeNode("type-1", "sha-1"), new TypeEntity());
+
+        // when
+        cache.validate(typeNode("type-1", "sha-1"));
+
+        // then
+        assertThat(cache.get("type-1")).isPresent();
+    }
+
+    @Test
+    public void shouldEvictEntryNotMatchingStateHashOfTypeNode() {
+        // given
+        cache.put(typeNode("type-1", "sha-1"), new TypeEntity());
+
+        // when
+        cache.validate(typeNode("type-1", "sha-2"));
+
+        // then
+        assertThat(cache.get("type-1")).isEmpty();
+    }
+
+    private static NodeEntity typeNode(String id, String stateSha3) {
+        return new NodeEntity()
+                .setId(id)
+                .setType(BuiltinType.TYPE.getId())
+                .setStateSha3(stateSha3);
+    }
+}
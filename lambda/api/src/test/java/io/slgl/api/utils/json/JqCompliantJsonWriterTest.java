@@ -0,0 +1,114 @@
+package io.slgl.api.utils.json;
+
+import io.slgl.api.utils.Utils;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static io.slgl.api.utils.json.UncheckedObjectMapper.MAPPER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Expected outputs in {@code /io/slgl/api/utils/jq} were recorded with {@code jq -S . < case.json > case.jq.json}
+ * using jq 1.6.
+ */
+class JqCompliantJsonWriterTest {
+
+    private static final String GOLDEN_FILES = "/io/slgl/api/utils/jq/";
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "simple-object",
+            "nested-structures",
+            "empty-containers",
+            "unicode-escapes",
+            "unpaired-surrogates",
+            "control-characters",
+            "key-ordering",
+            "duplicate-keys",
+            "numbers",
+            "top-level-string",
+            "top-level-number",
+            "top-level-array",
+            "deep-nesting",
+            "max-depth-nesting",
+            "state-document",
+    })
+    void shouldWriteSameBytesAsJq(String testCase) throws IOException {
+        // given
+        String json = readResource(testCase + ".json");
+        byte[] expected = IOUtils.resourceToByteArray(GOLDEN_FILES + testCase + ".jq.json");
+
+        // when
+        byte[] result = JqCompliantJsonWriter.toBytes(json);
+
+        // then
+        assertThat(new String(result, StandardCharsets.UTF_8)).isEqualTo(new String(expected, StandardCharsets.UTF_8));
+        assertThat(result).isEqualTo(expected);
+        assertThat(Utils.getSha3OnJqSCompliantJson(json)).isEqualTo(Utils.getSha3OfBytes(expected));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "simple-object",
+            "nested-structures",
+            "unicode-escapes",
+            "control-characters",
+            "key-ordering",
+            "deep-nesting",
+            "state-document",
+    })
+    void shouldHashSerializedValueSameAsItsJson(String testCase) throws IOException {
+        // given
+        Map<?, ?> value = MAPPER.readValue(readResource(testCase + ".json"), Map.class);
+
+        // when
+        String hash = Utils.getSha3OnJqSCompliantValue(value);
+
+        // then
+        assertThat(hash).isEqualTo(Utils.getSha3OnJqSCompliantJson(MAPPER.writeValueAsString(value)));
+    }
+
+    @Test
+    void shouldKeepJavaFloatValueAsSerialized() {
+        // given
+        Map<String, Object> value = Map.of("float", 0.1f, "double", 0.1d);
+
+        // when
+        String hash = Utils.getSha3OnJqSCompliantValue(value);
+
+        // then
+        assertThat(hash).isEqualTo(Utils.getSha3OnJqSCompliantJson("{\"double\":0.1,\"float\":0.1}"));
+    }
+
+    @Test
+    void shouldFailWhenNestedDeeperThanJqAllows() {
+        // given
+        String json = "[".repeat(257) + "]".repeat(257);
+
+        // expect
+        assertThatThrownBy(() -> JqCompliantJsonWriter.toBytes(json))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("depth limit");
+    }
+
+    @Test
+    void shouldFailOnUnpairedHighSurrogate() {
+        // given
+        String json = "\"\\ud800x\"";
+
+        // expect
+        assertThatThrownBy(() -> JqCompliantJsonWriter.toBytes(json))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String readResource(String name) throws IOException {
+        return IOUtils.resourceToString(GOLDEN_FILES + name, StandardCharsets.UTF_8);
+    }
+}
@@ -12,6 +12,7 @@ import io.slgl.api.config.LedgerModule;
 import io.slgl.api.utils.LambdaEnv;
 import io.slgl.setup.CustomResourceResponseEvent.DataResponse;
 import io.slgl.setup.actions.AdminUserSetup;
+import io.slgl.setup.actions.QldbLinkCounterTableSetup;
 import io.slgl.setup.actions.QldbLinkIndexTableSetup;
 import io.slgl.setup.actions.QldbLinkTableSetup;
 import io.slgl.setup.actions.QldbNodeTableSetup;
@@ -47,6 +48,7 @@ public class LambdaHandler implements RequestHandler<CustomResourceRequestEvent,
                     ExecutionContext.get(QldbNodeTableSetup.class).execute();
                     ExecutionContext.get(QldbLinkTableSetup.class).execute();
                     ExecutionContext.get(QldbLinkIndexTableSetup.class).execute();
+                    ExecutionContext.get(QldbLinkCounterTableSetup.class).execute();
 
                     ExecutionContext.get(AdminUserSetup.class).execute(request, responseData);
 
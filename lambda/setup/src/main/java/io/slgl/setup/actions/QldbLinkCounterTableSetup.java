@@ -0,0 +1,154 @@
+package io.slgl.setup.actions;
+
+import com.amazon.ion.IonValue;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Streams;
+import io.slgl.api.ExecutionContext;
+import io.slgl.api.repository.LinkCounterRepository;
+import io.slgl.api.repository.LinkEntity;
+import io.slgl.api.repository.TransactionManager;
+import io.slgl.api.utils.UncheckedIonValueMapper;
+import io.slgl.setup.utils.QldbService;
+import io.slgl.setup.utils.QldbTableMetadata;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates {@code link_counter} table and, once, backfills counters of anchors linked before the table was introduced.
+ * <p>
+ * Links are read in partitions by the first character of their document id, each in its own transaction, so no
+ * transaction fetches and processes the whole {@code link} table (QLDB limits transactions to 30 seconds). Completed
+ * partitions are recorded in {@code link_counter_backfill} table, so the backfill continues where it stopped when
+ * setup is run again and is skipped completely once all partitions are done. Anchors not backfilled yet are still
+ * counted from links.
+ */
+@Slf4j
+public class QldbLinkCounterTableSetup {
+
+    private static final String TABLE_NAME = "link_counter";
+    private static final String BACKFILL_TABLE_NAME = "link_counter_backfill";
+
+    /**
+     * Characters QLDB document ids are made of, each starting one partition of links.
+     */
+    private static final String ID_PREFIXES = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+
+    /**
+     * Number of counters created in single transaction, kept below QLDB limit of documents written in transaction.
+     */
+    private static final int BACKFILL_BATCH_SIZE = 20;
+
+    private final QldbService qldb = ExecutionContext.get(QldbService.class);
+    private final TransactionManager transactionManager = ExecutionContext.get(TransactionManager.class);
+    private final UncheckedIonValueMapper mapper = ExecutionContext.get(UncheckedIonValueMapper.class);
+    private final LinkCounterRepository linkCounterRepository = ExecutionContext.get(LinkCounterRepository.class);
+
+    public void execute() {
+        transactionManager.executeInTransaction(tx -> {
+            QldbTableMetadata tableMetadata = qldb.createTableIfNotExists(tx, TABLE_NAME);
+
+            qldb.createIndexIfNotExists(tx, tableMetadata, TABLE_NAME, "tn_ta");
+        });
+        transactionManager.executeInTransaction(tx -> {
+            qldb.createTableIfNotExists(tx, BACKFILL_TABLE_NAME);
+        });
+
+        qldb.waitForTableToBecomeVisible(TABLE_NAME);
+        qldb.waitForTableToBecomeVisible(BACKFILL_TABLE_NAME);
+
+        backfillCounters();
+    }
+
+    private void backfillCounters() {
+        Set<String> completedPrefixes = readCompletedPrefixes();
+        if (completedPrefixes.size() == ID_PREFIXES.length()) {
+            log.info("Link counters already backfilled");
+            return;
+        }
+
+        int created = 0;
+        for (char prefix : ID_PREFIXES.toCharArray()) {
+            if (!completedPrefixes.contains(String.valueOf(prefix))) {
+                created += backfillPartition(prefix);
+            }
+        }
+
+        log.info("Created {} link counters", created);
+    }
+
+    private int backfillPartition(char prefix) {
+        List<LinkEntity> anchors = new ArrayList<>(readLinkedAnchors(prefix));
+        log.info("Backfilling link counters for {} anchors of links with id prefix '{}'", anchors.size(), prefix);
+
+        int created = 0;
+        for (List<LinkEntity> batch : Lists.partition(anchors, BACKFILL_BATCH_SIZE)) {
+            // anchor is counted again in transaction creating its counter, so links written meanwhile are included
+            created += transactionManager.executeInTransaction(tx -> {
+                int createdInBatch = 0;
+                for (LinkEntity anchor : batch) {
+                    if (linkCounterRepository.initializeIfMissing(anchor.getTargetNode(), anchor.getTargetAnchor())) {
+                        createdInBatch++;
+                    }
+                }
+                return createdInBatch;
+            });
+        }
+
+        markCompleted(prefix);
+        return created;
+    }
+
+    private Set<LinkEntity> readLinkedAnchors(char prefix) {
+        return transactionManager.executeInReadTransaction(tx -> {
+            // ids starting with given character, the next character is the exclusive upper bound
+            String query = "SELECT target_node, target_anchor" +
+                    " FROM link BY id" +
+                    " WHERE id >= ? AND id < ?";
+
+            List<IonValue> params = ImmutableList.of(
+                    mapper.serialize(String.valueOf(prefix)),
+                    mapper.serialize(String.valueOf((char) (prefix + 1))));
+
+            return Streams.stream(tx.execute(query, params))
+                    .map(value -> mapper.parse(value, LinkEntity.class))
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+        });
+    }
+
+    private Set<String> readCompletedPrefixes() {
+        return transactionManager.executeInReadTransaction(tx -> {
+            String query = "SELECT id_prefix FROM " + BACKFILL_TABLE_NAME;
+
+            return Streams.stream(tx.execute(query))
+                    .map(value -> mapper.parse(value, BackfillProgressEntity.class).getIdPrefix())
+                    .collect(Collectors.toSet());
+        });
+    }
+
+    private void markCompleted(char prefix) {
+        transactionManager.executeInTransaction(tx -> {
+            String query = "INSERT INTO " + BACKFILL_TABLE_NAME + " ?";
+            List<IonValue> params = ImmutableList.of(
+                    mapper.serialize(new BackfillProgressEntity().setIdPrefix(String.valueOf(prefix))));
+
+            tx.execute(query, params);
+        });
+    }
+
+    @Data
+    @Accessors(chain = true)
+    static class BackfillProgressEntity {
+
+        @JsonProperty("id_prefix")
+        private String idPrefix;
+    }
+}
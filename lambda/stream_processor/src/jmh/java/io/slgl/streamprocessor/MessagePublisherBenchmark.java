@@ -0,0 +1,65 @@
+package io.slgl.streamprocessor;
+
+import io.slgl.streamprocessor.message.EncodedMessage;
+import io.slgl.streamprocessor.message.MessageFormat;
+import org.openjdk.jmh.annotations.*;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures throughput of publishing messages to {@link SnsStandIn}, which answers each publish after a delay close to
+ * SNS round trip, with different numbers of publishes in flight.
+ * <p>
+ * Run with {@code ./gradlew :lambda:stream_processor:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class MessagePublisherBenchmark {
+
+    private static final int MESSAGES_PER_BATCH = 32;
+    private static final long PUBLISH_DELAY_MILLIS = 20;
+
+    @Param({"1", "4", "16"})
+    public int maxInFlightPublishes;
+
+    private SnsStandIn snsStandIn;
+    private SnsAsyncClient snsClient;
+    private EncodedMessage message;
+
+    @Setup
+    public void setup() throws IOException {
+        snsStandIn = new SnsStandIn(PUBLISH_DELAY_MILLIS);
+        snsClient = snsStandIn.createClient();
+        byte[] messageJson = new byte[4 * 1024];
+        Arrays.fill(messageJson, (byte) 'x');
+        message = MessageFormat.JSON.encode(messageJson);
+    }
+
+    @TearDown(Level.Iteration)
+    public void forgetPublishedMessages() {
+        snsStandIn.getPublishedMessages().clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        snsClient.close();
+        snsStandIn.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES_PER_BATCH)
+    public Object publishBatch() {
+        MessagePublisher publisher = new MessagePublisher(snsClient, "arn:aws:sns:us-east-1:123456789012:topic", maxInFlightPublishes);
+        for (int i = 0; i < MESSAGES_PER_BATCH; i++) {
+            publisher.publish(message, String.valueOf(i));
+        }
+        return publisher.awaitPublished();
+    }
+}
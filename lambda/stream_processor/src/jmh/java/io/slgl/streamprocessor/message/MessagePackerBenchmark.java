@@ -0,0 +1,111 @@
+package io.slgl.streamprocessor.message;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures packing of 10k revisions (with a block summary after every 10 of them) into SNS messages. Compares
+ * {@link MessagePacker} to the previous approach, which copied the {@link Message} for every item and serialized
+ * the whole of it to check its size.
+ * <p>
+ * Run with {@code ./gradlew :lambda:stream_processor:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class MessagePackerBenchmark {
+
+    private static final int MAX_MESSAGE_SIZE = 256 * 1024;
+    private static final int REVISIONS_COUNT = 10_000;
+    private static final int REVISIONS_PER_BLOCK = 10;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    private List<Object> items;
+
+    @Setup
+    public void setup() {
+        items = new ArrayList<>();
+        List<String> blockDocumentIds = new ArrayList<>();
+        for (int i = 0; i < REVISIONS_COUNT; i++) {
+            String documentId = "document-" + i;
+            items.add(new Document()
+                    .setStrandId("strand")
+                    .setSequenceNo(i / REVISIONS_PER_BLOCK)
+                    .setTable("node")
+                    .setDocumentId(documentId)
+                    .setData(revisionData(i)));
+            blockDocumentIds.add(documentId);
+
+            if (blockDocumentIds.size() == REVISIONS_PER_BLOCK) {
+                items.add(new Block()
+                        .setStrandId("strand")
+                        .setSequenceNo(i / REVISIONS_PER_BLOCK)
+                        .setDocumentIds(blockDocumentIds));
+                blockDocumentIds = new ArrayList<>();
+            }
+        }
+    }
+
+    @Benchmark
+    public void packIncrementally(Blackhole blackhole) throws JsonProcessingException {
+        MessagePacker packer = new MessagePacker(objectMapper, MAX_MESSAGE_SIZE);
+        for (Object item : items) {
+            byte[] message = item instanceof Block ? packer.addBlock((Block) item) : packer.addDocument((Document) item);
+            if (message != null) {
+                blackhole.consume(new String(message, StandardCharsets.UTF_8));
+            }
+        }
+        blackhole.consume(packer.drain());
+    }
+
+    @Benchmark
+    public void packBySerializingWholeMessage(Blackhole blackhole) throws JsonProcessingException {
+        Message message = null;
+        for (Object item : items) {
+            Message withItem = add(message != null ? message : new Message(), item);
+            if (message != null && isMessageTooBig(withItem)) {
+                blackhole.consume(objectMapper.writeValueAsString(message));
+                withItem = add(new Message(), item);
+            }
+            message = withItem;
+        }
+        blackhole.consume(objectMapper.writeValueAsString(message));
+    }
+
+    private static Message add(Message message, Object item) {
+        return item instanceof Block ? message.addBlock((Block) item) : message.addDocument((Document) item);
+    }
+
+    private boolean isMessageTooBig(Message message) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(message).getBytes(StandardCharsets.UTF_8).length >= MAX_MESSAGE_SIZE;
+    }
+
+    private static Map<String, Object> revisionData(int i) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("name", "Node " + i);
+        state.put("description", "Revision used to measure packing of stream messages, number " + i);
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("id", "https://slgl.io/nodes/" + i);
+        data.put("type", "https://slgl.io/types/document");
+        data.put("created", "2020-10-01T12:00:00Z");
+        data.put("state_sha3", "a7ffc6f8bf1ed76651c14756a061d662f580ff4de43b49fa82d80a4b80f8434a");
+        data.put("state", state);
+        return data;
+    }
+}
@@ -1,28 +1,37 @@
 package io.slgl.streamprocessor;
 
+import com.amazon.ion.IonSystem;
 import com.amazon.ion.system.IonSystemBuilder;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.dataformat.ion.ionvalue.IonValueMapper;
-import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
 
 public class ExecutionContext {
 
+    private static IonSystem ionSystem;
     private static IonValueMapper ionMapper;
     private static ObjectMapper objectMapper;
 
-    private static SnsClient amazonSNS;
+    private static SnsAsyncClient amazonSNS;
+    private static S3AsyncClient amazonS3;
 
     static {
-        ionMapper = new IonValueMapper(IonSystemBuilder.standard().build());
+        ionSystem = IonSystemBuilder.standard().build();
+        ionMapper = new IonValueMapper(ionSystem);
         ionMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
         ionMapper.enable(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_AS_NULL);
 
         objectMapper = new ObjectMapper();
         objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
 
-        amazonSNS = SnsClient.create();
+        amazonSNS = SnsAsyncClient.create();
+    }
+
+    public static IonSystem getIonSystem() {
+        return ionSystem;
     }
 
     public static IonValueMapper getIonMapper() {
@@ -33,7 +42,17 @@ public class ExecutionContext {
         return objectMapper;
     }
 
-    public static SnsClient getAmazonSNS() {
+    public static SnsAsyncClient getAmazonSNS() {
         return amazonSNS;
     }
+
+    /**
+     * S3 client is needed only when spill bucket is configured, so it is created on first use.
+     */
+    public static synchronized S3AsyncClient getAmazonS3() {
+        if (amazonS3 == null) {
+            amazonS3 = S3AsyncClient.create();
+        }
+        return amazonS3;
+    }
 }
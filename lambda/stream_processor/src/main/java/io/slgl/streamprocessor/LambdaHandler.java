@@ -3,8 +3,11 @@ package io.slgl.streamprocessor;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.KinesisEvent;
+import io.slgl.streamprocessor.model.BatchResponse;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.stream.Collectors;
+
 @Slf4j
 public class LambdaHandler implements RequestHandler<KinesisEvent, Object> {
 
@@ -15,12 +18,14 @@ public class LambdaHandler implements RequestHandler<KinesisEvent, Object> {
             log.info("Request = {}", request);
 
             RecordProcessor recordProcessor = new RecordProcessor();
-            for (KinesisEvent.KinesisEventRecord record : request.getRecords()) {
-                recordProcessor.processRecord(record.getKinesis());
-            }
+            recordProcessor.processRecords(request.getRecords().stream()
+                    .map(KinesisEvent.KinesisEventRecord::getKinesis)
+                    .collect(Collectors.toList()));
             recordProcessor.sendRemainingMessage();
 
-            return null;
+            return recordProcessor.awaitSentMessages()
+                    .map(BatchResponse::failedFrom)
+                    .orElse(null);
 
         } catch (Exception e) {
             log.error("Lambda execution failed with unexpected error", e);
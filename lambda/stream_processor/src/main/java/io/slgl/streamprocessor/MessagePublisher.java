@@ -0,0 +1,175 @@
+package io.slgl.streamprocessor;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.slgl.streamprocessor.message.EncodedMessage;
+import io.slgl.streamprocessor.message.MessageFormat;
+import io.slgl.streamprocessor.message.SpilledMessagePointer;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
+import software.amazon.awssdk.services.sns.model.MessageAttributeValue;
+import software.amazon.awssdk.services.sns.model.PublishRequest;
+
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Publishes messages to SNS without waiting for each of them, keeping at most given number of publishes in flight.
+ * Messages are published in the order they were packed in. When a publish fails, following messages are not
+ * published at all and {@link #awaitPublished()} returns the earliest Kinesis record whose items were not published,
+ * so that processing of the batch is resumed from it and no message of a strand is skipped.
+ * <p>
+ * Messages bigger than SNS allows are stored in S3 object in spill bucket, and {@link SpilledMessagePointer} to it is
+ * published instead.
+ */
+@Slf4j
+public class MessagePublisher {
+
+    /**
+     * Limit of SNS message body, leaving space for message attributes within 256 KB limit of the whole message.
+     */
+    public static final int MAX_BODY_SIZE = 255 * 1024;
+
+    private static final String SPILL_KEY_PREFIX = "messages/";
+    private static final ObjectMapper pointerMapper = new ObjectMapper();
+
+    private final SnsAsyncClient amazonSNS;
+    private final String topicArn;
+    private final S3AsyncClient amazonS3;
+    private final String spillBucket;
+    private final Semaphore inFlightPublishes;
+
+    private final List<PendingPublish> pendingPublishes = new ArrayList<>();
+    private volatile boolean failed;
+
+    public MessagePublisher(SnsAsyncClient amazonSNS, String topicArn, int maxInFlightPublishes) {
+        this(amazonSNS, topicArn, null, null, maxInFlightPublishes);
+    }
+
+    public MessagePublisher(SnsAsyncClient amazonSNS, String topicArn, S3AsyncClient amazonS3, String spillBucket, int maxInFlightPublishes) {
+        this.amazonSNS = amazonSNS;
+        this.topicArn = topicArn;
+        this.amazonS3 = amazonS3;
+        this.spillBucket = spillBucket;
+        this.inFlightPublishes = new Semaphore(maxInFlightPublishes);
+    }
+
+    /**
+     * Starts publishing given message, waiting first when maximal number of publishes is already in flight.
+     *
+     * @param firstSequenceNumber sequence number of the first Kinesis record with items of the message
+     */
+    public void publish(EncodedMessage message, String firstSequenceNumber) {
+        inFlightPublishes.acquireUninterruptibly();
+        if (failed) {
+            inFlightPublishes.release();
+            pendingPublishes.add(new PendingPublish(firstSequenceNumber, CompletableFuture.failedFuture(
+                    new IllegalStateException("Not published, as previous message failed to publish"))));
+            return;
+        }
+
+        CompletableFuture<?> publish;
+        try {
+            if (message.getSizeInBytes() > MAX_BODY_SIZE) {
+                publish = spillAndPublishPointer(message);
+            } else {
+                publish = amazonSNS.publish(publishRequest(message.getBody(), message.getContentType()));
+            }
+        } catch (RuntimeException e) {
+            publish = CompletableFuture.failedFuture(e);
+        }
+        pendingPublishes.add(new PendingPublish(firstSequenceNumber, publish.whenComplete((response, error) -> {
+            if (error != null) {
+                failed = true;
+            }
+            inFlightPublishes.release();
+        })));
+    }
+
+    private CompletableFuture<?> spillAndPublishPointer(EncodedMessage message) {
+        if (amazonS3 == null || spillBucket == null) {
+            throw new IllegalStateException("Message of " + message.getSizeInBytes() + " bytes exceeds SNS limit and no spill bucket is configured");
+        }
+
+        String key = SPILL_KEY_PREFIX + UUID.randomUUID();
+        var putRequest = PutObjectRequest.builder()
+                .bucket(spillBucket)
+                .key(key)
+                .contentType(message.getContentType())
+                .build();
+        String pointer = toJson(new SpilledMessagePointer(spillBucket, key, message.getContentType()));
+
+        return amazonS3.putObject(putRequest, AsyncRequestBody.fromString(message.getBody()))
+                .thenCompose(response -> amazonSNS.publish(publishRequest(pointer, SpilledMessagePointer.CONTENT_TYPE)));
+    }
+
+    private PublishRequest publishRequest(String body, String contentType) {
+        return PublishRequest.builder()
+                .topicArn(topicArn)
+                .message(body)
+                .messageAttributes(Map.of(
+                        "content-type", stringAttribute(contentType),
+                        "format-version", stringAttribute(MessageFormat.FORMAT_VERSION)))
+                .build();
+    }
+
+    private static MessageAttributeValue stringAttribute(String value) {
+        return MessageAttributeValue.builder()
+                .dataType("String")
+                .stringValue(value)
+                .build();
+    }
+
+    private static String toJson(SpilledMessagePointer pointer) {
+        try {
+            return pointerMapper.writeValueAsString(pointer);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Waits until all started publishes complete.
+     *
+     * @return sequence number of the first Kinesis record which has to be processed again, empty when all messages
+     * were published
+     */
+    public Optional<String> awaitPublished() {
+        String firstFailedSequenceNumber = null;
+        for (PendingPublish pendingPublish : pendingPublishes) {
+            try {
+                pendingPublish.publish.join();
+            } catch (CompletionException e) {
+                if (firstFailedSequenceNumber == null) {
+                    log.error("Publishing message failed, starting from record {}", pendingPublish.firstSequenceNumber, e.getCause());
+                }
+                // messages of different formats are packed separately, so the earliest failed may be not the first
+                if (firstFailedSequenceNumber == null || isBefore(pendingPublish.firstSequenceNumber, firstFailedSequenceNumber)) {
+                    firstFailedSequenceNumber = pendingPublish.firstSequenceNumber;
+                }
+            }
+        }
+        pendingPublishes.clear();
+        failed = false;
+
+        return Optional.ofNullable(firstFailedSequenceNumber);
+    }
+
+    private static boolean isBefore(String sequenceNumber, String otherSequenceNumber) {
+        return new BigInteger(sequenceNumber).compareTo(new BigInteger(otherSequenceNumber)) < 0;
+    }
+
+    @AllArgsConstructor
+    private static class PendingPublish {
+        private final String firstSequenceNumber;
+        private final CompletableFuture<?> publish;
+    }
+}
@@ -0,0 +1,256 @@
+package io.slgl.streamprocessor;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.dataformat.ion.ionvalue.IonValueMapper;
+import io.slgl.streamprocessor.model.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Decodes QLDB stream records directly with {@link IonReader}, reading only the fields used by the stream processor.
+ * All other values are skipped without being parsed, which for binary Ion is just a jump over their bytes. Revision
+ * data is decoded only for tables given in constructor, data of other tables is skipped as well.
+ */
+public class QldbRecordDecoder {
+
+    private final IonSystem ionSystem;
+    private final IonValueMapper ionMapper;
+    private final Set<String> tablesWithData;
+
+    public QldbRecordDecoder(IonSystem ionSystem, IonValueMapper ionMapper, Set<String> tablesWithData) {
+        this.ionSystem = ionSystem;
+        this.ionMapper = ionMapper;
+        this.tablesWithData = tablesWithData;
+    }
+
+    public QldbRecord decode(ByteBuffer data) throws IOException {
+        try (IonReader reader = ionSystem.newReader(new ByteBufferBackedInputStream(data))) {
+            reader.next();
+            if (!isStruct(reader)) {
+                throw new IOException("QLDB stream record is not an Ion struct: " + reader.getType());
+            }
+
+            QldbRecord record = new QldbRecord();
+            reader.stepIn();
+            while (reader.next() != null) {
+                switch (fieldName(reader)) {
+                    case "qldbStreamArn":
+                        record.setQldbStreamArn(stringValue(reader));
+                        break;
+                    case "recordType":
+                        record.setRecordType(recordType(stringValue(reader)));
+                        break;
+                    case "payload":
+                        record.setPayload(readPayload(reader));
+                        break;
+                    default:
+                        // not used, skipped
+                }
+            }
+            reader.stepOut();
+
+            return record;
+        }
+    }
+
+    private RecordPayload readPayload(IonReader reader) throws IOException {
+        if (!isStruct(reader)) {
+            return null;
+        }
+
+        RecordPayload payload = new RecordPayload();
+        reader.stepIn();
+        while (reader.next() != null) {
+            switch (fieldName(reader)) {
+                case "blockAddress":
+                    payload.setBlockAddress(readBlockAddress(reader));
+                    break;
+                case "revisionSummaries":
+                    payload.setRevisionSummaries(readRevisionSummaries(reader));
+                    break;
+                case "tableInfo":
+                    payload.setTableInfo(readTableInfo(reader));
+                    break;
+                case "revision":
+                    payload.setRevision(readRevision(reader, payload.getTableInfo()));
+                    break;
+                default:
+                    // not used, skipped
+            }
+        }
+        reader.stepOut();
+
+        // QLDB writes table info before revision, but data read before table name was known may be not needed
+        if (payload.getRevision() != null && !isDataNeeded(payload.getTableInfo())) {
+            payload.getRevision().setData(null);
+        }
+
+        return payload;
+    }
+
+    private Revision readRevision(IonReader reader, TableInfo tableInfo) throws IOException {
+        if (!isStruct(reader)) {
+            return null;
+        }
+
+        Revision revision = new Revision();
+        reader.stepIn();
+        while (reader.next() != null) {
+            switch (fieldName(reader)) {
+                case "blockAddress":
+                    revision.setBlockAddress(readBlockAddress(reader));
+                    break;
+                case "metadata":
+                    revision.setMetadata(readRevisionMetadata(reader));
+                    break;
+                case "data":
+                    if (tableInfo == null || isDataNeeded(tableInfo)) {
+                        revision.setData(readData(reader));
+                    }
+                    break;
+                default:
+                    // not used, skipped
+            }
+        }
+        reader.stepOut();
+
+        return revision;
+    }
+
+    private Object readData(IonReader reader) throws IOException {
+        if (reader.isNullValue()) {
+            return null;
+        }
+        return ionMapper.readValue(ionSystem.newValue(reader), Object.class);
+    }
+
+    private static BlockAddress readBlockAddress(IonReader reader) {
+        if (!isStruct(reader)) {
+            return null;
+        }
+
+        BlockAddress blockAddress = new BlockAddress();
+        reader.stepIn();
+        while (reader.next() != null) {
+            switch (fieldName(reader)) {
+                case "strandId":
+                    blockAddress.setStrandId(stringValue(reader));
+                    break;
+                case "sequenceNo":
+                    blockAddress.setSequenceNo(reader.isNullValue() ? 0 : reader.longValue());
+                    break;
+                default:
+                    // not used, skipped
+            }
+        }
+        reader.stepOut();
+
+        return blockAddress;
+    }
+
+    private static List<RevisionSummary> readRevisionSummaries(IonReader reader) {
+        if (reader.getType() != IonType.LIST || reader.isNullValue()) {
+            return null;
+        }
+
+        List<RevisionSummary> summaries = new ArrayList<>();
+        reader.stepIn();
+        while (reader.next() != null) {
+            if (!isStruct(reader)) {
+                continue;
+            }
+
+            RevisionSummary summary = new RevisionSummary();
+            reader.stepIn();
+            while (reader.next() != null) {
+                if (fieldName(reader).equals("documentId")) {
+                    summary.setDocumentId(stringValue(reader));
+                }
+            }
+            reader.stepOut();
+            summaries.add(summary);
+        }
+        reader.stepOut();
+
+        return summaries;
+    }
+
+    private static TableInfo readTableInfo(IonReader reader) {
+        if (!isStruct(reader)) {
+            return null;
+        }
+
+        TableInfo tableInfo = new TableInfo();
+        reader.stepIn();
+        while (reader.next() != null) {
+            if (fieldName(reader).equals("tableName")) {
+                tableInfo.setTableName(stringValue(reader));
+            }
+        }
+        reader.stepOut();
+
+        return tableInfo;
+    }
+
+    private static RevisionMetadata readRevisionMetadata(IonReader reader) {
+        if (!isStruct(reader)) {
+            return null;
+        }
+
+        RevisionMetadata metadata = new RevisionMetadata();
+        reader.stepIn();
+        while (reader.next() != null) {
+            if (fieldName(reader).equals("id")) {
+                metadata.setId(stringValue(reader));
+            }
+        }
+        reader.stepOut();
+
+        return metadata;
+    }
+
+    private boolean isDataNeeded(TableInfo tableInfo) {
+        return tableInfo != null && tablesWithData.contains(tableInfo.getTableName());
+    }
+
+    private static RecordType recordType(String value) {
+        if (value == null) {
+            return null;
+        }
+        // as READ_UNKNOWN_ENUM_VALUES_AS_NULL of the Ion mapper
+        switch (value) {
+            case "CONTROL":
+                return RecordType.CONTROL;
+            case "BLOCK_SUMMARY":
+                return RecordType.BLOCK_SUMMARY;
+            case "REVISION_DETAILS":
+                return RecordType.REVISION_DETAILS;
+            default:
+                return null;
+        }
+    }
+
+    private static boolean isStruct(IonReader reader) {
+        return reader.getType() == IonType.STRUCT && !reader.isNullValue();
+    }
+
+    private static String fieldName(IonReader reader) {
+        String fieldName = reader.getFieldName();
+        return fieldName != null ? fieldName : "";
+    }
+
+    private static String stringValue(IonReader reader) {
+        if (reader.isNullValue()) {
+            return null;
+        }
+        IonType type = reader.getType();
+        return type == IonType.STRING || type == IonType.SYMBOL ? reader.stringValue() : null;
+    }
+}
@@ -4,53 +4,62 @@ import com.amazonaws.services.kinesis.clientlibrary.types.UserRecord;
 import com.amazonaws.services.kinesis.model.Record;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
-import com.fasterxml.jackson.dataformat.ion.ionvalue.IonValueMapper;
-import com.google.common.base.Charsets;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import io.slgl.streamprocessor.message.Block;
 import io.slgl.streamprocessor.message.Document;
-import io.slgl.streamprocessor.message.Message;
+import io.slgl.streamprocessor.message.MessageFormat;
+import io.slgl.streamprocessor.message.MessagePacker;
 import io.slgl.streamprocessor.model.*;
 import io.slgl.streamprocessor.utils.LambdaEnv;
-import lombok.Data;
-import software.amazon.awssdk.services.sns.SnsClient;
-import software.amazon.awssdk.services.sns.model.PublishRequest;
 
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
+import static com.google.common.base.Preconditions.checkState;
+
 public class RecordProcessor {
 
-    private static final int MAX_MESSAGE_SIZE = 256 * 1024;
     private static final List<String> TABLES = ImmutableList.of("node", "link");
 
-    private final IonValueMapper ionMapper = ExecutionContext.getIonMapper();
     private final ObjectMapper objectMapper = ExecutionContext.getObjectMapper();
 
-    private final SnsClient amazonSNS = ExecutionContext.getAmazonSNS();
+    private final QldbRecordDecoder recordDecoder = new QldbRecordDecoder(
+            ExecutionContext.getIonSystem(), ExecutionContext.getIonMapper(), ImmutableSet.copyOf(TABLES));
+
+    private final List<MessageChannel> messageChannels = createMessageChannels();
+    private final MessagePublisher messagePublisher = createMessagePublisher();
 
-    private final State state = new State();
+    private String currentSequenceNumber;
 
-    public void processRecord(Record rawRecord) throws IOException {
-        for (UserRecord record : UserRecord.deaggregate(ImmutableList.of(rawRecord))) {
+    public void processRecords(List<Record> rawRecords) throws IOException {
+        for (UserRecord record : UserRecord.deaggregate(rawRecords)) {
+            // user records of aggregated Kinesis record share its sequence number
+            currentSequenceNumber = record.getSequenceNumber();
             processRecord(record);
         }
     }
 
-    public void sendRemainingMessage() throws JsonProcessingException {
-        if (state.getMessage() == null) {
-            return;
+    public void sendRemainingMessage() {
+        for (MessageChannel channel : messageChannels) {
+            sendMessage(channel, channel.packer.drain());
         }
+    }
 
-        sendMessage(state.getMessage());
-        state.setMessage(null);
+    /**
+     * Waits until all sent messages are published.
+     *
+     * @return sequence number of the first record which has to be processed again, empty when all were published
+     */
+    public Optional<String> awaitSentMessages() {
+        return messagePublisher.awaitPublished();
     }
 
     private void processRecord(UserRecord rawRecord) throws IOException {
-        QldbRecord record = ionMapper.readValue(new ByteBufferBackedInputStream(rawRecord.getData()), QldbRecord.class);
+        QldbRecord record = recordDecoder.decode(rawRecord.getData());
 
         if (record.getRecordType() == RecordType.BLOCK_SUMMARY) {
             processBlockSummaryRecord(record);
@@ -91,67 +100,73 @@ public class RecordProcessor {
     }
 
     private void addBlockToMessage(Block block) throws JsonProcessingException {
-        Message message = state.getMessage();
-
-        if (message == null) {
-            state.setMessage(new Message().addBlock(block));
-            return;
-        }
-
-        Message newMessage = message.addBlock(block);
-
-        if (isMessageTooBig(newMessage)) {
-            sendMessage(message);
-            state.setMessage(new Message().addBlock(block));
-            return;
+        for (MessageChannel channel : messageChannels) {
+            boolean startsMessage = channel.packer.isEmpty();
+            byte[] completedMessage = channel.packer.addBlock(block);
+            onItemAdded(channel, startsMessage, completedMessage);
         }
-
-        state.setMessage(newMessage);
     }
 
     private void addEntryToMessage(Document document) throws JsonProcessingException {
-        Message message = state.getMessage();
-
-        if (message == null) {
-            state.setMessage(new Message().addDocument(document));
-            return;
+        for (MessageChannel channel : messageChannels) {
+            boolean startsMessage = channel.packer.isEmpty();
+            byte[] completedMessage = channel.packer.addDocument(document);
+            onItemAdded(channel, startsMessage, completedMessage);
         }
+    }
 
-        Message newMessage = message.addDocument(document);
+    private void onItemAdded(MessageChannel channel, boolean startsMessage, byte[] completedMessage) {
+        if (completedMessage != null) {
+            sendMessage(channel, completedMessage);
+        }
+        if (startsMessage || completedMessage != null) {
+            channel.firstSequenceNumber = currentSequenceNumber;
+        }
+    }
 
-        if (isMessageTooBig(newMessage)) {
-            sendMessage(message);
-            state.setMessage(new Message().addDocument(document));
+    private void sendMessage(MessageChannel channel, byte[] message) {
+        if (message == null) {
             return;
         }
 
-        state.setMessage(newMessage);
+        messagePublisher.publish(channel.format.encode(message), channel.firstSequenceNumber);
     }
 
-    public void sendMessage(Message message) throws JsonProcessingException {
-        String messageJson = objectMapper.writeValueAsString(message);
-
-        var request = PublishRequest.builder()
-                .topicArn(LambdaEnv.getEntriesSnsTopic())
-                .message(messageJson)
-                .build();
-
-        amazonSNS.publish(request);
+    private List<MessageChannel> createMessageChannels() {
+        return LambdaEnv.getMessageFormats().stream()
+                .map(MessageFormat::fromName)
+                .map(format -> new MessageChannel(format, new MessagePacker(objectMapper,
+                        format.isCompressed() ? LambdaEnv.getCompressedMessagePackingSize() : MessagePublisher.MAX_BODY_SIZE)))
+                .collect(Collectors.toList());
     }
 
-    public boolean isMessageTooBig(Message message) throws JsonProcessingException {
-        String messageJson = objectMapper.writeValueAsString(message);
-        byte[] messageBytes = messageJson.getBytes(Charsets.UTF_8);
+    private MessagePublisher createMessagePublisher() {
+        String spillBucket = LambdaEnv.getMessageSpillBucket();
+        if (spillBucket == null) {
+            checkState(messageChannels.stream().noneMatch(channel -> channel.format.isCompressed()),
+                    "Compressed messages may exceed SNS limit, spill bucket is required for them");
+            return new MessagePublisher(ExecutionContext.getAmazonSNS(), LambdaEnv.getEntriesSnsTopic(), LambdaEnv.getMaxInFlightPublishes());
+        }
 
-        return messageBytes.length >= MAX_MESSAGE_SIZE;
+        return new MessagePublisher(ExecutionContext.getAmazonSNS(), LambdaEnv.getEntriesSnsTopic(),
+                ExecutionContext.getAmazonS3(), spillBucket, LambdaEnv.getMaxInFlightPublishes());
     }
 
     private static <T> List<T> nullToEmptyList(List<T> list) {
         return list != null ? list : Collections.emptyList();
     }
 
-    @Data
-    private class State {
-        private Message message;
+    /**
+     * Messages of one format, each format is packed separately as compressed messages are packed to bigger size.
+     */
+    private static class MessageChannel {
+        private final MessageFormat format;
+        private final MessagePacker packer;
+        private String firstSequenceNumber;
+
+        private MessageChannel(MessageFormat format, MessagePacker packer) {
+            this.format = format;
+            this.packer = packer;
+        }
     }
 }
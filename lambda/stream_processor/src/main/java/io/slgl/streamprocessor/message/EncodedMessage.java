@@ -0,0 +1,11 @@
+package io.slgl.streamprocessor.message;
+
+import lombok.Value;
+
+@Value
+public class EncodedMessage {
+
+    String body;
+    int sizeInBytes;
+    String contentType;
+}
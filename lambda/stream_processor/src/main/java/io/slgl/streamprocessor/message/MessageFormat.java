@@ -0,0 +1,73 @@
+package io.slgl.streamprocessor.message;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding of published messages, announced to subscribers in {@code content-type} message attribute, so that they
+ * can choose messages of the format they understand with subscription filter policy.
+ */
+public enum MessageFormat {
+
+    /**
+     * Message JSON as it is.
+     */
+    JSON("json", "application/json", false),
+
+    /**
+     * Base64 of gzipped message JSON. Messages in this format are packed to bigger size before they are compressed.
+     */
+    GZIP_JSON("json+gzip", "application/json+gzip", true);
+
+    public static final String FORMAT_VERSION = "1";
+
+    private final String name;
+    private final String contentType;
+    private final boolean compressed;
+
+    MessageFormat(String name, String contentType, boolean compressed) {
+        this.name = name;
+        this.contentType = contentType;
+        this.compressed = compressed;
+    }
+
+    public static MessageFormat fromName(String name) {
+        for (MessageFormat format : values()) {
+            if (format.name.equals(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown message format: " + name);
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    public EncodedMessage encode(byte[] messageJson) {
+        if (!compressed) {
+            return new EncodedMessage(new String(messageJson, StandardCharsets.UTF_8), messageJson.length, contentType);
+        }
+
+        String body = Base64.getEncoder().encodeToString(gzip(messageJson));
+        return new EncodedMessage(body, body.length(), contentType);
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,150 @@
+package io.slgl.streamprocessor.message;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.util.DefaultIndenter;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Packs blocks and documents into messages not bigger than given size. Each block and document is serialized once,
+ * when added, and the size of the message is updated with the length of these bytes, so packing is linear in the
+ * number of added items. Packed messages are the same JSON as {@link Message} serialized by the pretty printing
+ * {@link ObjectMapper} of the stream processor.
+ */
+public class MessagePacker {
+
+    private static final String EOL = DefaultIndenter.SYSTEM_LINEFEED_INSTANCE.getEol();
+    private static final byte[] MESSAGE_START = bytes("{" + EOL + "  \"blocks\" : ");
+    private static final byte[] DOCUMENTS_START = bytes("," + EOL + "  \"documents\" : ");
+    private static final byte[] MESSAGE_END = bytes(EOL + "}");
+    private static final byte[] EMPTY_ARRAY = bytes("[ ]");
+    private static final byte[] ARRAY_START = bytes("[ ");
+    private static final byte[] ARRAY_SEPARATOR = bytes(", ");
+    private static final byte[] ARRAY_END = bytes(" ]");
+
+    private static final int EMPTY_MESSAGE_SIZE = MESSAGE_START.length + DOCUMENTS_START.length + MESSAGE_END.length + 2 * EMPTY_ARRAY.length;
+
+    private final ObjectWriter elementWriter;
+    private final int maxMessageSize;
+
+    private final List<byte[]> blocks = new ArrayList<>();
+    private final List<byte[]> documents = new ArrayList<>();
+    private int size = EMPTY_MESSAGE_SIZE;
+
+    public MessagePacker(ObjectMapper objectMapper, int maxMessageSize) {
+        this.elementWriter = objectMapper.writer(new ArrayElementPrettyPrinter());
+        this.maxMessageSize = maxMessageSize;
+    }
+
+    /**
+     * Adds block to the current message. When the message would be too big with the block, the block starts a new
+     * message and the previous one is returned to be sent.
+     */
+    public byte[] addBlock(Block block) throws JsonProcessingException {
+        return add(blocks, elementWriter.writeValueAsBytes(block));
+    }
+
+    /**
+     * Adds document to the current message, see {@link #addBlock(Block)}.
+     */
+    public byte[] addDocument(Document document) throws JsonProcessingException {
+        return add(documents, elementWriter.writeValueAsBytes(document));
+    }
+
+    public boolean isEmpty() {
+        return blocks.isEmpty() && documents.isEmpty();
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the current message, or null when nothing was added since previous one, and starts a new message.
+     */
+    public byte[] drain() {
+        if (isEmpty()) {
+            return null;
+        }
+
+        byte[] message = new byte[size];
+        int position = write(MESSAGE_START, message, 0);
+        position = writeArray(blocks, message, position);
+        position = write(DOCUMENTS_START, message, position);
+        position = writeArray(documents, message, position);
+        write(MESSAGE_END, message, position);
+
+        blocks.clear();
+        documents.clear();
+        size = EMPTY_MESSAGE_SIZE;
+
+        return message;
+    }
+
+    private byte[] add(List<byte[]> elements, byte[] element) {
+        byte[] completedMessage = null;
+        if (!isEmpty() && size + sizeIncrease(elements, element) >= maxMessageSize) {
+            completedMessage = drain();
+        }
+
+        size += sizeIncrease(elements, element);
+        elements.add(element);
+
+        return completedMessage;
+    }
+
+    private static int sizeIncrease(List<byte[]> elements, byte[] element) {
+        if (elements.isEmpty()) {
+            return ARRAY_START.length + element.length + ARRAY_END.length - EMPTY_ARRAY.length;
+        }
+        return ARRAY_SEPARATOR.length + element.length;
+    }
+
+    private static int writeArray(List<byte[]> elements, byte[] target, int position) {
+        if (elements.isEmpty()) {
+            return write(EMPTY_ARRAY, target, position);
+        }
+
+        position = write(ARRAY_START, target, position);
+        for (int i = 0; i < elements.size(); i++) {
+            if (i > 0) {
+                position = write(ARRAY_SEPARATOR, target, position);
+            }
+            position = write(elements.get(i), target, position);
+        }
+        return write(ARRAY_END, target, position);
+    }
+
+    private static int write(byte[] source, byte[] target, int position) {
+        System.arraycopy(source, 0, target, position, source.length);
+        return position + source.length;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Indents serialized element as if it was written directly into an array of the message object.
+     */
+    private static class ArrayElementPrettyPrinter extends DefaultPrettyPrinter {
+
+        private ArrayElementPrettyPrinter() {
+            _nesting = 1;
+        }
+
+        private ArrayElementPrettyPrinter(ArrayElementPrettyPrinter base) {
+            super(base);
+        }
+
+        @Override
+        public DefaultPrettyPrinter createInstance() {
+            return new ArrayElementPrettyPrinter(this);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package io.slgl.streamprocessor.message;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published instead of message too big for SNS, which was stored in S3 object. Content of the object is the body of
+ * the message, in format given by {@code content_type}.
+ */
+@Getter
+@AllArgsConstructor
+public class SpilledMessagePointer {
+
+    public static final String CONTENT_TYPE = "application/vnd.slgl.s3-pointer+json";
+
+    @JsonProperty("bucket")
+    private final String bucket;
+
+    @JsonProperty("key")
+    private final String key;
+
+    @JsonProperty("content_type")
+    private final String contentType;
+}
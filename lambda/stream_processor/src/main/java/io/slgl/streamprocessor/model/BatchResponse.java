@@ -0,0 +1,28 @@
+package io.slgl.streamprocessor.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Response reporting partial failure of Kinesis batch. Lambda processes the batch again starting from the reported
+ * record, as long as the event source mapping has {@code ReportBatchItemFailures} response type enabled.
+ */
+@Getter
+@AllArgsConstructor
+public class BatchResponse {
+
+    private final List<BatchItemFailure> batchItemFailures;
+
+    public static BatchResponse failedFrom(String sequenceNumber) {
+        return new BatchResponse(List.of(new BatchItemFailure(sequenceNumber)));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class BatchItemFailure {
+
+        private final String itemIdentifier;
+    }
+}
@@ -1,6 +1,9 @@
 package io.slgl.streamprocessor.utils;
 
+import com.google.common.base.Splitter;
+
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class LambdaEnv {
@@ -14,6 +17,25 @@ public class LambdaEnv {
         return get("SLGL_SNS_TOPIC");
     }
 
+    public static int getMaxInFlightPublishes() {
+        String value = get("SLGL_SNS_MAX_IN_FLIGHT_PUBLISHES");
+        return value != null ? Integer.parseInt(value) : 4;
+    }
+
+    public static List<String> getMessageFormats() {
+        String value = get("SLGL_SNS_MESSAGE_FORMATS");
+        return value != null ? Splitter.on(',').trimResults().omitEmptyStrings().splitToList(value) : List.of("json");
+    }
+
+    public static int getCompressedMessagePackingSize() {
+        String value = get("SLGL_SNS_COMPRESSED_MESSAGE_PACKING_SIZE");
+        return value != null ? Integer.parseInt(value) : 1024 * 1024;
+    }
+
+    public static String getMessageSpillBucket() {
+        return get("SLGL_SNS_SPILL_BUCKET");
+    }
+
     private static String get(String key) {
         if (!values.containsKey(key)) {
             values.put(key, System.getenv(key));
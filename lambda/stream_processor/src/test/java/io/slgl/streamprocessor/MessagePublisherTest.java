@@ -0,0 +1,176 @@
+package io.slgl.streamprocessor;
+
+import io.slgl.streamprocessor.message.EncodedMessage;
+import io.slgl.streamprocessor.message.MessageFormat;
+import io.slgl.streamprocessor.message.SpilledMessagePointer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessagePublisherTest {
+
+    private static final String TOPIC_ARN = "arn:aws:sns:us-east-1:123456789012:topic";
+
+    private SnsStandIn snsStandIn;
+    private SnsAsyncClient snsClient;
+
+    @AfterEach
+    void cleanup() {
+        snsClient.close();
+        snsStandIn.close();
+    }
+
+    @Test
+    void shouldPublishAllMessagesKeepingInFlightPublishesBounded() throws IOException {
+        // given
+        startSnsStandIn(new SnsStandIn(50));
+        MessagePublisher publisher = new MessagePublisher(snsClient, TOPIC_ARN, 4);
+        List<String> messages = IntStream.range(0, 20)
+                .mapToObj(i -> "message-" + i)
+                .collect(Collectors.toList());
+
+        // when
+        for (int i = 0; i < messages.size(); i++) {
+            publisher.publish(json(messages.get(i)), String.valueOf(i));
+        }
+        var result = publisher.awaitPublished();
+
+        // then
+        assertThat(result).isEmpty();
+        assertThat(snsStandIn.getPublishedMessages()).containsExactlyInAnyOrderElementsOf(messages);
+        assertThat(snsStandIn.getMaxInFlightPublishes().get()).isBetween(2, 4);
+    }
+
+    @Test
+    void shouldPublishInOrderWithSinglePublishInFlight() throws IOException {
+        // given
+        startSnsStandIn(new SnsStandIn(0));
+        MessagePublisher publisher = new MessagePublisher(snsClient, TOPIC_ARN, 1);
+        List<String> messages = List.of("first", "second", "third");
+
+        // when
+        for (int i = 0; i < messages.size(); i++) {
+            publisher.publish(json(messages.get(i)), String.valueOf(i));
+        }
+        var result = publisher.awaitPublished();
+
+        // then
+        assertThat(result).isEmpty();
+        assertThat(snsStandIn.getPublishedMessages()).containsExactlyElementsOf(messages);
+    }
+
+    @Test
+    void shouldReturnFirstRecordOfEarliestFailedMessage() throws IOException {
+        // given
+        startSnsStandIn(new SnsStandIn(0, message -> message.startsWith("rejected")));
+        MessagePublisher publisher = new MessagePublisher(snsClient, TOPIC_ARN, 1);
+
+        // when
+        publisher.publish(json("published"), "100");
+        publisher.publish(json("rejected-1"), "200");
+        publisher.publish(json("not-published"), "300");
+        publisher.publish(json("rejected-2"), "400");
+        var result = publisher.awaitPublished();
+
+        // then
+        assertThat(result).contains("200");
+        assertThat(snsStandIn.getPublishedMessages()).containsExactly("published");
+    }
+
+    @Test
+    void shouldStartOverAfterAwaitingFailedPublishes() throws IOException {
+        // given
+        startSnsStandIn(new SnsStandIn(0, message -> message.startsWith("rejected")));
+        MessagePublisher publisher = new MessagePublisher(snsClient, TOPIC_ARN, 1);
+        publisher.publish(json("rejected"), "100");
+        publisher.awaitPublished();
+
+        // when
+        publisher.publish(json("published"), "200");
+        var result = publisher.awaitPublished();
+
+        // then
+        assertThat(result).isEmpty();
+        assertThat(snsStandIn.getPublishedMessages()).containsExactly("published");
+    }
+
+    @Test
+    void shouldPublishContentTypeOfMessage() throws IOException {
+        // given
+        startSnsStandIn(new SnsStandIn(0));
+        MessagePublisher publisher = new MessagePublisher(snsClient, TOPIC_ARN, 1);
+        EncodedMessage compressed = MessageFormat.GZIP_JSON.encode("{}".getBytes(StandardCharsets.UTF_8));
+
+        // when
+        publisher.publish(json("{\"blocks\" : [ ]}"), "100");
+        publisher.publish(compressed, "200");
+        publisher.awaitPublished();
+
+        // then
+        assertThat(snsStandIn.getContentTypes())
+                .containsEntry("{\"blocks\" : [ ]}", "application/json")
+                .containsEntry(compressed.getBody(), "application/json+gzip");
+    }
+
+    @Test
+    void shouldSpillMessageTooBigForSnsToS3() throws IOException {
+        // given
+        startSnsStandIn(new SnsStandIn(0));
+        try (S3AsyncClient s3Client = snsStandIn.createS3Client()) {
+            MessagePublisher publisher = new MessagePublisher(snsClient, TOPIC_ARN, s3Client, "spill-bucket", 1);
+            String message = "x".repeat(MessagePublisher.MAX_BODY_SIZE + 1);
+
+            // when
+            publisher.publish(json(message), "100");
+            var result = publisher.awaitPublished();
+
+            // then
+            assertThat(result).isEmpty();
+            assertThat(snsStandIn.getObjects()).hasSize(1);
+            String objectPath = snsStandIn.getObjects().keySet().iterator().next();
+            assertThat(objectPath).startsWith("/spill-bucket/messages/");
+            assertThat(snsStandIn.getObjects().get(objectPath)).isEqualTo(message);
+
+            assertThat(snsStandIn.getPublishedMessages()).hasSize(1);
+            String pointer = snsStandIn.getPublishedMessages().get(0);
+            assertThat(snsStandIn.getContentTypes().get(pointer)).isEqualTo(SpilledMessagePointer.CONTENT_TYPE);
+            assertThat(pointer)
+                    .contains("\"bucket\":\"spill-bucket\"")
+                    .contains("\"key\":\"" + objectPath.substring("/spill-bucket/".length()) + "\"")
+                    .contains("\"content_type\":\"application/json\"");
+        }
+    }
+
+    @Test
+    void shouldFailMessageTooBigForSnsWithoutSpillBucket() throws IOException {
+        // given
+        startSnsStandIn(new SnsStandIn(0));
+        MessagePublisher publisher = new MessagePublisher(snsClient, TOPIC_ARN, 1);
+
+        // when
+        publisher.publish(json("x".repeat(MessagePublisher.MAX_BODY_SIZE + 1)), "100");
+        var result = publisher.awaitPublished();
+
+        // then
+        assertThat(result).contains("100");
+        assertThat(snsStandIn.getPublishedMessages()).isEmpty();
+    }
+
+    private void startSnsStandIn(SnsStandIn snsStandIn) {
+        this.snsStandIn = snsStandIn;
+        this.snsClient = snsStandIn.createClient();
+    }
+
+    private static EncodedMessage json(String message) {
+        return MessageFormat.JSON.encode(message.getBytes(StandardCharsets.UTF_8));
+    }
+}
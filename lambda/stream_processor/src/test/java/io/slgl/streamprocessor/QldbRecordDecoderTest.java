@@ -0,0 +1,117 @@
+package io.slgl.streamprocessor;
+
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonValue;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.system.IonSystemBuilder;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.dataformat.ion.ionvalue.IonValueMapper;
+import io.slgl.streamprocessor.model.QldbRecord;
+import io.slgl.streamprocessor.model.RecordType;
+import io.slgl.streamprocessor.model.RevisionSummary;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QldbRecordDecoderTest {
+
+    private final IonSystem ionSystem = IonSystemBuilder.standard().build();
+    private final IonValueMapper ionMapper = new IonValueMapper(ionSystem);
+
+    private final QldbRecordDecoder decoder = new QldbRecordDecoder(ionSystem, ionMapper, Set.of("node", "link"));
+
+    {
+        ionMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        ionMapper.enable(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_AS_NULL);
+    }
+
+    @Test
+    void shouldDecodeRevisionDetailsSameAsIonMapper() throws IOException {
+        // given
+        String record = revisionDetails("node", "{id: \"node-1\", state: {name: \"test\", tags: [a, b]}, count: 3}");
+
+        // when
+        QldbRecord result = decoder.decode(binaryIon(record));
+
+        // then
+        QldbRecord expected = ionMapper.readValue(binaryIon(record).array(), QldbRecord.class);
+        assertThat(result).isEqualTo(expected);
+        assertThat(result.getPayload().getRevision().getData()).isNotNull();
+    }
+
+    @Test
+    void shouldSkipRevisionDataOfOtherTables() throws IOException {
+        // given
+        String record = revisionDetails("link_index", "{value: \"source#target#anchor\"}");
+
+        // when
+        QldbRecord result = decoder.decode(binaryIon(record));
+
+        // then
+        assertThat(result.getRecordType()).isEqualTo(RecordType.REVISION_DETAILS);
+        assertThat(result.getPayload().getTableInfo().getTableName()).isEqualTo("link_index");
+        assertThat(result.getPayload().getRevision().getMetadata().getId()).isEqualTo("document-1");
+        assertThat(result.getPayload().getRevision().getBlockAddress().getSequenceNo()).isEqualTo(42);
+        assertThat(result.getPayload().getRevision().getData()).isNull();
+    }
+
+    @Test
+    void shouldSkipDataReadBeforeTableInfo() throws IOException {
+        // given
+        String record = "{recordType: \"REVISION_DETAILS\", payload: {" +
+                "revision: {data: {value: 1}, metadata: {id: \"document-1\"}}, tableInfo: {tableName: \"user\"}}}";
+
+        // when
+        QldbRecord result = decoder.decode(binaryIon(record));
+
+        // then
+        assertThat(result.getPayload().getRevision().getData()).isNull();
+    }
+
+    @Test
+    void shouldDecodeBlockSummary() throws IOException {
+        // given
+        String record = "{qldbStreamArn: \"arn\", recordType: \"BLOCK_SUMMARY\", payload: {" +
+                "blockAddress: {strandId: \"strand\", sequenceNo: 42}, transactionId: \"tx\", " +
+                "revisionSummaries: [{hash: {{ aGFzaA== }}, documentId: \"document-1\"}, {documentId: \"document-2\"}]}}";
+
+        // when
+        QldbRecord result = decoder.decode(binaryIon(record));
+
+        // then
+        assertThat(result).isEqualTo(ionMapper.readValue(binaryIon(record).array(), QldbRecord.class));
+        assertThat(result.getPayload().getRevisionSummaries()).extracting(RevisionSummary::getDocumentId)
+                .containsExactly("document-1", "document-2");
+    }
+
+    @Test
+    void shouldDecodeUnknownRecordTypeAsNull() throws IOException {
+        // when
+        QldbRecord result = decoder.decode(binaryIon("{recordType: \"NEW_TYPE\", payload: {}}"));
+
+        // then
+        assertThat(result.getRecordType()).isNull();
+    }
+
+    private static String revisionDetails(String tableName, String data) {
+        return "{qldbStreamArn: \"arn\", recordType: \"REVISION_DETAILS\", payload: {" +
+                "tableInfo: {tableName: \"" + tableName + "\", tableId: \"table-id\"}, " +
+                "revision: {blockAddress: {strandId: \"strand\", sequenceNo: 42}, hash: {{ aGFzaA== }}, " +
+                "data: " + data + ", " +
+                "metadata: {id: \"document-1\", version: 0, txTime: 2020-10-01T12:00:00Z, txId: \"tx\"}}}}";
+    }
+
+    private ByteBuffer binaryIon(String text) throws IOException {
+        IonValue value = ionSystem.singleValue(text);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (IonWriter writer = ionSystem.newBinaryWriter(out)) {
+            value.writeTo(writer);
+        }
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+}
@@ -0,0 +1,171 @@
+package io.slgl.streamprocessor;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.Getter;
+import org.apache.commons.io.IOUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Local HTTP server answering SNS publish requests after configured delay. Messages matching given predicate are
+ * rejected, all other are recorded. It also accepts S3 put object requests, for messages spilled to S3.
+ */
+class SnsStandIn implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final long delayMillis;
+    private final Predicate<String> rejectedMessages;
+
+    private final AtomicInteger inFlightPublishes = new AtomicInteger();
+
+    @Getter
+    private final List<String> publishedMessages = new CopyOnWriteArrayList<>();
+
+    /**
+     * Value of {@code content-type} attribute of each published message, by message.
+     */
+    @Getter
+    private final Map<String, String> contentTypes = new ConcurrentHashMap<>();
+
+    @Getter
+    private final AtomicInteger maxInFlightPublishes = new AtomicInteger();
+
+    /**
+     * Content of each stored S3 object, by request path.
+     */
+    @Getter
+    private final Map<String, String> objects = new ConcurrentHashMap<>();
+
+    SnsStandIn(long delayMillis) throws IOException {
+        this(delayMillis, message -> false);
+    }
+
+    SnsStandIn(long delayMillis, Predicate<String> rejectedMessages) throws IOException {
+        this.delayMillis = delayMillis;
+        this.rejectedMessages = rejectedMessages;
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    SnsAsyncClient createClient() {
+        return SnsAsyncClient.builder()
+                .endpointOverride(URI.create("http://localhost:" + server.getAddress().getPort()))
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("access-key", "secret-key")))
+                .build();
+    }
+
+    S3AsyncClient createS3Client() {
+        return S3AsyncClient.builder()
+                .endpointOverride(URI.create("http://localhost:" + server.getAddress().getPort()))
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("access-key", "secret-key")))
+                .serviceConfiguration(S3Configuration.builder()
+                        .pathStyleAccessEnabled(true)
+                        .chunkedEncodingEnabled(false)
+                        .checksumValidationEnabled(false)
+                        .build())
+                .build();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        if (exchange.getRequestMethod().equals("PUT")) {
+            objects.put(exchange.getRequestURI().getPath(), IOUtils.toString(exchange.getRequestBody(), StandardCharsets.UTF_8));
+            exchange.getResponseHeaders().add("ETag", "\"etag\"");
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+            return;
+        }
+
+        int inFlight = inFlightPublishes.incrementAndGet();
+        maxInFlightPublishes.accumulateAndGet(inFlight, Math::max);
+        try {
+            Map<String, String> params = parseForm(IOUtils.toString(exchange.getRequestBody(), StandardCharsets.UTF_8));
+            String message = params.get("Message");
+
+            sleep(delayMillis);
+
+            if (rejectedMessages.test(message)) {
+                respond(exchange, 400, "<ErrorResponse xmlns=\"http://sns.amazonaws.com/doc/2010-03-31/\">" +
+                        "<Error><Type>Sender</Type><Code>InvalidParameter</Code><Message>Rejected</Message></Error>" +
+                        "<RequestId>request</RequestId></ErrorResponse>");
+            } else {
+                publishedMessages.add(message);
+                contentTypes.put(message, getAttribute(params, "content-type"));
+                respond(exchange, 200, "<PublishResponse xmlns=\"http://sns.amazonaws.com/doc/2010-03-31/\">" +
+                        "<PublishResult><MessageId>message-" + publishedMessages.size() + "</MessageId></PublishResult>" +
+                        "<ResponseMetadata><RequestId>request</RequestId></ResponseMetadata></PublishResponse>");
+            }
+        } finally {
+            inFlightPublishes.decrementAndGet();
+        }
+    }
+
+    private static Map<String, String> parseForm(String form) {
+        Map<String, String> params = new HashMap<>();
+        for (String param : form.split("&")) {
+            String[] nameAndValue = param.split("=", 2);
+            params.put(URLDecoder.decode(nameAndValue[0], StandardCharsets.UTF_8),
+                    nameAndValue.length > 1 ? URLDecoder.decode(nameAndValue[1], StandardCharsets.UTF_8) : "");
+        }
+        return params;
+    }
+
+    private static String getAttribute(Map<String, String> params, String name) {
+        for (int i = 1; params.containsKey("MessageAttributes.entry." + i + ".Name"); i++) {
+            if (params.get("MessageAttributes.entry." + i + ".Name").equals(name)) {
+                return params.get("MessageAttributes.entry." + i + ".Value.StringValue");
+            }
+        }
+        return "";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String xml) throws IOException {
+        byte[] body = xml.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/xml");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+        exchange.close();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,209 @@
+package io.slgl.streamprocessor.message;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessagePackerTest {
+
+    private static final int MAX_MESSAGE_SIZE = 256 * 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    @Test
+    void shouldPackSameJsonAsSerializedMessage() throws JsonProcessingException {
+        // given
+        var packer = new MessagePacker(objectMapper, MAX_MESSAGE_SIZE);
+        var blocks = List.of(
+                block(1, "document-1", "document-2"),
+                block(2),
+                new Block().setStrandId("strand").setSequenceNo(3));
+        var documents = List.of(
+                document(1, nestedData()),
+                document(2, Map.of()),
+                document(3, List.of()),
+                document(4, null),
+                document(5, "zażółć \"gęślą\" jaźń\n\t\u0001"));
+
+        // when
+        blocks.forEach(block -> assertThat(add(packer, block)).isNull());
+        documents.forEach(document -> assertThat(add(packer, document)).isNull());
+
+        // then
+        assertThat(packer.drain()).isEqualTo(objectMapper.writeValueAsBytes(new Message(blocks, documents)));
+    }
+
+    @Test
+    void shouldPackSameJsonAsSerializedMessageWithOnlyBlocks() throws JsonProcessingException {
+        // given
+        var packer = new MessagePacker(objectMapper, MAX_MESSAGE_SIZE);
+        var block = block(1, "document-1");
+
+        // when
+        packer.addBlock(block);
+
+        // then
+        assertThat(packer.drain()).isEqualTo(objectMapper.writeValueAsBytes(new Message().addBlock(block)));
+    }
+
+    @Test
+    void shouldPackSameJsonAsSerializedMessageWithOnlyDocuments() throws JsonProcessingException {
+        // given
+        var packer = new MessagePacker(objectMapper, MAX_MESSAGE_SIZE);
+        var document = document(1, nestedData());
+
+        // when
+        packer.addDocument(document);
+
+        // then
+        assertThat(packer.drain()).isEqualTo(objectMapper.writeValueAsBytes(new Message().addDocument(document)));
+    }
+
+    @Test
+    void shouldReturnNothingWhenDrainedEmpty() {
+        // given
+        var packer = new MessagePacker(objectMapper, MAX_MESSAGE_SIZE);
+
+        // expect
+        assertThat(packer.drain()).isNull();
+        assertThat(packer.isEmpty()).isTrue();
+    }
+
+    @Test
+    void shouldSplitMessagesAtSamePointsAsSerializingWholeMessage() throws JsonProcessingException {
+        // given
+        int maxMessageSize = 4 * 1024;
+        var items = randomItems(new Random(42), 500);
+        var packer = new MessagePacker(objectMapper, maxMessageSize);
+
+        // when
+        List<byte[]> messages = new ArrayList<>();
+        for (Object item : items) {
+            var message = add(packer, item);
+            if (message != null) {
+                messages.add(message);
+            }
+        }
+        messages.add(packer.drain());
+
+        // then
+        var expected = packBySerializingWholeMessage(items, maxMessageSize);
+        assertThat(messages).hasSizeGreaterThan(10);
+        assertThat(messages.stream().map(MessagePackerTest::string).collect(Collectors.toList()))
+                .containsExactlyElementsOf(expected.stream().map(MessagePackerTest::string).collect(Collectors.toList()));
+    }
+
+    @Test
+    void shouldKeepItemBiggerThanMaxSizeInItsOwnMessage() throws JsonProcessingException {
+        // given
+        int maxMessageSize = 1024;
+        var packer = new MessagePacker(objectMapper, maxMessageSize);
+        var small = document(1, "small");
+        var big = document(2, "x".repeat(2 * maxMessageSize));
+
+        // when
+        var first = packer.addDocument(small);
+        var second = packer.addDocument(big);
+        var third = packer.addDocument(small);
+
+        // then
+        assertThat(first).isNull();
+        assertThat(second).isEqualTo(objectMapper.writeValueAsBytes(new Message().addDocument(small)));
+        assertThat(third).isEqualTo(objectMapper.writeValueAsBytes(new Message().addDocument(big)));
+    }
+
+    /**
+     * Packing used before {@link MessagePacker}: the message is serialized with every added item and sent without it
+     * when the serialized message reaches the maximum size.
+     */
+    private List<byte[]> packBySerializingWholeMessage(List<Object> items, int maxMessageSize) throws JsonProcessingException {
+        List<byte[]> messages = new ArrayList<>();
+        Message message = null;
+        for (Object item : items) {
+            Message withItem = add(message != null ? message : new Message(), item);
+            if (message != null && objectMapper.writeValueAsBytes(withItem).length >= maxMessageSize) {
+                messages.add(objectMapper.writeValueAsBytes(message));
+                withItem = add(new Message(), item);
+            }
+            message = withItem;
+        }
+        messages.add(objectMapper.writeValueAsBytes(message));
+        return messages;
+    }
+
+    private static byte[] add(MessagePacker packer, Object item) {
+        try {
+            return item instanceof Block ? packer.addBlock((Block) item) : packer.addDocument((Document) item);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Message add(Message message, Object item) {
+        return item instanceof Block ? message.addBlock((Block) item) : message.addDocument((Document) item);
+    }
+
+    private static List<Object> randomItems(Random random, int count) {
+        List<Object> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (random.nextInt(5) == 0) {
+                items.add(block(i, "document-" + i, "document-" + (i + 1)));
+            } else {
+                Map<String, Object> data = new LinkedHashMap<>();
+                data.put("id", "https://slgl.io/nodes/" + i);
+                data.put("text", "t".repeat(random.nextInt(600)));
+                data.put("nested", i % 2 == 0 ? Map.of("values", List.of(i, i + 1)) : Map.of());
+                items.add(document(i, data));
+            }
+        }
+        return items;
+    }
+
+    private static Map<String, Object> nestedData() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("name", "Node");
+        state.put("empty_object", Map.of());
+        state.put("empty_array", List.of());
+        state.put("nested_arrays", List.of(List.of(1, 2), List.of(), List.of(Map.of("a", true))));
+        state.put("null_value", null);
+        state.put("number", 12.5);
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("id", "https://slgl.io/nodes/1");
+        data.put("state", state);
+        return data;
+    }
+
+    private static Block block(long sequenceNo, String... documentIds) {
+        return new Block()
+                .setStrandId("strand")
+                .setSequenceNo(sequenceNo)
+                .setDocumentIds(Arrays.asList(documentIds));
+    }
+
+    private static Document document(long sequenceNo, Object data) {
+        return new Document()
+                .setStrandId("strand")
+                .setSequenceNo(sequenceNo)
+                .setTable("node")
+                .setDocumentId("document-" + sequenceNo)
+                .setData(data);
+    }
+
+    private static String string(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -4,13 +4,24 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.ScheduledEvent;
 import io.slgl.api.ExecutionContext;
+import io.slgl.api.document.service.RevocationDataCache;
+import io.slgl.api.document.service.RevocationSources;
 import io.slgl.api.document.service.TrustListManagementService;
+import lombok.extern.slf4j.Slf4j;
 import io.slgl.trustlistrefresher.config.TLCacheRefresherHandlerModule;
 
+import java.time.Duration;
+
 import static io.slgl.api.utils.TimerUtils.runWithTimer;
 
+@Slf4j
 public class TLCacheRefresherLambdaHandler implements RequestHandler<ScheduledEvent, String> {
 
+    /**
+     * Twice the schedule rate of this function, so that shared revocation data does not expire between its runs.
+     */
+    private static final Duration REVOCATION_DATA_REFRESH_AHEAD = Duration.ofHours(1);
+
     static {
         ExecutionContext.requireModule(TLCacheRefresherHandlerModule.class);
     }
@@ -21,7 +32,15 @@ public class TLCacheRefresherLambdaHandler implements RequestHandler<ScheduledEv
         runWithTimer("reload cache from s3", () -> trustListManagementService.reloadCacheFromS3(false));
         runWithTimer("online refresh", trustListManagementService::refresh);
         runWithTimer("export to s3", trustListManagementService::exportCacheToS3IfUpdated);
+        runWithTimer("refresh revocation data", this::refreshRevocationData);
 
         return "200 OK";
     }
+
+    private void refreshRevocationData() {
+        var dataLoader = ExecutionContext.get(RevocationSources.class).getDataLoader();
+        var refreshed = ExecutionContext.get(RevocationDataCache.class)
+                .refreshSharedEntries(REVOCATION_DATA_REFRESH_AHEAD, entry -> dataLoader.download(entry.getUrl()));
+        log.info("Revocation data refresh | refreshed: {}", refreshed);
+    }
 }
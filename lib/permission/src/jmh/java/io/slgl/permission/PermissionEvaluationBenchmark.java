@@ -0,0 +1,100 @@
+package io.slgl.permission;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.slgl.client.node.permission.Permission;
+import io.slgl.client.utils.jackson.ObjectMapperFactory;
+import io.slgl.permission.context.EvaluationContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares evaluation of permissions converted to JsonLogic on every check with evaluation of compiled ones. Rules
+ * are the same as in {@code PermissionProcessorTest}.
+ * <p>
+ * Run with {@code ./gradlew :lib:permission:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PermissionEvaluationBenchmark {
+
+    private static final Map<String, String[]> RULES = new HashMap<>();
+
+    static {
+        RULES.put("contains", new String[]{
+                "{\"require\": {\"$api_client.verified_domains\": {\"op\": \"contains\", \"value\": \"def.com\"}}}",
+                "{\"$api_client\": {\"verified_domains\": [\"def3.com\", \"def.com\", \"def2.com\"]}}"
+        });
+        RULES.put("contains_any_of", new String[]{
+                "{\"require\": {\"$api_client.verified_domains\": {\"op\": \"contains_any_of\", \"value\": [\"def.com\", \"def2.com\"]}}}",
+                "{\"$api_client\": {\"verified_domains\": [\"xyz.com\"]}}"
+        });
+        RULES.put("aggregation", new String[]{
+                "{\"require\": {\"$node.values\": {\"aggregate\": \"sum\", \"op\": \"==\", \"var\": \"$node.expected_sum\"}}}",
+                "{\"$node\": {\"values\": [1, 2, 3, 4], \"expected_sum\": 10}}"
+        });
+        RULES.put("nested", new String[]{
+                "{\"require\": {\"$node.values\": {\"op\": \"at_least_one_meets_requirements\", \"value\": {\"$current.string\": \"expected-value\", \"$current.int\": 42}}}}",
+                "{\"$node\": {\"values\": [{\"string\": \"example-1\", \"int\": 1}, {\"string\": \"expected-value\", \"int\": 42}, {\"string\": \"example-2\", \"int\": 2}]}}"
+        });
+        RULES.put("nested_with_root_reference", new String[]{
+                "{\"require\": {\"$api_client.verified_domains\": {\"op\": \"at_least_one_meets_requirements\", \"value\": {\"$current\": {\"var\": \"$node.domain\"}}}}}",
+                "{\"$api_client\": {\"verified_domains\": [\"foo.com\", \"bar.com\", \"baz.com\"]}, \"$node\": {\"domain\": \"bar.com\"}}"
+        });
+        RULES.put("node_id_reference", new String[]{
+                "{\"require\": {\"@($node.id_reference).@type\": {\"op\": \"==\", \"value\": \"https://test.com/type\"}}}",
+                "{\"@('https://test.com/node')\": {\"@id\": \"https://test.com/node\", \"@type\": \"https://test.com/type\"}, \"$node\": {\"id_reference\": \"https://test.com/node\"}}"
+        });
+        RULES.put("require_logic", new String[]{
+                "{\"require_logic\": {\"and\": [{\"==\": [{\"var\": \"$node.expected_sum\"}, 10]}, {\"in\": [\"bar.com\", {\"var\": \"$api_client.verified_domains\"}]}]}}",
+                "{\"$api_client\": {\"verified_domains\": [\"foo.com\", \"bar.com\"]}, \"$node\": {\"expected_sum\": 10}}"
+        });
+    }
+
+    @Param({"contains", "contains_any_of", "aggregation", "nested", "nested_with_root_reference", "node_id_reference", "require_logic"})
+    public String rule;
+
+    private final ObjectMapper mapper = ObjectMapperFactory.createSlglObjectMapper();
+
+    private PermissionProcessor processor;
+    private CompiledPermissionCache cache;
+
+    private Permission permission;
+    private CompiledPermission compiledPermission;
+    private Map<String, Object> context;
+
+    @Setup
+    public void setup() throws IOException {
+        processor = new PermissionProcessor();
+        cache = new CompiledPermissionCache();
+
+        String[] definition = RULES.get(rule);
+        permission = mapper.readValue(definition[0], Permission.class);
+        compiledPermission = cache.get(permission);
+        context = mapper.readValue(definition[1], new TypeReference<Map<String, Object>>() {
+        });
+    }
+
+    @Benchmark
+    public boolean interpreted() {
+        return processor.process(EvaluationContext.of(context), permission).isSuccess();
+    }
+
+    @Benchmark
+    public boolean compiled() {
+        return processor.process(EvaluationContext.of(context), compiledPermission).isSuccess();
+    }
+
+    @Benchmark
+    public boolean compiledWithCacheLookup() {
+        return processor.process(EvaluationContext.of(context), cache.get(permission)).isSuccess();
+    }
+}
@@ -0,0 +1,60 @@
+package io.slgl.permission;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.jamsesso.jsonlogic.evaluator.JsonLogicEvaluationException;
+import io.slgl.client.utils.jackson.ObjectMapperFactory;
+import io.slgl.permission.PermissionEvaluationLogger.CurrentLogEntries;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares following variable paths parsed once with scanning them on every evaluation.
+ * <p>
+ * Run with {@code ./gradlew :lib:permission:jmh -Pjmh.includes=VariablePathBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VariablePathBenchmark {
+
+    private static final String DATA = "{" +
+            "\"$node\": {\"id_reference\": \"https://test.com/node\", \"owner\": {\"address\": {\"city\": \"Warsaw\"}}, \"values\": [1, 2, 3, 4]}," +
+            "\"@('https://test.com/node')\": {\"@type\": \"https://test.com/type\"}" +
+            "}";
+
+    @Param({"$node.owner.address.city", "$node.values.$first", "$node.values.$length", "$node.values.2", "@($node.id_reference).@type"})
+    public String path;
+
+    private final ObjectMapper mapper = ObjectMapperFactory.createSlglObjectMapper();
+    private final PermissionEvaluationLogger logger = new PermissionEvaluationLogger();
+    private final JsonLogicVariableEvaluator evaluator = new JsonLogicVariableEvaluator(false, logger);
+
+    private Map<String, Object> data;
+
+    @Setup
+    public void setup() throws IOException {
+        data = mapper.readValue(DATA, new TypeReference<Map<String, Object>>() {
+        });
+    }
+
+    @Benchmark
+    public Object parsed() throws JsonLogicEvaluationException {
+        try (CurrentLogEntries ignored = logger.startLogging()) {
+            return evaluator.doEvaluate(path, data);
+        }
+    }
+
+    @Benchmark
+    public Object scanned() throws JsonLogicEvaluationException {
+        try (CurrentLogEntries ignored = logger.startLogging()) {
+            return evaluator.doEvaluateWithoutParsing(path, data);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package io.slgl.permission;
+
+import io.github.jamsesso.jsonlogic.ast.JsonLogicNode;
+import io.slgl.client.node.permission.Permission;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Permission converted to JsonLogic tree, which can be evaluated any number of times without converting it again.
+ * Instances are immutable and may be shared between threads.
+ */
+public final class CompiledPermission {
+
+    private final Permission permission;
+    private final JsonLogicNode logic;
+    private final String compilationError;
+
+    private CompiledPermission(Permission permission, JsonLogicNode logic, String compilationError) {
+        this.permission = requireNonNull(permission);
+        this.logic = logic;
+        this.compilationError = compilationError;
+    }
+
+    static CompiledPermission compiled(Permission permission, JsonLogicNode logic) {
+        return new CompiledPermission(permission, requireNonNull(logic), null);
+    }
+
+    static CompiledPermission failed(Permission permission, String compilationError) {
+        return new CompiledPermission(permission, null, compilationError != null ? compilationError : "");
+    }
+
+    public Permission getPermission() {
+        return permission;
+    }
+
+    JsonLogicNode getLogic() {
+        return logic;
+    }
+
+    /**
+     * Returns error which made conversion of permission impossible, such permission always evaluates to false.
+     */
+    public String getCompilationError() {
+        return compilationError;
+    }
+
+    public boolean isValid() {
+        return compilationError == null;
+    }
+}
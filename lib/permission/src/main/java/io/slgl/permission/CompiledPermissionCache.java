@@ -0,0 +1,83 @@
+package io.slgl.permission;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.slgl.client.node.permission.Permission;
+import io.slgl.client.utils.jackson.ObjectMapperFactory;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Compiled permissions keyed by hash of permission content, so permission used by many types is compiled only once.
+ * Least recently used entries are evicted when cache exceeds its maximum size.
+ */
+public class CompiledPermissionCache {
+
+    private static final int DEFAULT_MAX_SIZE = 1024;
+
+    private final PermissionCompiler compiler = new PermissionCompiler();
+    private final ObjectMapper mapper = ObjectMapperFactory.createSlglObjectMapper();
+
+    private final Map<String, CompiledPermission> cache;
+
+    public CompiledPermissionCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public CompiledPermissionCache(int maxSize) {
+        this.cache = new LinkedHashMap<String, CompiledPermission>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompiledPermission> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public CompiledPermission get(Permission permission) {
+        return get(contentHash(permission), () -> permission);
+    }
+
+    /**
+     * Returns permission compiled before for given content hash, or compiles one provided by the supplier.
+     */
+    public CompiledPermission get(String contentHash, Supplier<Permission> permissionSupplier) {
+        synchronized (cache) {
+            CompiledPermission compiled = cache.get(contentHash);
+            if (compiled != null) {
+                return compiled;
+            }
+        }
+
+        CompiledPermission compiled = compiler.compile(permissionSupplier.get());
+
+        synchronized (cache) {
+            cache.put(contentHash, compiled);
+        }
+        return compiled;
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private String contentHash(Permission permission) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(mapper.writeValueAsBytes(permission));
+
+            StringBuilder result = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                result.append(String.format("%02x", b));
+            }
+            return result.toString();
+
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Unable to compute hash of permission", e);
+        }
+    }
+}
@@ -4,9 +4,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.jamsesso.jsonlogic.evaluator.JsonLogicEvaluationException;
 import io.github.jamsesso.jsonlogic.utils.ArrayLike;
 import io.slgl.client.utils.jackson.ObjectMapperFactory;
+import io.slgl.permission.VariablePath.Argument;
+import io.slgl.permission.VariablePath.Key;
 import io.slgl.permission.context.EvaluationContext;
 import io.slgl.permission.context.EvaluationContextObject;
 import io.slgl.permission.context.FirstAndLastElement;
+import io.slgl.permission.context.KnownLength;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -30,14 +33,21 @@ public class JsonLogicVariableEvaluator {
         if (path.isEmpty()) {
             return data;
         }
-        logger.log("variable_evaluation_started", path);
+        boolean logging = logger.isEnabled();
+        if (logging) {
+            logger.log("variable_evaluation_started", path);
+        }
         try {
             Object evaluated = doEvaluate(path, data);
             Object result = evaluated != null ? evaluated : defaultValue;
-            logger.logDynamic("variable_evaluation_result", resultLogValue(path, result));
+            if (logging) {
+                logger.logDynamic("variable_evaluation_result", resultLogValue(path, result));
+            }
             return result;
         } catch (Throwable e) {
-            logger.log("variable_evaluation_failed", evaluationFailedLogDetails(path, e));
+            if (logging) {
+                logger.log("variable_evaluation_failed", evaluationFailedLogDetails(path, e));
+            }
             throw new EvaluationAbortedException(e);
         }
     }
@@ -57,14 +67,58 @@ public class JsonLogicVariableEvaluator {
     }
 
     public Object doEvaluate(String path, Object data) throws JsonLogicEvaluationException {
+        VariablePath variablePath = VariablePath.parse(path);
+        if (!variablePath.isValid()) {
+            // scanning reports the syntax error exactly as it was encountered
+            return doEvaluateWithoutParsing(path, data);
+        }
+
+        Object[] segments = variablePath.getSegments();
+        Object partialResult = data;
+
+        if (!variablePath.isDynamic()) {
+            for (Object segment : segments) {
+                partialResult = evaluatePartialVariable((Key) segment, partialResult);
+            }
+            return partialResult;
+        }
+
+        // all arguments are evaluated against root data before path is followed
+        Key[] keys = new Key[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            keys[i] = segments[i] instanceof Key
+                    ? (Key) segments[i]
+                    : Key.of(render((Object[]) segments[i], data));
+        }
+        for (Key key : keys) {
+            partialResult = evaluatePartialVariable(key, partialResult);
+        }
+        return partialResult;
+    }
+
+    Object doEvaluateWithoutParsing(String path, Object data) throws JsonLogicEvaluationException {
         List<String> pathVariables = getPathVariables(path, data);
         Object partialResult = data;
         for (String variable : pathVariables) {
-            partialResult = evaluatePartialVariable(variable, partialResult);
+            partialResult = evaluatePartialVariable(Key.of(variable), partialResult);
         }
         return partialResult;
     }
 
+    private String render(Object[] parts, Object data) throws JsonLogicEvaluationException {
+        StringBuilder result = new StringBuilder();
+        for (Object part : parts) {
+            if (part instanceof Argument) {
+                Argument argument = (Argument) part;
+                String argumentPath = argument.getPath() != null ? argument.getPath() : render(argument.getParts(), data);
+                result.append(evaluateArgument(data, argumentPath));
+            } else {
+                result.append((String) part);
+            }
+        }
+        return result.toString();
+    }
+
     private List<String> getPathVariables(String path, Object data) throws JsonLogicEvaluationException {
         List<String> pathVariables = new ArrayList<>();
         PrimitiveIterator.OfInt codePoints = path.chars().iterator();
@@ -142,44 +196,47 @@ public class JsonLogicVariableEvaluator {
         throw new JsonLogicEvaluationException("Function argument expression (" + argument + ") evaluated to unsupported type");
     }
 
-    private Object evaluatePartialVariable(String key, Object data) throws JsonLogicEvaluationException {
+    private Object evaluatePartialVariable(Key key, Object data) throws JsonLogicEvaluationException {
         if (ArrayLike.isEligible(data)) {
             ArrayLike list = new ArrayLike(data);
 
-            if (key.equals("length") || key.equals("$length")) {
-                return list.size();
-            }
-
-            if (key.equals("$first") || key.equals("$oldest")) {
-                if (data instanceof FirstAndLastElement) {
-                    return transform(((FirstAndLastElement) data).getFirstElement());
-                } else {
-                    return !list.isEmpty() ? transform(list.get(0)) : null;
+            switch (key.getKind()) {
+                case LENGTH: {
+                    if (data instanceof KnownLength) {
+                        return ((KnownLength) data).getLength();
+                    }
+                    return list.size();
                 }
-            }
-            if (key.equals("$last") || key.equals("$newest")) {
-                if (data instanceof FirstAndLastElement) {
-                    return transform(((FirstAndLastElement) data).getLastElement());
-                } else {
-                    return !list.isEmpty() ? transform(list.get(list.size() - 1)) : null;
+                case FIRST: {
+                    if (data instanceof FirstAndLastElement) {
+                        return transform(((FirstAndLastElement) data).getFirstElement());
+                    } else {
+                        return !list.isEmpty() ? transform(list.get(0)) : null;
+                    }
+                }
+                case LAST: {
+                    if (data instanceof FirstAndLastElement) {
+                        return transform(((FirstAndLastElement) data).getLastElement());
+                    } else {
+                        return !list.isEmpty() ? transform(list.get(list.size() - 1)) : null;
+                    }
+                }
+                case INDEX: {
+                    int index = key.getIndex();
+                    return index < list.size() ? transform(list.get(index)) : null;
                 }
-            }
-
-            if (key.matches("^[0-9]+$")) {
-                int index = Integer.parseInt(key);
-                return index < list.size() ? transform(list.get(index)) : null;
             }
 
             if (autoMap) {
                 return evaluateMap(key, list);
             } else {
-                throw new JsonLogicEvaluationException("Could not get key: `" + key + "` out of array");
+                throw new JsonLogicEvaluationException("Could not get key: `" + key.getName() + "` out of array");
             }
 
         }
 
         if (data instanceof EvaluationContext) {
-            return transform(((EvaluationContext) data).get(key));
+            return transform(((EvaluationContext) data).get(key.getName()));
         }
 
         if (data instanceof EvaluationContextObject) {
@@ -188,13 +245,13 @@ public class JsonLogicVariableEvaluator {
         }
 
         if (data instanceof Map) {
-            return transform(((Map<?, ?>) data).get(key));
+            return transform(((Map<?, ?>) data).get(key.getName()));
         }
 
         return null;
     }
 
-    private List<Object> evaluateMap(String key, ArrayLike list) throws JsonLogicEvaluationException {
+    private List<Object> evaluateMap(Key key, ArrayLike list) throws JsonLogicEvaluationException {
         List<Object> resultList = new ArrayList<>();
 
         for (Object object : list) {
@@ -0,0 +1,44 @@
+package io.slgl.permission;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.jamsesso.jsonlogic.JsonLogicException;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicBoolean;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicNode;
+import io.github.jamsesso.jsonlogic.ast.JsonLogicParser;
+import io.slgl.client.node.permission.Permission;
+import io.slgl.client.utils.jackson.ObjectMapperFactory;
+import io.slgl.permission.utils.JsonLogicNodes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PermissionCompiler {
+
+    private final RequirementsProcessor requirementsProcessor = new RequirementsProcessor();
+    private final ObjectMapper mapper = ObjectMapperFactory.createSlglObjectMapper();
+
+    public CompiledPermission compile(Permission permission) {
+        try {
+            return CompiledPermission.compiled(permission, convertToJsonLogicNode(permission));
+        } catch (Exception e) {
+            // only failures caused by the permission itself are kept, errors are not cached with it
+            return CompiledPermission.failed(permission, e.getMessage());
+        }
+    }
+
+    private JsonLogicNode convertToJsonLogicNode(Permission permission) throws JsonLogicException, JsonProcessingException {
+        List<JsonLogicNode> result = new ArrayList<>(requirementsProcessor.convertRequirementsToJsonLogic(permission.getRequire()));
+
+        if (permission.getRequireLogic() != null) {
+            String requireLogicJson = mapper.writeValueAsString(permission.getRequireLogic());
+            result.add(JsonLogicParser.parse(requireLogicJson));
+        }
+
+        if (result.isEmpty()) {
+            return new JsonLogicBoolean(true);
+        }
+
+        return JsonLogicNodes.joinWithAnd(result);
+    }
+}
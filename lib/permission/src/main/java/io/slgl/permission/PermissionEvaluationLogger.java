@@ -4,6 +4,7 @@ import io.slgl.client.audit.EvaluationLogEntry;
 import io.slgl.permission.utils.TemporaryContext;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Supplier;
@@ -14,26 +15,49 @@ public class PermissionEvaluationLogger {
     private CurrentLogEntries current;
 
     public CurrentLogEntries startLogging() {
+        return startLogging(true);
+    }
+
+    /**
+     * Starts collecting log entries. When {@code enabled} is false nothing is collected until returned entries are
+     * closed, and callers can skip building log messages by checking {@link #isEnabled()}.
+     */
+    public CurrentLogEntries startLogging(boolean enabled) {
         CurrentLogEntries previous = this.current;
-        this.current = new CurrentLogEntries(previous);
+        this.current = new CurrentLogEntries(previous, enabled);
         return this.current;
     }
 
+    public boolean isEnabled() {
+        return current == null || current.enabled;
+    }
+
     public void logDynamic(String code, Supplier<String> stringSupplier) {
-        current.logDynamic(code, stringSupplier);
+        if (current.enabled) {
+            current.logDynamic(code, stringSupplier);
+        }
     }
 
     public void log(String code, CharSequence message) {
-        current.log(code, message);
+        if (current.enabled) {
+            current.log(code, message);
+        }
     }
 
     public class CurrentLogEntries implements TemporaryContext {
 
         private final CurrentLogEntries previous;
-        private final List<EvaluationLogEntry> entries = new ArrayList<>();
+        private final boolean enabled;
+        private final List<EvaluationLogEntry> entries;
 
         public CurrentLogEntries(CurrentLogEntries previous) {
+            this(previous, true);
+        }
+
+        private CurrentLogEntries(CurrentLogEntries previous, boolean enabled) {
             this.previous = previous;
+            this.enabled = enabled;
+            this.entries = enabled ? new ArrayList<>() : Collections.emptyList();
         }
 
         public List<EvaluationLogEntry> get() {
@@ -1,41 +1,41 @@
 package io.slgl.permission;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.jamsesso.jsonlogic.JsonLogic;
-import io.github.jamsesso.jsonlogic.JsonLogicException;
-import io.github.jamsesso.jsonlogic.ast.JsonLogicBoolean;
-import io.github.jamsesso.jsonlogic.ast.JsonLogicNode;
-import io.github.jamsesso.jsonlogic.ast.JsonLogicParser;
 import io.slgl.client.audit.PermissionEvaluationResult;
 import io.slgl.client.node.permission.Permission;
-import io.slgl.client.utils.jackson.ObjectMapperFactory;
 import io.slgl.permission.PermissionEvaluationLogger.CurrentLogEntries;
 import io.slgl.permission.context.EvaluationContext;
-import io.slgl.permission.utils.JsonLogicNodes;
-
-import java.util.ArrayList;
-import java.util.List;
 
 public class PermissionProcessor {
 
     private final PermissionEvaluationLogger logger;
     private final SlglJsonLogicEvaluator evaluator;
-    private final RequirementsProcessor requirementsProcessor;
-    private final ObjectMapper mapper = ObjectMapperFactory.createSlglObjectMapper();
+    private final PermissionCompiler compiler;
 
     public PermissionProcessor() {
         this.logger = new PermissionEvaluationLogger();
         this.evaluator = new SlglJsonLogicEvaluator(this.logger);
-        this.requirementsProcessor = new RequirementsProcessor();
+        this.compiler = new PermissionCompiler();
     }
 
     public PermissionEvaluationResult process(EvaluationContext context, Permission permission) {
-        try (CurrentLogEntries entries = logger.startLogging()) {
+        return process(context, compiler.compile(permission));
+    }
+
+    public PermissionEvaluationResult process(EvaluationContext context, CompiledPermission permission) {
+        return process(context, permission, true);
+    }
+
+    /**
+     * Evaluates permission, collecting evaluation log only when {@code logEvaluation} is true. Otherwise returned
+     * result has empty evaluation log.
+     */
+    public PermissionEvaluationResult process(EvaluationContext context, CompiledPermission permission, boolean logEvaluation) {
+        try (CurrentLogEntries entries = logger.startLogging(logEvaluation)) {
             boolean evaluationResult = evaluate(context, permission);
 
             return new PermissionEvaluationResult(
-                    permission,
+                    permission.getPermission(),
                     context.getAccessedValues(),
                     entries.get(),
                     evaluationResult
@@ -44,9 +44,17 @@ public class PermissionProcessor {
     }
 
     public boolean evaluate(EvaluationContext context, Permission permission) {
+        return evaluate(context, compiler.compile(permission));
+    }
+
+    public boolean evaluate(EvaluationContext context, CompiledPermission permission) {
+        if (!permission.isValid()) {
+            logger.log("unknown_exception", permission.getCompilationError());
+            return false;
+        }
+
         try {
-            JsonLogicNode permissionNode = convertToJsonLogicNode(permission);
-            Object evaluated = evaluator.evaluate(permissionNode, context);
+            Object evaluated = evaluator.evaluate(permission.getLogic(), context);
             return JsonLogic.truthy(evaluated);
 
         } catch (EvaluationAbortedException e) {
@@ -56,19 +64,4 @@ public class PermissionProcessor {
         }
         return false;
     }
-
-    private JsonLogicNode convertToJsonLogicNode(Permission permission) throws JsonLogicException, JsonProcessingException {
-        List<JsonLogicNode> result = new ArrayList<>(requirementsProcessor.convertRequirementsToJsonLogic(permission.getRequire()));
-
-        if (permission.getRequireLogic() != null) {
-            String requireLogicJson = mapper.writeValueAsString(permission.getRequireLogic());
-            result.add(JsonLogicParser.parse(requireLogicJson));
-        }
-
-        if (result.isEmpty()) {
-            return new JsonLogicBoolean(true);
-        }
-
-        return JsonLogicNodes.joinWithAnd(result);
-    }
 }
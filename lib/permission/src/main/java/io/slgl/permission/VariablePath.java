@@ -0,0 +1,274 @@
+package io.slgl.permission;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Variable path (e.g. {@code $node.values.$first} or {@code @($node.id_reference).@type}) split into segments once,
+ * so repeated evaluations don't need to scan it again. Parsed paths are shared by all evaluators.
+ * <p>
+ * Segments without function calls are resolved to {@link Key keys} during parsing. Segments with function calls keep
+ * their parts: text and {@link Argument arguments}, which are evaluated on each evaluation.
+ */
+final class VariablePath {
+
+    private static final int MAX_CACHED_PATHS = 10_000;
+    private static final Map<String, VariablePath> CACHE = new ConcurrentHashMap<>();
+
+    private static final VariablePath INVALID = new VariablePath(null, false);
+
+    private final Object[] segments;
+    private final boolean dynamic;
+
+    private VariablePath(Object[] segments, boolean dynamic) {
+        this.segments = segments;
+        this.dynamic = dynamic;
+    }
+
+    static VariablePath parse(String path) {
+        VariablePath cached = CACHE.get(path);
+        if (cached != null) {
+            return cached;
+        }
+
+        VariablePath parsed = new Parser(path).parse();
+        if (CACHE.size() < MAX_CACHED_PATHS) {
+            CACHE.put(path, parsed);
+        }
+        return parsed;
+    }
+
+    /**
+     * Returns false for paths with syntax errors, which are reported on evaluation of the original path.
+     */
+    boolean isValid() {
+        return segments != null;
+    }
+
+    /**
+     * Returns true if some segment contains function call argument which needs evaluation.
+     */
+    boolean isDynamic() {
+        return dynamic;
+    }
+
+    /**
+     * Returns segments, each of them is either {@link Key} or array of parts ({@link String} or {@link Argument}).
+     */
+    Object[] getSegments() {
+        return segments;
+    }
+
+    static final class Key {
+
+        enum Kind {
+            PROPERTY, LENGTH, FIRST, LAST, INDEX
+        }
+
+        private final String name;
+        private final Kind kind;
+        private final int index;
+
+        private Key(String name, Kind kind, int index) {
+            this.name = name;
+            this.kind = kind;
+            this.index = index;
+        }
+
+        static Key of(String name) {
+            switch (name) {
+                case "length":
+                case "$length":
+                    return new Key(name, Kind.LENGTH, -1);
+                case "$first":
+                case "$oldest":
+                    return new Key(name, Kind.FIRST, -1);
+                case "$last":
+                case "$newest":
+                    return new Key(name, Kind.LAST, -1);
+            }
+
+            if (isDigits(name)) {
+                return new Key(name, Kind.INDEX, parseIndex(name));
+            }
+
+            return new Key(name, Kind.PROPERTY, -1);
+        }
+
+        String getName() {
+            return name;
+        }
+
+        Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * Returns index for {@link Kind#INDEX} keys.
+         *
+         * @throws NumberFormatException if index doesn't fit in int
+         */
+        int getIndex() {
+            return index >= 0 ? index : Integer.parseInt(name);
+        }
+
+        private static boolean isDigits(String name) {
+            if (name.isEmpty()) {
+                return false;
+            }
+            for (int i = 0; i < name.length(); i++) {
+                char c = name.charAt(i);
+                if (c < '0' || c > '9') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int parseIndex(String name) {
+            try {
+                return Integer.parseInt(name);
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Function call argument, which is evaluated as variable path unless it is quoted string. Its text is either
+     * known upfront ({@link #getPath()}) or built from parts containing other arguments ({@link #getParts()}).
+     */
+    static final class Argument {
+
+        private final String path;
+        private final Object[] parts;
+
+        private Argument(String path, Object[] parts) {
+            this.path = path;
+            this.parts = parts;
+        }
+
+        String getPath() {
+            return path;
+        }
+
+        Object[] getParts() {
+            return parts;
+        }
+    }
+
+    private static final class Parser {
+
+        private final String path;
+        private int position;
+        private boolean dynamic;
+
+        Parser(String path) {
+            this.path = path;
+        }
+
+        VariablePath parse() {
+            try {
+                List<Object> segments = new ArrayList<>();
+                while (position < path.length()) {
+                    Object[] parts = readUntil('.', false);
+
+                    if (parts.length == 1 && parts[0] instanceof String) {
+                        segments.add(Key.of((String) parts[0]));
+                    } else {
+                        segments.add(parts);
+                    }
+                }
+                return new VariablePath(segments.toArray(), dynamic);
+
+            } catch (SyntaxException e) {
+                return INVALID;
+            }
+        }
+
+        private Object[] readUntil(char endCharacter, boolean requireEnd) {
+            List<Object> parts = new ArrayList<>();
+            StringBuilder text = new StringBuilder();
+            boolean escaped = false;
+
+            while (position < path.length()) {
+                char c = path.charAt(position++);
+
+                if (escaped) {
+                    escaped = false;
+                    text.append(c);
+                    continue;
+                }
+
+                if (c == endCharacter) {
+                    return toParts(parts, text);
+                }
+
+                if (c == '(') {
+                    Object argument = readArgument();
+                    text.append('(');
+                    if (argument instanceof String) {
+                        text.append(argument);
+                    } else {
+                        parts.add(text.toString());
+                        text.setLength(0);
+                        parts.add(argument);
+                    }
+                    text.append(')');
+                } else if (c == '\\') {
+                    escaped = true;
+                } else {
+                    text.append(c);
+                }
+            }
+
+            if (escaped || requireEnd) {
+                throw SyntaxException.INSTANCE;
+            }
+
+            return toParts(parts, text);
+        }
+
+        /**
+         * Returns quoted string argument as {@link String}, other arguments as {@link Argument}.
+         */
+        private Object readArgument() {
+            Object[] parts = readUntil(')', true);
+
+            if (parts.length == 1 && parts[0] instanceof String) {
+                String argument = (String) parts[0];
+
+                if (argument.startsWith("'")) {
+                    if (!argument.endsWith("'")) {
+                        throw SyntaxException.INSTANCE;
+                    }
+                    return argument;
+                }
+
+                dynamic = true;
+                return new Argument(argument, null);
+            }
+
+            dynamic = true;
+            return new Argument(null, parts);
+        }
+
+        private static Object[] toParts(List<Object> parts, StringBuilder text) {
+            if (text.length() > 0 || parts.isEmpty()) {
+                parts.add(text.toString());
+            }
+            return parts.toArray();
+        }
+    }
+
+    private static final class SyntaxException extends RuntimeException {
+
+        private static final SyntaxException INSTANCE = new SyntaxException();
+
+        private SyntaxException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package io.slgl.permission.context;
+
+/**
+ * List which can tell its length without loading its elements.
+ */
+public interface KnownLength {
+
+    int getLength();
+}
@@ -35,8 +35,10 @@ public class ArraySomeExpression extends AbstractArrayExpression {
                     return true;
                 }
             } catch (Throwable e) {
-                logger.log("some_expression_item_exception",
-                        "Evaluation of item in `some` expression thrown exception: " + e.getMessage());
+                if (logger.isEnabled()) {
+                    logger.log("some_expression_item_exception",
+                            "Evaluation of item in `some` expression thrown exception: " + e.getMessage());
+                }
             }
         }
 
@@ -0,0 +1,81 @@
+package io.slgl.template;
+
+import freemarker.cache.StringTemplateLoader;
+import freemarker.template.Configuration;
+import freemarker.template.TemplateException;
+import freemarker.template.Version;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Measures matching of a document against a template with request object values, as done for every document linked
+ * to a type with templates. Compares {@link TemplateMatcher}, which reuses parsed Freemarker template and compiled
+ * pattern, to the previous approach of creating Freemarker configuration, parsing the template and compiling the
+ * pattern for every document.
+ * <p>
+ * Run with {@code ./gradlew :lib:template:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateMatcherBenchmark {
+
+    private static final String TEMPLATE_TEXT = "Service Agreement\n\n" +
+            "This agreement is made between ${provider} and ${client}.\n\n" +
+            "The Provider agrees to:\n" +
+            "  * deliver the services described in Annex 1\n" +
+            "  * report on the progress [#if monthly]every month[#else]every week[/#if]\n" +
+            "  * keep all information of the Client confidential\n\n" +
+            "The agreement is valid until ${valid_until}.\n";
+
+    private final Map<String, Object> requestObject = new HashMap<>();
+    private final Template template = new Template(TEMPLATE_TEXT);
+
+    private String documentText;
+
+    @Setup
+    public void setup() {
+        requestObject.put("provider", "ACME Services Ltd.");
+        requestObject.put("client", "Example Corp.");
+        requestObject.put("monthly", true);
+        requestObject.put("valid_until", "2021-12-31");
+
+        documentText = "Service Agreement\n\nThis agreement is made between ACME Services Ltd. and Example Corp.\n\n" +
+                "The Provider agrees to:\n" +
+                "\u2022 deliver the services described in Annex 1\n" +
+                "\u2022 report on the progress every month\n" +
+                "\u2022 keep all information of the Client confidential\n\n" +
+                "The agreement is valid until 2021-12-31.\n";
+    }
+
+    @Benchmark
+    public boolean matchWithCachedTemplate() {
+        return new TemplateMatcher(template).isMatching(documentText, requestObject);
+    }
+
+    @Benchmark
+    public boolean matchParsingTemplate() throws IOException, TemplateException {
+        Configuration conf = new Configuration(new Version(2, 3, 29));
+        conf.setTagSyntax(Configuration.SQUARE_BRACKET_TAG_SYNTAX);
+        conf.setInterpolationSyntax(Configuration.DOLLAR_INTERPOLATION_SYNTAX);
+
+        StringTemplateLoader stringTemplateLoader = new StringTemplateLoader();
+        stringTemplateLoader.putTemplate("template", TEMPLATE_TEXT);
+        conf.setTemplateLoader(stringTemplateLoader);
+
+        StringWriter rendered = new StringWriter();
+        conf.getTemplate("template").process(requestObject, rendered);
+
+        Pattern pattern = new TemplateCompiler().compilePattern(rendered.toString(), TemplateCompilerConfig.DEFAULT_CONFIG);
+        return pattern.matcher(TextNormalizer.normalize(documentText)).find();
+    }
+}
@@ -0,0 +1,87 @@
+package io.slgl.template;
+
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Freemarker templates parsed with one shared configuration, keyed by hash of template text, so template of a type is
+ * parsed only once for all documents linked to it. Least recently used entries are evicted when cache exceeds its
+ * maximum size.
+ * <p>
+ * Parsed templates are not modified after parsing, so they can be processed by many threads at once.
+ */
+class CompiledTemplateCache {
+
+    static final String TEMPLATE_NAME = "template";
+
+    private static final int DEFAULT_MAX_SIZE = 256;
+
+    private final Configuration configuration;
+    private final Map<String, Template> cache;
+
+    CompiledTemplateCache(Configuration configuration) {
+        this(configuration, DEFAULT_MAX_SIZE);
+    }
+
+    CompiledTemplateCache(Configuration configuration, int maxSize) {
+        this.configuration = configuration;
+        this.cache = new LinkedHashMap<String, Template>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Template> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns template parsed before from the same text, or parses it.
+     *
+     * @throws freemarker.core.ParseException when template text is not a valid template, such text is not cached
+     */
+    Template get(String templateText) throws IOException {
+        String textHash = textHash(templateText);
+
+        synchronized (cache) {
+            Template template = cache.get(textHash);
+            if (template != null) {
+                return template;
+            }
+        }
+
+        Template template = new Template(TEMPLATE_NAME, new StringReader(templateText), configuration);
+
+        synchronized (cache) {
+            cache.put(textHash, template);
+        }
+        return template;
+    }
+
+    int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private static String textHash(String templateText) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(templateText.getBytes(StandardCharsets.UTF_8));
+
+            StringBuilder result = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                result.append(String.format("%02x", b));
+            }
+            return result.toString();
+
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Unable to compute hash of template", e);
+        }
+    }
+}
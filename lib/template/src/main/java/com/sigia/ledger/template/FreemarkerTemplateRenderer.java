@@ -1,6 +1,5 @@
 package io.slgl.template;
 
-import freemarker.cache.StringTemplateLoader;
 import freemarker.core.ParseException;
 import freemarker.template.Configuration;
 import freemarker.template.Template;
@@ -12,6 +11,10 @@ import java.io.Writer;
 
 public class FreemarkerTemplateRenderer {
 
+    // configuration is not changed after creation, so it is safe to share it by all threads
+    private static final Configuration CONFIGURATION = createConfiguration();
+    private static final CompiledTemplateCache TEMPLATE_CACHE = new CompiledTemplateCache(CONFIGURATION);
+
     public void process(String templateText, Object data, Writer output) {
         try {
             getFreemarkerTemplate(templateText).process(data, output);
@@ -27,15 +30,7 @@ public class FreemarkerTemplateRenderer {
     private Template getFreemarkerTemplate(String templateText) {
         Template template;
         try {
-            Configuration conf = new Configuration(new Version(2, 3, 29));
-            conf.setTagSyntax(Configuration.SQUARE_BRACKET_TAG_SYNTAX);
-            conf.setInterpolationSyntax(Configuration.DOLLAR_INTERPOLATION_SYNTAX);
-
-            StringTemplateLoader stringTemplateLoader = new StringTemplateLoader();
-            stringTemplateLoader.putTemplate("template", templateText);
-            conf.setTemplateLoader(stringTemplateLoader);
-
-            template = conf.getTemplate("template");
+            template = TEMPLATE_CACHE.get(templateText);
 
         } catch (ParseException e) {
             throw new io.slgl.template.TemplateException(e.getMessage());
@@ -44,4 +39,11 @@ public class FreemarkerTemplateRenderer {
         }
         return template;
     }
+
+    private static Configuration createConfiguration() {
+        Configuration conf = new Configuration(new Version(2, 3, 29));
+        conf.setTagSyntax(Configuration.SQUARE_BRACKET_TAG_SYNTAX);
+        conf.setInterpolationSyntax(Configuration.DOLLAR_INTERPOLATION_SYNTAX);
+        return conf;
+    }
 }
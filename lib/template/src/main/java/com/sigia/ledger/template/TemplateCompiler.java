@@ -2,7 +2,10 @@ package io.slgl.template;
 
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collector;
@@ -15,11 +18,43 @@ class TemplateCompiler {
     private static final Pattern VERTICAL_WHITESPACE_PATTERN = Pattern.compile("\\v+");
     private static final Pattern LIST_ITEM_PATTERN = Pattern.compile("\\h*\\*\\h+(.*)");
 
+    private static final int MAX_CACHED_PATTERNS = 256;
+
+    // compiled patterns are immutable, so they are shared by all compilers and threads
+    private static final Map<PatternKey, Pattern> PATTERN_CACHE = new LinkedHashMap<PatternKey, Pattern>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<PatternKey, Pattern> eldest) {
+            return size() > MAX_CACHED_PATTERNS;
+        }
+    };
+
     public Pattern compile(String templateText) {
         return compile(templateText, TemplateCompilerConfig.DEFAULT_CONFIG);
     }
 
+    /**
+     * Returns pattern compiled before from the same rendered template text and config, or compiles it. Least recently
+     * used patterns are evicted when more than {@value #MAX_CACHED_PATTERNS} of them are cached.
+     */
     public Pattern compile(String templateText, TemplateCompilerConfig config) {
+        PatternKey key = new PatternKey(templateText, config.getUnorderedListMarkerPattern());
+
+        synchronized (PATTERN_CACHE) {
+            Pattern pattern = PATTERN_CACHE.get(key);
+            if (pattern != null) {
+                return pattern;
+            }
+        }
+
+        Pattern pattern = compilePattern(templateText, config);
+
+        synchronized (PATTERN_CACHE) {
+            PATTERN_CACHE.put(key, pattern);
+        }
+        return pattern;
+    }
+
+    Pattern compilePattern(String templateText, TemplateCompilerConfig config) {
         String regex = readElements(templateText)
                 .stream()
                 .map(textElement -> textElement.toRegex(config))
@@ -62,6 +97,34 @@ class TemplateCompiler {
         return unmodifiableList(results);
     }
 
+    private static class PatternKey {
+        private final String templateText;
+        private final String unorderedListMarkerPattern;
+
+        PatternKey(String templateText, String unorderedListMarkerPattern) {
+            this.templateText = templateText;
+            this.unorderedListMarkerPattern = unorderedListMarkerPattern;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            PatternKey that = (PatternKey) o;
+            return templateText.equals(that.templateText)
+                    && unorderedListMarkerPattern.equals(that.unorderedListMarkerPattern);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(templateText, unorderedListMarkerPattern);
+        }
+    }
+
     interface TextElement {
 
         String toRegex(TemplateCompilerConfig template);
@@ -1,8 +1,11 @@
 package io.slgl.template;
 
 import java.io.StringWriter;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class TemplateMatcher {
 
@@ -28,6 +31,50 @@ public class TemplateMatcher {
         }
     }
 
+    /**
+     * Matches text of document given as texts of its pages, which joined with a blank line make the whole text. Pages
+     * are read only until the result is known, so when the template matches text of the first pages, the remaining
+     * pages are not read at all. Result is the same as of matching the whole text.
+     * <p>
+     * Text of pages read so far is matched after 1, 2, 4, 8... pages, so that the text is matched at most twice as many
+     * times as it would be matched once after all pages. Matching text of first pages is enough when template matches
+     * it without reaching its end, as text of the following pages is only appended after a blank line, which doesn't
+     * change normalization of preceding text.
+     */
+    public boolean isMatching(Iterable<String> documentPages, Map<String, ?> requestObject) {
+        try {
+            String renderedTemplate = renderTemplate(requestObject);
+            Pattern pattern = templateCompiler.compile(renderedTemplate, new TemplateCompilerConfig(template));
+
+            StringBuilder documentText = new StringBuilder();
+            int pagesRead = 0;
+            int nextMatchAfterPages = 1;
+
+            Iterator<String> pages = documentPages.iterator();
+            while (pages.hasNext()) {
+                if (documentText.length() > 0) {
+                    documentText.append("\n\n");
+                }
+                documentText.append(pages.next());
+                pagesRead++;
+
+                if (pagesRead == nextMatchAfterPages && pages.hasNext()) {
+                    Matcher matcher = pattern.matcher(TextNormalizer.normalize(documentText.toString()));
+                    if (matcher.find() && !matcher.requireEnd()) {
+                        return true;
+                    }
+                    nextMatchAfterPages *= 2;
+                }
+            }
+
+            String normalizedText = TextNormalizer.normalize(documentText.toString());
+            return pattern.matcher(normalizedText).find();
+
+        } catch (NoAllKeysAccessedException e) {
+            return false;
+        }
+    }
+
     public String renderTemplate(Map<String, ?> context) throws NoAllKeysAccessedException {
 
         AccessCheckingMap dataModel = new AccessCheckingMap(context)
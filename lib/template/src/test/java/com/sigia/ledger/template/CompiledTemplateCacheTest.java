@@ -0,0 +1,58 @@
+package io.slgl.template;
+
+import freemarker.core.ParseException;
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import freemarker.template.Version;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CompiledTemplateCacheTest {
+
+    private final Configuration configuration = new Configuration(new Version(2, 3, 29));
+
+    @Test
+    public void shouldParseSameTemplateTextOnce() throws IOException {
+        // given
+        CompiledTemplateCache cache = new CompiledTemplateCache(configuration);
+        Template first = cache.get("Hello ${name}");
+
+        // when
+        Template second = cache.get("Hello ${name}");
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedTemplate() throws IOException {
+        // given
+        CompiledTemplateCache cache = new CompiledTemplateCache(configuration, 2);
+        Template first = cache.get("first");
+        cache.get("second");
+        cache.get("first");
+
+        // when
+        cache.get("third");
+
+        // then
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("first")).isSameAs(first);
+    }
+
+    @Test
+    public void shouldNotCacheInvalidTemplate() {
+        // given
+        CompiledTemplateCache cache = new CompiledTemplateCache(configuration);
+
+        // expect
+        assertThatThrownBy(() -> cache.get("Hello ${name"))
+                .isInstanceOf(ParseException.class);
+        assertThat(cache.size()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,20 @@
+package io.slgl.template;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TemplateCompilerTest {
+
+    @Test
+    public void shouldReuseCompiledPatternForSameTextAndConfig() {
+        // given
+        TemplateCompilerConfig config = new TemplateCompilerConfig(new Template("text", "#"));
+
+        // expect
+        assertThat(new TemplateCompiler().compile("* item", config))
+                .isSameAs(new TemplateCompiler().compile("* item", config));
+        assertThat(new TemplateCompiler().compile("* item", config))
+                .isNotSameAs(new TemplateCompiler().compile("* item"));
+    }
+}
@@ -1,12 +1,18 @@
 package io.slgl.template;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.stream.Stream;
 
 import static java.util.Collections.emptyMap;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
 public class TemplateMatcherTest {
@@ -44,4 +50,50 @@ public class TemplateMatcherTest {
                 .isTrue();
     }
 
+    @ParameterizedTest
+    @MethodSource("testCases")
+    void shouldMatchSameTextGivenAsPages(Template template, String text) {
+        List<String> pages = Arrays.asList(text.split(" ", 3));
+        assertThat(new TemplateMatcher(template).isMatching(pages, emptyMap()))
+                .as("Template %s should match pages %s", template.getText(), pages)
+                .isTrue();
+    }
+
+    @Test
+    void shouldStopReadingPagesWhenTemplateMatched() {
+        // given
+        TemplateMatcher matcher = new TemplateMatcher(new Template("Agreement\n\nThe Parties agree"));
+        List<String> texts = Arrays.asList("Agreement", "The Parties agree", "Page 3", "Page 4", "Page 5", "Page 6");
+        List<String> readPages = new ArrayList<>();
+        List<String> pages = new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                readPages.add(texts.get(index));
+                return texts.get(index);
+            }
+
+            @Override
+            public int size() {
+                return texts.size();
+            }
+        };
+
+        // when
+        boolean matching = matcher.isMatching(pages, emptyMap());
+
+        // then
+        assertThat(matching).isTrue();
+        assertThat(readPages).containsExactly("Agreement", "The Parties agree");
+    }
+
+    @Test
+    void shouldNotMatchPagesWhenTemplateSpansBeyondLastPage() {
+        // given
+        TemplateMatcher matcher = new TemplateMatcher(new Template("Page 2\n\nPage 3"));
+        List<String> pages = Arrays.asList("Page 1", "Page 2");
+
+        // expect
+        assertThat(matcher.isMatching(pages, emptyMap())).isFalse();
+        assertThat(matcher.isMatching(String.join("\n\n", pages), emptyMap())).isFalse();
+    }
 }